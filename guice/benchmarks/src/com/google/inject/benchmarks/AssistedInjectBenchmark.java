@@ -0,0 +1,80 @@
+/**
+ * Copyright (C) 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.inject.benchmarks;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+import com.google.inject.Inject;
+import com.google.inject.Stage;
+import com.google.inject.assistedinject.Assisted;
+import com.google.inject.assistedinject.FactoryModuleBuilder;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures creating objects through a factory built by {@link FactoryModuleBuilder}, which combines
+ * assisted parameters with injected dependencies.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(2)
+public class AssistedInjectBenchmark {
+
+  private PaymentFactory factory;
+  private int amount;
+
+  @Setup public void setUp() {
+    factory = Guice.createInjector(Stage.PRODUCTION, new AbstractModule() {
+      @Override protected void configure() {
+        install(new FactoryModuleBuilder()
+            .implement(Payment.class, RealPayment.class)
+            .build(PaymentFactory.class));
+      }
+    }).getInstance(PaymentFactory.class);
+  }
+
+  @Benchmark public Payment create() {
+    return factory.create(amount++, "USD");
+  }
+
+  interface PaymentFactory {
+    Payment create(int amount, String currency);
+  }
+
+  interface Payment {}
+
+  static class RealPayment implements Payment {
+    @Inject RealPayment(CreditService creditService, @Assisted int amount,
+        @Assisted String currency) {}
+  }
+
+  static class CreditService {}
+}
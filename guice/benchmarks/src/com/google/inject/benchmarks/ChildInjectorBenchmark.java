@@ -0,0 +1,108 @@
+/**
+ * Copyright (C) 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.google.inject.benchmarks;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.Key;
+import com.google.inject.Provider;
+import com.google.inject.util.InstanceModule;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures creating a child injector for each request, that binds the request and a provider of
+ * its user on top of an application injector. {@link #regularModule} binds them with a regular
+ * module, {@link #instanceModule} with an {@link InstanceModule}, which skips recording and
+ * validating the module. Both create the child and get the user of the request from it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(2)
+public class ChildInjectorBenchmark {
+
+  private Injector parent;
+  private int requestCount;
+
+  @Setup public void setUp() {
+    parent = Guice.createInjector();
+  }
+
+  @Benchmark public User regularModule() {
+    final Request request = new Request(requestCount++);
+    Injector child = parent.createChildInjector(new AbstractModule() {
+      @Override protected void configure() {
+        bind(Request.class).toInstance(request);
+        bind(User.class).toProvider(new UserProvider(request));
+      }
+    });
+    return child.getInstance(User.class);
+  }
+
+  @Benchmark public User instanceModule() {
+    Request request = new Request(requestCount++);
+    Injector child = parent.createChildInjector(InstanceModule.builder()
+        .bind(Request.class, request)
+        .bindProvider(Key.get(User.class), new UserProvider(request))
+        .build());
+    return child.getInstance(User.class);
+  }
+
+  static class Request {
+    final int id;
+
+    Request(int id) {
+      this.id = id;
+    }
+  }
+
+  static class User {
+    final String name;
+
+    User(String name) {
+      this.name = name;
+    }
+  }
+
+  static class UserProvider implements Provider<User> {
+    private final Request request;
+
+    UserProvider(Request request) {
+      this.request = request;
+    }
+
+    public User get() {
+      return new User("user" + request.id);
+    }
+  }
+}
@@ -0,0 +1,112 @@
+/**
+ * Copyright (C) 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.inject.benchmarks;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.Key;
+import com.google.inject.Stage;
+
+import android.app.Application;
+import android.content.ContextWrapper;
+
+import org.objenesis.ObjenesisStd;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import roboguice.inject.ContextScope;
+import roboguice.inject.ContextSingleton;
+import roboguice.util.RoboContext;
+
+/**
+ * Measures entering and exiting RoboGuice's {@link ContextScope}, which every injection into an
+ * activity or service does, and getting a {@link ContextSingleton} inside the scope.
+ *
+ * <p>This runs on the JVM against the android stubs, whose constructors throw, so the application
+ * and the context are instantiated without calling their constructors.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(2)
+public class ContextScopeBenchmark {
+
+  private ContextScope scope;
+  private BenchmarkContext context;
+  private Injector injector;
+
+  @Setup public void setUp() {
+    ObjenesisStd objenesis = new ObjenesisStd();
+    scope = new ContextScope((Application) objenesis.newInstance(BenchmarkApplication.class));
+    context = (BenchmarkContext) objenesis.newInstance(BenchmarkContext.class);
+    injector = Guice.createInjector(Stage.PRODUCTION, new AbstractModule() {
+      @Override protected void configure() {
+        bindScope(ContextSingleton.class, scope);
+        bind(ContextService.class).in(ContextSingleton.class);
+      }
+    });
+  }
+
+  @Benchmark public void enterExit() {
+    scope.enter(context);
+    scope.exit(context);
+  }
+
+  @Benchmark public Object enterGetExit() {
+    scope.enter(context);
+    try {
+      return injector.getInstance(ContextService.class);
+    } finally {
+      scope.exit(context);
+    }
+  }
+
+  static class BenchmarkApplication extends Application {}
+
+  static class BenchmarkContext extends ContextWrapper implements RoboContext {
+    // not initialized by a constructor, see setUp()
+    private Map<Key<?>, Object> scopedObjects;
+
+    BenchmarkContext() {
+      super(null);
+    }
+
+    public Map<Key<?>, Object> getScopedObjectMap() {
+      if (scopedObjects == null) {
+        scopedObjects = new HashMap<Key<?>, Object>();
+      }
+      return scopedObjects;
+    }
+  }
+
+  static class ContextService {}
+}
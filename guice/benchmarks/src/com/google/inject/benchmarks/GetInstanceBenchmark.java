@@ -0,0 +1,189 @@
+/**
+ * Copyright (C) 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.inject.benchmarks;
+
+import static com.google.inject.matcher.Matchers.annotatedWith;
+import static com.google.inject.matcher.Matchers.any;
+
+import com.google.common.collect.Maps;
+import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+import com.google.inject.Inject;
+import com.google.inject.Injector;
+import com.google.inject.Key;
+import com.google.inject.Provider;
+import com.google.inject.Provides;
+import com.google.inject.ScopeAnnotation;
+import com.google.inject.Singleton;
+import com.google.inject.Stage;
+import com.google.inject.name.Named;
+import com.google.inject.name.Names;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link Injector#getInstance} once the injector is created, for each kind of binding.
+ * Unscoped bindings construct a small graph of three objects, so that the cost of resolving
+ * dependencies is included.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(2)
+public class GetInstanceBenchmark {
+
+  private Injector injector;
+  private Provider<Service> explicitProvider;
+  private Intercepted intercepted;
+
+  @Setup public void setUp() {
+    injector = Guice.createInjector(Stage.PRODUCTION, new AbstractModule() {
+      @Override protected void configure() {
+        bindScope(CustomScoped.class, new MapScope());
+        bind(Service.class).to(ServiceImpl.class);
+        bind(SingletonService.class).in(Singleton.class);
+        bind(ScopedService.class).in(CustomScoped.class);
+        bind(Intercepted.class);
+        bindInterceptor(any(), annotatedWith(Traced.class),
+            new PassThroughInterceptor(), new PassThroughInterceptor(),
+            new PassThroughInterceptor());
+      }
+
+      @Provides @Named("provided") Service provideService(Dependency dependency) {
+        return new ServiceImpl(dependency);
+      }
+    });
+    explicitProvider = injector.getProvider(Service.class);
+    intercepted = injector.getInstance(Intercepted.class);
+  }
+
+  @Benchmark public Object justInTime() {
+    return injector.getInstance(JustInTimeService.class);
+  }
+
+  @Benchmark public Object explicit() {
+    return injector.getInstance(Service.class);
+  }
+
+  @Benchmark public Object explicitProvider() {
+    return explicitProvider.get();
+  }
+
+  @Benchmark public Object singleton() {
+    return injector.getInstance(SingletonService.class);
+  }
+
+  @Benchmark public Object scoped() {
+    return injector.getInstance(ScopedService.class);
+  }
+
+  @Benchmark public Object providerMethod() {
+    return injector.getInstance(Key.get(Service.class, Names.named("provided")));
+  }
+
+  @Benchmark public Object interceptorChain() {
+    return intercepted.call();
+  }
+
+  @Benchmark public Object interceptedInstance() {
+    return injector.getInstance(Intercepted.class);
+  }
+
+  @Retention(RetentionPolicy.RUNTIME)
+  @Target({ElementType.TYPE, ElementType.METHOD})
+  @ScopeAnnotation
+  @interface CustomScoped {}
+
+  @Retention(RetentionPolicy.RUNTIME)
+  @Target(ElementType.METHOD)
+  @interface Traced {}
+
+  /** A scope that keeps one instance per key, without the locking of {@link Singleton}. */
+  static class MapScope implements com.google.inject.Scope {
+    private final Map<Key<?>, Object> instances = Maps.newHashMap();
+
+    public <T> Provider<T> scope(final Key<T> key, final Provider<T> unscoped) {
+      return new Provider<T>() {
+        public T get() {
+          @SuppressWarnings("unchecked")
+          T instance = (T) instances.get(key);
+          if (instance == null) {
+            instance = unscoped.get();
+            instances.put(key, instance);
+          }
+          return instance;
+        }
+      };
+    }
+  }
+
+  static class PassThroughInterceptor implements MethodInterceptor {
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+      return invocation.proceed();
+    }
+  }
+
+  interface Service {}
+
+  static class Dependency {
+    @Inject Dependency(Leaf leaf) {}
+  }
+
+  static class Leaf {}
+
+  static class ServiceImpl implements Service {
+    @Inject ServiceImpl(Dependency dependency) {}
+  }
+
+  static class JustInTimeService {
+    @Inject JustInTimeService(Dependency dependency) {}
+  }
+
+  static class SingletonService {
+    @Inject SingletonService(Dependency dependency) {}
+  }
+
+  static class ScopedService {
+    @Inject ScopedService(Dependency dependency) {}
+  }
+
+  static class Intercepted {
+    @Traced Object call() {
+      return this;
+    }
+  }
+}
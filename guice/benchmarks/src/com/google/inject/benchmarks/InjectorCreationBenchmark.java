@@ -0,0 +1,141 @@
+/**
+ * Copyright (C) 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.inject.benchmarks;
+
+import com.google.common.collect.Lists;
+import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+import com.google.inject.Inject;
+import com.google.inject.Injector;
+import com.google.inject.Module;
+import com.google.inject.Provider;
+import com.google.inject.Provides;
+import com.google.inject.Singleton;
+import com.google.inject.Stage;
+import com.google.inject.name.Named;
+import com.google.inject.name.Names;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link Guice#createInjector}, for small and large sets of modules. The modules make
+ * instance, linked, provider, constructor and provider method bindings, so that every kind of
+ * binding processor and validation step is exercised.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(2)
+public class InjectorCreationBenchmark {
+
+  @Param({"1", "10", "100"})
+  int moduleCount;
+
+  @Param({"DEVELOPMENT", "PRODUCTION"})
+  Stage stage;
+
+  /** Whether the modules call {@link com.google.inject.Binder#deferValidation}. */
+  @Param({"false", "true"})
+  boolean deferValidation;
+
+  private List<Module> modules;
+
+  @Setup public void setUp() {
+    modules = Lists.<Module>newArrayList(new ProvidesModule());
+    for (int i = 0; i < moduleCount; i++) {
+      modules.add(new ServiceModule(i, deferValidation));
+    }
+  }
+
+  @Benchmark public Injector createInjector() {
+    return Guice.createInjector(stage, modules);
+  }
+
+  static class ServiceModule extends AbstractModule {
+    private final int index;
+    private final boolean deferValidation;
+
+    ServiceModule(int index, boolean deferValidation) {
+      this.index = index;
+      this.deferValidation = deferValidation;
+    }
+
+    @Override protected void configure() {
+      if (deferValidation) {
+        binder().deferValidation();
+      }
+      String prefix = "module" + index;
+      bindConstant().annotatedWith(Names.named(prefix)).to(prefix);
+      for (int i = 0; i < 5; i++) {
+        bind(String.class).annotatedWith(Names.named(prefix + ".instance" + i))
+            .toInstance(prefix + i);
+        bind(Service.class).annotatedWith(Names.named(prefix + ".linked" + i))
+            .to(ServiceImpl.class);
+      }
+      bind(Service.class).annotatedWith(Names.named(prefix + ".singleton"))
+          .to(ServiceImpl.class).in(Singleton.class);
+      bind(Service.class).annotatedWith(Names.named(prefix + ".provider"))
+          .toProvider(ServiceProvider.class);
+    }
+
+  }
+
+  static class ProvidesModule extends AbstractModule {
+    @Override protected void configure() {}
+
+    @Provides @Named("provided") Service provideService(ServiceImpl service) {
+      return service;
+    }
+
+    @Provides @Singleton Dependency provideDependency() {
+      return new Dependency();
+    }
+  }
+
+  interface Service {}
+
+  static class ServiceImpl implements Service {
+    @Inject ServiceImpl(Dependency dependency) {}
+  }
+
+  static class ServiceProvider implements Provider<Service> {
+    @Inject Dependency dependency;
+
+    public Service get() {
+      return new ServiceImpl(dependency);
+    }
+  }
+
+  static class Dependency {
+    @Inject Dependency() {}
+  }
+}
@@ -0,0 +1,88 @@
+/**
+ * Copyright (C) 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.inject.benchmarks;
+
+import com.google.common.collect.Maps;
+import com.google.inject.Key;
+import com.google.inject.TypeLiteral;
+import com.google.inject.util.Types;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures creating keys, and looking them up in a map of bindings as the injector does. The
+ * unannotated keys of classes are interned, and so are the type literals of generic types, so that
+ * equal keys are mostly compared by identity.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(2)
+public class KeyBenchmark {
+
+  private final TypeLiteral<List<Foo>> listOfFoo = new TypeLiteral<List<Foo>>() {};
+  private final Type mapOfFoo = Types.mapOf(String.class, Types.listOf(Foo.class));
+  private final Map<Key<?>, Object> bindings = Maps.newHashMap();
+
+  @Setup public void setUp() {
+    bindings.put(Key.get(Foo.class), new Foo());
+    bindings.put(Key.get(listOfFoo), new Foo());
+    bindings.put(Key.get(mapOfFoo), new Foo());
+  }
+
+  @Benchmark public Object getClassKey() {
+    return Key.get(Foo.class);
+  }
+
+  @Benchmark public Object getTypeLiteralKey() {
+    return Key.get(listOfFoo);
+  }
+
+  @Benchmark public Object getTypeKey() {
+    return Key.get(mapOfFoo);
+  }
+
+  @Benchmark public Object lookUpClassKey() {
+    return bindings.get(Key.get(Foo.class));
+  }
+
+  @Benchmark public Object lookUpTypeLiteralKey() {
+    return bindings.get(Key.get(listOfFoo));
+  }
+
+  @Benchmark public Object lookUpTypeKey() {
+    return bindings.get(Key.get(mapOfFoo));
+  }
+
+  static class Foo {}
+}
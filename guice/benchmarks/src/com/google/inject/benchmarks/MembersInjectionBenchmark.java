@@ -0,0 +1,188 @@
+/**
+ * Copyright (C) 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.inject.benchmarks;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.inject.Guice;
+import com.google.inject.HierarchyTraversalFilter;
+import com.google.inject.HierarchyTraversalFilterFactory;
+import com.google.inject.Inject;
+import com.google.inject.Injector;
+import com.google.inject.MembersInjector;
+import com.google.inject.spi.InjectionPoint;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures finding the injection points of a deep class hierarchy and injecting its members, with
+ * the default {@link HierarchyTraversalFilter}, with a filter that skips framework superclasses,
+ * and with the annotation database generated for this package by the annotation processor.
+ *
+ * <p>The filter in use is a process wide setting, and each thread creates its own filter the first
+ * time it looks for injection points, so the state is set up by the benchmark thread itself.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(2)
+public class MembersInjectionBenchmark {
+
+  public enum Filter {
+    DEFAULT {
+      @Override void install() {}
+    },
+    FRAMEWORK_CLASSES_SKIPPED {
+      @Override void install() {
+        Guice.setHierarchyTraversalFilterFactory(new HierarchyTraversalFilterFactory() {
+          @Override public HierarchyTraversalFilter createHierarchyTraversalFilter() {
+            return new FrameworkClassesFilter();
+          }
+        });
+      }
+    },
+    ANNOTATION_DATABASE {
+      @Override void install() {
+        Guice.setAnnotationDatabasePackageNames(
+            new String[] {MembersInjectionBenchmark.class.getPackage().getName()});
+      }
+    };
+
+    abstract void install();
+  }
+
+  @Param
+  Filter filter;
+
+  private Injector injector;
+  private MembersInjector<Activity> membersInjector;
+
+  @Setup public void setUp() {
+    filter.install();
+    injector = Guice.createInjector();
+    membersInjector = injector.getMembersInjector(Activity.class);
+  }
+
+  @TearDown public void tearDown() {
+    Guice.setHierarchyTraversalFilterFactory(new HierarchyTraversalFilterFactory());
+    Guice.setAnnotationDatabasePackageNames(null);
+  }
+
+  @Benchmark public Set<InjectionPoint> findInjectionPoints() {
+    return InjectionPoint.forInstanceMethodsAndFields(Activity.class);
+  }
+
+  @Benchmark public Activity injectMembers() {
+    Activity activity = new Activity();
+    membersInjector.injectMembers(activity);
+    return activity;
+  }
+
+  @Benchmark public Activity getInstance() {
+    return injector.getInstance(Activity.class);
+  }
+
+  /** Skips the superclasses that, like those of an application framework, have no injections. */
+  static class FrameworkClassesFilter extends HierarchyTraversalFilter {
+    private static final Set<Class<?>> FRAMEWORK_CLASSES = ImmutableSet.<Class<?>>of(
+        FrameworkComponent.class, FrameworkContext.class, FrameworkContextWrapper.class);
+
+    @Override public boolean isWorthScanning(Class<?> c) {
+      return super.isWorthScanning(c) && !FRAMEWORK_CLASSES.contains(c);
+    }
+  }
+
+  // A hierarchy shaped like an Android activity: framework superclasses with many members and no
+  // injections, below application classes with a few injected fields and methods.
+
+  static class FrameworkComponent {
+    int a, b, c, d, e, f, g, h;
+    void a() {}
+    void b() {}
+    void c() {}
+    void d() {}
+    void e() {}
+    void f() {}
+    void g() {}
+    void h() {}
+  }
+
+  static class FrameworkContext extends FrameworkComponent {
+    Object i, j, k, l, m, n, o, p;
+    void i() {}
+    void j() {}
+    void k() {}
+    void l() {}
+    void m() {}
+    void n() {}
+    void o() {}
+    void p() {}
+  }
+
+  static class FrameworkContextWrapper extends FrameworkContext {
+    String q, r, s, t, u, v, w, x;
+    void q() {}
+    void r() {}
+    void s() {}
+    void t() {}
+    void u() {}
+    void v() {}
+    void w() {}
+    void x() {}
+  }
+
+  static class BaseActivity extends FrameworkContextWrapper {
+    @Inject Service service;
+    @Inject Repository repository;
+    Object state;
+
+    @Inject void setTracker(Tracker tracker) {}
+
+    void onCreate() {}
+  }
+
+  static class Activity extends BaseActivity {
+    @Inject Repository otherRepository;
+    @Inject Tracker tracker;
+    Object view;
+
+    @Inject void setService(Service service) {}
+
+    @Override void onCreate() {}
+  }
+
+  static class Service {}
+
+  static class Repository {}
+
+  static class Tracker {}
+}
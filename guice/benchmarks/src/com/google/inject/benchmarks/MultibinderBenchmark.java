@@ -0,0 +1,112 @@
+/**
+ * Copyright (C) 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.inject.benchmarks;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.Key;
+import com.google.inject.Provider;
+import com.google.inject.Stage;
+import com.google.inject.TypeLiteral;
+import com.google.inject.multibindings.MapBinder;
+import com.google.inject.multibindings.Multibinder;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures provisioning the set of a {@link Multibinder} and the map of a {@link MapBinder}, and
+ * creating an injector with these bindings.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(2)
+public class MultibinderBenchmark {
+  private static final Key<Set<Plugin>> SET_KEY = Key.get(new TypeLiteral<Set<Plugin>>() {});
+  private static final Key<Map<String, Plugin>> MAP_KEY =
+      Key.get(new TypeLiteral<Map<String, Plugin>>() {});
+
+  @Param({"5", "50"})
+  int elementCount;
+
+  private AbstractModule module;
+  private Provider<Set<Plugin>> setProvider;
+  private Provider<Map<String, Plugin>> mapProvider;
+
+  @Setup public void setUp() {
+    module = new AbstractModule() {
+      @Override protected void configure() {
+        Multibinder<Plugin> setBinder = Multibinder.newSetBinder(binder(), Plugin.class);
+        MapBinder<String, Plugin> mapBinder =
+            MapBinder.newMapBinder(binder(), String.class, Plugin.class);
+        for (int i = 0; i < elementCount; i++) {
+          Plugin plugin = new Plugin(i);
+          setBinder.addBinding().toInstance(plugin);
+          mapBinder.addBinding("plugin" + i).toInstance(plugin);
+        }
+      }
+    };
+    Injector injector = Guice.createInjector(Stage.PRODUCTION, module);
+    setProvider = injector.getProvider(SET_KEY);
+    mapProvider = injector.getProvider(MAP_KEY);
+  }
+
+  @Benchmark public Set<Plugin> set() {
+    return setProvider.get();
+  }
+
+  @Benchmark public Map<String, Plugin> map() {
+    return mapProvider.get();
+  }
+
+  @Benchmark public Injector createInjector() {
+    return Guice.createInjector(Stage.PRODUCTION, module);
+  }
+
+  static class Plugin {
+    private final int index;
+
+    Plugin(int index) {
+      this.index = index;
+    }
+
+    @Override public boolean equals(Object o) {
+      return o instanceof Plugin && ((Plugin) o).index == index;
+    }
+
+    @Override public int hashCode() {
+      return index;
+    }
+  }
+}
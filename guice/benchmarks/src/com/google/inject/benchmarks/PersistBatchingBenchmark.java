@@ -0,0 +1,176 @@
+/**
+ * Copyright (C) 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.inject.benchmarks;
+
+import com.google.inject.Guice;
+import com.google.inject.Inject;
+import com.google.inject.Injector;
+import com.google.inject.Provider;
+import com.google.inject.Stage;
+import com.google.inject.persist.BatchingUnitOfWork;
+import com.google.inject.persist.PersistService;
+import com.google.inject.persist.Transactional;
+import com.google.inject.persist.jpa.JpaPersistModule;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.persistence.Entity;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+
+/**
+ * Measures the throughput, in records per second, of importing records with one
+ * {@link Transactional} call each into an in-memory HSQLDB database, committing every call
+ * against committing every {@code batchSize} calls in a {@link BatchingUnitOfWork}. The
+ * persistence unit batches JDBC statements by {@value #JDBC_BATCH_SIZE}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(2)
+public class PersistBatchingBenchmark {
+
+  /** The number of records imported by each benchmark invocation. */
+  static final int RECORDS = 1000;
+
+  /** The {@code hibernate.jdbc.batch_size} of the benchmark persistence unit. */
+  static final int JDBC_BATCH_SIZE = 50;
+
+  private Injector injector;
+  private BatchingUnitOfWork unitOfWork;
+  private Importer importer;
+
+  @Setup public void setUp() {
+    injector = Guice.createInjector(Stage.PRODUCTION, new JpaPersistModule("benchmarkUnit"));
+    injector.getInstance(PersistService.class).start();
+    unitOfWork = injector.getInstance(BatchingUnitOfWork.class);
+    importer = injector.getInstance(Importer.class);
+  }
+
+  /** Keeps the table from growing across iterations. */
+  @Setup(Level.Iteration) public void deleteRecords() {
+    unitOfWork.begin();
+    try {
+      importer.deleteAll();
+    } finally {
+      unitOfWork.end();
+    }
+  }
+
+  @TearDown public void tearDown() {
+    injector.getInstance(EntityManagerFactory.class).close();
+  }
+
+  @Benchmark @OperationsPerInvocation(RECORDS)
+  public void commitEveryRecord() {
+    unitOfWork.begin();
+    try {
+      importRecords();
+    } finally {
+      unitOfWork.end();
+    }
+  }
+
+  @Benchmark @OperationsPerInvocation(RECORDS)
+  public void commitEveryBatch(Batch batch) {
+    unitOfWork.beginBatch(batch.batchSize);
+    try {
+      importRecords();
+    } finally {
+      unitOfWork.end();
+    }
+  }
+
+  private void importRecords() {
+    for (int i = 0; i < RECORDS; i++) {
+      importer.importRecord("record " + i);
+    }
+  }
+
+  /** The batch size is a separate state so that it only multiplies the batched runs. */
+  @State(Scope.Benchmark)
+  public static class Batch {
+    @Param({"10", "100", "1000"})
+    int batchSize;
+  }
+
+  public static class Importer {
+    private final Provider<EntityManager> entityManager;
+
+    @Inject Importer(Provider<EntityManager> entityManager) {
+      this.entityManager = entityManager;
+    }
+
+    @Transactional public void importRecord(String text) {
+      entityManager.get().persist(new BenchmarkRecord(text));
+    }
+
+    @Transactional public void deleteAll() {
+      entityManager.get().createQuery("delete from BenchmarkRecord").executeUpdate();
+    }
+  }
+
+  /** Uses a sequence rather than an identity column, which would turn off JDBC batching. */
+  @Entity(name = "BenchmarkRecord")
+  public static class BenchmarkRecord {
+    private Long id;
+    private String text;
+
+    public BenchmarkRecord() {}
+
+    BenchmarkRecord(String text) {
+      this.text = text;
+    }
+
+    @Id @GeneratedValue(strategy = GenerationType.SEQUENCE)
+    public Long getId() {
+      return id;
+    }
+
+    public void setId(Long id) {
+      this.id = id;
+    }
+
+    public String getText() {
+      return text;
+    }
+
+    public void setText(String text) {
+      this.text = text;
+    }
+  }
+}
@@ -0,0 +1,90 @@
+/**
+ * Copyright (C) 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.google.inject.benchmarks;
+
+import com.google.inject.Guice;
+import com.google.inject.Inject;
+import com.google.inject.Injector;
+import com.google.inject.Provider;
+import com.google.inject.Singleton;
+import com.google.inject.spi.ProvisionTrace;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures what a {@link ProvisionTrace} costs {@link Injector#getInstance}, for a small graph of
+ * unscoped and singleton dependencies. With {@code traced} false no trace is started, which should
+ * cost the same as before traces existed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(2)
+public class ProvisionTraceBenchmark {
+
+  @Param({"false", "true"})
+  boolean traced;
+
+  private Provider<Handler> handlerProvider;
+  private ProvisionTrace trace;
+
+  @Setup public void setUp() {
+    handlerProvider = Guice.createInjector().getProvider(Handler.class);
+    if (traced) {
+      trace = ProvisionTrace.start();
+    }
+  }
+
+  @TearDown public void tearDown() {
+    if (trace != null) {
+      trace.stop();
+    }
+  }
+
+  @Benchmark public Handler getInstance() {
+    return handlerProvider.get();
+  }
+
+  static class Request {
+    @Inject Request() {}
+  }
+
+  @Singleton
+  static class Service {
+    @Inject Service(Request request) {}
+  }
+
+  static class Handler {
+    @Inject Handler(Request request, Service service) {}
+  }
+}
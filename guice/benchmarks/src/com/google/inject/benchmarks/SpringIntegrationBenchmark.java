@@ -0,0 +1,118 @@
+/**
+ * Copyright (C) 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.inject.benchmarks;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.Key;
+import com.google.inject.Provider;
+import com.google.inject.Stage;
+import com.google.inject.name.Names;
+import com.google.inject.spring.SpringIntegration;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures getting Spring beans through the providers bound by {@link SpringIntegration}, by
+ * name and by type, against looking them up from the bean factory directly.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(2)
+public class SpringIntegrationBenchmark {
+
+  /** The number of other beans in the factory. */
+  @Param({"10", "1000"})
+  int beanCount;
+
+  private DefaultListableBeanFactory beanFactory;
+  private Provider<SingletonBean> singletonByName;
+  private Provider<SingletonBean> singletonByType;
+  private Provider<PrototypeBean> prototypeByName;
+  private Provider<PrototypeBean> prototypeByType;
+
+  @Setup public void setUp() {
+    beanFactory = new DefaultListableBeanFactory();
+    beanFactory.registerBeanDefinition("singleton", new RootBeanDefinition(SingletonBean.class));
+    beanFactory.registerBeanDefinition("prototype",
+        new RootBeanDefinition(PrototypeBean.class, false));
+    for (int i = 0; i < beanCount; i++) {
+      beanFactory.registerBeanDefinition("other" + i,
+          new RootBeanDefinition(OtherBean.class, false));
+    }
+
+    Injector injector = Guice.createInjector(Stage.PRODUCTION, new AbstractModule() {
+      @Override protected void configure() {
+        SpringIntegration.bindAllByType(binder(), beanFactory);
+      }
+    });
+    singletonByName = injector.getProvider(
+        Key.get(SingletonBean.class, Names.named("singleton")));
+    singletonByType = injector.getProvider(SingletonBean.class);
+    prototypeByName = injector.getProvider(
+        Key.get(PrototypeBean.class, Names.named("prototype")));
+    prototypeByType = injector.getProvider(PrototypeBean.class);
+  }
+
+  @Benchmark public Object singletonFromBeanFactory() {
+    return beanFactory.getBean("singleton");
+  }
+
+  @Benchmark public Object singletonByName() {
+    return singletonByName.get();
+  }
+
+  @Benchmark public Object singletonByType() {
+    return singletonByType.get();
+  }
+
+  @Benchmark public Object prototypeFromBeanFactory() {
+    return beanFactory.getBean("prototype");
+  }
+
+  @Benchmark public Object prototypeByName() {
+    return prototypeByName.get();
+  }
+
+  @Benchmark public Object prototypeByType() {
+    return prototypeByType.get();
+  }
+
+  public static class SingletonBean {}
+
+  public static class PrototypeBean {}
+
+  public static class OtherBean {}
+}
@@ -0,0 +1,158 @@
+/**
+ * Copyright (C) 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.inject.benchmarks;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.BindingAnnotation;
+import com.google.inject.Guice;
+import com.google.inject.Inject;
+import com.google.inject.Key;
+import com.google.inject.Provider;
+import com.google.inject.Stage;
+import com.google.inject.binder.ScopedBindingBuilder;
+import com.google.inject.throwingproviders.CheckedProvider;
+import com.google.inject.throwingproviders.ThrowingProviderBinder;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures calling a {@link CheckedProvider} bound with {@link ThrowingProviderBinder}. Unscoped
+ * bindings call their target directly, while scoped bindings go through the scoped result
+ * binding; the scope used here doesn't cache anything, so that the two paths do the same work.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(2)
+public class ThrowingProvidersBenchmark {
+
+  private RemoteProvider unscoped;
+  private RemoteProvider scoped;
+  private RemoteProvider unscopedFailing;
+  private RemoteProvider scopedFailing;
+
+  @Setup public void setUp() {
+    final com.google.inject.Scope passThroughScope = new com.google.inject.Scope() {
+      public <T> Provider<T> scope(Key<T> key, Provider<T> unscoped) {
+        return unscoped;
+      }
+    };
+
+    Guice.createInjector(Stage.PRODUCTION, new AbstractModule() {
+      @Override protected void configure() {
+        bindCheckedProvider(Unscoped.class, new Remote(false));
+        bindCheckedProvider(Scoped.class, new Remote(false)).in(passThroughScope);
+        bindCheckedProvider(UnscopedFailing.class, new Remote(true));
+        bindCheckedProvider(ScopedFailing.class, new Remote(true)).in(passThroughScope);
+      }
+
+      private ScopedBindingBuilder bindCheckedProvider(
+          Class<? extends Annotation> annotationType, RemoteProvider target) {
+        return ThrowingProviderBinder.create(binder())
+            .bind(RemoteProvider.class, String.class)
+            .annotatedWith(annotationType)
+            .to(target);
+      }
+    }).injectMembers(this);
+  }
+
+  @Inject void setProviders(@Unscoped RemoteProvider unscoped,
+      @Scoped RemoteProvider scoped, @UnscopedFailing RemoteProvider unscopedFailing,
+      @ScopedFailing RemoteProvider scopedFailing) {
+    this.unscoped = unscoped;
+    this.scoped = scoped;
+    this.unscopedFailing = unscopedFailing;
+    this.scopedFailing = scopedFailing;
+  }
+
+  @Benchmark public String unscoped() throws IOException {
+    return unscoped.get();
+  }
+
+  @Benchmark public String scoped() throws IOException {
+    return scoped.get();
+  }
+
+  @Benchmark public Object unscopedDeclaredException() {
+    try {
+      return unscopedFailing.get();
+    } catch (IOException expected) {
+      return expected;
+    }
+  }
+
+  @Benchmark public Object scopedDeclaredException() {
+    try {
+      return scopedFailing.get();
+    } catch (IOException expected) {
+      return expected;
+    }
+  }
+
+  public interface RemoteProvider extends CheckedProvider<String> {
+    String get() throws IOException;
+  }
+
+  static class Remote implements RemoteProvider {
+    private final boolean failing;
+    private final IOException exception = new IOException();
+
+    Remote(boolean failing) {
+      this.failing = failing;
+    }
+
+    public String get() throws IOException {
+      if (failing) {
+        throw exception;
+      }
+      return "remote";
+    }
+  }
+
+  @Retention(RetentionPolicy.RUNTIME)
+  @BindingAnnotation
+  @interface Unscoped {}
+
+  @Retention(RetentionPolicy.RUNTIME)
+  @BindingAnnotation
+  @interface Scoped {}
+
+  @Retention(RetentionPolicy.RUNTIME)
+  @BindingAnnotation
+  @interface UnscopedFailing {}
+
+  @Retention(RetentionPolicy.RUNTIME)
+  @BindingAnnotation
+  @interface ScopedFailing {}
+}
@@ -29,6 +29,9 @@ public class AnnotationDatabaseGenerator {
     private HashMap<String, Map<String, Set<String>>> mapAnnotationToMapClassWithInjectionNameToConstructorSet;
     private HashSet<String> classesContainingInjectionPointsSet;
     private HashSet<String> bindableClasses;
+    private HashMap<String, String> mapClassNameToSourceLocation = new HashMap<String, String>();
+    private HashMap<String, String> mapClassNameToProvidesMethodInvokerName = new HashMap<String, String>();
+    private HashMap<String, String> mapClassNameToGeneratedComponentName = new HashMap<String, String>();
 
     public void generateAnnotationDatabase(JavaFileObject jfo) throws IOException {
 
@@ -69,6 +72,9 @@ public class AnnotationDatabaseGenerator {
         context.put("mapAnnotationToMapClassWithInjectionNameToConstructorSet", mapAnnotationToMapClassWithInjectionNameToConstructorSet);
         context.put("classesContainingInjectionPointsSet", classesContainingInjectionPointsSet);
         context.put("injectedClasses", bindableClasses);
+        context.put("mapClassNameToSourceLocation", mapClassNameToSourceLocation);
+        context.put("mapClassNameToProvidesMethodInvokerName", mapClassNameToProvidesMethodInvokerName);
+        context.put("mapClassNameToGeneratedComponentName", mapClassNameToGeneratedComponentName);
         return context;
     }
 
@@ -127,4 +133,28 @@ public class AnnotationDatabaseGenerator {
     public void setBindableClasses(HashSet<String> bindableClasses) {
         this.bindableClasses = bindableClasses;
     }
+
+    public HashMap<String, String> getMapClassNameToSourceLocation() {
+        return mapClassNameToSourceLocation;
+    }
+
+    public void setMapClassNameToSourceLocation(HashMap<String, String> mapClassNameToSourceLocation) {
+        this.mapClassNameToSourceLocation = mapClassNameToSourceLocation;
+    }
+
+    public HashMap<String, String> getMapClassNameToProvidesMethodInvokerName() {
+        return mapClassNameToProvidesMethodInvokerName;
+    }
+
+    public void setMapClassNameToProvidesMethodInvokerName(HashMap<String, String> mapClassNameToProvidesMethodInvokerName) {
+        this.mapClassNameToProvidesMethodInvokerName = mapClassNameToProvidesMethodInvokerName;
+    }
+
+    public HashMap<String, String> getMapClassNameToGeneratedComponentName() {
+        return mapClassNameToGeneratedComponentName;
+    }
+
+    public void setMapClassNameToGeneratedComponentName(HashMap<String, String> mapClassNameToGeneratedComponentName) {
+        this.mapClassNameToGeneratedComponentName = mapClassNameToGeneratedComponentName;
+    }
 }
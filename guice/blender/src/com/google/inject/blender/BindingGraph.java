@@ -0,0 +1,200 @@
+package com.google.inject.blender;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+
+import com.google.inject.blender.StaticComponentGenerator.Dependency;
+import com.google.inject.blender.StaticComponentGenerator.ProvidesBinding;
+
+/**
+ * The bindings of the <code>@Provides</code> methods seen by the annotation processor, to check at compile time
+ * what Guice would otherwise check when creating an injector: that every dependency of a statically wired method
+ * can be satisfied, and that these methods don't depend on each other in a cycle.
+ * <p>
+ * A dependency is satisfied by a <code>@Provides</code> method, by a binding built into Guice, or by a just-in-time
+ * binding to a concrete class with an <code>@Inject</code> or a non private no-argument constructor, or to a type
+ * annotated with <code>@ImplementedBy</code> or <code>@ProvidedBy</code>. Bindings made in <code>configure()</code>
+ * methods are not known at compile time, so missing bindings are only errors in strict mode.
+ * Dependencies used through a provider are checked, but can't cause cycles.
+ * <p>
+ * Cycles are errors, except when one of their keys is an interface: Guice then breaks the cycle with a proxy of the
+ * interface, if circular proxies are enabled and the cycle is entered through that key. These cycles are warnings.
+ */
+public class BindingGraph {
+
+    private static final List<String> BUILT_IN_TYPES = Arrays.asList("com.google.inject.Injector", "com.google.inject.Stage", StaticComponentGenerator.LOGGER,
+            "com.google.inject.MembersInjector", "com.google.inject.TypeLiteral");
+    private static final List<String> JUST_IN_TIME_ANNOTATIONS = Arrays.asList("com.google.inject.ImplementedBy", "com.google.inject.ProvidedBy");
+
+    private final StaticComponentGenerator staticComponentGenerator;
+    private final Messager messager;
+    /** The dependencies of each bound key, empty for keys of methods that are not wired statically. */
+    private final Map<BindingKey, List<Dependency>> mapKeyToDependencies = new HashMap<BindingKey, List<Dependency>>();
+
+    public BindingGraph(ProcessingEnvironment processingEnv, StaticComponentGenerator staticComponentGenerator) {
+        this.staticComponentGenerator = staticComponentGenerator;
+        this.messager = processingEnv.getMessager();
+    }
+
+    /**
+     * Adds the bindings of a statically wired class.
+     */
+    public void addBindings(Collection<ProvidesBinding> bindings) {
+        for( ProvidesBinding binding : bindings ) {
+            mapKeyToDependencies.put(binding.key, binding.dependencies);
+        }
+    }
+
+    /**
+     * Adds the keys of <code>@Provides</code> methods that are left to reflection, so that depending on them is not an error.
+     */
+    public void addMethods(Collection<ExecutableElement> methods) {
+        for( ExecutableElement method : methods ) {
+            BindingKey key = staticComponentGenerator.getKey(method);
+            if( key != null && !mapKeyToDependencies.containsKey(key) ) {
+                mapKeyToDependencies.put(key, Collections.<Dependency>emptyList());
+            }
+        }
+    }
+
+    /**
+     * Reports the missing bindings and dependency cycles of statically wired methods.
+     * @param bindings the bindings to check.
+     * @param missingBindingKind how to report missing bindings.
+     */
+    public void validate(Collection<ProvidesBinding> bindings, Diagnostic.Kind missingBindingKind) {
+        for( ProvidesBinding binding : bindings ) {
+            visit(binding, binding.key, new ArrayList<BindingKey>(), new HashSet<BindingKey>(), missingBindingKind);
+        }
+    }
+
+    private void visit(ProvidesBinding root, BindingKey key, List<BindingKey> path, Set<BindingKey> visited, Diagnostic.Kind missingBindingKind) {
+        if( path.contains(key) ) {
+            // Each method on the cycle reports it, starting from itself.
+            if( key.equals(root.key) ) {
+                if( containsInterface(path) ) {
+                    messager.printMessage(Diagnostic.Kind.WARNING, "Dependency cycle, only broken by a proxy of an interface: " + describe(path, key), root.method);
+                } else {
+                    messager.printMessage(Diagnostic.Kind.ERROR, "Dependency cycle: " + describe(path, key), root.method);
+                }
+            }
+            return;
+        }
+        if( !visited.add(key) ) {
+            return;
+        }
+
+        List<Dependency> dependencies = getDependencies(key);
+        if( dependencies == null ) {
+            messager.printMessage(missingBindingKind, "No binding for " + key + " (" + describe(path, key) + ")", root.method);
+            return;
+        }
+
+        path.add(key);
+        for( Dependency dependency : dependencies ) {
+            if( dependency.viaProvider ) {
+                // Providers are resolved lazily, they break cycles.
+                visit(root, dependency.key, new ArrayList<BindingKey>(), visited, missingBindingKind);
+            } else {
+                visit(root, dependency.key, path, visited, missingBindingKind);
+            }
+        }
+        path.remove(path.size() - 1);
+    }
+
+    /**
+     * Returns the dependencies of the binding of a key, or null if the key is not bound.
+     */
+    private List<Dependency> getDependencies(BindingKey key) {
+        List<Dependency> dependencies = mapKeyToDependencies.get(key);
+        if( dependencies != null ) {
+            return dependencies;
+        }
+        if( key.isAnnotated() || key.type.getKind() != TypeKind.DECLARED ) {
+            return null;
+        }
+
+        DeclaredType type = (DeclaredType) key.type;
+        TypeElement typeElement = (TypeElement) type.asElement();
+        String typeName = typeElement.getQualifiedName().toString();
+        if( BUILT_IN_TYPES.contains(typeName) ) {
+            return Collections.emptyList();
+        }
+        if( staticComponentGenerator.isProvider(type) ) {
+            return type.getTypeArguments().size() != 1 ? null
+                    : Collections.singletonList(new Dependency(new BindingKey(type.getTypeArguments().get(0), null, null), key, true));
+        }
+        for( String annotationName : JUST_IN_TIME_ANNOTATIONS ) {
+            if( StaticComponentGenerator.hasAnnotation(typeElement, annotationName) ) {
+                return Collections.emptyList();
+            }
+        }
+        return getConstructorDependencies(typeElement);
+    }
+
+    /**
+     * Returns the dependencies of the constructor Guice would use for a just-in-time binding, or null if there is none.
+     */
+    private List<Dependency> getConstructorDependencies(TypeElement typeElement) {
+        if( typeElement.getKind() != ElementKind.CLASS || typeElement.getModifiers().contains(Modifier.ABSTRACT)
+                || typeElement.getNestingKind() == NestingKind.MEMBER && !typeElement.getModifiers().contains(Modifier.STATIC) ) {
+            return null;
+        }
+
+        ExecutableElement noArgumentConstructor = null;
+        for( ExecutableElement constructor : ElementFilter.constructorsIn(typeElement.getEnclosedElements()) ) {
+            if( StaticComponentGenerator.hasAnnotation(constructor, "com.google.inject.Inject") || StaticComponentGenerator.hasAnnotation(constructor, "javax.inject.Inject") ) {
+                List<Dependency> dependencies = new ArrayList<Dependency>();
+                for( VariableElement parameter : constructor.getParameters() ) {
+                    Dependency dependency = staticComponentGenerator.getDependency(parameter, null);
+                    // Keys that can't be known at compile time are left to Guice.
+                    if( dependency != null ) {
+                        dependencies.add(dependency);
+                    }
+                }
+                return dependencies;
+            }
+            if( constructor.getParameters().isEmpty() ) {
+                noArgumentConstructor = constructor;
+            }
+        }
+        return noArgumentConstructor == null || noArgumentConstructor.getModifiers().contains(Modifier.PRIVATE) ? null : Collections.<Dependency>emptyList();
+    }
+
+    private static boolean containsInterface(List<BindingKey> keys) {
+        for( BindingKey key : keys ) {
+            if( key.type.getKind() == TypeKind.DECLARED && ((DeclaredType) key.type).asElement().getKind() == ElementKind.INTERFACE ) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String describe(List<BindingKey> path, BindingKey key) {
+        StringBuilder sb = new StringBuilder();
+        for( BindingKey pathKey : path ) {
+            sb.append(pathKey).append(" -> ");
+        }
+        return sb.append(key).toString();
+    }
+}
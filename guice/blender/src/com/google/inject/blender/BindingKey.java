@@ -0,0 +1,40 @@
+package com.google.inject.blender;
+
+import javax.lang.model.type.TypeMirror;
+
+/**
+ * A Guice binding key known at compile time: a type, with primitives boxed, and an optional binding annotation.
+ * Keys are compared by their description, as type mirrors don't implement equality.
+ */
+final class BindingKey {
+
+    final TypeMirror type;
+    /** Java expression of the binding annotation, as expected by <code>com.google.inject.Key.get</code>, or null. */
+    final String annotationExpression;
+    private final String description;
+
+    BindingKey(TypeMirror type, String annotationExpression, String annotationDescription) {
+        this.type = type;
+        this.annotationExpression = annotationExpression;
+        this.description = annotationDescription == null ? type.toString() : annotationDescription + " " + type;
+    }
+
+    boolean isAnnotated() {
+        return annotationExpression != null;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof BindingKey && ((BindingKey) o).description.equals(description);
+    }
+
+    @Override
+    public int hashCode() {
+        return description.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return description;
+    }
+}
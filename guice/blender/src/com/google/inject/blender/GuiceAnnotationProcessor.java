@@ -2,8 +2,10 @@ package com.google.inject.blender;
 
 import java.io.IOException;
 import java.lang.String;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -26,12 +28,18 @@ import javax.tools.JavaFileObject;
 
 /**
  * An annotation processor that detects classes that need to receive injections.
+ * <p>
+ * With the <code>guiceStaticMode</code> option set to <code>true</code> or <code>strict</code>, the processor also wires
+ * the <code>@Provides</code> methods of modules at compile time, see {@link StaticComponentGenerator}, and checks their
+ * dependencies, see {@link BindingGraph}. Dependency cycles are errors, or warnings if a proxy of an interface can
+ * break them. Missing bindings are warnings, as they may be bound by <code>configure()</code> methods, or errors in
+ * <code>strict</code> mode.
  * @author MikeBurton
  * @author SNI
  */
 @SupportedAnnotationTypes({"com.google.inject.Inject", "javax.inject.Inject", "com.google.inject.Provides"})
 @SupportedSourceVersion(SourceVersion.RELEASE_6)
-@SupportedOptions({"guiceAnnotationDatabasePackageName", "guiceUsesFragmentUtil"})
+@SupportedOptions({"guiceAnnotationDatabasePackageName", "guiceUsesFragmentUtil", "guiceStaticMode"})
 public class GuiceAnnotationProcessor extends AbstractProcessor {
 
     public static final String TEMPLATE_ANNOTATION_DATABASE_PATH = "templates/AnnotationDatabaseImpl.vm";
@@ -59,13 +67,37 @@ public class GuiceAnnotationProcessor extends AbstractProcessor {
 
     /** Contains all classes that can be injected into a class with injection points.*/
     private HashSet<String> bindableClasses;
+    /** Contains all type elements that contain injection points, to index their source locations.*/
+    private HashSet<TypeElement> typeElementsContainingInjectionPointsSet = new HashSet<TypeElement>();
+    /** Maps the classes containing injection points to their encoded source locations.*/
+    private HashMap<String, String> mapClassNameToSourceLocation = new HashMap<String, String>();
+    /** Maps the type elements declaring @Provides methods of the current round to these methods.*/
+    private HashMap<TypeElement, List<ExecutableElement>> mapTypeElementToProvidesMethods = new HashMap<TypeElement, List<ExecutableElement>>();
+    /** Maps the classes declaring @Provides methods to the names of their generated invokers.*/
+    private HashMap<String, String> mapClassNameToProvidesMethodInvokerName = new HashMap<String, String>();
+    /** Maps the module classes wired at compile time to the names of their generated components.*/
+    private HashMap<String, String> mapClassNameToGeneratedComponentName = new HashMap<String, String>();
     /** Name of the package to generate the annotation database into.*/
     private String annotationDatabasePackageName;
+    /** Whether modules are wired at compile time, see the guiceStaticMode option.*/
+    private boolean staticMode;
+    /** How missing bindings are reported in static mode.*/
+    private Diagnostic.Kind missingBindingKind;
+    private StaticComponentGenerator staticComponentGenerator;
+    /** The bindings of all the rounds, for static mode.*/
+    private BindingGraph bindingGraph;
 
     @Override
     public synchronized void init(ProcessingEnvironment processingEnv) {
         super.init(processingEnv);
         annotationDatabasePackageName = processingEnv.getOptions().get("guiceAnnotationDatabasePackageName");
+        String staticModeOption = processingEnv.getOptions().get("guiceStaticMode");
+        staticMode = "strict".equals(staticModeOption) || Boolean.parseBoolean(staticModeOption);
+        missingBindingKind = "strict".equals(staticModeOption) ? Diagnostic.Kind.ERROR : Diagnostic.Kind.WARNING;
+        if( staticMode ) {
+            staticComponentGenerator = new StaticComponentGenerator(processingEnv);
+            bindingGraph = new BindingGraph(processingEnv, staticComponentGenerator);
+        }
         mapAnnotationToMapClassContainingInjectionToInjectedFieldSet = new HashMap<String, Map<String,Set<String>> >();
         mapAnnotationToMapClassContainingInjectionToInjectedMethodSet = new HashMap<String, Map<String,Set<String>> >();
         mapAnnotationToMapClassContainingInjectionToInjectedConstructorsSet = new HashMap<String, Map<String,Set<String>> >();
@@ -86,12 +118,16 @@ public class GuiceAnnotationProcessor extends AbstractProcessor {
             }
 
             for( Element injectionPoint : roundEnv.getElementsAnnotatedWith(annotation)) {
+                addEnclosingTypeElement(injectionPoint);
                 if( injectionPoint.getEnclosingElement() instanceof TypeElement && injectionPoint instanceof VariableElement ) {
                     addFieldToAnnotationDatabase(annotationClassName, injectionPoint);
                 } else if( injectionPoint.getEnclosingElement() instanceof ExecutableElement && injectionPoint instanceof VariableElement ) {
                     addParameterToAnnotationDatabase(annotationClassName, injectionPoint);
                 } else if( injectionPoint instanceof ExecutableElement ) {
                     addMethodOrConstructorToAnnotationDatabase(annotationClassName, injectionPoint);
+                    if( "com.google.inject.Provides".equals(annotationClassName) ) {
+                        addProvidesMethod((ExecutableElement) injectionPoint);
+                    }
                 } else if( injectionPoint instanceof TypeElement ) {
                     addClassToAnnotationDatabase(injectionPoint);
                 }
@@ -111,6 +147,18 @@ public class GuiceAnnotationProcessor extends AbstractProcessor {
             classesContainingInjectionPointsSet.addAll(entryAnnotationToclassesContainingInjectionPoints.keySet());
         }
 
+        new SourceLocationIndexer(processingEnv).index(typeElementsContainingInjectionPointsSet, mapClassNameToSourceLocation);
+
+        try {
+            if( staticMode ) {
+                generateStaticComponents();
+            }
+            generateProvidesMethodInvokers();
+        } catch (IOException e) {
+            e.printStackTrace();
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, e.getMessage());
+        }
+
         JavaFileObject jfo;
         try {
             String className = "AnnotationDatabaseImpl";
@@ -142,6 +190,63 @@ public class GuiceAnnotationProcessor extends AbstractProcessor {
         annotationDatabaseGenerator.setMapAnnotationToMapClassWithInjectionNameToConstructorSet(mapAnnotationToMapClassContainingInjectionToInjectedConstructorsSet);
         annotationDatabaseGenerator.setMapAnnotationToMapClassWithInjectionNameToMethodSet(mapAnnotationToMapClassContainingInjectionToInjectedMethodSet);
         annotationDatabaseGenerator.setMapAnnotationToMapClassWithInjectionNameToFieldSet(mapAnnotationToMapClassContainingInjectionToInjectedFieldSet);
+        annotationDatabaseGenerator.setMapClassNameToSourceLocation(mapClassNameToSourceLocation);
+        annotationDatabaseGenerator.setMapClassNameToProvidesMethodInvokerName(mapClassNameToProvidesMethodInvokerName);
+        annotationDatabaseGenerator.setMapClassNameToGeneratedComponentName(mapClassNameToGeneratedComponentName);
+    }
+
+    private void addProvidesMethod(ExecutableElement method) {
+        TypeElement typeElement = (TypeElement) method.getEnclosingElement();
+        List<ExecutableElement> methods = mapTypeElementToProvidesMethods.get(typeElement);
+        if( methods == null ) {
+            methods = new ArrayList<ExecutableElement>();
+            mapTypeElementToProvidesMethods.put(typeElement, methods);
+        }
+        methods.add(method);
+    }
+
+    private void generateProvidesMethodInvokers() throws IOException {
+        ProvidesMethodInvokerGenerator providesMethodInvokerGenerator = new ProvidesMethodInvokerGenerator(processingEnv);
+        for( Map.Entry<TypeElement, List<ExecutableElement>> entry : mapTypeElementToProvidesMethods.entrySet() ) {
+            String invokerName = providesMethodInvokerGenerator.generate(entry.getKey(), entry.getValue());
+            if( invokerName != null ) {
+                mapClassNameToProvidesMethodInvokerName.put(processingEnv.getElementUtils().getBinaryName(entry.getKey()).toString(), invokerName);
+            }
+        }
+        // Invokers are generated once, the next rounds only see new classes.
+        mapTypeElementToProvidesMethods.clear();
+    }
+
+    private void generateStaticComponents() throws IOException {
+        Map<TypeElement, List<StaticComponentGenerator.ProvidesBinding>> mapTypeElementToBindings = new HashMap<TypeElement, List<StaticComponentGenerator.ProvidesBinding>>();
+        List<StaticComponentGenerator.ProvidesBinding> roundBindings = new ArrayList<StaticComponentGenerator.ProvidesBinding>();
+        for( Map.Entry<TypeElement, List<ExecutableElement>> entry : mapTypeElementToProvidesMethods.entrySet() ) {
+            List<StaticComponentGenerator.ProvidesBinding> bindings = staticComponentGenerator.analyze(entry.getKey());
+            if( bindings != null ) {
+                mapTypeElementToBindings.put(entry.getKey(), bindings);
+                bindingGraph.addBindings(bindings);
+                roundBindings.addAll(bindings);
+            } else {
+                bindingGraph.addMethods(entry.getValue());
+            }
+        }
+        // All the bindings of the round are known, dependencies between them can be checked.
+        bindingGraph.validate(roundBindings, missingBindingKind);
+
+        for( Map.Entry<TypeElement, List<StaticComponentGenerator.ProvidesBinding>> entry : mapTypeElementToBindings.entrySet() ) {
+            String componentName = staticComponentGenerator.generate(entry.getKey(), entry.getValue());
+            mapClassNameToGeneratedComponentName.put(processingEnv.getElementUtils().getBinaryName(entry.getKey()).toString(), componentName);
+        }
+    }
+
+    private void addEnclosingTypeElement(Element injectionPoint) {
+        Element element = injectionPoint;
+        while( element != null && !(element instanceof TypeElement) ) {
+            element = element.getEnclosingElement();
+        }
+        if( element != null ) {
+            typeElementsContainingInjectionPointsSet.add((TypeElement) element);
+        }
     }
 
     private void addClassToAnnotationDatabase(Element injectionPoint) {
@@ -0,0 +1,207 @@
+package com.google.inject.blender;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.JavaFileObject;
+
+/**
+ * Generates a <code>com.google.inject.ProvidesMethodInvoker</code> for a class declaring
+ * <code>@Provides</code> methods, so that Guice can call them directly instead of through reflection.
+ * The invoker is generated in the package of the class, so it can call its protected and package private methods.
+ * Methods it can't call, because they are private or use types it can't see, are left to reflection.
+ */
+public class ProvidesMethodInvokerGenerator {
+
+    public static final String INVOKER_SUFFIX = "$$ProvidesMethodInvoker";
+
+    private final ProcessingEnvironment processingEnv;
+    private final Elements elements;
+    private final Types types;
+
+    public ProvidesMethodInvokerGenerator(ProcessingEnvironment processingEnv) {
+        this.processingEnv = processingEnv;
+        this.elements = processingEnv.getElementUtils();
+        this.types = processingEnv.getTypeUtils();
+    }
+
+    /**
+     * Generates the invoker of a class.
+     * @param typeElement the class declaring the methods.
+     * @param methods the <code>@Provides</code> methods of the class.
+     * @return the binary name of the generated invoker, or null if none of the methods can be called directly.
+     * @throws IOException if the invoker can't be written.
+     */
+    public String generate(TypeElement typeElement, List<ExecutableElement> methods) throws IOException {
+        PackageElement packageElement = elements.getPackageOf(typeElement);
+        if( !isVisible(typeElement, packageElement) ) {
+            return null;
+        }
+
+        List<ExecutableElement> invokableMethods = new ArrayList<ExecutableElement>();
+        for( ExecutableElement method : methods ) {
+            if( isInvokable(method, packageElement) ) {
+                invokableMethods.add(method);
+            }
+        }
+        if( invokableMethods.isEmpty() ) {
+            return null;
+        }
+
+        String packageName = packageElement.getQualifiedName().toString();
+        String binaryName = elements.getBinaryName(typeElement).toString();
+        String invokerSimpleName = (packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1)) + INVOKER_SUFFIX;
+        String invokerName = packageName.isEmpty() ? invokerSimpleName : packageName + '.' + invokerSimpleName;
+
+        JavaFileObject jfo = processingEnv.getFiler().createSourceFile(invokerName, typeElement);
+        PrintWriter w = new PrintWriter(jfo.openWriter());
+        try {
+            write(w, packageName, invokerSimpleName, typeElement, invokableMethods);
+        } finally {
+            w.close();
+        }
+        return invokerName;
+    }
+
+    private void write(PrintWriter w, String packageName, String invokerSimpleName, TypeElement typeElement, List<ExecutableElement> methods) {
+        String moduleTypeName = getTypeName(typeElement.asType());
+
+        if( !packageName.isEmpty() ) {
+            w.println("package " + packageName + ";");
+            w.println();
+        }
+        w.println("/**");
+        w.println(" * Calls the @Provides methods of {@link " + moduleTypeName + "}.");
+        w.println(" * Generated by the Guice annotation processor, do not edit.");
+        w.println(" */");
+        w.println("public class " + invokerSimpleName + " extends com.google.inject.ProvidesMethodInvoker {");
+        w.println();
+
+        w.println("    @Override");
+        w.println("    public int getIndex(String methodName, Class<?>[] parameterTypes) {");
+        for( int i = 0; i < methods.size(); i++ ) {
+            ExecutableElement method = methods.get(i);
+            StringBuilder parameterTypes = new StringBuilder();
+            for( VariableElement parameter : method.getParameters() ) {
+                if( parameterTypes.length() != 0 ) {
+                    parameterTypes.append(", ");
+                }
+                parameterTypes.append(getTypeName(parameter.asType())).append(".class");
+            }
+            w.println("        if( \"" + method.getSimpleName() + "\".equals(methodName) && java.util.Arrays.equals(parameterTypes, new Class<?>[] {" + parameterTypes + "}) ) {");
+            w.println("            return " + i + ";");
+            w.println("        }");
+        }
+        w.println("        return -1;");
+        w.println("    }");
+        w.println();
+
+        w.println("    @Override");
+        w.println("    @SuppressWarnings({\"unchecked\", \"rawtypes\"})");
+        w.println("    public Object invoke(int index, Object module, java.util.List<? extends com.google.inject.Provider<?>> parameterProviders) throws Exception {");
+        w.println("        switch( index ) {");
+        for( int i = 0; i < methods.size(); i++ ) {
+            ExecutableElement method = methods.get(i);
+            StringBuilder arguments = new StringBuilder();
+            List<? extends VariableElement> parameters = method.getParameters();
+            for( int j = 0; j < parameters.size(); j++ ) {
+                if( j != 0 ) {
+                    arguments.append(", ");
+                }
+                arguments.append('(').append(getCastTypeName(parameters.get(j).asType())).append(") parameterProviders.get(").append(j).append(").get()");
+            }
+            String target = method.getModifiers().contains(Modifier.STATIC) ? moduleTypeName : "((" + moduleTypeName + ") module)";
+            w.println("        case " + i + ":");
+            w.println("            return " + target + "." + method.getSimpleName() + "(" + arguments + ");");
+        }
+        w.println("        default:");
+        w.println("            throw new IllegalArgumentException(\"No @Provides method at index \" + index);");
+        w.println("        }");
+        w.println("    }");
+        w.println("}");
+    }
+
+    private boolean isInvokable(ExecutableElement method, PackageElement packageElement) {
+        if( method.getModifiers().contains(Modifier.PRIVATE) || method.getReturnType().getKind() == TypeKind.VOID ) {
+            return false;
+        }
+        if( !isVisible(method.getReturnType(), packageElement) ) {
+            return false;
+        }
+        for( VariableElement parameter : method.getParameters() ) {
+            if( !isVisible(parameter.asType(), packageElement) ) {
+                return false;
+            }
+        }
+        // The invoker can only rethrow exceptions.
+        TypeMirror exceptionType = elements.getTypeElement(Exception.class.getName()).asType();
+        TypeMirror errorType = elements.getTypeElement(Error.class.getName()).asType();
+        for( TypeMirror thrownType : method.getThrownTypes() ) {
+            if( !types.isAssignable(thrownType, exceptionType) && !types.isAssignable(thrownType, errorType) ) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isVisible(TypeMirror type, PackageElement packageElement) {
+        TypeMirror erased = types.erasure(type);
+        if( erased.getKind().isPrimitive() ) {
+            return true;
+        } else if( erased.getKind() == TypeKind.ARRAY ) {
+            return isVisible(((ArrayType) erased).getComponentType(), packageElement);
+        } else if( erased.getKind() == TypeKind.DECLARED ) {
+            return isVisible((TypeElement) ((DeclaredType) erased).asElement(), packageElement);
+        } else {
+            // Error types and the like can't be named in generated code.
+            return false;
+        }
+    }
+
+    boolean isVisible(TypeElement typeElement, PackageElement packageElement) {
+        boolean samePackage = elements.getPackageOf(typeElement).equals(packageElement);
+        Element element = typeElement;
+        while( element instanceof TypeElement ) {
+            NestingKind nestingKind = ((TypeElement) element).getNestingKind();
+            if( nestingKind == NestingKind.LOCAL || nestingKind == NestingKind.ANONYMOUS ) {
+                return false;
+            }
+            if( element.getModifiers().contains(Modifier.PRIVATE) ) {
+                return false;
+            }
+            if( !samePackage && !element.getModifiers().contains(Modifier.PUBLIC) ) {
+                return false;
+            }
+            element = element.getEnclosingElement();
+        }
+        return true;
+    }
+
+    private String getTypeName(TypeMirror type) {
+        return types.erasure(type).toString();
+    }
+
+    private String getCastTypeName(TypeMirror type) {
+        if( type.getKind().isPrimitive() ) {
+            return types.boxedClass((PrimitiveType) type).getQualifiedName().toString();
+        }
+        return getTypeName(type);
+    }
+}
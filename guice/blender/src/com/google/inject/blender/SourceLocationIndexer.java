@@ -0,0 +1,480 @@
+package com.google.inject.blender;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+
+import com.sun.source.tree.AssignmentTree;
+import com.sun.source.tree.BlockTree;
+import com.sun.source.tree.ClassTree;
+import com.sun.source.tree.CompilationUnitTree;
+import com.sun.source.tree.CompoundAssignmentTree;
+import com.sun.source.tree.ExpressionStatementTree;
+import com.sun.source.tree.ExpressionTree;
+import com.sun.source.tree.ForLoopTree;
+import com.sun.source.tree.IdentifierTree;
+import com.sun.source.tree.LabeledStatementTree;
+import com.sun.source.tree.MemberSelectTree;
+import com.sun.source.tree.MethodInvocationTree;
+import com.sun.source.tree.MethodTree;
+import com.sun.source.tree.StatementTree;
+import com.sun.source.tree.Tree;
+import com.sun.source.tree.TryTree;
+import com.sun.source.tree.UnaryTree;
+import com.sun.source.tree.VariableTree;
+import com.sun.source.util.SourcePositions;
+import com.sun.source.util.TreePath;
+import com.sun.source.util.TreeScanner;
+import com.sun.source.util.Trees;
+
+/**
+ * Records the source file and line numbers of classes containing injection points and of
+ * their members, so that Guice does not need to read class files at runtime to build
+ * error messages and binding sources.
+ * Each class is encoded as <code>source|firstLine|memberKey=line|...</code>, where member keys
+ * are field names, or names followed by JVM descriptors for methods and constructors,
+ * as expected by <code>com.google.inject.internal.util.StackTraceElements</code>.
+ * The lines are those javac writes into class files, so that a class gets the same line numbers
+ * whether it is indexed or not.
+ * Line numbers are only available when running inside javac, other compilers produce an empty index.
+ */
+public class SourceLocationIndexer {
+
+    private final Elements elements;
+    private final Types types;
+    private final Trees trees;
+
+    public SourceLocationIndexer(ProcessingEnvironment processingEnv) {
+        this.elements = processingEnv.getElementUtils();
+        this.types = processingEnv.getTypeUtils();
+        this.trees = getTrees(processingEnv);
+    }
+
+    /**
+     * Adds the source locations of the given classes to an index.
+     * @param typeElements classes to index.
+     * @param mapClassNameToSourceLocation receives the encoded source locations, by binary class name.
+     */
+    public void index(Set<TypeElement> typeElements, HashMap<String, String> mapClassNameToSourceLocation) {
+        if( trees == null ) {
+            return;
+        }
+
+        for( TypeElement typeElement : typeElements ) {
+            String sourceLocation = encode(typeElement);
+            if( sourceLocation != null ) {
+                mapClassNameToSourceLocation.put(elements.getBinaryName(typeElement).toString(), sourceLocation);
+            }
+        }
+    }
+
+    private String encode(TypeElement typeElement) {
+        ClassLines classLines = getClassLines(typeElement);
+        if( classLines == null ) {
+            return null;
+        }
+
+        StringBuilder sb = new StringBuilder();
+        sb.append(getSourceFileName(classLines.compilationUnit)).append('|').append(classLines.firstLine);
+        for( Map.Entry<String, Long> entry : classLines.memberLines.entrySet() ) {
+            sb.append('|').append(entry.getKey()).append('=').append(entry.getValue());
+        }
+        return sb.toString();
+    }
+
+    private ClassLines getClassLines(TypeElement typeElement) {
+        TreePath path = trees == null ? null : trees.getPath(typeElement);
+        if( path == null || !(path.getLeaf() instanceof ClassTree) ) {
+            return null;
+        }
+        return new ClassLines(typeElement, path);
+    }
+
+    private String getMemberKey(TypeElement typeElement, Element member) {
+        if( member.getKind() == ElementKind.FIELD ) {
+            return member.getSimpleName().toString();
+        } else if( member.getKind() == ElementKind.METHOD ) {
+            ExecutableElement method = (ExecutableElement) member;
+            String returnType = getDescriptor(method.getReturnType());
+            String parameters = getParametersDescriptor(method.getParameters(), null);
+            return returnType == null || parameters == null ? null : method.getSimpleName() + parameters + returnType;
+        } else if( member.getKind() == ElementKind.CONSTRUCTOR && typeElement.getKind() == ElementKind.CLASS ) {
+            // Constructors of inner classes take their enclosing instance as first parameter.
+            TypeMirror enclosingInstance = null;
+            if( typeElement.getNestingKind() == NestingKind.MEMBER && !typeElement.getModifiers().contains(Modifier.STATIC) ) {
+                enclosingInstance = typeElement.getEnclosingElement().asType();
+            }
+            String parameters = getParametersDescriptor(((ExecutableElement) member).getParameters(), enclosingInstance);
+            return parameters == null ? null : "<init>" + parameters + "V";
+        }
+        return null;
+    }
+
+    private String getParametersDescriptor(List<? extends VariableElement> parameters, TypeMirror enclosingInstance) {
+        StringBuilder sb = new StringBuilder("(");
+        if( enclosingInstance != null ) {
+            sb.append(getDescriptor(enclosingInstance));
+        }
+        for( VariableElement parameter : parameters ) {
+            String descriptor = getDescriptor(parameter.asType());
+            if( descriptor == null ) {
+                return null;
+            }
+            sb.append(descriptor);
+        }
+        return sb.append(')').toString();
+    }
+
+    private String getDescriptor(TypeMirror type) {
+        TypeMirror erased = types.erasure(type);
+        switch( erased.getKind() ) {
+        case BOOLEAN: return "Z";
+        case BYTE: return "B";
+        case CHAR: return "C";
+        case SHORT: return "S";
+        case INT: return "I";
+        case LONG: return "J";
+        case FLOAT: return "F";
+        case DOUBLE: return "D";
+        case VOID: return "V";
+        case ARRAY:
+            String componentDescriptor = getDescriptor(((ArrayType) erased).getComponentType());
+            return componentDescriptor == null ? null : "[" + componentDescriptor;
+        case DECLARED:
+            TypeElement typeElement = (TypeElement) ((DeclaredType) erased).asElement();
+            return "L" + elements.getBinaryName(typeElement).toString().replace('.', '/') + ";";
+        default:
+            // Error types and the like can't be described, skip the member.
+            return null;
+        }
+    }
+
+    private String getSourceFileName(CompilationUnitTree compilationUnit) {
+        String name = compilationUnit.getSourceFile().getName();
+        int lastSeparator = Math.max(name.lastIndexOf('/'), name.lastIndexOf('\\'));
+        return name.substring(lastSeparator + 1);
+    }
+
+    private static Trees getTrees(ProcessingEnvironment processingEnv) {
+        try {
+            return Trees.instance(processingEnv);
+        } catch( IllegalArgumentException ex ) {
+            // Not running inside javac.
+            return null;
+        } catch( LinkageError ex ) {
+            // The compiler tree API is not available.
+            return null;
+        }
+    }
+
+    /**
+     * The lines of a class and of its members, as <code>LineNumbers</code> in Guice reads them from the class file.
+     * A method or constructor is at the line of its first instruction, a field at the line of its first assignment in
+     * a method or constructor, and the class at the smallest line of these. Private members are left out, as they are
+     * at runtime.
+     */
+    private class ClassLines {
+        final CompilationUnitTree compilationUnit;
+        long firstLine = Long.MAX_VALUE;
+        final Map<String, Long> memberLines = new LinkedHashMap<String, Long>();
+
+        private final TypeElement typeElement;
+        private final TreePath classPath;
+        private final SourcePositions positions;
+        private final Set<String> fieldNames = new HashSet<String>();
+        /** Field initializers and initializer blocks, inlined in the constructors that don't call this(...).*/
+        private final List<Tree> instanceInitializers = new ArrayList<Tree>();
+
+        ClassLines(TypeElement typeElement, TreePath classPath) {
+            this.typeElement = typeElement;
+            this.classPath = classPath;
+            this.compilationUnit = classPath.getCompilationUnit();
+            this.positions = trees.getSourcePositions();
+
+            ClassTree classTree = (ClassTree) classPath.getLeaf();
+            List<MethodTree> methods = new ArrayList<MethodTree>();
+            boolean hasConstructor = false;
+            for( Tree member : classTree.getMembers() ) {
+                if( member instanceof VariableTree ) {
+                    VariableTree variable = (VariableTree) member;
+                    VariableElement field = (VariableElement) getElement(member);
+                    if( field == null || field.getModifiers().contains(Modifier.STATIC) ) {
+                        // Compile time constants have no code, other static initializers only run in <clinit>.
+                        if( variable.getInitializer() != null && (field == null || field.getConstantValue() == null) ) {
+                            addLine(getStartLine(member));
+                        }
+                    } else {
+                        fieldNames.add(variable.getName().toString());
+                        if( variable.getInitializer() != null ) {
+                            instanceInitializers.add(member);
+                        }
+                    }
+                } else if( member instanceof BlockTree ) {
+                    if( ((BlockTree) member).isStatic() ) {
+                        addLine(getFirstLine(((BlockTree) member).getStatements()));
+                    } else {
+                        instanceInitializers.add(member);
+                    }
+                } else if( member instanceof MethodTree && isInSource(member) ) {
+                    methods.add((MethodTree) member);
+                    hasConstructor |= "<init>".equals(((MethodTree) member).getName().toString());
+                }
+            }
+
+            // javac declares the default constructor first, at the line of the class keyword.
+            if( !hasConstructor && typeElement.getKind() == ElementKind.CLASS && !typeElement.getModifiers().contains(Modifier.PRIVATE) ) {
+                for( Element member : typeElement.getEnclosedElements() ) {
+                    if( member.getKind() == ElementKind.CONSTRUCTOR ) {
+                        addMemberLine(member, getClassKeywordLine(classTree));
+                        addInstanceInitializers();
+                    }
+                }
+            }
+
+            for( MethodTree method : methods ) {
+                Element element = getElement(method);
+                if( element == null || element.getModifiers().contains(Modifier.PRIVATE) || method.getBody() == null ) {
+                    continue;
+                }
+                List<? extends StatementTree> statements = method.getBody().getStatements();
+                if( element.getKind() == ElementKind.CONSTRUCTOR ) {
+                    // Without an explicit this(...) or super(...) call, the implicit super() is at the body.
+                    boolean explicitCall = !statements.isEmpty() && isConstructorCall(statements.get(0));
+                    addMemberLine(element, explicitCall ? getStartLine(statements.get(0)) : getStartLine(method.getBody()));
+                    if( !explicitCall || !isConstructorCall(statements.get(0), "this") ) {
+                        addInstanceInitializers();
+                    }
+                } else {
+                    // An empty method only returns, at its closing brace.
+                    Long line = getFirstLine(statements);
+                    addMemberLine(element, line != null ? line : getLine(positions.getEndPosition(compilationUnit, method.getBody()) - 1));
+                }
+                addFieldAssignments(method.getBody(), method.getParameters());
+            }
+
+            if( firstLine == Long.MAX_VALUE ) {
+                firstLine = 1;
+            }
+        }
+
+        private void addInstanceInitializers() {
+            for( Tree initializer : instanceInitializers ) {
+                if( initializer instanceof VariableTree ) {
+                    long line = getStartLine(initializer);
+                    addLine(line);
+                    String name = ((VariableTree) initializer).getName().toString();
+                    if( !memberLines.containsKey(name) ) {
+                        memberLines.put(name, line);
+                    }
+                } else {
+                    addLine(getFirstLine(((BlockTree) initializer).getStatements()));
+                    addFieldAssignments(initializer, Collections.<VariableTree>emptyList());
+                }
+            }
+        }
+
+        /** Records the first assignment to each field of this class, skipping nested classes and shadowed names. */
+        private void addFieldAssignments(Tree tree, List<? extends VariableTree> parameters) {
+            final Set<String> localNames = new HashSet<String>();
+            for( VariableTree parameter : parameters ) {
+                localNames.add(parameter.getName().toString());
+            }
+            new TreeScanner<Void, Void>() {
+                @Override
+                public Void visitClass(ClassTree node, Void p) {
+                    return null;
+                }
+
+                @Override
+                public Void visitVariable(VariableTree node, Void p) {
+                    localNames.add(node.getName().toString());
+                    return super.visitVariable(node, p);
+                }
+
+                @Override
+                public Void visitAssignment(AssignmentTree node, Void p) {
+                    addFieldAssignment(node, node.getVariable());
+                    return super.visitAssignment(node, p);
+                }
+
+                @Override
+                public Void visitCompoundAssignment(CompoundAssignmentTree node, Void p) {
+                    addFieldAssignment(node, node.getVariable());
+                    return super.visitCompoundAssignment(node, p);
+                }
+
+                @Override
+                public Void visitUnary(UnaryTree node, Void p) {
+                    switch( node.getKind() ) {
+                    case PREFIX_INCREMENT:
+                    case PREFIX_DECREMENT:
+                    case POSTFIX_INCREMENT:
+                    case POSTFIX_DECREMENT:
+                        addFieldAssignment(node, node.getExpression());
+                        break;
+                    default:
+                        break;
+                    }
+                    return super.visitUnary(node, p);
+                }
+
+                private void addFieldAssignment(Tree assignment, ExpressionTree variable) {
+                    String name = null;
+                    if( variable instanceof IdentifierTree && !localNames.contains(((IdentifierTree) variable).getName().toString()) ) {
+                        name = ((IdentifierTree) variable).getName().toString();
+                    } else if( variable instanceof MemberSelectTree && ((MemberSelectTree) variable).getExpression() instanceof IdentifierTree
+                            && "this".equals(((IdentifierTree) ((MemberSelectTree) variable).getExpression()).getName().toString()) ) {
+                        name = ((MemberSelectTree) variable).getIdentifier().toString();
+                    }
+                    if( name != null && fieldNames.contains(name) && !memberLines.containsKey(name) ) {
+                        memberLines.put(name, getStartLine(assignment));
+                    }
+                }
+            }.scan(tree, null);
+        }
+
+        /**
+         * Returns the line of the first statement that generates code, or null if there is none.
+         */
+        private Long getFirstLine(List<? extends StatementTree> statements) {
+            for( StatementTree statement : statements ) {
+                Long line = getFirstLine(statement);
+                if( line != null ) {
+                    return line;
+                }
+            }
+            return null;
+        }
+
+        private Long getFirstLine(StatementTree statement) {
+            switch( statement.getKind() ) {
+            case EMPTY_STATEMENT:
+            case CLASS:
+            case INTERFACE:
+            case ENUM:
+            case ANNOTATION_TYPE:
+                return null;
+            case VARIABLE:
+                return ((VariableTree) statement).getInitializer() == null ? null : getStartLine(statement);
+            case BLOCK:
+                return getFirstLine(((BlockTree) statement).getStatements());
+            case LABELED_STATEMENT:
+                return getFirstLine(((LabeledStatementTree) statement).getStatement());
+            case TRY:
+                TryTree tryTree = (TryTree) statement;
+                Long line = getFirstLine(tryTree.getBlock());
+                return line != null || tryTree.getFinallyBlock() == null ? line : getFirstLine(tryTree.getFinallyBlock());
+            case FOR_LOOP:
+                Long initializerLine = getFirstLine(((ForLoopTree) statement).getInitializer());
+                return initializerLine != null ? initializerLine : getStartLine(statement);
+            default:
+                return getStartLine(statement);
+            }
+        }
+
+        /** Returns the line of the class keyword, which javac gives to the code of the default constructor. */
+        private long getClassKeywordLine(ClassTree classTree) {
+            long position = positions.getEndPosition(compilationUnit, classTree.getModifiers());
+            if( position == Diagnostic.NOPOS ) {
+                return getStartLine(classTree);
+            }
+            try {
+                CharSequence source = compilationUnit.getSourceFile().getCharContent(true);
+                position = skipWhitespaceAndComments(source, (int) position);
+            } catch( IOException ex ) {
+                // Close enough, the modifiers usually end on the line of the keyword.
+            }
+            return getLine(position);
+        }
+
+        private int skipWhitespaceAndComments(CharSequence source, int position) {
+            while( position < source.length() ) {
+                if( Character.isWhitespace(source.charAt(position)) ) {
+                    position++;
+                } else if( startsWith(source, position, "//") ) {
+                    while( position < source.length() && source.charAt(position) != '\n' ) {
+                        position++;
+                    }
+                } else if( startsWith(source, position, "/*") ) {
+                    int end = source.toString().indexOf("*/", position + 2);
+                    position = end < 0 ? source.length() : end + 2;
+                } else {
+                    break;
+                }
+            }
+            return position;
+        }
+
+        private boolean startsWith(CharSequence source, int position, String prefix) {
+            return source.length() >= position + prefix.length() && source.subSequence(position, position + prefix.length()).toString().equals(prefix);
+        }
+
+        private boolean isConstructorCall(StatementTree statement) {
+            return isConstructorCall(statement, "this") || isConstructorCall(statement, "super");
+        }
+
+        private boolean isConstructorCall(StatementTree statement, String name) {
+            if( !(statement instanceof ExpressionStatementTree) || !(((ExpressionStatementTree) statement).getExpression() instanceof MethodInvocationTree) ) {
+                return false;
+            }
+            ExpressionTree methodSelect = ((MethodInvocationTree) ((ExpressionStatementTree) statement).getExpression()).getMethodSelect();
+            if( methodSelect instanceof IdentifierTree ) {
+                return name.equals(((IdentifierTree) methodSelect).getName().toString());
+            }
+            // outer.super(...)
+            return methodSelect instanceof MemberSelectTree && name.equals(((MemberSelectTree) methodSelect).getIdentifier().toString());
+        }
+
+        /** Generated members, such as default constructors added by javac, have no end position. */
+        private boolean isInSource(Tree member) {
+            return positions.getEndPosition(compilationUnit, member) != Diagnostic.NOPOS;
+        }
+
+        private Element getElement(Tree member) {
+            return trees.getElement(new TreePath(classPath, member));
+        }
+
+        private void addMemberLine(Element member, long line) {
+            addLine(line);
+            String memberKey = getMemberKey(typeElement, member);
+            if( memberKey != null ) {
+                memberLines.put(memberKey, line);
+            }
+        }
+
+        private void addLine(Long line) {
+            if( line != null && line < firstLine ) {
+                firstLine = line;
+            }
+        }
+
+        private long getStartLine(Tree tree) {
+            return getLine(positions.getStartPosition(compilationUnit, tree));
+        }
+
+        private long getLine(long position) {
+            return compilationUnit.getLineMap().getLineNumber(position);
+        }
+    }
+}
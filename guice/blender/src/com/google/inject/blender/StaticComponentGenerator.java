@@ -0,0 +1,400 @@
+package com.google.inject.blender;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.WildcardType;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.JavaFileObject;
+
+/**
+ * Wires the <code>@Provides</code> methods of module classes at compile time, for the static mode of the annotation processor.
+ * <p>
+ * A module class can be wired statically if it is a visible, concrete and non generic <code>com.google.inject.Module</code>,
+ * but not a <code>PrivateModule</code>, whose superclasses declare no <code>@Provides</code> methods, and whose
+ * <code>@Provides</code> methods are neither private nor generic, don't throw checked exceptions, and only use types and
+ * binding annotations that can be named in generated code: marker annotations and <code>@Named</code>.
+ * <p>
+ * For such a module, a <code>com.google.inject.GeneratedComponent</code> is generated in the package of the module.
+ * It binds each method from the keys computed at compile time, so Guice doesn't scan the module through reflection.
+ * The bindings are the same as through reflection, and the methods are called by their generated
+ * <code>ProvidesMethodInvoker</code>. Other modules are left to reflection.
+ */
+public class StaticComponentGenerator {
+
+    public static final String COMPONENT_SUFFIX = "$$Component";
+
+    static final String PROVIDES = "com.google.inject.Provides";
+    static final String GUICE_PROVIDER = "com.google.inject.Provider";
+    static final String JAVAX_PROVIDER = "javax.inject.Provider";
+    static final String LOGGER = "java.util.logging.Logger";
+    private static final String GUICE_NAMED = "com.google.inject.name.Named";
+    private static final String JAVAX_NAMED = "javax.inject.Named";
+    private static final List<String> BINDING_ANNOTATIONS = Arrays.asList("com.google.inject.BindingAnnotation", "javax.inject.Qualifier");
+    private static final List<String> SCOPE_ANNOTATIONS = Arrays.asList("com.google.inject.ScopeAnnotation", "javax.inject.Scope");
+
+    private final ProcessingEnvironment processingEnv;
+    private final Elements elements;
+    private final Types types;
+    private final ProvidesMethodInvokerGenerator invokerGenerator;
+
+    public StaticComponentGenerator(ProcessingEnvironment processingEnv) {
+        this.processingEnv = processingEnv;
+        this.elements = processingEnv.getElementUtils();
+        this.types = processingEnv.getTypeUtils();
+        this.invokerGenerator = new ProvidesMethodInvokerGenerator(processingEnv);
+    }
+
+    /**
+     * Analyzes the <code>@Provides</code> methods of a class.
+     * @param typeElement the class declaring the methods.
+     * @return the bindings of the methods, or null if the class can't be wired statically.
+     */
+    public List<ProvidesBinding> analyze(TypeElement typeElement) {
+        if( !isStaticModule(typeElement) ) {
+            return null;
+        }
+
+        PackageElement packageElement = elements.getPackageOf(typeElement);
+        List<ProvidesBinding> bindings = new ArrayList<ProvidesBinding>();
+        for( ExecutableElement method : ElementFilter.methodsIn(typeElement.getEnclosedElements()) ) {
+            if( !hasAnnotation(method, PROVIDES) ) {
+                continue;
+            }
+            ProvidesBinding binding = analyze(method, packageElement);
+            if( binding == null ) {
+                return null;
+            }
+            bindings.add(binding);
+        }
+        return bindings;
+    }
+
+    /**
+     * Generates the component of a module class.
+     * @param typeElement the module class.
+     * @param bindings the bindings of its <code>@Provides</code> methods, as returned by {@link #analyze(TypeElement)}.
+     * @return the binary name of the generated component.
+     * @throws IOException if the component can't be written.
+     */
+    public String generate(TypeElement typeElement, List<ProvidesBinding> bindings) throws IOException {
+        String packageName = elements.getPackageOf(typeElement).getQualifiedName().toString();
+        String binaryName = elements.getBinaryName(typeElement).toString();
+        String componentSimpleName = (packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1)) + COMPONENT_SUFFIX;
+        String componentName = packageName.isEmpty() ? componentSimpleName : packageName + '.' + componentSimpleName;
+
+        JavaFileObject jfo = processingEnv.getFiler().createSourceFile(componentName, typeElement);
+        PrintWriter w = new PrintWriter(jfo.openWriter());
+        try {
+            write(w, packageName, componentSimpleName, typeElement, bindings);
+        } finally {
+            w.close();
+        }
+        return componentName;
+    }
+
+    /**
+     * Returns the key bound by a <code>@Provides</code> method, or null if it can't be known at compile time.
+     */
+    BindingKey getKey(ExecutableElement method) {
+        return getKey(method.getReturnType(), method, null);
+    }
+
+    /**
+     * Returns the dependency of a parameter, or null if it can't be known at compile time.
+     * @param packageElement the package the dependency must be named from, or null if it is not named in generated code.
+     */
+    Dependency getDependency(VariableElement parameter, PackageElement packageElement) {
+        TypeMirror type = parameter.asType();
+        BindingKey parameterKey = getKey(type, parameter, packageElement);
+        if( parameterKey == null ) {
+            return null;
+        }
+        boolean viaProvider = false;
+        if( isProvider(type) ) {
+            List<? extends TypeMirror> typeArguments = ((DeclaredType) type).getTypeArguments();
+            if( typeArguments.size() != 1 || typeArguments.get(0).getKind() == TypeKind.WILDCARD ) {
+                return null;
+            }
+            type = typeArguments.get(0);
+            viaProvider = true;
+        }
+        BindingKey key = getKey(type, parameter, packageElement);
+        if( key == null ) {
+            return null;
+        }
+        return new Dependency(key, parameterKey, viaProvider);
+    }
+
+    boolean isProvider(TypeMirror type) {
+        return isType(type, GUICE_PROVIDER) || isType(type, JAVAX_PROVIDER);
+    }
+
+    boolean isType(TypeMirror type, String className) {
+        return type.getKind() == TypeKind.DECLARED
+                && ((TypeElement) ((DeclaredType) type).asElement()).getQualifiedName().contentEquals(className);
+    }
+
+    static boolean hasAnnotation(Element element, String annotationClassName) {
+        for( AnnotationMirror annotation : element.getAnnotationMirrors() ) {
+            if( ((TypeElement) annotation.getAnnotationType().asElement()).getQualifiedName().contentEquals(annotationClassName) ) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isStaticModule(TypeElement typeElement) {
+        if( typeElement.getKind() != ElementKind.CLASS || typeElement.getModifiers().contains(Modifier.ABSTRACT)
+                || !typeElement.getTypeParameters().isEmpty() ) {
+            return false;
+        }
+        if( !invokerGenerator.isVisible(typeElement, elements.getPackageOf(typeElement)) ) {
+            return false;
+        }
+        TypeElement moduleElement = elements.getTypeElement("com.google.inject.Module");
+        TypeElement privateModuleElement = elements.getTypeElement("com.google.inject.PrivateModule");
+        if( moduleElement == null || !types.isAssignable(typeElement.asType(), moduleElement.asType()) ) {
+            return false;
+        }
+        // Exposed bindings need a private binder.
+        if( privateModuleElement != null && types.isAssignable(typeElement.asType(), types.erasure(privateModuleElement.asType())) ) {
+            return false;
+        }
+        // Guice also binds the provider methods of superclasses, and checks they are not overridden.
+        TypeMirror superclass = typeElement.getSuperclass();
+        while( superclass.getKind() == TypeKind.DECLARED ) {
+            TypeElement superclassElement = (TypeElement) ((DeclaredType) superclass).asElement();
+            for( ExecutableElement method : ElementFilter.methodsIn(superclassElement.getEnclosedElements()) ) {
+                if( hasAnnotation(method, PROVIDES) ) {
+                    return false;
+                }
+            }
+            superclass = superclassElement.getSuperclass();
+        }
+        return true;
+    }
+
+    private ProvidesBinding analyze(ExecutableElement method, PackageElement packageElement) {
+        if( method.getModifiers().contains(Modifier.PRIVATE) || !method.getTypeParameters().isEmpty()
+                || method.getReturnType().getKind() == TypeKind.VOID ) {
+            return null;
+        }
+        // Providers can't throw checked exceptions.
+        TypeMirror runtimeExceptionType = elements.getTypeElement(RuntimeException.class.getName()).asType();
+        TypeMirror errorType = elements.getTypeElement(Error.class.getName()).asType();
+        for( TypeMirror thrownType : method.getThrownTypes() ) {
+            if( !types.isAssignable(thrownType, runtimeExceptionType) && !types.isAssignable(thrownType, errorType) ) {
+                return null;
+            }
+        }
+
+        BindingKey key = getKey(method.getReturnType(), method, packageElement);
+        if( key == null ) {
+            return null;
+        }
+
+        List<AnnotationMirror> scopeAnnotations = getAnnotationsAnnotatedWith(method, SCOPE_ANNOTATIONS);
+        if( scopeAnnotations.size() > 1 ) {
+            return null;
+        }
+        TypeElement scopeAnnotation = scopeAnnotations.isEmpty() ? null : (TypeElement) scopeAnnotations.get(0).getAnnotationType().asElement();
+        if( scopeAnnotation != null && !invokerGenerator.isVisible(scopeAnnotation, packageElement) ) {
+            return null;
+        }
+
+        List<Dependency> dependencies = new ArrayList<Dependency>();
+        for( VariableElement parameter : method.getParameters() ) {
+            Dependency dependency = getDependency(parameter, packageElement);
+            if( dependency == null ) {
+                return null;
+            }
+            dependencies.add(dependency);
+        }
+        return new ProvidesBinding(method, key, scopeAnnotation, dependencies);
+    }
+
+    private BindingKey getKey(TypeMirror type, Element annotatedElement, PackageElement packageElement) {
+        if( type.getKind().isPrimitive() ) {
+            type = types.boxedClass((PrimitiveType) type).asType();
+        }
+        if( !isNameable(type, packageElement) ) {
+            return null;
+        }
+
+        List<AnnotationMirror> bindingAnnotations = getAnnotationsAnnotatedWith(annotatedElement, BINDING_ANNOTATIONS);
+        if( bindingAnnotations.isEmpty() ) {
+            return new BindingKey(type, null, null);
+        } else if( bindingAnnotations.size() > 1 ) {
+            return null;
+        }
+
+        AnnotationMirror bindingAnnotation = bindingAnnotations.get(0);
+        TypeElement annotationElement = (TypeElement) bindingAnnotation.getAnnotationType().asElement();
+        String annotationName = annotationElement.getQualifiedName().toString();
+        if( GUICE_NAMED.equals(annotationName) || JAVAX_NAMED.equals(annotationName) ) {
+            // Guice treats both @Named the same way.
+            Object name = getValue(bindingAnnotation);
+            if( !(name instanceof String) ) {
+                return null;
+            }
+            String nameExpression = elements.getConstantExpression(name);
+            return new BindingKey(type, "com.google.inject.name.Names.named(" + nameExpression + ")", "@" + GUICE_NAMED + "(value=" + name + ")");
+        }
+        // Annotations with attributes need an instance, only reflection provides one.
+        if( !ElementFilter.methodsIn(annotationElement.getEnclosedElements()).isEmpty() ) {
+            return null;
+        }
+        if( packageElement != null && !invokerGenerator.isVisible(annotationElement, packageElement) ) {
+            return null;
+        }
+        return new BindingKey(type, annotationName + ".class", "@" + annotationName);
+    }
+
+    private Object getValue(AnnotationMirror annotation) {
+        for( Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : elements.getElementValuesWithDefaults(annotation).entrySet() ) {
+            if( entry.getKey().getSimpleName().contentEquals("value") ) {
+                return entry.getValue().getValue();
+            }
+        }
+        return null;
+    }
+
+    private List<AnnotationMirror> getAnnotationsAnnotatedWith(Element element, List<String> metaAnnotationNames) {
+        List<AnnotationMirror> annotations = new ArrayList<AnnotationMirror>();
+        for( AnnotationMirror annotation : element.getAnnotationMirrors() ) {
+            Element annotationElement = annotation.getAnnotationType().asElement();
+            for( String metaAnnotationName : metaAnnotationNames ) {
+                if( hasAnnotation(annotationElement, metaAnnotationName) ) {
+                    annotations.add(annotation);
+                    break;
+                }
+            }
+        }
+        return annotations;
+    }
+
+    /**
+     * Returns whether a type can be written in generated code.
+     * @param packageElement the package of the generated code, or null if the type is not written.
+     */
+    private boolean isNameable(TypeMirror type, PackageElement packageElement) {
+        switch( type.getKind() ) {
+        case ARRAY:
+            return isNameable(((ArrayType) type).getComponentType(), packageElement);
+        case DECLARED:
+            DeclaredType declaredType = (DeclaredType) type;
+            if( packageElement != null && !invokerGenerator.isVisible((TypeElement) declaredType.asElement(), packageElement) ) {
+                return false;
+            }
+            for( TypeMirror typeArgument : declaredType.getTypeArguments() ) {
+                if( !isNameable(typeArgument, packageElement) ) {
+                    return false;
+                }
+            }
+            return true;
+        case WILDCARD:
+            TypeMirror extendsBound = ((WildcardType) type).getExtendsBound();
+            TypeMirror superBound = ((WildcardType) type).getSuperBound();
+            return (extendsBound == null || isNameable(extendsBound, packageElement))
+                    && (superBound == null || isNameable(superBound, packageElement));
+        default:
+            // Type variables, error types and the like depend on the context.
+            return type.getKind().isPrimitive();
+        }
+    }
+
+    private void write(PrintWriter w, String packageName, String componentSimpleName, TypeElement typeElement, List<ProvidesBinding> bindings) {
+        String moduleTypeName = typeElement.getQualifiedName().toString();
+
+        if( !packageName.isEmpty() ) {
+            w.println("package " + packageName + ";");
+            w.println();
+        }
+        w.println("/**");
+        w.println(" * Binds the @Provides methods of {@link " + moduleTypeName + "}, wired at compile time.");
+        w.println(" * Generated by the Guice annotation processor in static mode, do not edit.");
+        w.println(" */");
+        w.println("public class " + componentSimpleName + " extends com.google.inject.GeneratedComponent {");
+        w.println();
+
+        w.println("    @Override");
+        w.println("    public void configure(Object module, com.google.inject.Binder binder) {");
+        for( ProvidesBinding binding : bindings ) {
+            ExecutableElement method = binding.method;
+            StringBuilder parameterTypes = new StringBuilder();
+            StringBuilder parameterKeys = new StringBuilder();
+            for( VariableElement parameter : method.getParameters() ) {
+                parameterTypes.append(parameterTypes.length() == 0 ? "" : ", ").append(types.erasure(parameter.asType())).append(".class");
+            }
+            for( Dependency dependency : binding.dependencies ) {
+                parameterKeys.append(",\n                ").append(getKeyExpression(dependency.parameterKey));
+            }
+            String scope = binding.scopeAnnotation == null ? "null" : binding.scopeAnnotation.getQualifiedName() + ".class";
+            w.println("        bindProvidesMethod(binder, module, " + elements.getConstantExpression(method.getSimpleName().toString())
+                    + ", new Class<?>[] {" + parameterTypes + "},");
+            w.println("                " + getKeyExpression(binding.key) + ", " + scope + parameterKeys + ");");
+        }
+        w.println("    }");
+        w.println("}");
+    }
+
+    private String getKeyExpression(BindingKey key) {
+        String typeName = key.type.toString();
+        String type = types.isSameType(key.type, types.erasure(key.type)) ? typeName + ".class" : "new com.google.inject.TypeLiteral<" + typeName + ">() {}";
+        return "com.google.inject.Key.get(" + type + (key.isAnnotated() ? ", " + key.annotationExpression : "") + ")";
+    }
+
+    /** A binding to a <code>@Provides</code> method, as wired by a generated component. */
+    static final class ProvidesBinding {
+        final ExecutableElement method;
+        final BindingKey key;
+        /** The scope annotation of the method, or null if it is unscoped. */
+        final TypeElement scopeAnnotation;
+        final List<Dependency> dependencies;
+
+        ProvidesBinding(ExecutableElement method, BindingKey key, TypeElement scopeAnnotation, List<Dependency> dependencies) {
+            this.method = method;
+            this.key = key;
+            this.scopeAnnotation = scopeAnnotation;
+            this.dependencies = Collections.unmodifiableList(dependencies);
+        }
+    }
+
+    /** A dependency of a binding. Dependencies used through a provider can't cause cycles. */
+    static final class Dependency {
+        /** The key of the dependency, without the provider. */
+        final BindingKey key;
+        /** The key of the parameter, with the provider if any. */
+        final BindingKey parameterKey;
+        final boolean viaProvider;
+
+        Dependency(BindingKey key, BindingKey parameterKey, boolean viaProvider) {
+            this.key = key;
+            this.parameterKey = parameterKey;
+            this.viaProvider = viaProvider;
+        }
+    }
+}
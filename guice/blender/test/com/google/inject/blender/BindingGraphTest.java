@@ -0,0 +1,147 @@
+package com.google.inject.blender;
+
+import static com.google.common.truth.Truth.assert_;
+import static com.google.testing.compile.JavaSourceSubjectFactory.javaSource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaFileObject;
+
+import junit.framework.TestCase;
+
+import com.google.common.collect.ImmutableList;
+import com.google.testing.compile.JavaFileObjects;
+
+/**
+ * Tests the diagnostics reported by {@link BindingGraph} in static mode.
+ */
+public class BindingGraphTest extends TestCase {
+
+    private static final String STATIC_MODE = "-AguiceStaticMode=true";
+    private static final String STRICT_MODE = "-AguiceStaticMode=strict";
+
+    private static final JavaFileObject CYCLE = JavaFileObjects.forSourceLines("sample.CycleModule",
+            "package sample;",
+            "",
+            "import com.google.inject.AbstractModule;",
+            "import com.google.inject.Provides;",
+            "",
+            "public class CycleModule extends AbstractModule {",
+            "    public static class A {}",
+            "    public static class B {}",
+            "",
+            "    @Override",
+            "    protected void configure() {}",
+            "",
+            "    @Provides A provideA(B b) { return new A(); }",
+            "    @Provides B provideB(A a) { return new B(); }",
+            "}");
+
+    private static final JavaFileObject PROVIDER_CYCLE = JavaFileObjects.forSourceLines("sample.ProviderCycleModule",
+            "package sample;",
+            "",
+            "import com.google.inject.AbstractModule;",
+            "import com.google.inject.Provider;",
+            "import com.google.inject.Provides;",
+            "",
+            "public class ProviderCycleModule extends AbstractModule {",
+            "    public static class A {}",
+            "    public static class B {}",
+            "",
+            "    @Override",
+            "    protected void configure() {}",
+            "",
+            "    @Provides A provideA(B b) { return new A(); }",
+            "    @Provides B provideB(Provider<A> a) { return new B(); }",
+            "}");
+
+    private static final JavaFileObject INTERFACE_CYCLE = JavaFileObjects.forSourceLines("sample.InterfaceCycleModule",
+            "package sample;",
+            "",
+            "import com.google.inject.AbstractModule;",
+            "import com.google.inject.Provides;",
+            "",
+            "public class InterfaceCycleModule extends AbstractModule {",
+            "    public interface A {}",
+            "    public static class B {}",
+            "",
+            "    @Override",
+            "    protected void configure() {}",
+            "",
+            "    @Provides A provideA(B b) { return new A() {}; }",
+            "    @Provides B provideB(A a) { return new B(); }",
+            "}");
+
+    private static final JavaFileObject MISSING_BINDING = JavaFileObjects.forSourceLines("sample.MissingBindingModule",
+            "package sample;",
+            "",
+            "import com.google.inject.AbstractModule;",
+            "import com.google.inject.Provides;",
+            "",
+            "public class MissingBindingModule extends AbstractModule {",
+            "    public interface Unbound {}",
+            "",
+            "    @Override",
+            "    protected void configure() {}",
+            "",
+            "    @Provides String provideString(Unbound unbound) { return unbound.toString(); }",
+            "}");
+
+    public void testCycleIsAnError() {
+        assert_().about(javaSource()).that(CYCLE)
+                .withCompilerOptions(STATIC_MODE)
+                .processedWith(new GuiceAnnotationProcessor())
+                .failsToCompile()
+                .withErrorContaining("Dependency cycle: sample.CycleModule.A -> sample.CycleModule.B -> sample.CycleModule.A")
+                .in(CYCLE).onLine(13)
+                .and()
+                .withErrorContaining("Dependency cycle: sample.CycleModule.B -> sample.CycleModule.A -> sample.CycleModule.B")
+                .in(CYCLE).onLine(14);
+    }
+
+    public void testCycleThroughProviderIsAllowed() throws Exception {
+        assertEquals(ImmutableList.of(), getWarnings(ImmutableList.of(STRICT_MODE), PROVIDER_CYCLE));
+    }
+
+    public void testCycleThroughInterfaceIsAWarning() throws Exception {
+        assertEquals(ImmutableList.of(
+                "Dependency cycle, only broken by a proxy of an interface: "
+                        + "sample.InterfaceCycleModule.A -> sample.InterfaceCycleModule.B -> sample.InterfaceCycleModule.A",
+                "Dependency cycle, only broken by a proxy of an interface: "
+                        + "sample.InterfaceCycleModule.B -> sample.InterfaceCycleModule.A -> sample.InterfaceCycleModule.B"),
+                getWarnings(ImmutableList.of(STATIC_MODE), INTERFACE_CYCLE));
+    }
+
+    public void testMissingBindingIsAWarning() throws Exception {
+        assertEquals(ImmutableList.of(
+                "No binding for sample.MissingBindingModule.Unbound (java.lang.String -> sample.MissingBindingModule.Unbound)"),
+                getWarnings(ImmutableList.of(STATIC_MODE), MISSING_BINDING));
+    }
+
+    public void testMissingBindingIsAnErrorInStrictMode() {
+        assert_().about(javaSource()).that(MISSING_BINDING)
+                .withCompilerOptions(STRICT_MODE)
+                .processedWith(new GuiceAnnotationProcessor())
+                .failsToCompile()
+                .withErrorContaining("No binding for sample.MissingBindingModule.Unbound")
+                .in(MISSING_BINDING).onLine(12);
+    }
+
+    /**
+     * Compiles a source and returns the warnings reported by the processor.
+     */
+    private static List<String> getWarnings(List<String> options, JavaFileObject source) throws Exception {
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<JavaFileObject>();
+        ProcessorTestCompiler.compile(options, diagnostics, source);
+        List<String> warnings = new ArrayList<String>();
+        for( Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics() ) {
+            if( diagnostic.getKind() == Diagnostic.Kind.WARNING && diagnostic.getSource() == source ) {
+                warnings.add(diagnostic.getMessage(null));
+            }
+        }
+        return warnings;
+    }
+}
@@ -0,0 +1,66 @@
+package com.google.inject.blender;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+
+import com.google.common.io.Files;
+import com.google.inject.AnnotationDatabase;
+
+/**
+ * Compiles sources with the {@link GuiceAnnotationProcessor} into a temporary directory, so that tests can load and
+ * run the generated code.
+ */
+final class ProcessorTestCompiler {
+
+    private ProcessorTestCompiler() {}
+
+    /**
+     * Compiles sources and returns a class loader for the compiled and generated classes.
+     * @param options the compiler options, such as <code>-AguiceStaticMode=true</code>.
+     */
+    static ClassLoader compile(List<String> options, JavaFileObject... sources) throws IOException {
+        return compile(options, new DiagnosticCollector<JavaFileObject>(), sources);
+    }
+
+    /**
+     * Compiles sources and returns a class loader for the compiled and generated classes.
+     * @param options the compiler options, such as <code>-AguiceStaticMode=true</code>.
+     * @param diagnostics receives the warnings and notes of the compilation.
+     */
+    static ClassLoader compile(List<String> options, DiagnosticCollector<JavaFileObject> diagnostics, JavaFileObject... sources) throws IOException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, null);
+        File outputDirectory = Files.createTempDir();
+        try {
+            fileManager.setLocation(StandardLocation.CLASS_OUTPUT, Collections.singleton(outputDirectory));
+            fileManager.setLocation(StandardLocation.SOURCE_OUTPUT, Collections.singleton(outputDirectory));
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics, options, null, Arrays.asList(sources));
+            task.setProcessors(Collections.singleton(new GuiceAnnotationProcessor()));
+            if( !task.call() ) {
+                throw new AssertionError("Compilation failed: " + diagnostics.getDiagnostics());
+            }
+        } finally {
+            fileManager.close();
+        }
+        return new URLClassLoader(new URL[] {outputDirectory.toURI().toURL()}, ProcessorTestCompiler.class.getClassLoader());
+    }
+
+    /**
+     * Returns an instance of the annotation database generated into a package.
+     */
+    static AnnotationDatabase getAnnotationDatabase(ClassLoader classLoader, String packageName) throws Exception {
+        return (AnnotationDatabase) classLoader.loadClass(packageName + ".AnnotationDatabaseImpl").newInstance();
+    }
+}
@@ -0,0 +1,97 @@
+package com.google.inject.blender;
+
+import java.util.HashMap;
+
+import junit.framework.TestCase;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.Key;
+import com.google.inject.Module;
+import com.google.inject.internal.ProvidesMethodInvokers;
+import com.google.inject.name.Names;
+import com.google.testing.compile.JavaFileObjects;
+
+/**
+ * Tests that the invokers generated by {@link ProvidesMethodInvokerGenerator} are listed in the annotation database,
+ * and that Guice calls provider methods through them.
+ */
+public class ProvidesMethodInvokerGeneratorTest extends TestCase {
+
+    private static final String MODULE_NAME = "sample.SampleModule";
+
+    private ClassLoader classLoader;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        classLoader = ProcessorTestCompiler.compile(ImmutableList.of("-AguiceAnnotationDatabasePackageName=sample"), JavaFileObjects.forSourceLines(MODULE_NAME,
+                "package sample;",
+                "",
+                "import com.google.inject.AbstractModule;",
+                "import com.google.inject.Provides;",
+                "import com.google.inject.name.Named;",
+                "",
+                "public class SampleModule extends AbstractModule {",
+                "    @Override",
+                "    protected void configure() {}",
+                "",
+                "    /** Returns the class that called this method. */",
+                "    @Provides @Named(\"caller\")",
+                "    String provideCaller() {",
+                "        return new Throwable().getStackTrace()[1].getClassName();",
+                "    }",
+                "",
+                "    @Provides @Named(\"greeting\")",
+                "    static String provideGreeting(@Named(\"caller\") String caller, Integer count) {",
+                "        return caller + \" \" + count;",
+                "    }",
+                "",
+                "    @Provides",
+                "    Integer provideCount() {",
+                "        return 3;",
+                "    }",
+                "}"));
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        ProvidesMethodInvokers.setInvokerIndex(ImmutableMap.<String, String>of());
+        super.tearDown();
+    }
+
+    public void testInvokerIsListedInAnnotationDatabase() throws Exception {
+        HashMap<String, String> index = getInvokerIndex();
+
+        assertEquals(ImmutableMap.of(MODULE_NAME, MODULE_NAME + ProvidesMethodInvokerGenerator.INVOKER_SUFFIX), index);
+        classLoader.loadClass(index.get(MODULE_NAME));
+    }
+
+    public void testProviderMethodsAreCalledThroughInvoker() throws Exception {
+        ProvidesMethodInvokers.setInvokerIndex(getInvokerIndex());
+        Injector injector = Guice.createInjector(newModule());
+
+        String invokerName = MODULE_NAME + ProvidesMethodInvokerGenerator.INVOKER_SUFFIX;
+        assertEquals(invokerName, injector.getInstance(Key.get(String.class, Names.named("caller"))));
+        assertEquals(invokerName + " 3", injector.getInstance(Key.get(String.class, Names.named("greeting"))));
+    }
+
+    public void testProviderMethodsAreCalledReflectivelyWithoutIndex() throws Exception {
+        Injector injector = Guice.createInjector(newModule());
+
+        String invokerName = MODULE_NAME + ProvidesMethodInvokerGenerator.INVOKER_SUFFIX;
+        assertFalse(invokerName.equals(injector.getInstance(Key.get(String.class, Names.named("caller")))));
+    }
+
+    private HashMap<String, String> getInvokerIndex() throws Exception {
+        HashMap<String, String> index = new HashMap<String, String>();
+        ProcessorTestCompiler.getAnnotationDatabase(classLoader, "sample").fillProvidesMethodInvokers(index);
+        return index;
+    }
+
+    private Module newModule() throws Exception {
+        return (Module) classLoader.loadClass(MODULE_NAME).newInstance();
+    }
+}
@@ -0,0 +1,165 @@
+package com.google.inject.blender;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.tools.JavaFileObject;
+
+import junit.framework.TestCase;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.inject.internal.util.StackTraceElements;
+import com.google.testing.compile.JavaFileObjects;
+
+/**
+ * Tests that classes get the same source locations from the index built by {@link SourceLocationIndexer} as from
+ * their class files.
+ */
+public class SourceLocationIndexerTest extends TestCase {
+
+    private static final JavaFileObject SAMPLE = JavaFileObjects.forSourceLines("sample.Sample",
+            "package sample;",
+            "",
+            "import javax.inject.Inject;",
+            "",
+            "@SuppressWarnings(\"unused\")",
+            "public class Sample {",
+            "    static int counter = 1;",
+            "    @Inject",
+            "    String injected;",
+            "    @Deprecated",
+            "    String initialized =",
+            "            \"value\";",
+            "    String assigned;",
+            "    int incremented;",
+            "",
+            "    @Inject",
+            "    public Sample(",
+            "            String a) {",
+            "        assigned = a;",
+            "    }",
+            "",
+            "    Sample() {",
+            "        this(",
+            "                \"b\");",
+            "        incremented++;",
+            "    }",
+            "",
+            "    @Inject",
+            "    public void method(",
+            "            String a) {",
+            "        ;",
+            "        int unassigned;",
+            "        System.out",
+            "                .println(a);",
+            "    }",
+            "",
+            "    @Inject",
+            "    void empty() {",
+            "    }",
+            "",
+            "    @Inject",
+            "    private void hidden() {",
+            "        System.out.println();",
+            "    }",
+            "",
+            "    @Inject",
+            "    void tryFirst() {",
+            "        try {",
+            "            System.out.println();",
+            "        } finally {",
+            "            System.out.println();",
+            "        }",
+            "    }",
+            "",
+            "    @Deprecated",
+            "    static",
+            "    class DefaultConstructor {",
+            "        @Inject String field = \"x\";",
+            "    }",
+            "",
+            "    class Inner {",
+            "        @Inject",
+            "        Inner() {",
+            "        }",
+            "    }",
+            "",
+            "    interface Interface {",
+            "        @Inject void abstractMethod();",
+            "    }",
+            "}");
+
+    private ClassLoader classLoader;
+    private HashMap<String, String> index;
+
+    @Override
+    protected void setUp() throws Exception {
+        // Guice reads class files with ASM 5, which doesn't know class files of Java 9 and later.
+        classLoader = ProcessorTestCompiler.compile(ImmutableList.of("-AguiceAnnotationDatabasePackageName=sample", "-source", "1.7", "-target", "1.7"), SAMPLE);
+        index = new HashMap<String, String>();
+        ProcessorTestCompiler.getAnnotationDatabase(classLoader, "sample").fillSourceLocations(index);
+    }
+
+    @Override
+    protected void tearDown() {
+        StackTraceElements.setSourceLocationIndex(Collections.<String, String>emptyMap());
+    }
+
+    public void testIndexesClassesContainingInjectionPoints() {
+        assertEquals(ImmutableSet.of("sample.Sample", "sample.Sample$DefaultConstructor", "sample.Sample$Inner", "sample.Sample$Interface"),
+                index.keySet());
+    }
+
+    public void testIndexedLinesMatchClassFiles() throws Exception {
+        for( String className : index.keySet() ) {
+            Class<?> type = classLoader.loadClass(className);
+            List<Object> fromClassFile = getSources(type);
+            StackTraceElements.setSourceLocationIndex(index);
+            try {
+                assertEquals(className, fromClassFile, getSources(type));
+            } finally {
+                StackTraceElements.setSourceLocationIndex(Collections.<String, String>emptyMap());
+            }
+        }
+    }
+
+    public void testMethodsAreAtTheirFirstStatement() throws Exception {
+        StackTraceElements.setSourceLocationIndex(index);
+        Class<?> type = classLoader.loadClass("sample.Sample");
+
+        assertEquals(18, getLineNumber(type.getConstructor(String.class)));
+        assertEquals(33, getLineNumber(type.getMethod("method", String.class)));
+        assertEquals(39, getLineNumber(type.getDeclaredMethod("empty")));
+    }
+
+    private int getLineNumber(Member member) {
+        return ((StackTraceElement) StackTraceElements.forMember(member)).getLineNumber();
+    }
+
+    private List<Object> getSources(Class<?> type) {
+        List<Object> sources = new ArrayList<Object>();
+        sources.add(StackTraceElements.forType(type));
+        for( Constructor<?> constructor : type.getDeclaredConstructors() ) {
+            sources.add(StackTraceElements.forMember(constructor));
+        }
+        for( Method method : type.getDeclaredMethods() ) {
+            if( !method.isSynthetic() ) {
+                sources.add(StackTraceElements.forMember(method));
+            }
+        }
+        for( Field field : type.getDeclaredFields() ) {
+            if( !field.isSynthetic() ) {
+                sources.add(StackTraceElements.forMember(field));
+            }
+        }
+        return sources;
+    }
+}
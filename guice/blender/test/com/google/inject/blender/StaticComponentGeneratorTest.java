@@ -0,0 +1,165 @@
+package com.google.inject.blender;
+
+import static com.google.common.truth.Truth.assert_;
+import static com.google.testing.compile.JavaSourceSubjectFactory.javaSource;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+
+import junit.framework.TestCase;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+import com.google.inject.AbstractModule;
+import com.google.inject.AnnotationDatabase;
+import com.google.inject.Binding;
+import com.google.inject.GeneratedComponent;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.Key;
+import com.google.inject.Module;
+import com.google.inject.Provider;
+import com.google.inject.Scopes;
+import com.google.inject.internal.GeneratedComponents;
+import com.google.inject.internal.ProvidesMethodInvokers;
+import com.google.inject.name.Names;
+import com.google.inject.spi.Dependency;
+import com.google.inject.spi.Element;
+import com.google.inject.spi.Elements;
+import com.google.inject.spi.ProviderInstanceBinding;
+import com.google.inject.spi.ProvidesMethodBinding;
+import com.google.testing.compile.JavaFileObjects;
+
+/**
+ * Tests that the components generated by {@link StaticComponentGenerator} compile, and bind the provider methods of
+ * their module as Guice does through reflection.
+ */
+public class StaticComponentGeneratorTest extends TestCase {
+
+    private static final String MODULE_NAME = "sample.SampleModule";
+
+    private static final JavaFileObject MODULE = JavaFileObjects.forSourceLines(MODULE_NAME,
+            "package sample;",
+            "",
+            "import java.lang.annotation.Retention;",
+            "import java.lang.annotation.RetentionPolicy;",
+            "import java.util.Arrays;",
+            "import java.util.List;",
+            "",
+            "import com.google.inject.AbstractModule;",
+            "import com.google.inject.Provider;",
+            "import com.google.inject.Provides;",
+            "import com.google.inject.Singleton;",
+            "import com.google.inject.name.Named;",
+            "",
+            "public class SampleModule extends AbstractModule {",
+            "    @Retention(RetentionPolicy.RUNTIME)",
+            "    @interface Nullable {}",
+            "",
+            "    @Override",
+            "    protected void configure() {}",
+            "",
+            "    @Provides @Named(\"greeting\")",
+            "    String provideGreeting(@Nullable @Named(\"name\") String name, Integer count, Provider<List<String>> names) {",
+            "        return name + \" \" + count + \" \" + names.get();",
+            "    }",
+            "",
+            "    @Provides @Nullable @Named(\"name\")",
+            "    String provideName() {",
+            "        return null;",
+            "    }",
+            "",
+            "    @Provides",
+            "    int provideCount() {",
+            "        return 3;",
+            "    }",
+            "",
+            "    @Provides @Singleton",
+            "    static List<String> provideNames() {",
+            "        return Arrays.asList(\"a\", \"b\");",
+            "    }",
+            "}");
+
+    private static final List<String> OPTIONS = ImmutableList.of("-AguiceStaticMode=true", "-AguiceAnnotationDatabasePackageName=sample");
+
+    @Override
+    protected void tearDown() throws Exception {
+        GeneratedComponents.setComponentIndex(ImmutableMap.<String, String>of());
+        ProvidesMethodInvokers.setInvokerIndex(ImmutableMap.<String, String>of());
+        super.tearDown();
+    }
+
+    public void testGeneratedComponentCompiles() {
+        assert_().about(javaSource()).that(MODULE)
+                .withCompilerOptions(OPTIONS)
+                .processedWith(new GuiceAnnotationProcessor())
+                .compilesWithoutError()
+                .and()
+                .generatesFileNamed(StandardLocation.CLASS_OUTPUT, "sample", "SampleModule" + StaticComponentGenerator.COMPONENT_SUFFIX + ".class");
+    }
+
+    public void testComponentBindsLikeReflection() throws Exception {
+        ClassLoader classLoader = ProcessorTestCompiler.compile(OPTIONS, MODULE);
+        final Object module = classLoader.loadClass(MODULE_NAME).newInstance();
+        HashMap<String, String> componentIndex = new HashMap<String, String>();
+        ProcessorTestCompiler.getAnnotationDatabase(classLoader, "sample").fillGeneratedComponents(componentIndex);
+        assertEquals(ImmutableMap.of(MODULE_NAME, MODULE_NAME + StaticComponentGenerator.COMPONENT_SUFFIX), componentIndex);
+
+        final GeneratedComponent component = (GeneratedComponent) classLoader.loadClass(componentIndex.get(MODULE_NAME)).newInstance();
+        Map<Key<?>, ProviderInstanceBinding<?>> generated = getProvidesMethodBindings(new AbstractModule() {
+            @Override
+            protected void configure() {
+                component.configure(module, binder());
+            }
+        });
+        Map<Key<?>, ProviderInstanceBinding<?>> reflective = getProvidesMethodBindings((Module) module);
+
+        assertEquals(reflective.keySet(), generated.keySet());
+        for( Key<?> key : reflective.keySet() ) {
+            ProvidesMethodBinding<?> generatedMethod = (ProvidesMethodBinding<?>) generated.get(key).getProviderInstance();
+            assertEquals(((ProvidesMethodBinding<?>) reflective.get(key).getProviderInstance()).getMethod(), generatedMethod.getMethod());
+            assertSame(module, generatedMethod.getEnclosingInstance());
+            assertEquals(reflective.get(key).getDependencies(), generated.get(key).getDependencies());
+            assertEquals(Scopes.isSingleton(reflective.get(key)), Scopes.isSingleton(generated.get(key)));
+        }
+        assertEquals(ImmutableSet.of(Dependency.get(Key.get(String.class, Names.named("name"))), Dependency.get(Key.get(Integer.class)),
+                Dependency.get(new Key<Provider<List<String>>>() {})),
+                generated.get(Key.get(String.class, Names.named("greeting"))).getDependencies());
+    }
+
+    public void testInjectorWithGeneratedIndexes() throws Exception {
+        ClassLoader classLoader = ProcessorTestCompiler.compile(OPTIONS, MODULE);
+        AnnotationDatabase annotationDatabase = ProcessorTestCompiler.getAnnotationDatabase(classLoader, "sample");
+        HashMap<String, String> componentIndex = new HashMap<String, String>();
+        annotationDatabase.fillGeneratedComponents(componentIndex);
+        GeneratedComponents.setComponentIndex(componentIndex);
+        HashMap<String, String> invokerIndex = new HashMap<String, String>();
+        annotationDatabase.fillProvidesMethodInvokers(invokerIndex);
+        ProvidesMethodInvokers.setInvokerIndex(invokerIndex);
+
+        Injector injector = Guice.createInjector((Module) classLoader.loadClass(MODULE_NAME).newInstance());
+
+        // The nullable name is passed as null, as through reflection.
+        assertEquals("null 3 [a, b]", injector.getInstance(Key.get(String.class, Names.named("greeting"))));
+        Binding<List<String>> names = injector.getBinding(new Key<List<String>>() {});
+        assertTrue(Scopes.isSingleton(names));
+        assertTrue(((ProviderInstanceBinding<?>) names).getProviderInstance() instanceof ProvidesMethodBinding);
+    }
+
+    private static Map<Key<?>, ProviderInstanceBinding<?>> getProvidesMethodBindings(Module module) {
+        Map<Key<?>, ProviderInstanceBinding<?>> bindings = Maps.newHashMap();
+        for( Element element : Elements.getElements(module) ) {
+            if( element instanceof ProviderInstanceBinding
+                    && ((ProviderInstanceBinding<?>) element).getProviderInstance() instanceof ProvidesMethodBinding ) {
+                bindings.put(((ProviderInstanceBinding<?>) element).getKey(), (ProviderInstanceBinding<?>) element);
+            }
+        }
+        return bindings;
+    }
+}
@@ -16,4 +16,28 @@ public abstract class AnnotationDatabase {
     public abstract void fillClassesContainingInjectionPointSet(HashSet<String> classesContainingInjectionPointsSet);
     public abstract void fillBindableClasses(HashSet<String> injectedClasses);
 
+    /**
+     * Fills the source locations of classes containing injection points, as recorded by the annotation processor.
+     * Databases generated by older processors don't record any.
+     * @param mapClassNameToSourceLocation maps class names to their encoded source file and member line numbers.
+     */
+    public void fillSourceLocations(HashMap<String, String> mapClassNameToSourceLocation) {
+    }
+
+    /**
+     * Fills the {@link ProvidesMethodInvoker}s generated by the annotation processor.
+     * Databases generated by older processors don't record any.
+     * @param mapClassNameToProvidesMethodInvokerName maps classes declaring {@link Provides} methods to the names of their invokers.
+     */
+    public void fillProvidesMethodInvokers(HashMap<String, String> mapClassNameToProvidesMethodInvokerName) {
+    }
+
+    /**
+     * Fills the {@link GeneratedComponent}s generated by the annotation processor in static mode.
+     * Databases generated by older processors, or without static mode, don't record any.
+     * @param mapClassNameToGeneratedComponentName maps module classes to the names of their components.
+     */
+    public void fillGeneratedComponents(HashMap<String, String> mapClassNameToGeneratedComponentName) {
+    }
+
 }
@@ -25,6 +25,9 @@ public class AnnotationDatabaseFinder {
     private HashMap<String, Map<String, Set<String>>> mapAnnotationToMapClassContainingInjectionToInjectedMethodSet = new HashMap<String, Map<String, Set<String>>>();
     private HashMap<String, Map<String, Set<String>>> mapAnnotationToMapClassContainingInjectionToInjectedConstructorSet = new HashMap<String, Map<String, Set<String>>>();
     private HashSet<String> bindableClassesSet = new HashSet<String>();
+    private HashMap<String, String> mapClassNameToSourceLocation = new HashMap<String, String>();
+    private HashMap<String, String> mapClassNameToProvidesMethodInvokerName = new HashMap<String, String>();
+    private HashMap<String, String> mapClassNameToGeneratedComponentName = new HashMap<String, String>();
 
     public AnnotationDatabaseFinder(String[] additionalPackageNames) {
         try {
@@ -68,6 +71,18 @@ public class AnnotationDatabaseFinder {
         return bindableClassesSet;
     }
 
+    public HashMap<String, String> getMapClassNameToSourceLocation() {
+        return mapClassNameToSourceLocation;
+    }
+
+    public HashMap<String, String> getMapClassNameToProvidesMethodInvokerName() {
+        return mapClassNameToProvidesMethodInvokerName;
+    }
+
+    public HashMap<String, String> getMapClassNameToGeneratedComponentName() {
+        return mapClassNameToGeneratedComponentName;
+    }
+
     private AnnotationDatabase getAnnotationDatabaseInstance(String annotationDatabaseClassName) throws ClassNotFoundException, InstantiationException,
     IllegalAccessException {
         Class<?> annotationDatabaseClass = Class.forName( annotationDatabaseClassName);
@@ -81,6 +96,9 @@ public class AnnotationDatabaseFinder {
         annotationDatabase.fillAnnotationClassesAndConstructors(mapAnnotationToMapClassContainingInjectionToInjectedConstructorSet);
         annotationDatabase.fillClassesContainingInjectionPointSet(classesContainingInjectionPointsSet);
         annotationDatabase.fillBindableClasses(bindableClassesSet);
+        annotationDatabase.fillSourceLocations(mapClassNameToSourceLocation);
+        annotationDatabase.fillProvidesMethodInvokers(mapClassNameToProvidesMethodInvokerName);
+        annotationDatabase.fillGeneratedComponents(mapClassNameToGeneratedComponentName);
         //System.out.println(mapAnnotationToMapClassWithInjectionNameToMethodSet.toString());
     }
 
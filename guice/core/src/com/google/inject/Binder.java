@@ -493,4 +493,23 @@ public interface Binder {
    * @since 4.0
    */
   void requireExactBindingAnnotations();
+
+  /**
+   * Defers the validation of explicit bindings to their first use. By default, Guice initializes
+   * every constructor binding and resolves the target of every linked binding and of every
+   * provider lookup when the injector is created, which validates their transitive dependencies.
+   * With this option, each of these bindings is initialized once, on its first provision, and its
+   * errors are reported by a {@link ProvisionException} rather than a {@link CreationException}.
+   * <p>
+   * This shortens the creation of injectors with many bindings that are rarely used, at the cost
+   * of finding configuration errors late. It is meant for {@link Stage#DEVELOPMENT}, and ignored in
+   * {@link Stage#TOOL}. Static injections, injected instances and eager singletons are still
+   * validated when the injector is created.
+   * <p>
+   * If a parent injector defers validation, then all child injectors (and private modules within
+   * that injector) also defer validation.
+   *
+   * @since 4.0
+   */
+  void deferValidation();
 }
@@ -0,0 +1,51 @@
+package com.google.inject;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+
+import com.google.inject.internal.ProviderMethodsModule;
+
+/**
+ * Binds the {@link Provides} methods of a module class directly, without scanning the class through reflection.
+ * Implementations are generated by the annotation processor in static mode, one for each module class
+ * whose provider methods can be wired at compile time, in the package of that class, and are listed
+ * in its {@link AnnotationDatabase}. The dependencies of these methods were validated at compile time.
+ * @see AnnotationDatabase#fillGeneratedComponents(java.util.HashMap)
+ */
+public abstract class GeneratedComponent {
+    protected GeneratedComponent() {}
+
+    /**
+     * Binds the {@link Provides} methods of a module, as {@link com.google.inject.internal.ProviderMethodsModule} would.
+     * @param module the module declaring the methods.
+     * @param binder the binder of the module.
+     */
+    public abstract void configure(Object module, Binder binder);
+
+    /**
+     * Binds a {@link Provides} method of a module, from the keys computed at compile time. The binding is the same
+     * as for a method found through reflection, with its dependencies and the method available through the SPI,
+     * but the method is looked up by its signature instead of scanning the module class.
+     * @param binder the binder of the module.
+     * @param module the module declaring the method.
+     * @param methodName the name of the method.
+     * @param parameterTypes the erased parameter types of the method.
+     * @param key the key bound by the method.
+     * @param scopeAnnotation the scope annotation of the method, or null if it is unscoped.
+     * @param parameterKeys the key of each parameter of the method.
+     */
+    protected static <T> void bindProvidesMethod(Binder binder, Object module, String methodName, Class<?>[] parameterTypes,
+            Key<T> key, Class<? extends Annotation> scopeAnnotation, Key<?>... parameterKeys) {
+        Method method;
+        try {
+            method = module.getClass().getDeclaredMethod(methodName, parameterTypes);
+        } catch( NoSuchMethodException e ) {
+            binder.addError("Generated component of %s is out of date, %s%s is missing", module.getClass().getName(),
+                    methodName, Arrays.toString(parameterTypes));
+            return;
+        }
+        ProviderMethodsModule.createProviderMethod(binder, module, method, key, Arrays.<Key<?>>asList(parameterKeys),
+                scopeAnnotation).configure(binder);
+    }
+}
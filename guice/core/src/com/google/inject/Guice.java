@@ -17,8 +17,13 @@
 package com.google.inject;
 
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.Executor;
 
+import com.google.inject.internal.GeneratedComponents;
 import com.google.inject.internal.InternalInjectorCreator;
+import com.google.inject.internal.ProvidesMethodInvokers;
+import com.google.inject.internal.util.StackTraceElements;
 
 /**
  * The entry point to the Guice framework. Creates {@link Injector}s from
@@ -51,6 +56,7 @@ public final class Guice {
 
     private static HierarchyTraversalFilterFactory hierarchyTraversalFilterFactory = new HierarchyTraversalFilterFactory();
     private static AnnotationDatabaseFinder annotationDatabaseFinder;
+    private static volatile Executor moduleConfigurationExecutor;
 
     private Guice() {}
 
@@ -131,11 +137,31 @@ public final class Guice {
     public static void setAnnotationDatabasePackageNames(final String[] packageNames) {
         if( packageNames != null && packageNames.length != 0 ) {
             annotationDatabaseFinder = new AnnotationDatabaseFinder(packageNames);
+            StackTraceElements.setSourceLocationIndex(annotationDatabaseFinder.getMapClassNameToSourceLocation());
+            ProvidesMethodInvokers.setInvokerIndex(annotationDatabaseFinder.getMapClassNameToProvidesMethodInvokerName());
+            GeneratedComponents.setComponentIndex(annotationDatabaseFinder.getMapClassNameToGeneratedComponentName());
         } else {
             annotationDatabaseFinder = null;
+            StackTraceElements.setSourceLocationIndex(Collections.<String, String>emptyMap());
+            ProvidesMethodInvokers.setInvokerIndex(Collections.<String, String>emptyMap());
+            GeneratedComponents.setComponentIndex(Collections.<String, String>emptyMap());
         }
     }
 
+    /**
+     * Sets an executor to configure the top level modules of an injector in parallel, or null to configure them
+     * sequentially, which is the default. Modules are merged in declaration order, so this only makes a difference
+     * for modules that don't depend on each other's side effects in their <code>configure</code> methods.
+     * @param executor the executor used to configure modules, see {@link com.google.inject.spi.Elements#getElements(Stage, Executor, Iterable)}.
+     */
+    public static void setModuleConfigurationExecutor(Executor executor) {
+        moduleConfigurationExecutor = executor;
+    }
+
+    public static Executor getModuleConfigurationExecutor() {
+        return moduleConfigurationExecutor;
+    }
+
     public static AnnotationDatabaseFinder getAnnotationDatabaseFinder() {
         return annotationDatabaseFinder;
     }
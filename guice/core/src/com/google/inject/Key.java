@@ -23,11 +23,13 @@ import static com.google.inject.internal.Annotations.isAllDefaultMethods;
 
 import com.google.common.base.Supplier;
 import com.google.common.base.Suppliers;
+import com.google.common.collect.MapMaker;
 import com.google.inject.internal.Annotations;
 import com.google.inject.internal.MoreTypes;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Type;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Binding key consisting of an injection type and an optional annotation.
@@ -54,6 +56,10 @@ import java.lang.reflect.Type;
  */
 public class Key<T> {
 
+  /** The unannotated keys of classes, which are the most common keys. */
+  private static final ConcurrentMap<Class<?>, Key<?>> classKeys =
+      new MapMaker().weakKeys().weakValues().makeMap();
+
   private final AnnotationStrategy annotationStrategy;
 
   private final TypeLiteral<T> typeLiteral;
@@ -137,7 +143,7 @@ public class Key<T> {
   /** Constructs a key from a manually specified type. */
   private Key(TypeLiteral<T> typeLiteral, AnnotationStrategy annotationStrategy) {
     this.annotationStrategy = annotationStrategy;
-    this.typeLiteral = MoreTypes.canonicalizeForKey(typeLiteral);
+    this.typeLiteral = TypeLiteral.canonical(MoreTypes.canonicalizeForKey(typeLiteral));
     this.hashCode = computeHashCode();
     this.toStringSupplier = createToStringSupplier();
   }
@@ -233,14 +239,26 @@ public class Key<T> {
    */
   static <T> Key<T> get(Class<T> type,
       AnnotationStrategy annotationStrategy) {
-    return new Key<T>(type, annotationStrategy);
+    return annotationStrategy == NullAnnotationStrategy.INSTANCE
+        ? get(type)
+        : new Key<T>(type, annotationStrategy);
   }
 
   /**
    * Gets a key for an injection type.
    */
+  @SuppressWarnings("unchecked")
   public static <T> Key<T> get(Class<T> type) {
-    return new Key<T>(type, NullAnnotationStrategy.INSTANCE);
+    checkNotNull(type, "type");
+    Key<T> key = (Key<T>) classKeys.get(type);
+    if (key == null) {
+      key = new Key<T>(type, NullAnnotationStrategy.INSTANCE);
+      Key<T> existing = (Key<T>) classKeys.putIfAbsent(type, key);
+      if (existing != null) {
+        key = existing;
+      }
+    }
+    return key;
   }
 
   /**
@@ -262,6 +280,9 @@ public class Key<T> {
    * Gets a key for an injection type.
    */
   public static Key<?> get(Type type) {
+    if (type instanceof Class) {
+      return get((Class<?>) type);
+    }
     return new Key<Object>(type, NullAnnotationStrategy.INSTANCE);
   }
 
@@ -283,7 +304,11 @@ public class Key<T> {
   /**
    * Gets a key for an injection type.
    */
+  @SuppressWarnings("unchecked")
   public static <T> Key<T> get(TypeLiteral<T> typeLiteral) {
+    if (typeLiteral.getType() instanceof Class) {
+      return (Key<T>) get((Class<?>) typeLiteral.getType());
+    }
     return new Key<T>(typeLiteral, NullAnnotationStrategy.INSTANCE);
   }
 
@@ -310,7 +335,7 @@ public class Key<T> {
    * @since 3.0
    */
   public <T> Key<T> ofType(Class<T> type) {
-    return new Key<T>(type, annotationStrategy);
+    return get(type, annotationStrategy);
   }
 
   /**
@@ -320,7 +345,9 @@ public class Key<T> {
    * @since 3.0
    */
   public Key<?> ofType(Type type) {
-    return new Key<Object>(type, annotationStrategy);
+    return annotationStrategy == NullAnnotationStrategy.INSTANCE
+        ? get(type)
+        : new Key<Object>(type, annotationStrategy);
   }
 
   /**
@@ -330,7 +357,9 @@ public class Key<T> {
    * @since 3.0
    */
   public <T> Key<T> ofType(TypeLiteral<T> type) {
-    return new Key<T>(type, annotationStrategy);
+    return annotationStrategy == NullAnnotationStrategy.INSTANCE
+        ? get(type)
+        : new Key<T>(type, annotationStrategy);
   }
 
   /**
@@ -0,0 +1,31 @@
+package com.google.inject;
+
+import java.util.List;
+
+/**
+ * Calls the {@link Provides} methods of a module class directly, without reflection.
+ * Implementations are generated by the annotation processor, one for each class declaring
+ * {@link Provides} methods, in the package of that class, and are listed in its {@link AnnotationDatabase}.
+ * @see AnnotationDatabase#fillProvidesMethodInvokers(java.util.HashMap)
+ */
+public abstract class ProvidesMethodInvoker {
+    protected ProvidesMethodInvoker() {}
+
+    /**
+     * Returns the index of a method, to be passed to {@link #invoke(int, Object, List)}.
+     * @param methodName the name of a {@link Provides} method of the module class.
+     * @param parameterTypes the erased parameter types of the method.
+     * @return the index of the method, or -1 if it can't be invoked directly, for instance because it is private.
+     */
+    public abstract int getIndex(String methodName, Class<?>[] parameterTypes);
+
+    /**
+     * Invokes a {@link Provides} method.
+     * @param index the index of the method, as returned by {@link #getIndex(String, Class[])}.
+     * @param module the module to invoke the method on, ignored for static methods.
+     * @param parameterProviders the providers of each parameter of the method, in order.
+     * @return the value returned by the method.
+     * @throws Exception any exception thrown by the method.
+     */
+    public abstract Object invoke(int index, Object module, List<? extends Provider<?>> parameterProviders) throws Exception;
+}
@@ -21,6 +21,9 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.inject.internal.MoreTypes.canonicalize;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import com.google.common.collect.MapMaker;
 import com.google.inject.internal.MoreTypes;
 import com.google.inject.util.Types;
 
@@ -34,6 +37,7 @@ import java.lang.reflect.Type;
 import java.lang.reflect.TypeVariable;
 import java.lang.reflect.WildcardType;
 import java.util.List;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Represents a generic type {@code T}. Java doesn't yet provide a way to
@@ -62,6 +66,16 @@ import java.util.List;
  */
 public class TypeLiteral<T> {
 
+  /** The type literals of classes, returned by {@link #get(Class)}. */
+  private static final ConcurrentMap<Class<?>, TypeLiteral<?>> classTypeLiterals =
+      new MapMaker().weakKeys().weakValues().makeMap();
+
+  /**
+   * The type literals of generic types, interned so that equal type literals are usually the same
+   * instance. Comparing the structure of generic types is comparatively slow.
+   */
+  private static final Interner<TypeLiteral<?>> genericTypeLiterals = Interners.newWeakInterner();
+
   final Class<? super T> rawType;
   final Type type;
   final int hashCode;
@@ -108,7 +122,7 @@ public class TypeLiteral<T> {
    * Gets type literal from super class's type parameter.
    */
   static TypeLiteral<?> fromSuperclassTypeParameter(Class<?> subclass) {
-    return new TypeLiteral<Object>(getSuperclassTypeParameter(subclass));
+    return get(getSuperclassTypeParameter(subclass));
   }
 
   /**
@@ -142,7 +156,8 @@ public class TypeLiteral<T> {
   }
 
   @Override public final boolean equals(Object o) {
-    return o instanceof TypeLiteral<?>
+    return o == this
+        || o instanceof TypeLiteral<?>
         && MoreTypes.equals(type, ((TypeLiteral) o).type);
   }
 
@@ -154,14 +169,39 @@ public class TypeLiteral<T> {
    * Gets type literal for the given {@code Type} instance.
    */
   public static TypeLiteral<?> get(Type type) {
-    return new TypeLiteral<Object>(type);
+    if (type instanceof Class) {
+      return get((Class<?>) type);
+    }
+    return genericTypeLiterals.intern(new TypeLiteral<Object>(type));
   }
 
   /**
    * Gets type literal for the given {@code Class} instance.
    */
+  @SuppressWarnings("unchecked")
   public static <T> TypeLiteral<T> get(Class<T> type) {
-    return new TypeLiteral<T>(type);
+    checkNotNull(type, "type");
+    TypeLiteral<T> typeLiteral = (TypeLiteral<T>) classTypeLiterals.get(type);
+    if (typeLiteral == null) {
+      typeLiteral = new TypeLiteral<T>(type);
+      TypeLiteral<T> existing = (TypeLiteral<T>) classTypeLiterals.putIfAbsent(type, typeLiteral);
+      if (existing != null) {
+        typeLiteral = existing;
+      }
+    }
+    return typeLiteral;
+  }
+
+  /**
+   * Returns the canonical instance equal to {@code typeLiteral}, which differs from it if it is a
+   * subclass created by a client.
+   */
+  @SuppressWarnings("unchecked")
+  static <T> TypeLiteral<T> canonical(TypeLiteral<T> typeLiteral) {
+    return typeLiteral.type instanceof Class
+        ? get((Class<T>) typeLiteral.type)
+        : (TypeLiteral<T>) genericTypeLiterals.intern(typeLiteral.getClass() == TypeLiteral.class
+            ? typeLiteral : new TypeLiteral<Object>(typeLiteral.type));
   }
 
 
@@ -42,7 +42,7 @@ abstract class AbstractBindingProcessor extends AbstractProcessor {
   // It's unfortunate that we have to maintain a blacklist of specific
   // classes, but we can't easily block the whole package because of
   // all our unit tests.
-  private static final Set<Class<?>> FORBIDDEN_TYPES = ImmutableSet.<Class<?>>of(
+  static final Set<Class<?>> FORBIDDEN_TYPES = ImmutableSet.<Class<?>>of(
       AbstractModule.class,
       Binder.class,
       Binding.class,
@@ -154,6 +154,11 @@ abstract class AbstractBindingProcessor extends AbstractProcessor {
     }
 
     protected void scheduleInitialization(final BindingImpl<?> binding) {
+      if (injector.options.validationDeferred && binding instanceof ConstructorBindingImpl) {
+        ((ConstructorBindingImpl<?>) binding).deferInitialization(source);
+        return;
+      }
+
       bindingData.addUninitializedBinding(new Runnable() {
         public void run() {
           try {
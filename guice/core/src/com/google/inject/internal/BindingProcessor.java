@@ -129,7 +129,11 @@ final class BindingProcessor extends AbstractBindingProcessor {
         BoundProviderFactory<T> boundProviderFactory = new BoundProviderFactory<T>(
             injector, providerKey, source, !injector.options.disableCircularProxies,
             injector.provisionListenerStore.get((ProviderKeyBinding<T>) binding));
-        bindingData.addCreationListener(boundProviderFactory);
+        if (injector.options.validationDeferred) {
+          boundProviderFactory.deferInitialization();
+        } else {
+          bindingData.addCreationListener(boundProviderFactory);
+        }
         InternalFactory<? extends T> scopedFactory = Scoping.scope(
             key, injector, (InternalFactory<? extends T>) boundProviderFactory, source, scoping);
         putBinding(new LinkedProviderBindingImpl<T>(
@@ -146,7 +150,11 @@ final class BindingProcessor extends AbstractBindingProcessor {
         }
 
         FactoryProxy<T> factory = new FactoryProxy<T>(injector, key, linkedKey, source);
-        bindingData.addCreationListener(factory);
+        if (injector.options.validationDeferred) {
+          factory.deferInitialization();
+        } else {
+          bindingData.addCreationListener(factory);
+        }
         InternalFactory<? extends T> scopedFactory
             = Scoping.scope(key, injector, factory, source, scoping);
         putBinding(
@@ -33,6 +33,7 @@ final class BoundProviderFactory<T> extends ProviderInternalFactory<T> implement
   private final InjectorImpl injector;
   final Key<? extends javax.inject.Provider<? extends T>> providerKey;
   private InternalFactory<? extends javax.inject.Provider<? extends T>> providerFactory;
+  private DeferredInitialization deferredInitialization;
 
   BoundProviderFactory(
       InjectorImpl injector,
@@ -54,8 +55,16 @@ final class BoundProviderFactory<T> extends ProviderInternalFactory<T> implement
     }
   }
 
+  /** Resolves the provider's factory on first use rather than when the injector is created. */
+  void deferInitialization() {
+    deferredInitialization = new DeferredInitialization(injector.state.lock(), this);
+  }
+
   public T get(Errors errors, InternalContext context, Dependency<?> dependency, boolean linked)
       throws ErrorsException {
+    if (deferredInitialization != null) {
+      deferredInitialization.ensureInitialized(errors);
+    }
     context.pushState(providerKey, source);
     try {
       errors = errors.withSource(providerKey);
@@ -140,6 +140,35 @@ final class ConstructorBindingImpl<T> extends BindingImpl<T>
       injector.provisionListenerStore.get(this);
   }
 
+  /**
+   * Initializes this binding on its first provision or inspection rather than when the injector is
+   * created.
+   */
+  void deferInitialization(final Object source) {
+    final InjectorImpl injector = getInjector();
+    factory.deferredInitialization = new DeferredInitialization(injector.state.lock(),
+        new CreationListener() {
+          public void notify(Errors errors) {
+            try {
+              initialize(injector, errors.withSource(source));
+            } catch (ErrorsException e) {
+              errors.merge(e.getErrors());
+            }
+          }
+        });
+  }
+
+  /** Initializes this binding if its initialization was deferred to its first use. */
+  private void ensureInitialized() {
+    if (factory.deferredInitialization != null) {
+      try {
+        factory.deferredInitialization.ensureInitialized(new Errors());
+      } catch (ErrorsException e) {
+        throw new ConfigurationException(e.getErrors().getMessages());
+      }
+    }
+  }
+
   /** True if this binding has been initialized and is ready for use. */
   boolean isInitialized() {
     return factory.constructorInjector != null;
@@ -173,22 +202,26 @@ final class ConstructorBindingImpl<T> extends BindingImpl<T>
   }
 
   public <V> V acceptTargetVisitor(BindingTargetVisitor<? super T, V> visitor) {
+    ensureInitialized();
     checkState(factory.constructorInjector != null, "not initialized");
     return visitor.visit(this);
   }
 
   public InjectionPoint getConstructor() {
+    ensureInitialized();
     checkState(factory.constructorInjector != null, "Binding is not ready");
     return factory.constructorInjector.getConstructionProxy().getInjectionPoint();
   }
 
   public Set<InjectionPoint> getInjectableMembers() {
+    ensureInitialized();
     checkState(factory.constructorInjector != null, "Binding is not ready");
     return factory.constructorInjector.getInjectableMembers();
   }
 
   /*if[AOP]*/
   public Map<Method, List<org.aopalliance.intercept.MethodInterceptor>> getMethodInterceptors() {
+    ensureInitialized();
     checkState(factory.constructorInjector != null, "Binding is not ready");
     return factory.constructorInjector.getConstructionProxy().getMethodInterceptors();
   }
@@ -249,6 +282,7 @@ final class ConstructorBindingImpl<T> extends BindingImpl<T>
     private boolean allowCircularProxy;
     private ConstructorInjector<T> constructorInjector;
     private ProvisionListenerStackCallback<T> provisionCallback;
+    private DeferredInitialization deferredInitialization;
 
     Factory(boolean failIfNotLinked, Key<?> key) {
       this.failIfNotLinked = failIfNotLinked;
@@ -258,6 +292,9 @@ final class ConstructorBindingImpl<T> extends BindingImpl<T>
     @SuppressWarnings("unchecked")
     public T get(Errors errors, InternalContext context, Dependency<?> dependency, boolean linked)
         throws ErrorsException {
+      if (deferredInitialization != null) {
+        deferredInitialization.ensureInitialized(errors);
+      }
       checkState(constructorInjector != null, "Constructor not ready");
 
       if(failIfNotLinked && !linked) {
@@ -0,0 +1,59 @@
+/**
+ * Copyright (C) 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.inject.internal;
+
+import com.google.inject.spi.Message;
+
+import java.util.List;
+
+/**
+ * Notifies a {@link CreationListener} on the first use of its binding rather than when the
+ * injector is created, for injectors that {@link com.google.inject.Binder#deferValidation defer
+ * validation}. The listener is notified once, while holding the injector's lock, and the errors it
+ * reports are thrown by every use of the binding.
+ */
+final class DeferredInitialization {
+  private final Object lock;
+  private final CreationListener listener;
+
+  /** The errors reported by the listener, null until it has been notified. */
+  private volatile List<Message> errorMessages;
+
+  DeferredInitialization(Object lock, CreationListener listener) {
+    this.lock = lock;
+    this.listener = listener;
+  }
+
+  /** Notifies the listener if it hasn't been yet, and throws the errors it reported. */
+  void ensureInitialized(Errors errors) throws ErrorsException {
+    List<Message> messages = errorMessages;
+    if (messages == null) {
+      synchronized (lock) {
+        messages = errorMessages;
+        if (messages == null) {
+          Errors initializationErrors = new Errors();
+          listener.notify(initializationErrors);
+          messages = errorMessages = initializationErrors.getMessages();
+        }
+      }
+    }
+
+    if (!messages.isEmpty()) {
+      throw errors.merge(messages).toException();
+    }
+  }
+}
@@ -33,6 +33,7 @@ final class FactoryProxy<T> implements InternalFactory<T>, CreationListener {
   private final Object source;
 
   private InternalFactory<? extends T> targetFactory;
+  private DeferredInitialization deferredInitialization;
 
   FactoryProxy(InjectorImpl injector, Key<T> key, Key<? extends T> targetKey, Object source) {
     this.injector = injector;
@@ -49,8 +50,16 @@ final class FactoryProxy<T> implements InternalFactory<T>, CreationListener {
     }
   }
 
+  /** Resolves the target factory on first use rather than when the injector is created. */
+  void deferInitialization() {
+    deferredInitialization = new DeferredInitialization(injector.state.lock(), this);
+  }
+
   public T get(Errors errors, InternalContext context, Dependency<?> dependency, boolean linked)
       throws ErrorsException {
+    if (deferredInitialization != null) {
+      deferredInitialization.ensureInitialized(errors);
+    }
     context.pushState(targetKey, source);
     try {
       return targetFactory.get(errors.withSource(targetKey), context, dependency, true);
@@ -0,0 +1,86 @@
+/**
+ * Copyright (C) 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.inject.internal;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.MapMaker;
+import com.google.inject.GeneratedComponent;
+
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Finds the {@link GeneratedComponent}s generated at build time for module classes whose
+ * {@literal @}{@link com.google.inject.Provides Provides} methods were wired statically.
+ */
+public final class GeneratedComponents {
+  private static final Logger logger = Logger.getLogger(GeneratedComponents.class.getName());
+
+  /** Component class names, by the name of their module class. */
+  private static volatile Map<String, String> componentIndex = ImmutableMap.of();
+
+  /**
+   * Components instantiated so far. A component references its module class, so values are weak
+   * too, or the class loader of the module could never be collected.
+   */
+  private static final Map<Class<?>, GeneratedComponent> components =
+      new MapMaker().weakKeys().weakValues().makeMap();
+
+  private GeneratedComponents() {}
+
+  /**
+   * Sets the components recorded at build time, typically by the annotation processor into an
+   * {@code AnnotationDatabase}. Provider methods of modules found in this index are bound by their
+   * component instead of being discovered through reflection.
+   *
+   * @param index maps module class names to the names of their component classes. An empty map
+   *     disables the index.
+   */
+  public static void setComponentIndex(Map<String, String> index) {
+    componentIndex = ImmutableMap.copyOf(index);
+    components.clear();
+  }
+
+  /**
+   * Returns the component of {@code moduleClass}, or null if there is none.
+   */
+  static GeneratedComponent forClass(Class<?> moduleClass) {
+    Map<String, String> index = componentIndex;
+    if (index.isEmpty()) {
+      return null;
+    }
+
+    GeneratedComponent component = components.get(moduleClass);
+    if (component == null) {
+      String componentName = index.get(moduleClass.getName());
+      if (componentName == null) {
+        return null;
+      }
+      try {
+        component = (GeneratedComponent) Class.forName(
+            componentName, true, moduleClass.getClassLoader()).newInstance();
+      } catch (Exception e) {
+        // Stale index, e.g. the component was stripped by a shrinker. Use reflection instead.
+        logger.log(Level.WARNING, "Cannot instantiate generated component " + componentName, e);
+        return null;
+      }
+      components.put(moduleClass, component);
+    }
+    return component;
+  }
+}
@@ -73,14 +73,17 @@ final class InjectorImpl implements Injector, Lookups {
     final boolean disableCircularProxies;
     final boolean atInjectRequired;
     final boolean exactBindingAnnotationsRequired;
+    final boolean validationDeferred;
 
     InjectorOptions(Stage stage, boolean jitDisabled, boolean disableCircularProxies,
-        boolean atInjectRequired, boolean exactBindingAnnotationsRequired) {
+        boolean atInjectRequired, boolean exactBindingAnnotationsRequired,
+        boolean validationDeferred) {
       this.stage = stage;
       this.jitDisabled = jitDisabled;
       this.disableCircularProxies = disableCircularProxies;
       this.atInjectRequired = atInjectRequired;
       this.exactBindingAnnotationsRequired = exactBindingAnnotationsRequired;
+      this.validationDeferred = validationDeferred;
     }
 
     @Override
@@ -91,6 +94,7 @@ final class InjectorImpl implements Injector, Lookups {
           .add("disableCircularProxies", disableCircularProxies)
           .add("atInjectRequired", atInjectRequired)
           .add("exactBindingAnnotationsRequired", exactBindingAnnotationsRequired)
+          .add("validationDeferred", validationDeferred)
           .toString();
     }
   }
@@ -222,6 +226,10 @@ final class InjectorImpl implements Injector, Lookups {
   }
 
   public Injector createChildInjector(Iterable<? extends Module> modules) {
+    Injector injector = InstanceChildInjectorCreator.create(this, modules);
+    if (injector != null) {
+      return injector;
+    }
     return new InternalInjectorCreator()
         .parentInjector(this)
         .addModules(modules)
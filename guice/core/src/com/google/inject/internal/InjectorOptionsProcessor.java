@@ -21,6 +21,7 @@ import static com.google.common.base.Preconditions.checkState;
 
 import com.google.inject.Stage;
 import com.google.inject.internal.InjectorImpl.InjectorOptions;
+import com.google.inject.spi.DeferValidationOption;
 import com.google.inject.spi.DisableCircularProxiesOption;
 import com.google.inject.spi.RequireAtInjectOnConstructorsOption;
 import com.google.inject.spi.RequireExactBindingAnnotationsOption;
@@ -37,6 +38,7 @@ class InjectorOptionsProcessor extends AbstractProcessor {
   private boolean jitDisabled = false;
   private boolean atInjectRequired = false;
   private boolean exactBindingAnnotationsRequired = false;
+  private boolean validationDeferred = false;
 
   InjectorOptionsProcessor(Errors errors) {
     super(errors);
@@ -66,6 +68,12 @@ class InjectorOptionsProcessor extends AbstractProcessor {
     return true;
   }
 
+  @Override
+  public Boolean visit(DeferValidationOption option) {
+    validationDeferred = true;
+    return true;
+  }
+
   InjectorOptions getOptions(Stage stage, InjectorOptions parentOptions) {
     checkNotNull(stage, "stage must be set");
     if(parentOptions == null) {
@@ -74,7 +82,8 @@ class InjectorOptionsProcessor extends AbstractProcessor {
           jitDisabled,
           disableCircularProxies,
           atInjectRequired,
-          exactBindingAnnotationsRequired);
+          exactBindingAnnotationsRequired,
+          validationDeferred && stage != Stage.TOOL);
     } else {
       checkState(stage == parentOptions.stage, "child & parent stage don't match");
       return new InjectorOptions(
@@ -82,7 +91,8 @@ class InjectorOptionsProcessor extends AbstractProcessor {
           jitDisabled || parentOptions.jitDisabled,
           disableCircularProxies || parentOptions.disableCircularProxies,
           atInjectRequired || parentOptions.atInjectRequired,
-          exactBindingAnnotationsRequired || parentOptions.exactBindingAnnotationsRequired);
+          exactBindingAnnotationsRequired || parentOptions.exactBindingAnnotationsRequired,
+          (validationDeferred && stage != Stage.TOOL) || parentOptions.validationDeferred);
     }
   }
 
@@ -210,7 +210,7 @@ final class InjectorShell {
    * The Injector is a special case because we allow both parent and child injectors to both have
    * a binding for that key.
    */
-  private static void bindInjector(InjectorImpl injector) {
+  static void bindInjector(InjectorImpl injector) {
     Key<Injector> key = Key.get(Injector.class);
     InjectorFactory injectorFactory = new InjectorFactory(injector);
     injector.state.putBinding(key,
@@ -244,7 +244,7 @@ final class InjectorShell {
    * The Logger is a special case because it knows the injection point of the injected member. It's
    * the only binding that does this.
    */
-  private static void bindLogger(InjectorImpl injector) {
+  static void bindLogger(InjectorImpl injector) {
     Key<Logger> key = Key.get(Logger.class);
     LoggerFactory loggerFactory = new LoggerFactory();
     injector.state.putBinding(key,
@@ -270,7 +270,7 @@ final class InjectorShell {
     }
   }
   
-  private static void bindStage(InjectorImpl injector, Stage stage) {
+  static void bindStage(InjectorImpl injector, Stage stage) {
     Key<Stage> key = Key.get(Stage.class);
     InstanceBindingImpl<Stage> stageBinding = new InstanceBindingImpl<Stage>(
         injector,
@@ -0,0 +1,191 @@
+/**
+ * Copyright (C) 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.google.inject.internal;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.inject.ConfigurationException;
+import com.google.inject.Key;
+import com.google.inject.Module;
+import com.google.inject.Stage;
+import com.google.inject.TypeLiteral;
+import com.google.inject.spi.InjectionPoint;
+import com.google.inject.spi.TypeListenerBinding;
+import com.google.inject.util.InstanceModule;
+
+import java.util.Map;
+
+/**
+ * Creates child injectors whose modules are all {@link InstanceModule instance modules}, without
+ * recording their elements and running them through the binding processors of
+ * {@link InternalInjectorCreator}. Their bindings are created directly, the way
+ * {@link BindingProcessor} would create them.
+ *
+ * <p>This is only done when the outcome is known to be the same: no binding conflicts with
+ * another, the bound instances and providers have nothing to inject, and no listener has to be
+ * notified of their types or injection. In every other case the child injector is left to
+ * {@link InternalInjectorCreator}, which reports errors as it does for other modules. Declining
+ * has no side effects, so listeners hear about the child injector exactly once either way.
+ */
+final class InstanceChildInjectorCreator {
+  private final InjectorImpl parent;
+  private final ImmutableList<InstanceModule> modules;
+
+  private InjectorImpl injector;
+
+  private InstanceChildInjectorCreator(InjectorImpl parent, ImmutableList<InstanceModule> modules) {
+    this.parent = parent;
+    this.modules = modules;
+  }
+
+  /**
+   * Returns a child injector of {@code parent} with the bindings of {@code modules}, or null if it
+   * must be created by {@link InternalInjectorCreator}.
+   */
+  static InjectorImpl create(InjectorImpl parent, Iterable<? extends Module> modules) {
+    if (parent.options.stage == Stage.TOOL) {
+      return null;
+    }
+    ImmutableList.Builder<InstanceModule> instanceModules = ImmutableList.builder();
+    for (Module module : modules) {
+      if (!(module instanceof InstanceModule)) {
+        return null;
+      }
+      instanceModules.add((InstanceModule) module);
+    }
+    return new InstanceChildInjectorCreator(parent, instanceModules.build()).build();
+  }
+
+  private InjectorImpl build() {
+    // Like InternalInjectorCreator, hold the lock so that the parent's JIT bindings don't change
+    synchronized (parent.state.lock()) {
+      InheritingState state = new InheritingState(parent.state);
+      injector = new InjectorImpl(parent, state, parent.options);
+      injector.membersInjectorStore =
+          new MembersInjectorStore(injector, state.getTypeListenerBindings());
+      injector.provisionListenerStore =
+          new ProvisionListenerCallbackStore(state.getProvisionListenerBindings());
+
+      InjectorShell.bindStage(injector, parent.options.stage);
+      InjectorShell.bindInjector(injector);
+      InjectorShell.bindLogger(injector);
+
+      for (InstanceModule module : modules) {
+        for (Map.Entry<Key<?>, Object> entry : module.getInstances().entrySet()) {
+          BindingImpl<?> binding = newInstanceBinding(entry.getKey(), module, entry.getValue());
+          if (binding == null || !isBindable(binding)) {
+            return null;
+          }
+          state.putBinding(binding.getKey(), binding);
+        }
+        for (Map.Entry<Key<?>, javax.inject.Provider<?>> entry
+            : module.getProviders().entrySet()) {
+          BindingImpl<?> binding = newProviderBinding(entry.getKey(), module, entry.getValue());
+          if (binding == null || !isBindable(binding)) {
+            return null;
+          }
+          state.putBinding(binding.getKey(), binding);
+        }
+      }
+
+      // Nothing was changed outside of the new injector until now, so declining above was free.
+      // Prevent the parent from creating JIT bindings for the bound keys.
+      for (InstanceModule module : modules) {
+        for (Key<?> key : module.getInstances().keySet()) {
+          state.parent().blacklist(key, state, module);
+        }
+        for (Key<?> key : module.getProviders().keySet()) {
+          state.parent().blacklist(key, state, module);
+        }
+      }
+      injector.lookups = injector;
+      injector.index();
+      return injector;
+    }
+  }
+
+  @SuppressWarnings("unchecked") // the module only binds instances of the type of their key
+  private <T> BindingImpl<T> newInstanceBinding(Key<T> key, Object source, Object instance) {
+    if (!hasNothingToInject(instance.getClass())) {
+      return null;
+    }
+    InstanceBindingImpl<T> binding = new InstanceBindingImpl<T>(injector, key, source,
+        new ConstantFactory<T>(Initializables.of((T) instance)), ImmutableSet.<InjectionPoint>of(),
+        (T) instance);
+    // provision listeners are notified of the injection of instances
+    if (injector.provisionListenerStore.get(binding).hasListeners()) {
+      return null;
+    }
+    return binding;
+  }
+
+  @SuppressWarnings("unchecked") // the module only binds providers of the type of their key
+  private <T> BindingImpl<T> newProviderBinding(
+      Key<T> key, Object source, javax.inject.Provider<?> provider) {
+    if (!hasNothingToInject(provider.getClass())) {
+      return null;
+    }
+    javax.inject.Provider<? extends T> typedProvider =
+        (javax.inject.Provider<? extends T>) provider;
+    // what BindingBuilder.toProvider() records, to look up the provision listeners of the key
+    ProviderInstanceBindingImpl<T> recorded = new ProviderInstanceBindingImpl<T>(source, key,
+        Scoping.UNSCOPED, ImmutableSet.<InjectionPoint>of(), typedProvider);
+    InternalFactory<T> factory = new InternalFactoryToInitializableAdapter<T>(
+        Initializables.<javax.inject.Provider<? extends T>>of(typedProvider), source,
+        !injector.options.disableCircularProxies, injector.provisionListenerStore.get(recorded));
+    return new ProviderInstanceBindingImpl<T>(injector, key, source, factory, Scoping.UNSCOPED,
+        typedProvider, ImmutableSet.<InjectionPoint>of());
+  }
+
+  /**
+   * Returns true if the members injector of {@code type} would do nothing. Types that a type
+   * listener matches are rejected first: looking up their members injector would notify the
+   * listener, which must only hear them from the injector that ends up being created.
+   */
+  private boolean hasNothingToInject(Class<?> type) {
+    TypeLiteral<?> typeLiteral = TypeLiteral.get(type);
+    for (TypeListenerBinding typeListenerBinding : parent.state.getTypeListenerBindings()) {
+      if (typeListenerBinding.getTypeMatcher().matches(typeLiteral)) {
+        return false;
+      }
+    }
+    try {
+      return parent.membersInjectorStore.get(typeLiteral, new Errors()).isNoOp();
+    } catch (ErrorsException e) {
+      return false;
+    }
+  }
+
+  /** Returns true if {@link AbstractBindingProcessor} would accept the binding without errors. */
+  private boolean isBindable(BindingImpl<?> binding) {
+    Class<?> rawType = binding.getKey().getTypeLiteral().getRawType();
+    if (AbstractBindingProcessor.FORBIDDEN_TYPES.contains(rawType)) {
+      return false;
+    }
+    Errors errors = new Errors();
+    Annotations.checkForMisplacedScopeAnnotations(rawType, binding.getSource(), errors);
+    if (errors.hasErrors()) {
+      return false;
+    }
+    try {
+      return injector.getExistingBinding(binding.getKey()) == null;
+    } catch (ConfigurationException e) {
+      return false;
+    }
+  }
+}
@@ -20,6 +20,7 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.inject.Key;
+import com.google.inject.Scope;
 import com.google.inject.spi.Dependency;
 import com.google.inject.spi.DependencyAndSource;
 
@@ -49,6 +50,9 @@ final class InternalContext {
    */
   private final List<Object> state = Lists.newArrayList();
 
+  /** Records the pushes and pops of the state, null unless a provision trace is started. */
+  private final ProvisionTracing.Buffer traceBuffer = ProvisionTracing.currentBuffer();
+
   @SuppressWarnings("unchecked")
   public <T> ConstructionContext<T> getConstructionContext(Object key) {
     ConstructionContext<T> constructionContext
@@ -70,6 +74,9 @@ final class InternalContext {
     this.dependency = dependency;
     state.add(dependency);
     state.add(source);
+    if (traceBuffer != null) {
+      traceBuffer.push(dependency.getKey());
+    }
     return previous;
   }
   
@@ -83,12 +90,35 @@ final class InternalContext {
   public void pushState(Key<?> key, Object source) {
     state.add(key == null ? null : Dependency.get(key));
     state.add(source);
+    if (traceBuffer != null) {
+      traceBuffer.push(key == null ? source : key);
+    }
   }
   
   /** Pops from the state without setting a dependency. */
   public void popState() {
     state.remove(state.size() - 1);
     state.remove(state.size() - 1);
+    if (traceBuffer != null) {
+      traceBuffer.pop();
+    }
+  }
+
+  /**
+   * Records that {@code scope} is constructing an instance, for provision traces. Doesn't change
+   * the state.
+   */
+  public void pushScope(Scope scope) {
+    if (traceBuffer != null) {
+      traceBuffer.push(scope);
+    }
+  }
+
+  /** Records the end of the last {@link #pushScope scope construction}. */
+  public void popScope() {
+    if (traceBuffer != null) {
+      traceBuffer.pop();
+    }
   }
   
   /** Returns the current dependency chain (all the state). */
@@ -32,7 +32,13 @@ public class InternalFlags {
     /**  Minimum stack trace collection (Default) */
     ONLY_FOR_DECLARING_SOURCE,
     /** Full stack trace for everything */
-    COMPLETE
+    COMPLETE,
+    /**
+     * Same sources as {@link #ONLY_FOR_DECLARING_SOURCE}, but only the frames up to the declaring
+     * one are decoded into {@link StackTraceElement StackTraceElements} where the JVM allows it,
+     * and elements copied from other elements resolve their declaring source on first use.
+     */
+    DEFERRED
   }
 
 
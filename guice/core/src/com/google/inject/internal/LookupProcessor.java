@@ -16,8 +16,10 @@
 
 package com.google.inject.internal;
 
+import com.google.inject.Key;
 import com.google.inject.MembersInjector;
 import com.google.inject.Provider;
+import com.google.inject.ProvisionException;
 import com.google.inject.spi.MembersInjectorLookup;
 import com.google.inject.spi.ProviderLookup;
 
@@ -46,6 +48,11 @@ final class LookupProcessor extends AbstractProcessor {
   }
 
   @Override public <T> Boolean visit(ProviderLookup<T> lookup) {
+    if (injector.options.validationDeferred) {
+      lookup.initializeDelegate(new DeferredProvider<T>(injector, lookup.getKey()));
+      return true;
+    }
+
     // ensure the provider can be created
     try {
       Provider<T> provider = injector.getProviderOrThrow(lookup.getKey(), errors);
@@ -56,4 +63,39 @@ final class LookupProcessor extends AbstractProcessor {
 
     return true;
   }
+
+  /** Looks up a provider on its first use, for injectors that defer validation. */
+  private static final class DeferredProvider<T> implements Provider<T>, CreationListener {
+    private final InjectorImpl injector;
+    private final Key<T> key;
+    private final DeferredInitialization initialization;
+    private Provider<T> delegate;
+
+    DeferredProvider(InjectorImpl injector, Key<T> key) {
+      this.injector = injector;
+      this.key = key;
+      this.initialization = new DeferredInitialization(injector.state.lock(), this);
+    }
+
+    public void notify(Errors errors) {
+      try {
+        delegate = injector.getProviderOrThrow(key, errors);
+      } catch (ErrorsException e) {
+        errors.merge(e.getErrors());
+      }
+    }
+
+    public T get() {
+      try {
+        initialization.ensureInitialized(new Errors());
+      } catch (ErrorsException e) {
+        throw new ProvisionException(e.getErrors().getMessages());
+      }
+      return delegate.get();
+    }
+
+    @Override public String toString() {
+      return key.toString();
+    }
+  }
 }
@@ -36,17 +36,20 @@ final class MembersInjectorImpl<T> implements MembersInjector<T> {
   private final ImmutableList<SingleMemberInjector> memberInjectors;
   private final ImmutableSet<MembersInjector<? super T>> userMembersInjectors;
   private final ImmutableSet<InjectionListener<? super T>> injectionListeners;
+  private final boolean hasInjectionPoints;
   /*if[AOP]*/
   private final ImmutableList<MethodAspect> addedAspects;
   /*end[AOP]*/
 
   MembersInjectorImpl(InjectorImpl injector, TypeLiteral<T> typeLiteral,
-      EncounterImpl<T> encounter, ImmutableList<SingleMemberInjector> memberInjectors) {
+      EncounterImpl<T> encounter, ImmutableList<SingleMemberInjector> memberInjectors,
+      boolean hasInjectionPoints) {
     this.injector = injector;
     this.typeLiteral = typeLiteral;
     this.memberInjectors = memberInjectors;
     this.userMembersInjectors = encounter.getMembersInjectors();
     this.injectionListeners = encounter.getInjectionListeners();
+    this.hasInjectionPoints = hasInjectionPoints;
     /*if[AOP]*/
     this.addedAspects = encounter.getAspects();
     /*end[AOP]*/
@@ -56,6 +59,15 @@ final class MembersInjectorImpl<T> implements MembersInjector<T> {
     return memberInjectors;
   }
 
+  /**
+   * Returns true if injecting members does nothing: the type has no injection points, not even
+   * optional ones that were skipped, and no type listener registered a members injector or an
+   * injection listener for it.
+   */
+  boolean isNoOp() {
+    return !hasInjectionPoints && userMembersInjectors.isEmpty() && injectionListeners.isEmpty();
+  }
+
   public void injectMembers(T instance) {
     Errors errors = new Errors(typeLiteral);
     try {
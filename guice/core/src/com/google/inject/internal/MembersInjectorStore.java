@@ -114,7 +114,8 @@ final class MembersInjectorStore {
     encounter.invalidate();
     errors.throwIfNewErrors(numErrorsBefore);
 
-    return new MembersInjectorImpl<T>(injector, type, encounter, injectors);
+    return new MembersInjectorImpl<T>(
+        injector, type, encounter, injectors, !injectionPoints.isEmpty());
   }
 
   /**
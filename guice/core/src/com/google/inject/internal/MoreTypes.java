@@ -342,6 +342,8 @@ public class MoreTypes {
     private final Type ownerType;
     private final Type rawType;
     private final Type[] typeArguments;
+    /** Lazily computed, zero until then. Types are used as keys, and hashed recursively. */
+    private transient int hashCode;
 
     public ParameterizedTypeImpl(Type ownerType, Type rawType, Type... typeArguments) {
       // require an owner type if the raw type needs it
@@ -399,9 +401,13 @@ public class MoreTypes {
     }
 
     @Override public int hashCode() {
-      return Arrays.hashCode(typeArguments)
-          ^ rawType.hashCode()
-          ^ hashCodeOrZero(ownerType);
+      int result = hashCode;
+      if (result == 0) {
+        result = hashCode = Arrays.hashCode(typeArguments)
+            ^ rawType.hashCode()
+            ^ hashCodeOrZero(ownerType);
+      }
+      return result;
     }
 
     @Override public String toString() {
@@ -462,6 +468,8 @@ public class MoreTypes {
   public static class WildcardTypeImpl implements WildcardType, Serializable, CompositeType {
     private final Type upperBound;
     private final Type lowerBound;
+    /** Lazily computed, zero until then. */
+    private transient int hashCode;
 
     public WildcardTypeImpl(Type[] upperBounds, Type[] lowerBounds) {
       checkArgument(lowerBounds.length <= 1, "Must have at most one lower bound.");
@@ -501,9 +509,13 @@ public class MoreTypes {
     }
 
     @Override public int hashCode() {
-      // this equals Arrays.hashCode(getLowerBounds()) ^ Arrays.hashCode(getUpperBounds());  
-      return (lowerBound != null ? 31 + lowerBound.hashCode() : 1)
-          ^ (31 + upperBound.hashCode());
+      int result = hashCode;
+      if (result == 0) {
+        // this equals Arrays.hashCode(getLowerBounds()) ^ Arrays.hashCode(getUpperBounds());  
+        result = hashCode = (lowerBound != null ? 31 + lowerBound.hashCode() : 1)
+            ^ (31 + upperBound.hashCode());
+      }
+      return result;
     }
 
     @Override public String toString() {
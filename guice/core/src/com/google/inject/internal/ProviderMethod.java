@@ -24,6 +24,7 @@ import com.google.inject.Exposed;
 import com.google.inject.Key;
 import com.google.inject.PrivateBinder;
 import com.google.inject.Provider;
+import com.google.inject.ProvidesMethodInvoker;
 import com.google.inject.internal.BytecodeGen.Visibility;
 import com.google.inject.internal.util.StackTraceElements;
 import com.google.inject.spi.BindingTargetVisitor;
@@ -52,13 +53,24 @@ public abstract class ProviderMethod<T> implements ProviderWithExtensionVisitor<
   /**
    * Creates a {@link ProviderMethod}.
    *
-   * <p>Unless {@code skipFastClassGeneration} is set, this will use {@link FastClass} to invoke
+   * <p>If the annotation processor generated a {@link ProvidesMethodInvoker} for the method's
+   * class, the method is called directly by that invoker. Otherwise, unless
+   * {@code skipFastClassGeneration} is set, this will use {@link FastClass} to invoke
    * the actual method, since it is significantly faster.  However, this will fail if the method is
    * {@code private} or {@code protected}, since fastclass is subject to java access policies.
    */
   static <T> ProviderMethod<T> create(Key<T> key, Method method, Object instance,
       ImmutableSet<Dependency<?>> dependencies, List<Provider<?>> parameterProviders,
       Class<? extends Annotation> scopeAnnotation, boolean skipFastClassGeneration) {
+    ProvidesMethodInvoker invoker = ProvidesMethodInvokers.forMethod(method);
+    if (invoker != null) {
+      int methodIndex = invoker.getIndex(method.getName(), method.getParameterTypes());
+      if (methodIndex >= 0) {
+        return new GeneratedProviderMethod<T>(key, method, instance, dependencies,
+            parameterProviders, scopeAnnotation, invoker, methodIndex);
+      }
+    }
+
     int modifiers = method.getModifiers();
     /*if[AOP]*/
     if (!skipFastClassGeneration && !Modifier.isPrivate(modifiers)
@@ -138,14 +150,9 @@ public abstract class ProviderMethod<T> implements ProviderWithExtensionVisitor<
   }
 
   public T get() {
-    Object[] parameters = new Object[parameterProviders.size()];
-    for (int i = 0; i < parameters.length; i++) {
-      parameters[i] = parameterProviders.get(i).get();
-    }
-
     try {
       @SuppressWarnings({ "unchecked", "UnnecessaryLocalVariable" })
-      T result = (T) doProvision(parameters);
+      T result = (T) doProvision(parameterProviders);
       return result;
     } catch (IllegalAccessException e) {
       throw new AssertionError(e);
@@ -155,9 +162,18 @@ public abstract class ProviderMethod<T> implements ProviderWithExtensionVisitor<
   }
 
   /** Extension point for our subclasses to implement the provisioning strategy. */
-  abstract Object doProvision(Object[] parameters)
+  abstract Object doProvision(List<Provider<?>> parameterProviders)
       throws IllegalAccessException, InvocationTargetException;
 
+  /** Returns the current value of each parameter, for strategies that need them in an array. */
+  static Object[] getParameters(List<Provider<?>> parameterProviders) {
+    Object[] parameters = new Object[parameterProviders.size()];
+    for (int i = 0; i < parameters.length; i++) {
+      parameters[i] = parameterProviders.get(i).get();
+    }
+    return parameters;
+  }
+
   public Set<Dependency<?>> getDependencies() {
     return dependencies;
   }
@@ -225,9 +241,9 @@ public abstract class ProviderMethod<T> implements ProviderWithExtensionVisitor<
           method.getDeclaringClass());
     }
 
-    @Override public Object doProvision(Object[] parameters)
+    @Override public Object doProvision(List<Provider<?>> parameterProviders)
         throws IllegalAccessException, InvocationTargetException {
-      return fastClass.invoke(methodIndex, instance, parameters);
+      return fastClass.invoke(methodIndex, instance, getParameters(parameterProviders));
     }
   }
   /*end[AOP]*/
@@ -245,9 +261,44 @@ public abstract class ProviderMethod<T> implements ProviderWithExtensionVisitor<
       super(key, method, instance, dependencies, parameterProviders, scopeAnnotation);
     }
 
-    @Override Object doProvision(Object[] parameters) throws IllegalAccessException,
-        InvocationTargetException {
-      return method.invoke(instance, parameters);
+    @Override Object doProvision(List<Provider<?>> parameterProviders)
+        throws IllegalAccessException, InvocationTargetException {
+      return method.invoke(instance, getParameters(parameterProviders));
+    }
+  }
+
+  /**
+   * A {@link ProviderMethod} implementation that calls the method through a
+   * {@link ProvidesMethodInvoker} generated by the annotation processor. The method is called
+   * directly with its typed arguments, without reflection or a parameter array.
+   */
+  private static final class GeneratedProviderMethod<T> extends ProviderMethod<T> {
+    final ProvidesMethodInvoker invoker;
+    final int methodIndex;
+
+    GeneratedProviderMethod(Key<T> key,
+        Method method,
+        Object instance,
+        ImmutableSet<Dependency<?>> dependencies,
+        List<Provider<?>> parameterProviders,
+        Class<? extends Annotation> scopeAnnotation,
+        ProvidesMethodInvoker invoker,
+        int methodIndex) {
+      super(key, method, instance, dependencies, parameterProviders, scopeAnnotation);
+      this.invoker = invoker;
+      this.methodIndex = methodIndex;
+    }
+
+    @Override Object doProvision(List<Provider<?>> parameterProviders)
+        throws InvocationTargetException {
+      try {
+        return invoker.invoke(methodIndex, instance, parameterProviders);
+      } catch (RuntimeException e) {
+        throw e;
+      } catch (Exception e) {
+        // A checked exception declared by the method, report it as reflection would.
+        throw new InvocationTargetException(e);
+      }
     }
   }
 }
@@ -31,6 +31,7 @@ import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Multimap;
 import com.google.inject.Binder;
+import com.google.inject.GeneratedComponent;
 import com.google.inject.Guice;
 import com.google.inject.HierarchyTraversalFilter;
 import com.google.inject.Key;
@@ -93,6 +94,15 @@ public final class ProviderMethodsModule implements Module {
   }
 
   public synchronized void configure(Binder binder) {
+    // Modules wired at build time don't need to be scanned. Metadata users (skipping fast class
+    // generation) call getProviderMethods, so they keep using reflection.
+    GeneratedComponent component =
+        skipFastClassGeneration ? null : GeneratedComponents.forClass(delegate.getClass());
+    if (component != null) {
+      component.configure(delegate, binder);
+      return;
+    }
+
     for (ProviderMethod<?> providerMethod : getProviderMethods(binder)) {
       providerMethod.configure(binder);
     }
@@ -210,23 +220,15 @@ Multimap<Signature, Method> methodsBySignature = HashMultimap.create();
     Errors errors = new Errors(method);
 
     // prepare the parameter providers
-    List<Dependency<?>> dependencies = Lists.newArrayList();
-    List<Provider<?>> parameterProviders = Lists.newArrayList();
+    List<Key<?>> parameterKeys = Lists.newArrayList();
     List<TypeLiteral<?>> parameterTypes = typeLiteral.getParameterTypes(method);
     Annotation[][] parameterAnnotations = method.getParameterAnnotations();
     for (int i = 0; i < parameterTypes.size(); i++) {
-      Key<?> key = getKey(errors, parameterTypes.get(i), method, parameterAnnotations[i]);
-      if (key.equals(LOGGER_KEY)) {
-        // If it was a Logger, change the key to be unique & bind it to a
-        // provider that provides a logger with a proper name.
-        // This solves issue 482 (returning a new anonymous logger on every call exhausts memory)
-        Key<Logger> loggerKey = Key.get(Logger.class, UniqueAnnotations.create());
-        binder.bind(loggerKey).toProvider(new LogProvider(method));
-        key = loggerKey;
-      }
-      dependencies.add(Dependency.get(key));
-      parameterProviders.add(binder.getProvider(key));
+      parameterKeys.add(getKey(errors, parameterTypes.get(i), method, parameterAnnotations[i]));
     }
+    List<Provider<?>> parameterProviders = Lists.newArrayList();
+    ImmutableSet<Dependency<?>> dependencies =
+        getParameterDependencies(binder, method, parameterKeys, parameterProviders);
 
     @SuppressWarnings("unchecked") // Define T as the method's return type.
     TypeLiteral<T> returnType = (TypeLiteral<T>) typeLiteral.getReturnType(method);
@@ -239,10 +241,51 @@ Multimap<Signature, Method> methodsBySignature = HashMultimap.create();
       binder.addError(message);
     }
 
-    return ProviderMethod.create(key, method, delegate, ImmutableSet.copyOf(dependencies),
+    return ProviderMethod.create(key, method, delegate, dependencies,
         parameterProviders, scopeAnnotation, skipFastClassGeneration);
   }
 
+  /**
+   * Creates the provider of a method whose keys were computed at compile time, for the components
+   * generated by the annotation processor. The provider is the same as for a method found through
+   * reflection.
+   *
+   * @param parameterKeys the key of each parameter of the method
+   * @param scopeAnnotation the scope annotation of the method, or null if it is unscoped
+   */
+  public static <T> ProviderMethod<T> createProviderMethod(Binder binder, Object instance,
+      Method method, Key<T> key, List<Key<?>> parameterKeys,
+      Class<? extends Annotation> scopeAnnotation) {
+    binder = binder.withSource(method);
+    List<Provider<?>> parameterProviders = Lists.newArrayList();
+    ImmutableSet<Dependency<?>> dependencies =
+        getParameterDependencies(binder, method, parameterKeys, parameterProviders);
+    return ProviderMethod.create(key, method, instance, dependencies,
+        parameterProviders, scopeAnnotation, false);
+  }
+
+  /**
+   * Returns the dependencies of a method on its parameters, and adds their providers to
+   * {@code parameterProviders}.
+   */
+  private static ImmutableSet<Dependency<?>> getParameterDependencies(Binder binder,
+      Method method, List<Key<?>> parameterKeys, List<Provider<?>> parameterProviders) {
+    List<Dependency<?>> dependencies = Lists.newArrayList();
+    for (Key<?> key : parameterKeys) {
+      if (key.equals(LOGGER_KEY)) {
+        // If it was a Logger, change the key to be unique & bind it to a
+        // provider that provides a logger with a proper name.
+        // This solves issue 482 (returning a new anonymous logger on every call exhausts memory)
+        Key<Logger> loggerKey = Key.get(Logger.class, UniqueAnnotations.create());
+        binder.bind(loggerKey).toProvider(new LogProvider(method));
+        key = loggerKey;
+      }
+      dependencies.add(Dependency.get(key));
+      parameterProviders.add(binder.getProvider(key));
+    }
+    return ImmutableSet.copyOf(dependencies);
+  }
+
   <T> Key<T> getKey(Errors errors, TypeLiteral<T> type, Member member, Annotation[] annotations) {
     Annotation bindingAnnotation = Annotations.findBindingAnnotation(errors, member, annotations);
     return bindingAnnotation == null ? Key.get(type) : Key.get(type, bindingAnnotation);
@@ -18,6 +18,7 @@ package com.google.inject.internal;
 
 import com.google.inject.Provider;
 import com.google.inject.ProvisionException;
+import com.google.inject.Scope;
 import com.google.inject.spi.Dependency;
 
 /**
@@ -27,11 +28,14 @@ final class ProviderToInternalFactoryAdapter<T> implements Provider<T> {
 
   private final InjectorImpl injector;
   private final InternalFactory<? extends T> internalFactory;
+  /** The scope that calls this provider, recorded by provision traces. */
+  private final Scope scope;
 
   public ProviderToInternalFactoryAdapter(InjectorImpl injector,
-      InternalFactory<? extends T> internalFactory) {
+      InternalFactory<? extends T> internalFactory, Scope scope) {
     this.injector = injector;
     this.internalFactory = internalFactory;
+    this.scope = scope;
   }
 
   public T get() {
@@ -40,10 +44,15 @@ final class ProviderToInternalFactoryAdapter<T> implements Provider<T> {
       T t = injector.callInContext(new ContextualCallable<T>() {
         public T call(InternalContext context) throws ErrorsException {
           Dependency dependency = context.getDependency();
-          // Always pretend that we are a linked binding, to support
-          // scoping implicit bindings.  If we are not actually a linked
-          // binding, we'll fail properly elsewhere in the chain.
-          return internalFactory.get(errors, context, dependency, true);
+          context.pushScope(scope);
+          try {
+            // Always pretend that we are a linked binding, to support
+            // scoping implicit bindings.  If we are not actually a linked
+            // binding, we'll fail properly elsewhere in the chain.
+            return internalFactory.get(errors, context, dependency, true);
+          } finally {
+            context.popScope();
+          }
         }
       });
       errors.throwIfNewErrors(0);
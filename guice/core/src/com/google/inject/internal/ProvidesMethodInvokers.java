@@ -0,0 +1,88 @@
+/**
+ * Copyright (C) 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.inject.internal;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.MapMaker;
+import com.google.inject.ProvidesMethodInvoker;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Finds the {@link ProvidesMethodInvoker}s generated at build time for the classes declaring
+ * {@literal @}{@link com.google.inject.Provides Provides} methods.
+ */
+public final class ProvidesMethodInvokers {
+  private static final Logger logger = Logger.getLogger(ProvidesMethodInvokers.class.getName());
+
+  /** Invoker class names, by the name of the class declaring the provider methods. */
+  private static volatile Map<String, String> invokerIndex = ImmutableMap.of();
+
+  /**
+   * Invokers instantiated so far. An invoker references its module class, so values are weak too,
+   * or the class loader of the module could never be collected.
+   */
+  private static final Map<Class<?>, ProvidesMethodInvoker> invokers =
+      new MapMaker().weakKeys().weakValues().makeMap();
+
+  private ProvidesMethodInvokers() {}
+
+  /**
+   * Sets the invokers recorded at build time, typically by the annotation processor into an
+   * {@code AnnotationDatabase}. Provider methods of classes found in this index are called
+   * directly by their invoker instead of through reflection or cglib.
+   *
+   * @param index maps class names to the names of their invoker classes. An empty map disables
+   *     the index.
+   */
+  public static void setInvokerIndex(Map<String, String> index) {
+    invokerIndex = ImmutableMap.copyOf(index);
+    invokers.clear();
+  }
+
+  /**
+   * Returns the invoker of the class declaring {@code method}, or null if there is none.
+   */
+  static ProvidesMethodInvoker forMethod(Method method) {
+    Map<String, String> index = invokerIndex;
+    if (index.isEmpty()) {
+      return null;
+    }
+
+    Class<?> declaringClass = method.getDeclaringClass();
+    ProvidesMethodInvoker invoker = invokers.get(declaringClass);
+    if (invoker == null) {
+      String invokerName = index.get(declaringClass.getName());
+      if (invokerName == null) {
+        return null;
+      }
+      try {
+        invoker = (ProvidesMethodInvoker) Class.forName(
+            invokerName, true, declaringClass.getClassLoader()).newInstance();
+      } catch (Exception e) {
+        // Stale index, e.g. the invoker was stripped by a shrinker. Use reflection instead.
+        logger.log(Level.WARNING, "Cannot instantiate provider method invoker " + invokerName, e);
+        return null;
+      }
+      invokers.put(declaringClass, invoker);
+    }
+    return invoker;
+  }
+}
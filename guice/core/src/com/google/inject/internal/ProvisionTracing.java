@@ -0,0 +1,174 @@
+/**
+ * Copyright (C) 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.google.inject.internal;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Records when provisions start and end, in a ring buffer per thread, while a
+ * {@link com.google.inject.spi.ProvisionTrace provision trace} is started. The buffer of the
+ * current thread is looked up once per {@link InternalContext}, so when no trace is started the
+ * cost is a volatile read per call into the injector and a null check per dependency.
+ */
+public final class ProvisionTracing {
+
+  /** The started tracing, null if there is none. */
+  private static volatile ProvisionTracing started;
+
+  private final int capacity;
+  private final long startNanos = System.nanoTime();
+  private final List<Buffer> buffers = new CopyOnWriteArrayList<Buffer>();
+  private final ThreadLocal<Buffer> threadBuffer = new ThreadLocal<Buffer>() {
+    @Override protected Buffer initialValue() {
+      Buffer buffer = new Buffer(Thread.currentThread(), capacity);
+      buffers.add(buffer);
+      return buffer;
+    }
+  };
+
+  private ProvisionTracing(int capacity) {
+    this.capacity = capacity;
+  }
+
+  /**
+   * Starts recording provisions, keeping the last {@code capacity} events of each thread.
+   *
+   * @throws IllegalStateException if a tracing is already started.
+   */
+  public static ProvisionTracing start(int capacity) {
+    checkArgument(capacity > 0, "capacity must be positive: %s", capacity);
+    synchronized (ProvisionTracing.class) {
+      checkState(started == null, "A provision trace is already started");
+      return started = new ProvisionTracing(capacity);
+    }
+  }
+
+  /** Stops recording. The events recorded so far are kept. */
+  public void stop() {
+    synchronized (ProvisionTracing.class) {
+      if (started == this) {
+        started = null;
+      }
+    }
+  }
+
+  /** Returns the {@link System#nanoTime} at which recording started. */
+  public long getStartNanos() {
+    return startNanos;
+  }
+
+  /** Returns the buffers of the threads that provisioned something while recording. */
+  public List<Buffer> getBuffers() {
+    return ImmutableList.copyOf(buffers);
+  }
+
+  /** Returns the buffer of the current thread, or null if no tracing is started. */
+  static Buffer currentBuffer() {
+    ProvisionTracing tracing = started;
+    return (tracing == null) ? null : tracing.threadBuffer.get();
+  }
+
+  /**
+   * The last events of a thread. Only the thread records into it, but it may be read by another
+   * one while recording.
+   */
+  public static final class Buffer {
+    /** Recorded for frames that are null, so that null can stand for the end of a frame. */
+    private static final Object UNKNOWN_FRAME = "[unknown]";
+
+    private final long threadId;
+    private final String threadName;
+    private final Object[] frames;
+    private final long[] nanos;
+    /** The number of events recorded, including those that were overwritten. */
+    private long count;
+
+    private Buffer(Thread thread, int capacity) {
+      this.threadId = thread.getId();
+      this.threadName = thread.getName();
+      this.frames = new Object[capacity];
+      this.nanos = new long[capacity];
+    }
+
+    public long getThreadId() {
+      return threadId;
+    }
+
+    public String getThreadName() {
+      return threadName;
+    }
+
+    /** Records the start of a frame: a key, a scope, or the source of an injection. */
+    synchronized void push(Object frame) {
+      record(frame == null ? UNKNOWN_FRAME : frame);
+    }
+
+    /** Records the end of the last frame that was started. */
+    synchronized void pop() {
+      record(null);
+    }
+
+    private void record(Object frame) {
+      int index = (int) (count++ % frames.length);
+      frames[index] = frame;
+      nanos[index] = System.nanoTime();
+    }
+
+    /**
+     * Returns the recorded events, oldest first. Once the buffer is full, the oldest events are
+     * overwritten, so the first events may end frames that were started before them.
+     */
+    public synchronized List<Event> getEvents() {
+      int size = (int) Math.min(count, frames.length);
+      List<Event> events = Lists.newArrayListWithCapacity(size);
+      for (long i = count - size; i < count; i++) {
+        int index = (int) (i % frames.length);
+        events.add(new Event(frames[index], nanos[index]));
+      }
+      return events;
+    }
+  }
+
+  /** The start or the end of a frame. */
+  public static final class Event {
+    private final Object frame;
+    private final long nanos;
+
+    Event(Object frame, long nanos) {
+      this.frame = frame;
+      this.nanos = nanos;
+    }
+
+    /** Returns the frame started by this event, or null if the event ends a frame. */
+    public Object getFrame() {
+      return frame;
+    }
+
+    /** Returns the {@link System#nanoTime} of this event. */
+    public long getNanos() {
+      return nanos;
+    }
+  }
+}
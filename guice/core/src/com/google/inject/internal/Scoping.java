@@ -240,7 +240,7 @@ public abstract class Scoping {
     Scope scope = scoping.getScopeInstance();
 
     Provider<T> scoped
-        = scope.scope(key, new ProviderToInternalFactoryAdapter<T>(injector, creator));
+        = scope.scope(key, new ProviderToInternalFactoryAdapter<T>(injector, creator, scope));
     return new InternalFactoryToProviderAdapter<T>(scoped, source);
   }
 
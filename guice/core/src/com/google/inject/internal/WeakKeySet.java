@@ -17,112 +17,164 @@
 package com.google.inject.internal;
 
 import com.google.common.base.Objects;
-import com.google.common.base.Preconditions;
-import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.RemovalCause;
-import com.google.common.cache.RemovalListener;
-import com.google.common.cache.RemovalNotification;
-import com.google.common.collect.LinkedHashMultiset;
+import com.google.common.collect.MapMaker;
 import com.google.common.collect.Maps;
-import com.google.common.collect.Multiset;
 import com.google.common.collect.Sets;
 import com.google.inject.Key;
 import com.google.inject.internal.util.SourceProvider;
 
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Collections;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Minimal set that doesn't hold strong references to the contained keys.
  *
+ * <p>Keys are added while holding the injector's lock, but can be looked up concurrently: the
+ * sources of a key are kept in a concurrent queue, in the order they were added and once for
+ * each time they were added, so that adding a source doesn't copy the others. The keys and sources
+ * added for a child injector are removed once its state is garbage collected, which is noticed
+ * through a reference queue on the next use of the set.
+ *
  * @author dweis@google.com (Daniel Weis)
  */
 final class WeakKeySet {
 
-  private Map<Key<?>, Multiset<Object>> backingMap;
+  /** Stands for null sources, which concurrent queues don't accept. */
+  private static final Object NULL_SOURCE = new Object();
+
+  /** The sources of each key, null until a key is added. */
+  private volatile ConcurrentMap<Key<?>, Queue<Object>> backingMap;
 
   /**
-   * This is already locked externally on add and getSources but we need it to handle clean up in
-   * the evictionCache's RemovalListener.
+   * This is already locked externally on add but we also need it to clean up the keys of child
+   * injectors that were garbage collected.
    */
   private final Object lock;
 
   /**
-   * Tracks child injector lifetimes and evicts blacklisted keys/sources after the child injector is
-   * garbage collected.
+   * Tracks child injector lifetimes, to remove blacklisted keys/sources after the child injector
+   * is garbage collected. Both are null until a key is added for a child injector.
    */
-  private final Cache<State, Set<KeyAndSource>> evictionCache = CacheBuilder.newBuilder()
-      .weakKeys()
-      .removalListener(
-          new RemovalListener<State, Set<KeyAndSource>>() {
-            @Override
-            public void onRemoval(RemovalNotification<State, Set<KeyAndSource>> notification) {
-              Preconditions.checkState(RemovalCause.COLLECTED.equals(notification.getCause()));
-
-              cleanUpForCollectedState(notification.getValue());
-            }
-          })
-      .build();
+  private Map<State, StateReference> stateReferences;
+  private volatile ReferenceQueue<State> collectedStates;
 
-  /**
-   * There may be multiple child injectors blacklisting a certain key so only remove the source
-   * that's relevant.
-   */
-  private void cleanUpForCollectedState(Set<KeyAndSource> keysAndSources) {
+  WeakKeySet(Object lock) {
+    this.lock = lock;
+  }
+
+  public void add(Key<?> key, State state, Object source) {
     synchronized (lock) {
-      for (KeyAndSource keyAndSource : keysAndSources) {
-        Multiset<Object> set = backingMap.get(keyAndSource.key);
-        if (set != null) {
-          set.remove(keyAndSource.source);
-          if (set.isEmpty()) {
-            backingMap.remove(keyAndSource.key);
-          }
+      cleanUp();
+
+      ConcurrentMap<Key<?>, Queue<Object>> backingMap = this.backingMap;
+      if (backingMap == null) {
+        backingMap = this.backingMap = Maps.newConcurrentMap();
+      }
+      // if it's an instanceof Class, it was a JIT binding, which we don't
+      // want to retain.
+      if (source instanceof Class || source == SourceProvider.UNKNOWN_SOURCE) {
+        source = null;
+      }
+      Queue<Object> sources = backingMap.get(key);
+      if (sources == null) {
+        sources = new ConcurrentLinkedQueue<Object>();
+        backingMap.put(key, sources);
+      }
+      Object convertedSource = Errors.convert(source);
+      sources.add(convertedSource == null ? NULL_SOURCE : convertedSource);
+
+      // Avoid all the extra work if we can.
+      if (state.parent() != State.NONE) {
+        if (stateReferences == null) {
+          stateReferences = new MapMaker().weakKeys().makeMap();
+          collectedStates = new ReferenceQueue<State>();
+        }
+        StateReference stateReference = stateReferences.get(state);
+        if (stateReference == null) {
+          stateReference = new StateReference(state, collectedStates);
+          stateReferences.put(state, stateReference);
         }
+        stateReference.keysAndSources.add(new KeyAndSource(key, convertedSource));
       }
     }
   }
 
-  WeakKeySet(Object lock) {
-    this.lock = lock;
+  public boolean contains(Key<?> key) {
+    cleanUp();
+    ConcurrentMap<Key<?>, Queue<Object>> backingMap = this.backingMap;
+    return backingMap != null && backingMap.containsKey(key);
   }
 
-  public void add(Key<?> key, State state, Object source) {
-    if (backingMap == null) {
-      backingMap = Maps.newHashMap();
+  public Set<Object> getSources(Key<?> key) {
+    cleanUp();
+    ConcurrentMap<Key<?>, Queue<Object>> backingMap = this.backingMap;
+    Queue<Object> sources = (backingMap == null) ? null : backingMap.get(key);
+    if (sources == null) {
+      return null;
     }
-    // if it's an instanceof Class, it was a JIT binding, which we don't
-    // want to retain.
-    if (source instanceof Class || source == SourceProvider.UNKNOWN_SOURCE) {
-      source = null;
+    Set<Object> distinctSources = Sets.newLinkedHashSet();
+    for (Object source : sources) {
+      distinctSources.add(source == NULL_SOURCE ? null : source);
     }
-    Multiset<Object> sources = backingMap.get(key);
-    if (sources == null) {
-      sources = LinkedHashMultiset.create();
-      backingMap.put(key, sources);
+    return Collections.unmodifiableSet(distinctSources);
+  }
+
+  /**
+   * Removes the keys and sources of the child injectors that were garbage collected. Only takes
+   * the lock if there are any, so that lookups don't contend with each other.
+   */
+  private void cleanUp() {
+    ReferenceQueue<State> collectedStates = this.collectedStates;
+    if (collectedStates == null) {
+      return;
     }
-    Object convertedSource = Errors.convert(source);
-    sources.add(convertedSource);
-
-    // Avoid all the extra work if we can.
-    if (state.parent() != State.NONE) {
-      Set<KeyAndSource> keyAndSources = evictionCache.getIfPresent(state);
-      if (keyAndSources == null) {
-        evictionCache.put(state, keyAndSources = Sets.newHashSet());
+    Reference<? extends State> collected = collectedStates.poll();
+    if (collected != null) {
+      synchronized (lock) {
+        do {
+          Set<KeyAndSource> keysAndSources = ((StateReference) collected).keysAndSources;
+          cleanUpForCollectedState(keysAndSources);
+          // The reference itself may outlive the state for a while.
+          keysAndSources.clear();
+        } while ((collected = collectedStates.poll()) != null);
       }
-      keyAndSources.add(new KeyAndSource(key, convertedSource));
     }
   }
 
-  public boolean contains(Key<?> key) {
-    evictionCache.cleanUp();
-    return backingMap != null && backingMap.containsKey(key);
+  /**
+   * There may be multiple child injectors blacklisting a certain key so only remove the source
+   * that's relevant.
+   */
+  private void cleanUpForCollectedState(Set<KeyAndSource> keysAndSources) {
+    for (KeyAndSource keyAndSource : keysAndSources) {
+      Queue<Object> sources = backingMap.get(keyAndSource.key);
+      Object source = (keyAndSource.source == null) ? NULL_SOURCE : keyAndSource.source;
+      // child injectors are mostly collected in the order they were created, so the source is
+      // usually found close to the head of the queue
+      if (sources != null && sources.remove(source) && sources.isEmpty()) {
+        backingMap.remove(keyAndSource.key);
+      }
+    }
   }
 
-  public Set<Object> getSources(Key<?> key) {
-    evictionCache.cleanUp();
-    Multiset<Object> sources = (backingMap == null) ? null : backingMap.get(key);
-    return (sources == null) ? null : sources.elementSet();
+  /**
+   * Weak reference to the state of a child injector, with the keys and sources it added. Enqueued
+   * once the state is garbage collected.
+   */
+  private static final class StateReference extends WeakReference<State> {
+    /** Only accessed while holding the lock. */
+    final Set<KeyAndSource> keysAndSources = Sets.newHashSet();
+
+    StateReference(State state, ReferenceQueue<State> queue) {
+      super(state, queue);
+    }
   }
 
   private static final class KeyAndSource {
@@ -0,0 +1,141 @@
+/**
+ * Copyright (C) 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.inject.internal.util;
+
+import com.google.common.collect.ImmutableMap;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.util.Map;
+
+/**
+ * Source file and line numbers of a class and its members, as recorded at build time by the
+ * annotation processor. This is the pre-computed counterpart of {@link LineNumbers}, which has to
+ * read the class file at runtime.
+ *
+ * <p>A class is encoded as {@code source|firstLine|memberKey=line|...}, where member keys are
+ * field names, or member names followed by their JVM descriptor for methods and constructors
+ * ({@code <init>(Ljava/lang/String;)V}).
+ */
+final class SourceLocations {
+
+  static final char SEPARATOR = '|';
+
+  private final String source;
+  private final int firstLine;
+  private final Map<String, Integer> lines;
+
+  private SourceLocations(String source, int firstLine, Map<String, Integer> lines) {
+    this.source = source;
+    this.firstLine = firstLine;
+    this.lines = lines;
+  }
+
+  /**
+   * Parses the encoded source locations of a class.
+   *
+   * @throws IllegalArgumentException if {@code encoded} is malformed
+   */
+  static SourceLocations parse(String encoded) {
+    String[] parts = encoded.split("\\" + SEPARATOR);
+    if (parts.length < 2) {
+      throw new IllegalArgumentException("Malformed source locations: " + encoded);
+    }
+
+    ImmutableMap.Builder<String, Integer> lines = ImmutableMap.builder();
+    for (int i = 2; i < parts.length; i++) {
+      int equals = parts[i].lastIndexOf('=');
+      if (equals <= 0) {
+        throw new IllegalArgumentException("Malformed source locations: " + encoded);
+      }
+      lines.put(parts[i].substring(0, equals), Integer.parseInt(parts[i].substring(equals + 1)));
+    }
+    String source = parts[0].length() == 0 ? null : parts[0];
+    return new SourceLocations(source, Integer.parseInt(parts[1]), lines.build());
+  }
+
+  /** Returns the source file name, or null if unknown. */
+  String getSource() {
+    return source;
+  }
+
+  /** Returns the line of the class declaration. */
+  int getFirstLine() {
+    return firstLine;
+  }
+
+  /** Returns the line of {@code member}, or the first line if it was not recorded. */
+  int getLineNumber(Member member) {
+    Integer line = lines.get(memberKey(member));
+    return line == null ? firstLine : line;
+  }
+
+  /** Returns the key of {@code member}, in the same form as {@link LineNumbers} uses. */
+  static String memberKey(Member member) {
+    if (member instanceof Field) {
+      return member.getName();
+
+    } else if (member instanceof Method) {
+      Method method = (Method) member;
+      return method.getName()
+          + descriptor(method.getParameterTypes(), method.getReturnType());
+
+    } else if (member instanceof Constructor) {
+      return "<init>" + descriptor(((Constructor<?>) member).getParameterTypes(), void.class);
+
+    } else {
+      throw new IllegalArgumentException(
+          "Unsupported implementation class for Member, " + member.getClass());
+    }
+  }
+
+  private static String descriptor(Class<?>[] parameterTypes, Class<?> returnType) {
+    StringBuilder sb = new StringBuilder().append('(');
+    for (Class<?> parameterType : parameterTypes) {
+      sb.append(descriptor(parameterType));
+    }
+    return sb.append(')').append(descriptor(returnType)).toString();
+  }
+
+  private static String descriptor(Class<?> type) {
+    if (type.isArray()) {
+      return type.getName().replace('.', '/');
+    } else if (!type.isPrimitive()) {
+      return "L" + type.getName().replace('.', '/') + ";";
+    } else if (type == int.class) {
+      return "I";
+    } else if (type == long.class) {
+      return "J";
+    } else if (type == boolean.class) {
+      return "Z";
+    } else if (type == byte.class) {
+      return "B";
+    } else if (type == char.class) {
+      return "C";
+    } else if (type == short.class) {
+      return "S";
+    } else if (type == float.class) {
+      return "F";
+    } else if (type == double.class) {
+      return "D";
+    } else {
+      return "V";
+    }
+  }
+}
@@ -20,6 +20,8 @@ import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
 
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
 import java.util.List;
 
 /**
@@ -38,6 +40,16 @@ public final class SourceProvider {
   public static final SourceProvider DEFAULT_INSTANCE
       = new SourceProvider(ImmutableSet.of(SourceProvider.class.getName()));
 
+  /**
+   * {@code sun.misc.JavaLangAccess} decodes single frames of a captured call stack on JDK 7 and 8.
+   * These are null where it isn't available, and whole call stacks are decoded instead.
+   */
+  private static final Object javaLangAccess = getJavaLangAccess();
+  private static final Method getStackTraceDepth =
+      getJavaLangAccessMethod("getStackTraceDepth", Throwable.class);
+  private static final Method getStackTraceElement =
+      getJavaLangAccessMethod("getStackTraceElement", Throwable.class, int.class);
+
   private SourceProvider(Iterable<String> classesToSkip) {
     this(null, classesToSkip);
   }
@@ -90,6 +102,33 @@ public final class SourceProvider {
     throw new AssertionError();
   }
 
+  /**
+   * Returns the calling line of code of a captured call stack, like
+   * {@link #get(StackTraceElement[])}. Where the JVM allows it, only the frames up to that line are
+   * decoded.
+   */
+  public StackTraceElement get(Throwable callStack) {
+    Preconditions.checkNotNull(callStack, "The call stack cannot be null.");
+    if (javaLangAccess != null && getStackTraceDepth != null && getStackTraceElement != null) {
+      try {
+        int depth = (Integer) getStackTraceDepth.invoke(javaLangAccess, callStack);
+        for (int i = 0; i < depth; i++) {
+          StackTraceElement element =
+              (StackTraceElement) getStackTraceElement.invoke(javaLangAccess, callStack, i);
+          if (!shouldBeSkipped(element.getClassName())) {
+            return element;
+          }
+        }
+        throw new AssertionError();
+      } catch (IllegalAccessException e) {
+        // fall back to decoding the whole call stack
+      } catch (InvocationTargetException e) {
+        // fall back to decoding the whole call stack
+      }
+    }
+    return get(callStack.getStackTrace());
+  }
+
   /**
    * Returns the non-skipped module class name.
    */
@@ -102,4 +141,26 @@ public final class SourceProvider {
     }
     return UNKNOWN_SOURCE;
   }
+
+  private static Object getJavaLangAccess() {
+    try {
+      Class<?> sharedSecrets = Class.forName("sun.misc.SharedSecrets", false, null);
+      return sharedSecrets.getMethod("getJavaLangAccess").invoke(null);
+    } catch (Exception e) {
+      return null;
+    } catch (LinkageError e) {
+      return null;
+    }
+  }
+
+  private static Method getJavaLangAccessMethod(String name, Class<?>... parameterTypes) {
+    try {
+      return Class.forName("sun.misc.JavaLangAccess", false, null)
+          .getMethod(name, parameterTypes);
+    } catch (Exception e) {
+      return null;
+    } catch (LinkageError e) {
+      return null;
+    }
+  }
 }
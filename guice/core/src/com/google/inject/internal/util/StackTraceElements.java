@@ -19,6 +19,7 @@ package com.google.inject.internal.util;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.MapMaker;
 
 import java.io.IOException;
@@ -52,6 +53,13 @@ public class StackTraceElements {
           });
   /*end[AOP]*/
 
+  /** Source locations recorded at build time, by class name, in their encoded form. */
+  private static volatile Map<String, String> sourceLocationIndex = ImmutableMap.of();
+
+  /** Entries of {@link #sourceLocationIndex} parsed so far. */
+  private static final Map<String, SourceLocations> parsedSourceLocations =
+      new MapMaker().makeMap();
+
   private static Map<Object, Object> cache = new MapMaker().makeMap();
   private static final String UNKNOWN_SOURCE = "Unknown Source";
 
@@ -62,16 +70,24 @@ public class StackTraceElements {
 
     Class declaringClass = member.getDeclaringClass();
 
-    /*if[AOP]*/
-    LineNumbers lineNumbers = lineNumbersCache.getUnchecked(declaringClass);
-    String fileName = lineNumbers.getSource();
-    Integer lineNumberOrNull = lineNumbers.getLineNumber(member);
-    int lineNumber = lineNumberOrNull == null ? lineNumbers.getFirstLine() : lineNumberOrNull;
-    /*end[AOP]*/
-    /*if[NO_AOP]
-    String fileName = null;
-    int lineNumber = -1;
-    end[NO_AOP]*/
+    String fileName;
+    int lineNumber;
+    SourceLocations sourceLocations = getIndexedSourceLocations(declaringClass);
+    if (sourceLocations != null) {
+      fileName = sourceLocations.getSource();
+      lineNumber = sourceLocations.getLineNumber(member);
+    } else {
+      /*if[AOP]*/
+      LineNumbers lineNumbers = lineNumbersCache.getUnchecked(declaringClass);
+      fileName = lineNumbers.getSource();
+      Integer lineNumberOrNull = lineNumbers.getLineNumber(member);
+      lineNumber = lineNumberOrNull == null ? lineNumbers.getFirstLine() : lineNumberOrNull;
+      /*end[AOP]*/
+      /*if[NO_AOP]
+      fileName = null;
+      lineNumber = -1;
+      end[NO_AOP]*/
+    }
 
     Class<? extends Member> memberType = Classes.memberType(member);
     String memberName = memberType == Constructor.class ? "<init>" : member.getName();
@@ -79,18 +95,58 @@ public class StackTraceElements {
   }
 
   public static Object forType(Class<?> implementation) {
-    /*if[AOP]*/
-    LineNumbers lineNumbers = lineNumbersCache.getUnchecked(implementation);
-    int lineNumber = lineNumbers.getFirstLine();
-    String fileName = lineNumbers.getSource();
-    /*end[AOP]*/
-    /*if[NO_AOP]
-    String fileName = null;
-    int lineNumber = -1;
-    end[NO_AOP]*/
+    String fileName;
+    int lineNumber;
+    SourceLocations sourceLocations = getIndexedSourceLocations(implementation);
+    if (sourceLocations != null) {
+      fileName = sourceLocations.getSource();
+      lineNumber = sourceLocations.getFirstLine();
+    } else {
+      /*if[AOP]*/
+      LineNumbers lineNumbers = lineNumbersCache.getUnchecked(implementation);
+      lineNumber = lineNumbers.getFirstLine();
+      fileName = lineNumbers.getSource();
+      /*end[AOP]*/
+      /*if[NO_AOP]
+      fileName = null;
+      lineNumber = -1;
+      end[NO_AOP]*/
+    }
 
     return new StackTraceElement(implementation.getName(), "class", fileName, lineNumber);
   }
+
+  /**
+   * Sets the source locations recorded at build time, typically by the annotation processor
+   * into an {@code AnnotationDatabase}. Classes found in this index get their source file and
+   * line numbers from it instead of having their class file read and parsed at runtime.
+   *
+   * @param index maps class names to their encoded source locations, see
+   *     {@link SourceLocations}. An empty map disables the index.
+   */
+  public static void setSourceLocationIndex(Map<String, String> index) {
+    sourceLocationIndex = ImmutableMap.copyOf(index);
+    parsedSourceLocations.clear();
+  }
+
+  private static SourceLocations getIndexedSourceLocations(Class<?> type) {
+    Map<String, String> index = sourceLocationIndex;
+    if (index.isEmpty()) {
+      return null;
+    }
+
+    String name = type.getName();
+    SourceLocations sourceLocations = parsedSourceLocations.get(name);
+    if (sourceLocations == null) {
+      String encoded = index.get(name);
+      if (encoded == null) {
+        return null;
+      }
+      sourceLocations = SourceLocations.parse(encoded);
+      parsedSourceLocations.put(name, sourceLocations);
+    }
+    return sourceLocations;
+  }
   
   /**
    * Clears the internal cache for {@link StackTraceElement StackTraceElements}.
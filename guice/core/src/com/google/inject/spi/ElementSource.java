@@ -40,9 +40,10 @@ import java.util.List;
  * is the first method invocation. By default, the stack trace is not collected.
  * The default behavior can be changed by setting the
  * {@code guice_include_stack_traces} flag value. The value can be either
- * {@code OFF}, {@code ONLY_FOR_DECLARING_SOURCE} or {@code COMPLETE}. Note that
+ * {@code OFF}, {@code ONLY_FOR_DECLARING_SOURCE}, {@code DEFERRED} or {@code COMPLETE}. Note that
  * collecting stack traces for every binding can cause a performance hit when
- * the injector is created.
+ * the injector is created. {@code DEFERRED} reduces that cost by only decoding the frames of the
+ * call stack up to the declaring source, where the JVM allows it.
  * <p>
  * The sequence of class names of {@link com.google.inject.Module modules}
  * involved in the element creation can be retrieved by
@@ -77,8 +78,11 @@ public final class ElementSource {
    * object such as {@link Constructor}, {@link Method}, {@link Field}, {@link StackTraceElement}, 
    * etc. For example, if the element is created from a method annotated by {@literal @Provides}, 
    * the declaring source of element would be the method itself.
+   *
+   * <p>Holds a {@link DeferredDeclaringSource} until first requested if the element was copied
+   * from another element in {@code DEFERRED} mode.
    */
-  final Object declaringSource;
+  private volatile Object declaringSource;
 
   /**
    * Creates a new {@ElementSource} from the given parameters. 
@@ -116,7 +120,18 @@ public final class ElementSource {
    * declaring source of element would be the method itself.
    */
   public Object getDeclaringSource() {
-    return declaringSource;
+    Object source = declaringSource;
+    if (source instanceof DeferredDeclaringSource) {
+      synchronized (this) {
+        source = declaringSource;
+        if (source instanceof DeferredDeclaringSource) {
+          source = ((DeferredDeclaringSource) source).resolve();
+          Preconditions.checkNotNull(source, "declaringSource cannot be null.");
+          declaringSource = source;
+        }
+      }
+    }
+    return source;
   }
   
   /**
@@ -187,4 +202,11 @@ public final class ElementSource {
   public String toString() {
     return getDeclaringSource().toString();
   }
+
+  /**
+   * A declaring source that is only computed when first requested.
+   */
+  abstract static class DeferredDeclaringSource {
+    abstract Object resolve();
+  }
 }
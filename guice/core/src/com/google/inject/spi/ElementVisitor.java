@@ -120,4 +120,11 @@ public interface ElementVisitor<V> {
    * @since 4.0
    */
   V visit(RequireExactBindingAnnotationsOption option);
+
+  /**
+   * Visit a defer validation command.
+   *
+   * @since 4.0
+   */
+  V visit(DeferValidationOption option);
 }
@@ -20,12 +20,15 @@ import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.inject.internal.InternalFlags.IncludeStackTraceOption;
 import static com.google.inject.internal.InternalFlags.getIncludeStackTraceOption;
 
+import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.Uninterruptibles;
 import com.google.inject.AbstractModule;
 import com.google.inject.Binder;
 import com.google.inject.Binding;
+import com.google.inject.Guice;
 import com.google.inject.Key;
 import com.google.inject.MembersInjector;
 import com.google.inject.Module;
@@ -56,6 +59,11 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Exposes elements of a module so they can be inspected, validated or {@link
@@ -99,17 +107,76 @@ public final class Elements {
   }
 
   /**
-   * Records the elements executed by {@code modules}.
+   * Records the elements executed by {@code modules}. The modules are configured in parallel if
+   * an executor is {@link Guice#setModuleConfigurationExecutor set}.
    */
   public static List<Element> getElements(Stage stage, Iterable<? extends Module> modules) {
-    RecordingBinder binder = new RecordingBinder(stage);
-    for (Module module : modules) {
-      binder.install(module);
+    return getElements(stage, Guice.getModuleConfigurationExecutor(), modules);
+  }
+
+  /**
+   * Records the elements executed by {@code modules}, configuring each of them on {@code executor}.
+   * The recordings are merged in the order of {@code modules}, so the elements are the same as when
+   * the modules are configured one after the other, including for modules installed more than
+   * once. Modules that the executor hasn't started when their turn comes are configured by the
+   * calling thread.
+   *
+   * @param executor the executor configuring the modules, or null to configure them in the calling
+   *     thread
+   * @since 4.0
+   */
+  public static List<Element> getElements(
+      Stage stage, Executor executor, Iterable<? extends Module> modules) {
+    RecordingBinder binder = new RecordingBinder(stage, false);
+    List<Module> moduleList = Lists.newArrayList(modules);
+    if (executor == null || moduleList.size() < 2) {
+      for (Module module : moduleList) {
+        binder.install(module);
+      }
+    } else {
+      recordInParallel(binder, executor, moduleList);
     }
     // Free the memory consumed by the stack trace elements cache
     StackTraceElements.clearCache();
     return Collections.unmodifiableList(binder.elements);
   }
+
+  private static void recordInParallel(
+      RecordingBinder binder, Executor executor, List<Module> modules) {
+    final Stage stage = binder.stage;
+    List<FutureTask<RecordingBinder>> recordings = Lists.newArrayList();
+    for (final Module module : modules) {
+      FutureTask<RecordingBinder> recording = new FutureTask<RecordingBinder>(
+          new Callable<RecordingBinder>() {
+            public RecordingBinder call() {
+              RecordingBinder moduleBinder = new RecordingBinder(stage, true);
+              moduleBinder.install(module);
+              return moduleBinder;
+            }
+          });
+      recordings.add(recording);
+      try {
+        executor.execute(recording);
+      } catch (RejectedExecutionException e) {
+        // recorded by this thread below
+      }
+    }
+
+    for (int i = 0; i < recordings.size(); i++) {
+      FutureTask<RecordingBinder> recording = recordings.get(i);
+      // Does nothing if the executor already started the recording
+      recording.run();
+      try {
+        binder.merge(Uninterruptibles.getUninterruptibly(recording));
+      } catch (ExecutionException e) {
+        // Modules after the failing one wouldn't have been configured sequentially
+        for (FutureTask<RecordingBinder> skipped : recordings.subList(i + 1, recordings.size())) {
+          skipped.cancel(false);
+        }
+        throw Throwables.propagate(e.getCause());
+      }
+    }
+  }
   
   private static class ElementsAsModule implements Module {
     private final Iterable<? extends Element> elements;
@@ -137,10 +204,27 @@ public final class Elements {
     return (BindingTargetVisitor<T, T>) GET_INSTANCE_VISITOR;
   }
 
+  /** A module installed by a recording binder, with the range of what its installation recorded. */
+  private static class InstalledModule {
+    final Module module;
+    final int firstElement;
+    /** The index following the last element recorded by the installation. */
+    int endElement;
+    /** The index of the last module installed by the installation, this one if it installed none. */
+    int lastInstalledModule;
+
+    InstalledModule(Module module, int firstElement) {
+      this.module = module;
+      this.firstElement = firstElement;
+    }
+  }
+
   private static class RecordingBinder implements Binder, PrivateBinder {
     private final Stage stage;
     private final Set<Module> modules;
     private final List<Element> elements;
+    /** The modules installed in order, if the elements are to be {@link #merge merged}. */
+    private final List<InstalledModule> installedModules;
     private final Object source;
     /** The current modules stack */
     private ModuleSource moduleSource = null;
@@ -150,10 +234,11 @@ public final class Elements {
     private final RecordingBinder parent;
     private final PrivateElementsImpl privateElements;
 
-    private RecordingBinder(Stage stage) {
+    private RecordingBinder(Stage stage, boolean trackInstalledModules) {
       this.stage = stage;
       this.modules = Sets.newHashSet();
       this.elements = Lists.newArrayList();
+      this.installedModules = trackInstalledModules ? Lists.<InstalledModule>newArrayList() : null;
       this.source = null;
       this.sourceProvider = SourceProvider.DEFAULT_INSTANCE.plusSkippedClasses(
           Elements.class, RecordingBinder.class, AbstractModule.class,
@@ -170,6 +255,7 @@ public final class Elements {
       this.stage = prototype.stage;
       this.modules = prototype.modules;
       this.elements = prototype.elements;
+      this.installedModules = prototype.installedModules;
       this.source = source;
       this.moduleSource = prototype.moduleSource;
       this.sourceProvider = sourceProvider;
@@ -182,6 +268,7 @@ public final class Elements {
       this.stage = parent.stage;
       this.modules = Sets.newHashSet();
       this.elements = privateElements.getElementsMutable();
+      this.installedModules = null;
       this.source = parent.source;
       this.moduleSource = parent.moduleSource;
       this.sourceProvider = parent.sourceProvider;
@@ -240,6 +327,11 @@ public final class Elements {
 
     public void install(Module module) {
       if (modules.add(module)) {
+        InstalledModule installed = null;
+        if (installedModules != null) {
+          installed = new InstalledModule(module, elements.size());
+          installedModules.add(installed);
+        }
         Binder binder = this;
         // Update the module source for the new module
         if (!(module instanceof ProviderMethodsModule)) {
@@ -263,9 +355,32 @@ public final class Elements {
         if (!(module instanceof ProviderMethodsModule)) {
           moduleSource = moduleSource.getParent();
         }
+        if (installed != null) {
+          installed.endElement = elements.size();
+          installed.lastInstalledModule = installedModules.size() - 1;
+        }
       }
     }
 
+    /**
+     * Appends the elements of a recording, leaving out the modules this binder already installed
+     * along with everything they recorded, as {@link #install} would have.
+     */
+    private void merge(RecordingBinder recording) {
+      List<Element> recorded = recording.elements;
+      int next = 0;
+      for (int i = 0; i < recording.installedModules.size(); i++) {
+        InstalledModule installed = recording.installedModules.get(i);
+        elements.addAll(recorded.subList(next, installed.firstElement));
+        next = installed.firstElement;
+        if (!modules.add(installed.module)) {
+          next = installed.endElement;
+          i = installed.lastInstalledModule;
+        }
+      }
+      elements.addAll(recorded.subList(next, recorded.size()));
+    }
+
     public Stage currentStage() {
       return stage;
     }
@@ -352,6 +467,10 @@ public final class Elements {
       elements.add(new RequireExactBindingAnnotationsOption(getElementSource()));
     }
 
+    public void deferValidation() {
+      elements.add(new DeferValidationOption(getElementSource()));
+    }
+
     public void expose(Key<?> key) {
       exposeInternal(key);
     }
@@ -401,11 +520,14 @@ public final class Elements {
       ElementSource originalSource = null;
       // The element declaring source
       Object declaringSource = source;
+      IncludeStackTraceOption stackTraceOption = getIncludeStackTraceOption();
+      if (stackTraceOption == IncludeStackTraceOption.DEFERRED) {
+        return getDeferredElementSource();
+      }
       if (declaringSource instanceof ElementSource) {
         originalSource = (ElementSource) declaringSource;
         declaringSource = originalSource.getDeclaringSource();
       }
-      IncludeStackTraceOption stackTraceOption = getIncludeStackTraceOption();
       if (stackTraceOption == IncludeStackTraceOption.COMPLETE ||
           (stackTraceOption == IncludeStackTraceOption.ONLY_FOR_DECLARING_SOURCE 
           && declaringSource == null)) {
@@ -430,6 +552,24 @@ public final class Elements {
           originalSource, declaringSource, moduleSource, partialCallStack);
     }
 
+    /**
+     * Returns an element source that doesn't decode more of the call stack than necessary. Only
+     * the frames up to the declaring one are decoded where the JVM allows it, and only that frame
+     * is kept. Copied elements resolve the declaring source of their original on first use.
+     */
+    private ElementSource getDeferredElementSource() {
+      Object declaringSource = source;
+      ElementSource originalSource = null;
+      if (declaringSource instanceof ElementSource) {
+        originalSource = (ElementSource) declaringSource;
+        declaringSource = new DeferredOriginalSource(originalSource);
+      } else if (declaringSource == null) {
+        declaringSource = sourceProvider.get(new Throwable());
+      }
+      return new ElementSource(
+          originalSource, declaringSource, moduleSource, new StackTraceElement[0]);
+    }
+
     /**
      * Removes the {@link #moduleSource} call stack from the beginning of current call stack. It  
      * also removes the last two elements in order to make {@link #install(Module)} the last call 
@@ -452,4 +592,17 @@ public final class Elements {
       return "Binder";
     }
   }
+
+  /** Resolves to the declaring source of the element this element was copied from. */
+  private static class DeferredOriginalSource extends ElementSource.DeferredDeclaringSource {
+    private final ElementSource originalSource;
+
+    DeferredOriginalSource(ElementSource originalSource) {
+      this.originalSource = originalSource;
+    }
+
+    @Override Object resolve() {
+      return originalSource.getDeclaringSource();
+    }
+  }
 }
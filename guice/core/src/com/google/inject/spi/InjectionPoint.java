@@ -62,7 +62,13 @@ import com.google.inject.internal.util.Classes;
 public final class InjectionPoint {
 
     private static final Logger logger = Logger.getLogger(InjectionPoint.class.getName());
-    private static HierarchyTraversalFilter filter = Guice.createHierarchyTraversalFilter();
+    /** Filters are stateful, each thread looking for injection points uses its own. */
+    private static final ThreadLocal<HierarchyTraversalFilter> filters = new ThreadLocal<HierarchyTraversalFilter>() {
+        @Override
+        protected HierarchyTraversalFilter initialValue() {
+            return Guice.createHierarchyTraversalFilter();
+        }
+    };
 
     private final boolean optional;
     private final Member member;
@@ -242,9 +248,15 @@ public final class InjectionPoint {
      *     parameter with multiple binding annotations.
      */
     public static InjectionPoint forConstructorOf(TypeLiteral<?> type) {
+        InjectionPoint imaged = InjectorImage.getConstructor(type);
+        if (imaged != null) {
+            return imaged;
+        }
+
         Class<?> rawType = getRawType(type.getType());
         Errors errors = new Errors(rawType);
 
+        HierarchyTraversalFilter filter = filters.get();
         filter.reset();
         Constructor<?> injectableConstructor = null;
         if( filter.isWorthScanningForConstructors(Inject.class.getName(), rawType)) {
@@ -368,6 +380,11 @@ public final class InjectionPoint {
      *      of the valid injection points.
      */
     public static Set<InjectionPoint> forInstanceMethodsAndFields(TypeLiteral<?> type) {
+        Set<InjectionPoint> imaged = InjectorImage.getInstanceMethodsAndFields(type);
+        if (imaged != null) {
+            return imaged;
+        }
+
         Errors errors = new Errors();
         Set<InjectionPoint> result = getInjectionPoints(type, false, errors);
         if (errors.hasErrors()) {
@@ -683,6 +700,7 @@ public final class InjectionPoint {
         final OverrideIndex overrideIndex = new OverrideIndex(injectableMembers);
         overrideIndex.position = Position.BOTTOM; // we start at the bottom of inheritance hierarchy
 
+    	HierarchyTraversalFilter filter = filters.get();
     	filter.reset();
     	computeInjectableMembers(type, statics, errors, injectableMembers, overrideIndex, filter);
 
@@ -0,0 +1,388 @@
+/**
+ * Copyright (C) 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.inject.spi;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+import com.google.inject.Binding;
+import com.google.inject.ConfigurationException;
+import com.google.inject.Inject;
+import com.google.inject.Injector;
+import com.google.inject.TypeLiteral;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+/**
+ * The injection points of the classes used by an injector, recorded ahead of time so that later
+ * injectors don't have to discover them through reflection. Discovering injection points means
+ * scanning each class hierarchy for annotated constructors, fields and methods and resolving
+ * overrides; replaying an image only looks up the recorded members by name.
+ *
+ * <p>Typically an image is {@link #capture captured} from an injector built from the application's
+ * modules, for instance in {@link com.google.inject.Stage#TOOL tool stage} as part of the build,
+ * {@link #writeTo written} next to the application and {@link #readFrom read} and
+ * {@link #install installed} at startup before creating the injector. Modules still run as usual,
+ * only the discovery of injection points is skipped.
+ *
+ * <p>An image is tied to the build it was captured from by a fingerprint, and is rejected if its
+ * fingerprint or checksum don't match. The fingerprint must change whenever any class changes,
+ * for instance a checksum of the compiled classes: an image trusted after a class gained an
+ * injectable member would silently not inject it. Classes whose recorded members can no longer be
+ * found fall back to reflection.
+ *
+ * @since 4.0
+ */
+public final class InjectorImage {
+  private static final int MAGIC = 0x47494d47; // "GIMG"
+  private static final int VERSION = 1;
+
+  private static final String FIELD = "F";
+  private static final String METHOD = "M";
+  private static final String CONSTRUCTOR = "C";
+
+  private static final Map<String, Class<?>> PRIMITIVES = ImmutableMap.<String, Class<?>>builder()
+      .put("boolean", boolean.class)
+      .put("byte", byte.class)
+      .put("char", char.class)
+      .put("short", short.class)
+      .put("int", int.class)
+      .put("long", long.class)
+      .put("float", float.class)
+      .put("double", double.class)
+      .build();
+
+  /** The installed image, consulted by {@link InjectionPoint}. */
+  private static volatile InjectorImage installed;
+
+  private final String fingerprint;
+  private final ImmutableMap<String, TypeImage> types;
+
+  private InjectorImage(String fingerprint, ImmutableMap<String, TypeImage> types) {
+    this.fingerprint = fingerprint;
+    this.types = types;
+  }
+
+  /**
+   * Records the constructor and instance member injection points of every class constructed or
+   * injected by {@code injector}, including just-in-time bindings created so far.
+   *
+   * @param fingerprint identifies the build of the classes, it must be given again to
+   *     {@link #readFrom} for the image to be accepted.
+   */
+  public static InjectorImage capture(Injector injector, String fingerprint) {
+    checkNotNull(fingerprint, "fingerprint");
+    Map<String, TypeImage> types = Maps.newLinkedHashMap();
+    for (Binding<?> binding : injector.getAllBindings().values()) {
+      if (binding instanceof ConstructorBinding) {
+        ConstructorBinding<?> constructorBinding = (ConstructorBinding<?>) binding;
+        InjectionPoint constructor = constructorBinding.getConstructor();
+        Class<?> type = constructor.getDeclaringType().getRawType();
+        types.put(type.getName(), new TypeImage(
+            encode(constructor.getMember()), encode(constructorBinding.getInjectableMembers())));
+      } else if (binding instanceof InstanceBinding) {
+        Object instance = ((InstanceBinding<?>) binding).getInstance();
+        addMembers(types, instance.getClass(), ((InstanceBinding<?>) binding).getInjectionPoints());
+      } else if (binding instanceof ProviderInstanceBinding) {
+        Object provider = ((ProviderInstanceBinding<?>) binding).getUserSuppliedProvider();
+        addMembers(types, provider.getClass(),
+            ((ProviderInstanceBinding<?>) binding).getInjectionPoints());
+      }
+    }
+    return new InjectorImage(fingerprint, ImmutableMap.copyOf(types));
+  }
+
+  private static void addMembers(
+      Map<String, TypeImage> types, Class<?> type, Set<InjectionPoint> injectionPoints) {
+    if (!types.containsKey(type.getName())) {
+      types.put(type.getName(), new TypeImage(null, encode(injectionPoints)));
+    }
+  }
+
+  /**
+   * Reads an image written by {@link #writeTo}.
+   *
+   * @throws IOException if the image can't be read, is corrupt, was written by an incompatible
+   *     version of Guice or has a different fingerprint.
+   */
+  public static InjectorImage readFrom(InputStream in, String fingerprint) throws IOException {
+    DataInputStream data = new DataInputStream(in);
+    if (data.readInt() != MAGIC) {
+      throw new IOException("Not an injector image");
+    }
+    int version = data.readInt();
+    if (version != VERSION) {
+      throw new IOException("Unsupported injector image version " + version);
+    }
+    byte[] payload = new byte[data.readInt()];
+    data.readFully(payload);
+    CRC32 crc = new CRC32();
+    crc.update(payload);
+    if (data.readLong() != crc.getValue()) {
+      throw new IOException("Corrupt injector image");
+    }
+
+    data = new DataInputStream(new ByteArrayInputStream(payload));
+    String imageFingerprint = data.readUTF();
+    if (!imageFingerprint.equals(fingerprint)) {
+      throw new IOException("Stale injector image, captured from " + imageFingerprint
+          + " instead of " + fingerprint);
+    }
+    int typeCount = data.readInt();
+    ImmutableMap.Builder<String, TypeImage> types = ImmutableMap.builder();
+    for (int i = 0; i < typeCount; i++) {
+      String typeName = data.readUTF();
+      String[] constructor = data.readBoolean() ? readStrings(data) : null;
+      String[][] members = new String[data.readInt()][];
+      for (int j = 0; j < members.length; j++) {
+        members[j] = readStrings(data);
+      }
+      types.put(typeName, new TypeImage(constructor, members));
+    }
+    return new InjectorImage(fingerprint, types.build());
+  }
+
+  /** Writes this image in a compact binary form, see {@link #readFrom}. */
+  public void writeTo(OutputStream out) throws IOException {
+    ByteArrayOutputStream payload = new ByteArrayOutputStream();
+    DataOutputStream data = new DataOutputStream(payload);
+    data.writeUTF(fingerprint);
+    data.writeInt(types.size());
+    for (Map.Entry<String, TypeImage> entry : types.entrySet()) {
+      data.writeUTF(entry.getKey());
+      String[] constructor = entry.getValue().constructor;
+      data.writeBoolean(constructor != null);
+      if (constructor != null) {
+        writeStrings(data, constructor);
+      }
+      String[][] members = entry.getValue().members;
+      data.writeInt(members.length);
+      for (String[] member : members) {
+        writeStrings(data, member);
+      }
+    }
+    data.flush();
+
+    byte[] bytes = payload.toByteArray();
+    CRC32 crc = new CRC32();
+    crc.update(bytes);
+    DataOutputStream header = new DataOutputStream(out);
+    header.writeInt(MAGIC);
+    header.writeInt(VERSION);
+    header.writeInt(bytes.length);
+    header.write(bytes);
+    header.writeLong(crc.getValue());
+    header.flush();
+  }
+
+  /** Returns the fingerprint of the build this image was captured from. */
+  public String getFingerprint() {
+    return fingerprint;
+  }
+
+  /** Returns the number of classes recorded in this image. */
+  public int getTypeCount() {
+    return types.size();
+  }
+
+  /**
+   * Installs {@code image} for the injectors created from now on, or uninstalls the current image
+   * if {@code image} is null.
+   */
+  public static void install(InjectorImage image) {
+    installed = image;
+  }
+
+  /**
+   * Returns the injection point of the constructor of {@code type} recorded in the installed
+   * image, or null if it must be discovered through reflection.
+   */
+  static InjectionPoint getConstructor(TypeLiteral<?> type) {
+    TypeImage typeImage = getTypeImage(type);
+    if (typeImage == null || typeImage.constructor == null) {
+      return null;
+    }
+    try {
+      Member member = resolve(type.getRawType(), typeImage.constructor);
+      if (!(member instanceof Constructor)) {
+        return null;
+      }
+      Constructor<?> constructor = (Constructor<?>) member;
+      if (constructor.getParameterTypes().length != 0
+          && InjectionPoint.getAtInject(constructor) == null) {
+        return null;
+      }
+      return new InjectionPoint(type, constructor);
+    } catch (ConfigurationException e) {
+      // Let reflection report the error.
+      return null;
+    }
+  }
+
+  /**
+   * Returns the instance member injection points of {@code type} recorded in the installed image,
+   * or null if they must be discovered through reflection.
+   */
+  static Set<InjectionPoint> getInstanceMethodsAndFields(TypeLiteral<?> type) {
+    TypeImage typeImage = getTypeImage(type);
+    if (typeImage == null) {
+      return null;
+    }
+    try {
+      ImmutableSet.Builder<InjectionPoint> injectionPoints = ImmutableSet.builder();
+      for (String[] encoded : typeImage.members) {
+        Member member = resolve(type.getRawType(), encoded);
+        if (member == null) {
+          return null;
+        }
+        Annotation atInject = InjectionPoint.getAtInject((AnnotatedElement) member);
+        if (atInject == null) {
+          return null;
+        }
+        boolean optional = atInject instanceof Inject && ((Inject) atInject).optional();
+        TypeLiteral<?> declaringType = type.getSupertype(member.getDeclaringClass());
+        if (member instanceof Field) {
+          injectionPoints.add(new InjectionPoint(declaringType, (Field) member, optional));
+        } else if (member instanceof Method) {
+          injectionPoints.add(new InjectionPoint(declaringType, (Method) member, optional));
+        } else {
+          return null;
+        }
+      }
+      return injectionPoints.build();
+    } catch (ConfigurationException e) {
+      // Let reflection report the error, or skip the optional member.
+      return null;
+    }
+  }
+
+  private static TypeImage getTypeImage(TypeLiteral<?> type) {
+    InjectorImage image = installed;
+    return image == null ? null : image.types.get(type.getRawType().getName());
+  }
+
+  /**
+   * Encodes a member as its kind, declaring class and name, followed by parameter types for
+   * methods and constructors.
+   */
+  private static String[] encode(Member member) {
+    String kind;
+    Class<?>[] parameterTypes;
+    if (member instanceof Field) {
+      kind = FIELD;
+      parameterTypes = new Class<?>[0];
+    } else if (member instanceof Method) {
+      kind = METHOD;
+      parameterTypes = ((Method) member).getParameterTypes();
+    } else {
+      kind = CONSTRUCTOR;
+      parameterTypes = ((Constructor<?>) member).getParameterTypes();
+    }
+    String[] encoded = new String[3 + parameterTypes.length];
+    encoded[0] = kind;
+    encoded[1] = member.getDeclaringClass().getName();
+    encoded[2] = member.getName();
+    for (int i = 0; i < parameterTypes.length; i++) {
+      encoded[3 + i] = parameterTypes[i].getName();
+    }
+    return encoded;
+  }
+
+  private static String[][] encode(Set<InjectionPoint> injectionPoints) {
+    String[][] members = new String[injectionPoints.size()][];
+    int i = 0;
+    for (InjectionPoint injectionPoint : injectionPoints) {
+      members[i++] = encode(injectionPoint.getMember());
+    }
+    return members;
+  }
+
+  /** Returns the member encoded by {@link #encode(Member)}, or null if it no longer exists. */
+  private static Member resolve(Class<?> type, String[] encoded) {
+    try {
+      ClassLoader classLoader = type.getClassLoader();
+      Class<?> declaringClass = encoded[1].equals(type.getName())
+          ? type : Class.forName(encoded[1], false, classLoader);
+      if (!declaringClass.isAssignableFrom(type)) {
+        return null;
+      }
+      if (encoded[0].equals(FIELD)) {
+        return declaringClass.getDeclaredField(encoded[2]);
+      }
+      Class<?>[] parameterTypes = new Class<?>[encoded.length - 3];
+      for (int i = 0; i < parameterTypes.length; i++) {
+        Class<?> primitive = PRIMITIVES.get(encoded[3 + i]);
+        parameterTypes[i] = primitive != null
+            ? primitive : Class.forName(encoded[3 + i], false, classLoader);
+      }
+      return encoded[0].equals(METHOD)
+          ? declaringClass.getDeclaredMethod(encoded[2], parameterTypes)
+          : declaringClass.getDeclaredConstructor(parameterTypes);
+    } catch (ClassNotFoundException e) {
+      return null;
+    } catch (NoSuchFieldException e) {
+      return null;
+    } catch (NoSuchMethodException e) {
+      return null;
+    }
+  }
+
+  private static void writeStrings(DataOutputStream data, String[] strings) throws IOException {
+    data.writeInt(strings.length);
+    for (String string : strings) {
+      data.writeUTF(string);
+    }
+  }
+
+  private static String[] readStrings(DataInputStream data) throws IOException {
+    String[] strings = new String[data.readInt()];
+    for (int i = 0; i < strings.length; i++) {
+      strings[i] = data.readUTF();
+    }
+    return strings;
+  }
+
+  /** The recorded injection points of one class. */
+  private static final class TypeImage {
+    /** The encoded constructor, or null for classes that Guice doesn't construct. */
+    final String[] constructor;
+    /** The encoded instance members, in injection order. */
+    final String[][] members;
+
+    TypeImage(String[] constructor, String[][] members) {
+      this.constructor = constructor;
+      this.members = members;
+    }
+  }
+}
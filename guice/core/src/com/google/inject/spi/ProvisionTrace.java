@@ -0,0 +1,228 @@
+/**
+ * Copyright (C) 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.google.inject.spi;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.inject.Key;
+import com.google.inject.Scope;
+import com.google.inject.internal.ProvisionTracing;
+import com.google.inject.internal.ProvisionTracing.Buffer;
+import com.google.inject.internal.ProvisionTracing.Event;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A trace of the provisions of all injectors, to find out which dependency chains take the most
+ * time, for instance while an activity or a request scope is being set up. While a trace is
+ * started, each thread records when the provision of each key starts and ends in a ring buffer,
+ * along with the scopes that construct instances. When no trace is started, provisioning doesn't
+ * record anything.
+ *
+ * <pre>
+ * ProvisionTrace trace = ProvisionTrace.start();
+ * injector.getInstance(RequestHandler.class);
+ * trace.stop();
+ * trace.writeCollapsedStacks(writer);</pre>
+ *
+ * <p>The trace can be exported as collapsed stacks, the input of
+ * <a href="https://github.com/brendangregg/FlameGraph">flame graph</a> tools, or as a
+ * <a href="https://github.com/catapult-project/catapult/tree/master/tracing">Chrome trace</a>
+ * for {@code chrome://tracing}. Each frame is a key, or a scope in brackets when the scope
+ * constructs an instance. Keys are recorded whenever they are provisioned, also when a scope
+ * returns a cached instance.
+ *
+ * @since 4.0
+ */
+public final class ProvisionTrace {
+
+  /** The number of events kept for each thread by {@link #start()}. */
+  public static final int DEFAULT_EVENTS_PER_THREAD = 1 << 16;
+
+  private final ProvisionTracing tracing;
+
+  private ProvisionTrace(ProvisionTracing tracing) {
+    this.tracing = tracing;
+  }
+
+  /**
+   * Starts tracing provisions, keeping the last {@link #DEFAULT_EVENTS_PER_THREAD} events of each
+   * thread. The start and the end of a provision are two events.
+   *
+   * @throws IllegalStateException if a trace is already started.
+   */
+  public static ProvisionTrace start() {
+    return start(DEFAULT_EVENTS_PER_THREAD);
+  }
+
+  /**
+   * Starts tracing provisions, keeping the last {@code eventsPerThread} events of each thread.
+   *
+   * @throws IllegalStateException if a trace is already started.
+   */
+  public static ProvisionTrace start(int eventsPerThread) {
+    return new ProvisionTrace(ProvisionTracing.start(eventsPerThread));
+  }
+
+  /**
+   * Stops tracing. Provisions that are in progress may still record their end. Does nothing if the
+   * trace is already stopped.
+   */
+  public void stop() {
+    tracing.stop();
+  }
+
+  /**
+   * Writes the collapsed stacks of the trace: one line per distinct stack of frames, separated by
+   * semicolons from the outermost, followed by the time spent in its last frame, excluding its
+   * children, in nanoseconds.
+   */
+  public void writeCollapsedStacks(Appendable out) throws IOException {
+    Map<String, Long> selfNanos = Maps.newLinkedHashMap();
+    for (Buffer buffer : tracing.getBuffers()) {
+      for (Frame frame : replay(buffer)) {
+        String stack = frame.getStack();
+        Long total = selfNanos.get(stack);
+        long nanos = frame.endNanos - frame.startNanos - frame.childNanos;
+        selfNanos.put(stack, (total == null) ? nanos : total + nanos);
+      }
+    }
+    for (Map.Entry<String, Long> entry : selfNanos.entrySet()) {
+      out.append(entry.getKey()).append(' ').append(entry.getValue().toString()).append('\n');
+    }
+  }
+
+  /**
+   * Writes the trace in the JSON format of Chrome traces, with a complete event for each
+   * provision. Timestamps are in microseconds since the trace was started.
+   */
+  public void writeChromeTrace(Appendable out) throws IOException {
+    out.append("{\"traceEvents\":[");
+    boolean first = true;
+    for (Buffer buffer : tracing.getBuffers()) {
+      String threadId = Long.toString(buffer.getThreadId());
+      if (!first) {
+        out.append(',');
+      }
+      first = false;
+      out.append("\n{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":1,\"tid\":")
+          .append(threadId)
+          .append(",\"args\":{\"name\":");
+      appendString(out, buffer.getThreadName());
+      out.append("}}");
+      for (Frame frame : replay(buffer)) {
+        out.append(",\n{\"name\":");
+        appendString(out, frame.name);
+        out.append(",\"cat\":\"guice\",\"ph\":\"X\",\"ts\":")
+            .append(toMicros(frame.startNanos - tracing.getStartNanos()))
+            .append(",\"dur\":")
+            .append(toMicros(frame.endNanos - frame.startNanos))
+            .append(",\"pid\":1,\"tid\":")
+            .append(threadId)
+            .append('}');
+      }
+    }
+    out.append("]}\n");
+  }
+
+  /**
+   * Replays the events of a buffer, and returns its frames in the order they ended. Frames that
+   * ended but whose start was overwritten in the buffer are skipped, as are frames that didn't end
+   * yet.
+   */
+  private static List<Frame> replay(Buffer buffer) {
+    List<Frame> frames = Lists.newArrayList();
+    Frame current = null;
+    for (Event event : buffer.getEvents()) {
+      if (event.getFrame() != null) {
+        current = new Frame(current, frameName(event.getFrame()), event.getNanos());
+      } else if (current != null) {
+        current.endNanos = event.getNanos();
+        frames.add(current);
+        if (current.parent != null) {
+          current.parent.childNanos += current.endNanos - current.startNanos;
+        }
+        current = current.parent;
+      }
+    }
+    return frames;
+  }
+
+  private static String frameName(Object frame) {
+    String name;
+    if (frame instanceof Key) {
+      Key<?> key = (Key<?>) frame;
+      if (key.getAnnotation() != null) {
+        name = key.getTypeLiteral() + " " + key.getAnnotation();
+      } else if (key.getAnnotationType() != null) {
+        name = key.getTypeLiteral() + " @" + key.getAnnotationType().getName();
+      } else {
+        name = key.getTypeLiteral().toString();
+      }
+    } else if (frame instanceof Scope) {
+      name = "[" + frame + "]";
+    } else {
+      name = String.valueOf(frame);
+    }
+    // semicolons separate the frames of collapsed stacks
+    return name.replace(';', ',').replace('\n', ' ');
+  }
+
+  private static String toMicros(long nanos) {
+    return Double.toString(nanos / 1000.0);
+  }
+
+  private static void appendString(Appendable out, String value) throws IOException {
+    out.append('"');
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c == '"' || c == '\\') {
+        out.append('\\').append(c);
+      } else if (c < 0x20) {
+        out.append(String.format("\\u%04x", (int) c));
+      } else {
+        out.append(c);
+      }
+    }
+    out.append('"');
+  }
+
+  /** A provision, or the construction of an instance by a scope. */
+  private static final class Frame {
+    /** The frame that started this one, or null. */
+    final Frame parent;
+    final String name;
+    final long startNanos;
+    long endNanos;
+    /** The time spent in the frames this one started. */
+    long childNanos;
+
+    Frame(Frame parent, String name, long startNanos) {
+      this.parent = parent;
+      this.name = name;
+      this.startNanos = startNanos;
+    }
+
+    /** Returns the names of the frames from the outermost to this one, separated by semicolons. */
+    String getStack() {
+      return (parent == null) ? name : parent.getStack() + ";" + name;
+    }
+  }
+}
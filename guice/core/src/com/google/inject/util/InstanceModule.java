@@ -0,0 +1,141 @@
+/**
+ * Copyright (C) 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.google.inject.util;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.google.inject.Binder;
+import com.google.inject.Injector;
+import com.google.inject.Key;
+import com.google.inject.Module;
+
+import java.util.Map;
+
+/**
+ * A module that only binds keys to instances and to provider instances. It is meant for the small
+ * child injectors created for each request or each screen, that bind a few objects of their own
+ * on top of a parent injector that holds the rest of the application:
+ *
+ * <pre>
+ * Injector requestInjector = injector.createChildInjector(InstanceModule.builder()
+ *     .bind(HttpServletRequest.class, request)
+ *     .bindProvider(Key.get(User.class), userProvider)
+ *     .build());</pre>
+ *
+ * <p>An instance module behaves like the equivalent {@code bind(key).toInstance(instance)} and
+ * {@code bind(key).toProvider(provider)} statements. When all the modules of
+ * {@link Injector#createChildInjector(Iterable) a child injector} are instance modules, and their
+ * instances and providers have no members to inject, the child injector is created without
+ * recording and validating the modules, which makes it much cheaper to create.
+ *
+ * @since 4.0
+ */
+public final class InstanceModule implements Module {
+  private final ImmutableMap<Key<?>, Object> instances;
+  private final ImmutableMap<Key<?>, javax.inject.Provider<?>> providers;
+
+  private InstanceModule(Builder builder) {
+    this.instances = ImmutableMap.copyOf(builder.instances);
+    this.providers = ImmutableMap.copyOf(builder.providers);
+  }
+
+  /** Returns a builder of instance modules. */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /** Returns the instances bound by this module, by key. */
+  public ImmutableMap<Key<?>, Object> getInstances() {
+    return instances;
+  }
+
+  /** Returns the provider instances bound by this module, by key. */
+  public ImmutableMap<Key<?>, javax.inject.Provider<?>> getProviders() {
+    return providers;
+  }
+
+  public void configure(Binder binder) {
+    binder = binder.withSource(this);
+    for (Map.Entry<Key<?>, Object> entry : instances.entrySet()) {
+      bindInstance(binder, entry.getKey(), entry.getValue());
+    }
+    for (Map.Entry<Key<?>, javax.inject.Provider<?>> entry : providers.entrySet()) {
+      bindProvider(binder, entry.getKey(), entry.getValue());
+    }
+  }
+
+  @SuppressWarnings("unchecked") // the builder only accepts instances of the type of their key
+  private static <T> void bindInstance(Binder binder, Key<T> key, Object instance) {
+    binder.bind(key).toInstance((T) instance);
+  }
+
+  @SuppressWarnings("unchecked") // the builder only accepts providers of the type of their key
+  private static <T> void bindProvider(
+      Binder binder, Key<T> key, javax.inject.Provider<?> provider) {
+    binder.bind(key).toProvider((javax.inject.Provider<T>) provider);
+  }
+
+  @Override public String toString() {
+    return "InstanceModule" + Sets.union(instances.keySet(), providers.keySet());
+  }
+
+  /**
+   * Collects the bindings of an {@link InstanceModule}. Each key can be bound once.
+   *
+   * @since 4.0
+   */
+  public static final class Builder {
+    private final Map<Key<?>, Object> instances = Maps.newLinkedHashMap();
+    private final Map<Key<?>, javax.inject.Provider<?>> providers = Maps.newLinkedHashMap();
+
+    private Builder() {}
+
+    /** Binds {@code type} to {@code instance}. */
+    public <T> Builder bind(Class<T> type, T instance) {
+      return bind(Key.get(type), instance);
+    }
+
+    /** Binds {@code key} to {@code instance}. */
+    public <T> Builder bind(Key<T> key, T instance) {
+      checkUnbound(key);
+      instances.put(key, checkNotNull(instance, "instance"));
+      return this;
+    }
+
+    /** Binds {@code key} to {@code provider}, which is called for each injection of the key. */
+    public <T> Builder bindProvider(Key<T> key, javax.inject.Provider<? extends T> provider) {
+      checkUnbound(key);
+      providers.put(key, checkNotNull(provider, "provider"));
+      return this;
+    }
+
+    private void checkUnbound(Key<?> key) {
+      checkNotNull(key, "key");
+      checkArgument(!instances.containsKey(key) && !providers.containsKey(key),
+          "%s is already bound", key);
+    }
+
+    public InstanceModule build() {
+      return new InstanceModule(this);
+    }
+  }
+}
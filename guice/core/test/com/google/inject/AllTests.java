@@ -18,9 +18,13 @@ package com.google.inject;
 
 import com.google.common.collect.ImmutableSet;
 import com.google.inject.internal.MoreTypesTest;
+import com.google.inject.internal.GeneratedComponentsTest;
+import com.google.inject.internal.InstanceChildInjectorCreatorTest;
+import com.google.inject.internal.ProvidesMethodInvokersTest;
 import com.google.inject.internal.UniqueAnnotationsTest;
 import com.google.inject.internal.WeakKeySetTest;
 import com.google.inject.internal.util.LineNumbersTest;
+import com.google.inject.internal.util.StackTraceElementsTest;
 import com.google.inject.matcher.MatcherTest;
 import com.google.inject.name.NamedEquivalanceTest;
 import com.google.inject.name.NamesTest;
@@ -30,12 +34,15 @@ import com.google.inject.spi.ElementSourceTest;
 import com.google.inject.spi.ElementsTest;
 import com.google.inject.spi.HasDependenciesTest;
 import com.google.inject.spi.InjectionPointTest;
+import com.google.inject.spi.InjectorImageTest;
 import com.google.inject.spi.InjectorSpiTest;
 import com.google.inject.spi.ModuleRewriterTest;
 import com.google.inject.spi.ModuleSourceTest;
 import com.google.inject.spi.ProviderMethodsTest;
+import com.google.inject.spi.ProvisionTraceTest;
 import com.google.inject.spi.SpiBindingsTest;
 import com.google.inject.spi.ToolStageInjectorTest;
+import com.google.inject.util.InstanceModuleTest;
 import com.google.inject.util.NoopOverrideTest;
 import com.google.inject.util.OverrideModuleTest;
 import com.google.inject.util.ProvidersTest;
@@ -70,6 +77,7 @@ public class AllTests {
     suite.addTestSuite(BoundInstanceInjectionTest.class);
     suite.addTestSuite(BoundProviderTest.class);
     suite.addTestSuite(CircularDependencyTest.class);
+    suite.addTestSuite(DeferValidationTest.class);
     suite.addTestSuite(DuplicateBindingsTest.class);
     // ErrorHandlingTest.class is not a testcase
     suite.addTestSuite(EagerSingletonTest.class);
@@ -108,7 +116,11 @@ public class AllTests {
 
     // internal
     suite.addTestSuite(LineNumbersTest.class);
+    suite.addTestSuite(StackTraceElementsTest.class);
     suite.addTestSuite(MoreTypesTest.class);
+    suite.addTestSuite(ProvidesMethodInvokersTest.class);
+    suite.addTestSuite(GeneratedComponentsTest.class);
+    suite.addTestSuite(InstanceChildInjectorCreatorTest.class);
     suite.addTestSuite(UniqueAnnotationsTest.class);
 
     // matcher
@@ -124,9 +136,11 @@ public class AllTests {
     suite.addTestSuite(ElementApplyToTest.class);
     suite.addTestSuite(HasDependenciesTest.class);
     suite.addTestSuite(InjectionPointTest.class);
+    suite.addTestSuite(InjectorImageTest.class);
     suite.addTestSuite(InjectorSpiTest.class);
     suite.addTestSuite(ModuleRewriterTest.class);
     suite.addTestSuite(ProviderMethodsTest.class);
+    suite.addTestSuite(ProvisionTraceTest.class);
     suite.addTestSuite(SpiBindingsTest.class);
     suite.addTestSuite(ToolStageInjectorTest.class);
     suite.addTestSuite(ModuleSourceTest.class);
@@ -136,6 +150,7 @@ public class AllTests {
     // suite.addTestSuite(JmxTest.class); not a testcase
 
     // util
+    suite.addTestSuite(InstanceModuleTest.class);
     suite.addTestSuite(NoopOverrideTest.class);
     suite.addTestSuite(ProvidersTest.class);
     suite.addTestSuite(TypesTest.class);
@@ -0,0 +1,196 @@
+/**
+ * Copyright (C) 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.inject;
+
+import static com.google.inject.Asserts.assertContains;
+
+import com.google.common.collect.Lists;
+import com.google.inject.spi.ConstructorBinding;
+
+import junit.framework.TestCase;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests for {@link Binder#deferValidation()}.
+ */
+public class DeferValidationTest extends TestCase {
+
+  private static final AtomicInteger constructions = new AtomicInteger();
+
+  @Override protected void setUp() {
+    constructions.set(0);
+  }
+
+  public void testBrokenBindingsFailCreationByDefault() {
+    try {
+      Guice.createInjector(new BrokenModule());
+      fail();
+    } catch (CreationException expected) {
+      assertEquals(2, expected.getErrorMessages().size());
+    }
+  }
+
+  public void testBrokenBindingsFailOnFirstProvision() {
+    Injector injector = Guice.createInjector(new DeferringModule(), new BrokenModule());
+
+    assertProvisionFails(injector, Key.get(Car.class));
+    assertProvisionFails(injector, Key.get(Wheel.class));
+    assertProvisionFails(injector, Key.get(String.class));
+    // the errors of a binding are reported by each provision
+    assertProvisionFails(injector, Key.get(Car.class));
+  }
+
+  public void testWorkingBindings() {
+    Injector injector = Guice.createInjector(new DeferringModule(), new AbstractModule() {
+      @Override protected void configure() {
+        bind(Engine.class).to(V8.class);
+        bind(Wheel.class).toProvider(WheelProvider.class);
+        bind(V8.class).in(Singleton.class);
+      }
+
+      @Provides String provideName(Engine engine, Wheel wheel) {
+        return engine.getClass().getSimpleName() + wheel.getClass().getSimpleName();
+      }
+    });
+
+    assertEquals(0, constructions.get());
+    assertEquals("V8Wheel", injector.getInstance(String.class));
+    assertSame(injector.getInstance(Engine.class), injector.getInstance(V8.class));
+    assertEquals(1, constructions.get());
+  }
+
+  public void testInspectingBindingInitializesIt() {
+    Injector injector = Guice.createInjector(new DeferringModule(), new AbstractModule() {
+      @Override protected void configure() {
+        bind(V8.class);
+        bind(Wheel.class);
+      }
+    });
+
+    ConstructorBinding<?> binding = (ConstructorBinding<?>) injector.getBinding(V8.class);
+    assertEquals(V8.class, binding.getConstructor().getDeclaringType().getRawType());
+    try {
+      ((ConstructorBinding<?>) injector.getBinding(Wheel.class)).getConstructor();
+      fail();
+    } catch (ConfigurationException expected) {
+      assertContains(expected.getMessage(),
+          "No implementation for " + Tire.class.getName() + " was bound");
+    }
+  }
+
+  public void testConcurrentFirstProvisions() throws Exception {
+    final Injector injector = Guice.createInjector(new DeferringModule(), new AbstractModule() {
+      @Override protected void configure() {
+        bind(Engine.class).to(V8.class).in(Singleton.class);
+      }
+    });
+
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<Engine>> engines = Lists.newArrayList();
+      for (int i = 0; i < 8; i++) {
+        engines.add(executor.submit(new Callable<Engine>() {
+          public Engine call() {
+            return injector.getInstance(Engine.class);
+          }
+        }));
+      }
+      for (Future<Engine> engine : engines) {
+        assertSame(engines.get(0).get(), engine.get());
+      }
+    } finally {
+      executor.shutdown();
+    }
+    assertEquals(1, constructions.get());
+  }
+
+  public void testChildInjectorsDeferValidation() {
+    Injector parent = Guice.createInjector(new DeferringModule());
+    Injector child = parent.createChildInjector(new BrokenModule());
+
+    assertProvisionFails(child, Key.get(Car.class));
+  }
+
+  public void testToolStageValidatesEagerly() {
+    try {
+      Guice.createInjector(Stage.TOOL, new DeferringModule(), new BrokenModule());
+      fail();
+    } catch (CreationException expected) {
+      assertEquals(2, expected.getErrorMessages().size());
+    }
+  }
+
+  private static void assertProvisionFails(Injector injector, Key<?> key) {
+    try {
+      injector.getInstance(key);
+      fail();
+    } catch (ProvisionException expected) {
+      assertContains(expected.getMessage(),
+          "No implementation for " + Tire.class.getName() + " was bound",
+          "at " + BrokenModule.class.getName());
+    }
+  }
+
+  static class DeferringModule extends AbstractModule {
+    @Override protected void configure() {
+      binder().deferValidation();
+    }
+  }
+
+  static class BrokenModule extends AbstractModule {
+    @Override protected void configure() {
+      bind(Car.class).to(Convertible.class);
+      bind(Wheel.class);
+    }
+
+    @Provides String provideName(Tire tire) {
+      return tire.toString();
+    }
+  }
+
+  interface Engine {}
+
+  static class V8 implements Engine {
+    @Inject V8() {
+      constructions.incrementAndGet();
+    }
+  }
+
+  interface Tire {}
+
+  static class Wheel {
+    @Inject Wheel(Tire tire) {}
+  }
+
+  static class WheelProvider implements Provider<Wheel> {
+    public Wheel get() {
+      return new Wheel(null);
+    }
+  }
+
+  interface Car {}
+
+  static class Convertible implements Car {
+    @Inject Convertible(Wheel wheel) {}
+  }
+}
@@ -233,6 +233,24 @@ public class KeyTest extends TestCase {
     A a; B b; C c;
   }
 
+  public void testUnannotatedClassKeysAreInterned() {
+    Key<String> key = Key.get(String.class);
+    assertSame(key, Key.get(String.class));
+    assertSame(key, Key.get((Type) String.class));
+    assertSame(key, Key.get(TypeLiteral.get(String.class)));
+    assertSame(key, Key.get(Integer.class).ofType(String.class));
+    assertNotSame(key, Key.get(String.class, Foo.class));
+  }
+
+  public void testTypeLiteralsOfKeysAreInterned() {
+    Key<List<String>> listKey = new Key<List<String>>() {};
+    Key<List<String>> otherListKey = Key.get(new TypeLiteral<List<String>>() {});
+    assertEquals(listKey, otherListKey);
+    assertSame(listKey.getTypeLiteral(), otherListKey.getTypeLiteral());
+    assertSame(listKey.getTypeLiteral(), Key.get(Types.listOf(String.class)).getTypeLiteral());
+    assertEquals(TypeLiteral.class, listKey.getTypeLiteral().getClass());
+  }
+
   public void testKeysWithDefaultAnnotations() {
     AllDefaults allDefaults = HasAnnotations.class.getAnnotation(AllDefaults.class);
     assertEquals(Key.get(Foo.class, allDefaults), Key.get(Foo.class, AllDefaults.class));
@@ -142,6 +142,17 @@ public class TypeLiteralTest extends TestCase {
     }
   }
 
+  public void testTypeLiteralsAreInterned() {
+    assertSame(TypeLiteral.get(String.class), TypeLiteral.get(String.class));
+    assertSame(TypeLiteral.get(String.class), TypeLiteral.get((Type) String.class));
+
+    TypeLiteral<?> listOfString = TypeLiteral.get(Types.listOf(String.class));
+    assertSame(listOfString, TypeLiteral.get(Types.listOf(String.class)));
+    TypeLiteral<List<String>> subclass = new TypeLiteral<List<String>>() {};
+    assertNotSame(listOfString, subclass);
+    assertSame(listOfString, TypeLiteral.canonical(subclass));
+  }
+
   public void testSerialization() throws IOException {
     assertNotSerializable(new TypeLiteral<List<String>>() {});
   }
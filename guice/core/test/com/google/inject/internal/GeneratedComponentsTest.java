@@ -0,0 +1,114 @@
+/**
+ * Copyright (C) 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.inject.internal;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.inject.AbstractModule;
+import com.google.inject.Binder;
+import com.google.inject.GeneratedComponent;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.Key;
+import com.google.inject.Provider;
+import com.google.inject.Provides;
+import com.google.inject.Singleton;
+import com.google.inject.spi.ProviderInstanceBinding;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests for provider methods bound by components generated in static mode.
+ */
+public class GeneratedComponentsTest extends TestCase {
+  static int configurations;
+
+  @Override protected void setUp() {
+    configurations = 0;
+  }
+
+  @Override protected void tearDown() {
+    GeneratedComponents.setComponentIndex(ImmutableMap.<String, String>of());
+  }
+
+  public void testComponentIsUsed() {
+    GeneratedComponents.setComponentIndex(ImmutableMap.of(
+        Module.class.getName(), ModuleComponent.class.getName()));
+    Injector injector = Guice.createInjector(new Module());
+
+    assertEquals("a1", injector.getInstance(String.class));
+    assertSame(injector.getInstance(String.class), injector.getInstance(String.class));
+    assertEquals(1, configurations);
+    ProviderInstanceBinding<?> binding =
+        (ProviderInstanceBinding<?>) injector.getBinding(String.class);
+    assertFalse(binding.getUserSuppliedProvider() instanceof ProviderMethod);
+    assertEquals(Module.class.getName() + ".provideString(Unknown Source)",
+        binding.getSource().toString());
+  }
+
+  public void testMissingComponentUsesReflection() {
+    GeneratedComponents.setComponentIndex(ImmutableMap.of(
+        Module.class.getName(), Module.class.getName() + "$Missing"));
+    Injector injector = Guice.createInjector(new Module());
+
+    assertEquals("a1", injector.getInstance(String.class));
+    assertEquals(0, configurations);
+    ProviderInstanceBinding<?> binding =
+        (ProviderInstanceBinding<?>) injector.getBinding(String.class);
+    assertTrue(binding.getUserSuppliedProvider() instanceof ProviderMethod);
+  }
+
+  static class Module extends AbstractModule {
+    @Override protected void configure() {}
+
+    @Provides Integer provideInteger() {
+      return 1;
+    }
+
+    @Provides @Singleton String provideString(Integer value) {
+      return "a" + value;
+    }
+  }
+
+  /** What the annotation processor generates for {@link Module} in static mode. */
+  public static class ModuleComponent extends GeneratedComponent {
+    @Override public void configure(Object module, Binder binder) {
+      configurations++;
+      Module typedModule = (Module) module;
+      bind0(typedModule, binder.withSource(
+          new StackTraceElement(Module.class.getName(), "provideInteger", null, -1)));
+      bind1(typedModule, binder.withSource(
+          new StackTraceElement(Module.class.getName(), "provideString", null, -1)));
+    }
+
+    private static void bind0(final Module module, Binder binder) {
+      binder.bind(Key.get(Integer.class)).toProvider(new Provider<Integer>() {
+        @Override public Integer get() {
+          return module.provideInteger();
+        }
+      });
+    }
+
+    private static void bind1(final Module module, Binder binder) {
+      final Provider<Integer> provider0 = binder.getProvider(Key.get(Integer.class));
+      binder.bind(Key.get(String.class)).toProvider(new Provider<String>() {
+        @Override public String get() {
+          return module.provideString(provider0.get());
+        }
+      }).in(Singleton.class);
+    }
+  }
+}
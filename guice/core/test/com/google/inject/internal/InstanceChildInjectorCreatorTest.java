@@ -0,0 +1,108 @@
+/**
+ * Copyright (C) 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.inject.internal;
+
+import com.google.common.collect.ImmutableList;
+import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+import com.google.inject.Inject;
+import com.google.inject.Injector;
+import com.google.inject.Key;
+import com.google.inject.TypeLiteral;
+import com.google.inject.matcher.Matchers;
+import com.google.inject.spi.TypeEncounter;
+import com.google.inject.spi.TypeListener;
+import com.google.inject.util.InstanceModule;
+
+import junit.framework.TestCase;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests when {@link InstanceChildInjectorCreator} creates child injectors itself, and that it has
+ * no side effects when it leaves them to {@link InternalInjectorCreator}.
+ */
+public class InstanceChildInjectorCreatorTest extends TestCase {
+
+  public void testCreatesChildInjectorOfInstanceModules() {
+    Request request = new Request();
+    InstanceModule module = InstanceModule.builder().bind(Request.class, request).build();
+    InjectorImpl parent = (InjectorImpl) Guice.createInjector();
+
+    Injector child = InstanceChildInjectorCreator.create(parent, ImmutableList.of(module));
+    assertNotNull(child);
+    assertSame(parent, child.getParent());
+    assertSame(request, child.getInstance(Request.class));
+    assertSame(module, child.getBinding(Request.class).getSource());
+  }
+
+  public void testDeclinesOtherModules() {
+    InjectorImpl parent = (InjectorImpl) Guice.createInjector();
+
+    assertNull(InstanceChildInjectorCreator.create(parent, ImmutableList.of(
+        InstanceModule.builder().bind(Request.class, new Request()).build(),
+        new AbstractModule() {
+          @Override protected void configure() {}
+        })));
+  }
+
+  public void testDeclinesInstancesWithMembersToInject() {
+    InjectorImpl parent = (InjectorImpl) Guice.createInjector();
+
+    assertNull(InstanceChildInjectorCreator.create(parent, ImmutableList.of(
+        InstanceModule.builder().bind(InjectedRequest.class, new InjectedRequest()).build())));
+  }
+
+  public void testDeclinesKeysBoundByTheParent() {
+    InjectorImpl parent = (InjectorImpl) Guice.createInjector(new AbstractModule() {
+      @Override protected void configure() {
+        bind(Request.class).toInstance(new Request());
+      }
+    });
+
+    assertNull(InstanceChildInjectorCreator.create(parent, ImmutableList.of(
+        InstanceModule.builder().bind(Request.class, new Request()).build())));
+    // declining left the parent alone
+    assertNotNull(parent.getBinding(Key.get(Request.class)));
+  }
+
+  public void testDeclinesTypesHeardByTypeListenersWithoutNotifyingThem() {
+    final AtomicInteger heard = new AtomicInteger();
+    InjectorImpl parent = (InjectorImpl) Guice.createInjector(new AbstractModule() {
+      @Override protected void configure() {
+        bindListener(Matchers.only(TypeLiteral.get(Request.class)), new TypeListener() {
+          public <I> void hear(TypeLiteral<I> type, TypeEncounter<I> encounter) {
+            heard.incrementAndGet();
+          }
+        });
+      }
+    });
+    InstanceModule module = InstanceModule.builder().bind(Request.class, new Request()).build();
+
+    assertNull(InstanceChildInjectorCreator.create(parent, ImmutableList.of(module)));
+    assertEquals(0, heard.get());
+
+    parent.createChildInjector(module);
+    assertEquals(1, heard.get());
+  }
+
+  static class Request {}
+
+  static class InjectedRequest {
+    @Inject Injector injector;
+  }
+}
@@ -0,0 +1,138 @@
+/**
+ * Copyright (C) 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.inject.internal;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.Provider;
+import com.google.inject.Provides;
+import com.google.inject.ProvidesMethodInvoker;
+import com.google.inject.ProvisionException;
+
+import junit.framework.TestCase;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tests for provider methods called through generated invokers.
+ */
+public class ProvidesMethodInvokersTest extends TestCase {
+  static int invocations;
+
+  @Override protected void setUp() {
+    invocations = 0;
+  }
+
+  @Override protected void tearDown() {
+    ProvidesMethodInvokers.setInvokerIndex(ImmutableMap.<String, String>of());
+  }
+
+  public void testInvokerIsUsed() {
+    ProvidesMethodInvokers.setInvokerIndex(ImmutableMap.of(
+        Module.class.getName(), ModuleInvoker.class.getName()));
+    Injector injector = Guice.createInjector(new Module());
+
+    assertEquals("ab1", injector.getInstance(String.class));
+    assertEquals(1, invocations);
+  }
+
+  public void testMethodsUnknownToInvokerUseReflection() {
+    ProvidesMethodInvokers.setInvokerIndex(ImmutableMap.of(
+        Module.class.getName(), ModuleInvoker.class.getName()));
+    Injector injector = Guice.createInjector(new Module());
+
+    assertEquals(1, (int) injector.getInstance(Integer.class));
+    assertEquals(0, invocations);
+  }
+
+  public void testMissingInvokerUsesReflection() {
+    ProvidesMethodInvokers.setInvokerIndex(ImmutableMap.of(
+        Module.class.getName(), Module.class.getName() + "$Missing"));
+    Injector injector = Guice.createInjector(new Module());
+
+    assertEquals("ab1", injector.getInstance(String.class));
+    assertEquals(0, invocations);
+  }
+
+  public void testCheckedExceptionsAreWrapped() {
+    ProvidesMethodInvokers.setInvokerIndex(ImmutableMap.of(
+        Module.class.getName(), ModuleInvoker.class.getName()));
+    Injector injector = Guice.createInjector(new Module());
+
+    try {
+      injector.getInstance(Long.class);
+      fail();
+    } catch (ProvisionException expected) {
+      assertTrue(expected.getCause() instanceof IOException);
+    }
+    assertEquals(1, invocations);
+  }
+
+  static class Module extends AbstractModule {
+    @Override protected void configure() {}
+
+    @Provides Integer provideInteger() {
+      return 1;
+    }
+
+    @Provides String provideString(Integer value, List<String> prefix) {
+      return prefix.get(0) + prefix.get(1) + value;
+    }
+
+    @Provides List<String> providePrefix() {
+      return Arrays.asList("a", "b");
+    }
+
+    @Provides Long provideLong() throws IOException {
+      throw new IOException();
+    }
+  }
+
+  /** What the annotation processor generates for {@link Module}, minus two methods. */
+  public static class ModuleInvoker extends ProvidesMethodInvoker {
+    @Override public int getIndex(String methodName, Class<?>[] parameterTypes) {
+      if ("provideString".equals(methodName)
+          && Arrays.equals(parameterTypes, new Class<?>[] {Integer.class, List.class})) {
+        return 0;
+      }
+      if ("provideLong".equals(methodName)
+          && Arrays.equals(parameterTypes, new Class<?>[] {})) {
+        return 1;
+      }
+      return -1;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override public Object invoke(int index, Object module,
+        List<? extends Provider<?>> parameterProviders) throws Exception {
+      invocations++;
+      switch (index) {
+        case 0:
+          return ((Module) module).provideString((Integer) parameterProviders.get(0).get(),
+              (List<String>) parameterProviders.get(1).get());
+        case 1:
+          return ((Module) module).provideLong();
+        default:
+          throw new IllegalArgumentException("No @Provides method at index " + index);
+      }
+    }
+  }
+}
@@ -56,6 +56,11 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Tests for {@link WeakKeySet}.
@@ -118,8 +123,8 @@ public class WeakKeySetTest extends TestCase {
   public void testEviction_keyOverlap_2x() {
     TestState state1 = new TestState();
     TestState state2 = new TestState();
-    Key<Integer> key1 = Key.get(Integer.class);
-    Key<Integer> key2 = Key.get(Integer.class);
+    Key<Integer> key1 = newIntegerKey();
+    Key<Integer> key2 = newIntegerKey();
     Object source1 = new Object();
     Object source2 = new Object();
 
@@ -134,7 +139,7 @@ public class WeakKeySetTest extends TestCase {
     WeakReference<Object> weakSource1Ref = new WeakReference<Object>(source1);
     WeakReference<Object> weakSource2Ref = new WeakReference<Object>(source2);
 
-    Key<Integer> key = key1 = key2 = Key.get(Integer.class);
+    Key<Integer> key = key1 = key2 = newIntegerKey();
     state1 = null;
 
     awaitFullGc();
@@ -166,8 +171,8 @@ public class WeakKeySetTest extends TestCase {
   public void testNoEviction_keyOverlap_2x() {
     TestState state1 = new TestState();
     TestState state2 = new TestState();
-    Key<Integer> key1 = Key.get(Integer.class);
-    Key<Integer> key2 = Key.get(Integer.class);
+    Key<Integer> key1 = newIntegerKey();
+    Key<Integer> key2 = newIntegerKey();
     Object source1 = new Object();
     Object source2 = new Object();
 
@@ -180,7 +185,7 @@ public class WeakKeySetTest extends TestCase {
     WeakReference<Key<Integer>> weakKey1Ref = new WeakReference<Key<Integer>>(key1);
     WeakReference<Key<Integer>> weakKey2Ref = new WeakReference<Key<Integer>>(key2);
 
-    Key<Integer> key = key1 = key2 = Key.get(Integer.class);
+    Key<Integer> key = key1 = key2 = newIntegerKey();
 
     awaitFullGc();
     assertInSet(set, key, 2, source1, source2);
@@ -194,8 +199,8 @@ public class WeakKeySetTest extends TestCase {
   public void testEviction_keyAndSourceOverlap_null() {
     TestState state1 = new TestState();
     TestState state2 = new TestState();
-    Key<Integer> key1 = Key.get(Integer.class);
-    Key<Integer> key2 = Key.get(Integer.class);
+    Key<Integer> key1 = newIntegerKey();
+    Key<Integer> key2 = newIntegerKey();
     Object source = null;
 
     set.add(key1, state1, source);
@@ -210,7 +215,7 @@ public class WeakKeySetTest extends TestCase {
     WeakReference<Key<Integer>> weakKey2Ref = new WeakReference<Key<Integer>>(key2);
     WeakReference<Object> weakSourceRef = new WeakReference<Object>(source);
 
-    Key<Integer> key = key1 = key2 = Key.get(Integer.class);
+    Key<Integer> key = key1 = key2 = newIntegerKey();
     state1 = null;
 
     awaitFullGc();
@@ -237,8 +242,8 @@ public class WeakKeySetTest extends TestCase {
   public void testEviction_keyAndSourceOverlap_nonNull() {
     TestState state1 = new TestState();
     TestState state2 = new TestState();
-    Key<Integer> key1 = Key.get(Integer.class);
-    Key<Integer> key2 = Key.get(Integer.class);
+    Key<Integer> key1 = newIntegerKey();
+    Key<Integer> key2 = newIntegerKey();
     Object source = new Object();
 
     set.add(key1, state1, source);
@@ -252,7 +257,7 @@ public class WeakKeySetTest extends TestCase {
     WeakReference<Key<Integer>> weakKey2Ref = new WeakReference<Key<Integer>>(key2);
     WeakReference<Object> weakSourceRef = new WeakReference<Object>(source);
 
-    Key<Integer> key = key1 = key2 = Key.get(Integer.class);
+    Key<Integer> key = key1 = key2 = newIntegerKey();
     state1 = null;
 
     awaitFullGc();
@@ -284,9 +289,9 @@ public class WeakKeySetTest extends TestCase {
     TestState state1 = new TestState();
     TestState state2 = new TestState();
     TestState state3 = new TestState();
-    Key<Integer> key1 = Key.get(Integer.class);
-    Key<Integer> key2 = Key.get(Integer.class);
-    Key<Integer> key3 = Key.get(Integer.class);
+    Key<Integer> key1 = newIntegerKey();
+    Key<Integer> key2 = newIntegerKey();
+    Key<Integer> key3 = newIntegerKey();
     Object source1 = new Object();
     Object source2 = new Object();
     Object source3 = new Object();
@@ -307,7 +312,7 @@ public class WeakKeySetTest extends TestCase {
     WeakReference<Object> weakSource2Ref = new WeakReference<Object>(source2);
     WeakReference<Object> weakSource3Ref = new WeakReference<Object>(source3);
 
-    Key<Integer> key = key1 = key2 = key3 = Key.get(Integer.class);
+    Key<Integer> key = key1 = key2 = key3 = newIntegerKey();
     state1 = null;
 
     awaitFullGc();
@@ -342,6 +347,28 @@ public class WeakKeySetTest extends TestCase {
     awaitClear(weakKey1Ref);
   }
 
+  public void testLookupsDontWaitForTheLock() throws Exception {
+    final Object lock = new Object();
+    final WeakKeySet set = new WeakKeySet(lock);
+    set.add(Key.get(Integer.class), new TestState(), "source");
+
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      synchronized (lock) {
+        Future<Set<Object>> sources = executor.submit(new Callable<Set<Object>>() {
+          public Set<Object> call() {
+            assertTrue(set.contains(Key.get(Integer.class)));
+            assertFalse(set.contains(Key.get(String.class)));
+            return set.getSources(Key.get(Integer.class));
+          }
+        });
+        assertEquals(ImmutableSet.of("source"), sources.get(10, TimeUnit.SECONDS));
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+
   public void testWeakKeySet_integration() {
     Injector parentInjector = Guice.createInjector(new AbstractModule() {
           @Override protected void configure() {
@@ -439,6 +466,14 @@ public class WeakKeySetTest extends TestCase {
     assertNotBlacklisted(parentInjector, Key.get(String.class));
   }
 
+  /**
+   * Returns a key equal to {@code Key.get(Integer.class)}, but not the same instance, since
+   * {@link Key#get(Class)} returns the same instance while it is in use.
+   */
+  private static Key<Integer> newIntegerKey() {
+    return new Key<Integer>() {};
+  }
+
   private static class TestState implements State {
     public State parent() {
       return new TestState();
@@ -0,0 +1,85 @@
+/**
+ * Copyright (C) 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.inject.internal.util;
+
+import com.google.common.collect.ImmutableMap;
+
+import junit.framework.TestCase;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tests for source locations recorded at build time.
+ */
+public class StackTraceElementsTest extends TestCase {
+
+  @Override protected void tearDown() {
+    StackTraceElements.setSourceLocationIndex(ImmutableMap.<String, String>of());
+  }
+
+  public void testIndexedSourceLocationsAreUsed() throws Exception {
+    StackTraceElements.setSourceLocationIndex(ImmutableMap.of(Indexed.class.getName(),
+        "Indexed.java|40|count=41|<init>(Ljava/lang/String;[I)V=42"
+            + "|lookup(Ljava/util/List;JZ)Ljava/util/Map;=43"));
+
+    StackTraceElement constructor = (StackTraceElement) StackTraceElements.forMember(
+        Indexed.class.getDeclaredConstructor(String.class, int[].class));
+    assertEquals("Indexed.java", constructor.getFileName());
+    assertEquals("<init>", constructor.getMethodName());
+    assertEquals(42, constructor.getLineNumber());
+
+    StackTraceElement method = (StackTraceElement) StackTraceElements.forMember(
+        Indexed.class.getDeclaredMethod("lookup", List.class, long.class, boolean.class));
+    assertEquals(43, method.getLineNumber());
+
+    StackTraceElement field = (StackTraceElement) StackTraceElements.forMember(
+        Indexed.class.getDeclaredField("count"));
+    assertEquals(41, field.getLineNumber());
+
+    StackTraceElement type = (StackTraceElement) StackTraceElements.forType(Indexed.class);
+    assertEquals("Indexed.java", type.getFileName());
+    assertEquals(40, type.getLineNumber());
+  }
+
+  public void testUnknownMembersUseFirstLine() throws Exception {
+    StackTraceElements.setSourceLocationIndex(
+        ImmutableMap.of(Indexed.class.getName(), "Indexed.java|40"));
+
+    StackTraceElement method = (StackTraceElement) StackTraceElements.forMember(
+        Indexed.class.getDeclaredMethod("lookup", List.class, long.class, boolean.class));
+    assertEquals(40, method.getLineNumber());
+  }
+
+  public void testMalformedIndexEntry() {
+    try {
+      SourceLocations.parse("Indexed.java");
+      fail();
+    } catch (IllegalArgumentException expected) {
+    }
+  }
+
+  static class Indexed {
+    int count;
+
+    Indexed(String name, int[] values) {}
+
+    Map<String, String> lookup(List<String> keys, long timeout, boolean strict) {
+      return null;
+    }
+  }
+}
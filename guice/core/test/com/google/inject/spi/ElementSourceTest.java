@@ -8,6 +8,7 @@ import com.google.inject.Binder;
 import com.google.inject.Binding;
 import com.google.inject.BindingAnnotation;
 import com.google.inject.Module;
+import com.google.inject.internal.util.SourceProvider;
 
 import junit.framework.TestCase;
 
@@ -69,6 +70,7 @@ public class ElementSourceTest extends TestCase {
               assertEquals(0, callStack.length);
               return;
             case ONLY_FOR_DECLARING_SOURCE:
+            case DEFERRED:
                 // Check call stack
                 assertEquals(0, callStack.length);
                 return;
@@ -126,6 +128,50 @@ public class ElementSourceTest extends TestCase {
     fail("The test should not reach this line.");
   }  
 
+  public void testDeferredDeclaringSource() throws Exception {
+    String previous = System.getProperty("guice_include_stack_traces");
+    System.setProperty("guice_include_stack_traces", "DEFERRED");
+    List<Element> elements;
+    try {
+      elements = Elements.getElements(new A());
+    } finally {
+      if (previous == null) {
+        System.clearProperty("guice_include_stack_traces");
+      } else {
+        System.setProperty("guice_include_stack_traces", previous);
+      }
+    }
+
+    for (Element element : elements) {
+      if (element instanceof Binding) {
+        ElementSource elementSource = (ElementSource) element.getSource();
+        assertEquals(0, elementSource.getStackTrace().length);
+        assertEquals("com.google.inject.spi.ElementSourceTest$C",
+            elementSource.getModuleClassNames().get(0));
+
+        StackTraceElement declaringSource = 
+            (StackTraceElement) elementSource.getDeclaringSource();
+        assertEquals("com.google.inject.spi.ElementSourceTest$C", declaringSource.getClassName());
+        assertEquals("configure", declaringSource.getMethodName());
+        assertSame(declaringSource, elementSource.getDeclaringSource());
+
+        // Rewritten elements keep the original declaring source.
+        Element copy = Elements.getElements(Elements.getModule(elements)).get(0);
+        assertEquals(declaringSource, ((ElementSource) copy.getSource()).getDeclaringSource());
+        return;
+      }
+    }
+    fail("The test should not reach this line.");
+  }
+
+  public void testDeclaringSourceOfCapturedCallStack() {
+    Throwable callStack = new Throwable();
+    SourceProvider sourceProvider = SourceProvider.DEFAULT_INSTANCE;
+    assertEquals(sourceProvider.get(callStack.getStackTrace()), sourceProvider.get(callStack));
+    sourceProvider = sourceProvider.plusSkippedClasses(ElementSourceTest.class);
+    assertEquals(sourceProvider.get(callStack.getStackTrace()), sourceProvider.get(callStack));
+  }
+
   private ModuleSource createModuleSource() {
     // First module
     StackTraceElement[] partialCallStack = new StackTraceElement[1];
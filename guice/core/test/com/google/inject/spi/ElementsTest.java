@@ -32,7 +32,9 @@ import com.google.inject.Key;
 import com.google.inject.MembersInjector;
 import com.google.inject.Module;
 import com.google.inject.PrivateBinder;
+import com.google.inject.PrivateModule;
 import com.google.inject.Provider;
+import com.google.inject.Provides;
 import com.google.inject.Scope;
 import com.google.inject.Scopes;
 import com.google.inject.Singleton;
@@ -65,6 +67,10 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -1275,6 +1281,109 @@ public class ElementsTest extends TestCase {
     assertEquals(1, aConfigureCount.get());
   }
 
+  public void testParallelRecordingMatchesSequentialRecording() {
+    List<Module> modules = newIndependentModules();
+    List<String> sequential = describe(Elements.getElements(Stage.DEVELOPMENT, null, modules));
+
+    ExecutorService executor = Executors.newFixedThreadPool(3);
+    try {
+      for (int i = 0; i < 10; i++) {
+        assertEquals(sequential,
+            describe(Elements.getElements(Stage.DEVELOPMENT, executor, modules)));
+      }
+    } finally {
+      executor.shutdown();
+    }
+
+    Executor rejectingExecutor = new Executor() {
+      public void execute(Runnable command) {
+        throw new RejectedExecutionException();
+      }
+    };
+    assertEquals(sequential,
+        describe(Elements.getElements(Stage.DEVELOPMENT, rejectingExecutor, modules)));
+  }
+
+  public void testParallelRecordingPropagatesErrors() {
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      Elements.getElements(Stage.DEVELOPMENT, executor, Arrays.<Module>asList(
+          new AbstractModule() {
+            @Override protected void configure() {
+              bind(String.class).toInstance("a");
+            }
+          },
+          new AbstractModule() {
+            @Override protected void configure() {
+              throw new AssertionError("b");
+            }
+          }));
+      fail();
+    } catch (AssertionError expected) {
+      assertEquals("b", expected.getMessage());
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  /** Modules sharing an installed module, recording errors and private elements. */
+  private static List<Module> newIndependentModules() {
+    final Module shared = new AbstractModule() {
+      @Override protected void configure() {
+        bind(Integer.class).toInstance(1);
+      }
+
+      @Provides @Named("shared") String provideShared() {
+        return "shared";
+      }
+    };
+
+    return Arrays.<Module>asList(
+        new AbstractModule() {
+          @Override protected void configure() {
+            bind(String.class).toInstance("a");
+            install(shared);
+            bind(Short.class).toInstance((short) 1);
+          }
+        },
+        new AbstractModule() {
+          @Override protected void configure() {
+            install(shared);
+            bind(Long.class).toInstance(2L);
+            addError("b");
+          }
+        },
+        new PrivateModule() {
+          @Override protected void configure() {
+            install(shared);
+            bind(Double.class).toInstance(3.0);
+            expose(Double.class);
+          }
+        },
+        shared,
+        new AbstractModule() {
+          @Override protected void configure() {
+            throw new IllegalStateException("c");
+          }
+        });
+  }
+
+  private static List<String> describe(List<Element> elements) {
+    List<String> descriptions = new ArrayList<String>();
+    for (Element element : elements) {
+      if (element instanceof Binding) {
+        descriptions.add(((Binding<?>) element).getKey().toString());
+      } else if (element instanceof Message) {
+        descriptions.add(((Message) element).getMessage());
+      } else if (element instanceof PrivateElements) {
+        descriptions.add(describe(((PrivateElements) element).getElements()).toString());
+      } else {
+        descriptions.add(element.getClass().getSimpleName());
+      }
+    }
+    return descriptions;
+  }
+
   /**
    * Ensures the module performs the commands consistent with {@code visitors}.
    */
@@ -0,0 +1,202 @@
+/**
+ * Copyright (C) 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.inject.spi;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+import com.google.inject.Inject;
+import com.google.inject.Injector;
+import com.google.inject.Stage;
+import com.google.inject.TypeLiteral;
+
+import junit.framework.TestCase;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+/**
+ * Tests for {@link InjectorImage}.
+ */
+public class InjectorImageTest extends TestCase {
+
+  @Override protected void tearDown() throws Exception {
+    InjectorImage.install(null);
+    super.tearDown();
+  }
+
+  public void testCaptureAndReplay() throws IOException {
+    Injector toolInjector = Guice.createInjector(Stage.TOOL, new AbstractModule() {
+      @Override protected void configure() {
+        bind(Car.class);
+        bind(Garage.class).toInstance(new Garage());
+      }
+    });
+    InjectorImage image = InjectorImage.capture(toolInjector, "1");
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    image.writeTo(out);
+    InjectorImage read = InjectorImage.readFrom(new ByteArrayInputStream(out.toByteArray()), "1");
+    assertEquals("1", read.getFingerprint());
+    assertEquals(image.getTypeCount(), read.getTypeCount());
+    InjectorImage.install(read);
+
+    TypeLiteral<Car> car = TypeLiteral.get(Car.class);
+    assertEquals(InjectionPoint.forConstructorOf(car), InjectorImage.getConstructor(car));
+    Set<InjectionPoint> members = InjectorImage.getInstanceMethodsAndFields(car);
+    assertEquals(InjectionPoint.forInstanceMethodsAndFields(car), members);
+    assertEquals(2, members.size());
+    assertNotNull(InjectorImage.getInstanceMethodsAndFields(TypeLiteral.get(Garage.class)));
+
+    Car instance = Guice.createInjector().getInstance(Car.class);
+    assertNotNull(instance.engine);
+    assertNotNull(instance.wheel);
+    assertNotNull(instance.paint);
+  }
+
+  public void testRecordedMembersAreUsed() throws IOException {
+    InjectorImage.install(readImage("1", "1", Car.class.getName(),
+        new String[] { "C", Car.class.getName(), "<init>", Engine.class.getName() },
+        new String[] { "F", Vehicle.class.getName(), "wheel" }));
+
+    Car car = Guice.createInjector().getInstance(Car.class);
+    assertNotNull(car.engine);
+    assertNotNull(car.wheel);
+    assertNull("paint isn't in the image", car.paint);
+  }
+
+  public void testStaleMemberFallsBackToReflection() throws IOException {
+    InjectorImage.install(readImage("1", "1", Car.class.getName(),
+        new String[] { "C", Car.class.getName(), "<init>", Engine.class.getName() },
+        new String[] { "F", Vehicle.class.getName(), "removed" }));
+
+    assertNull(InjectorImage.getInstanceMethodsAndFields(TypeLiteral.get(Car.class)));
+    Car car = Guice.createInjector().getInstance(Car.class);
+    assertNotNull(car.wheel);
+    assertNotNull(car.paint);
+  }
+
+  public void testMemberWithoutInjectFallsBackToReflection() throws IOException {
+    InjectorImage.install(readImage("1", "1", Car.class.getName(),
+        new String[] { "C", Car.class.getName(), "<init>", Engine.class.getName() },
+        new String[] { "F", Car.class.getName(), "engine" }));
+
+    assertNull(InjectorImage.getInstanceMethodsAndFields(TypeLiteral.get(Car.class)));
+  }
+
+  public void testFingerprintMismatch() {
+    try {
+      readImage("1", "2", Car.class.getName(),
+          new String[] { "C", Car.class.getName(), "<init>", Engine.class.getName() });
+      fail();
+    } catch (IOException expected) {
+      assertTrue(expected.getMessage(), expected.getMessage().contains("Stale"));
+    }
+  }
+
+  public void testCorruptImage() throws IOException {
+    byte[] bytes = writeImage("1", Car.class.getName(),
+        new String[] { "C", Car.class.getName(), "<init>", Engine.class.getName() });
+    bytes[20] ^= 1;
+    try {
+      InjectorImage.readFrom(new ByteArrayInputStream(bytes), "1");
+      fail();
+    } catch (IOException expected) {
+      assertEquals("Corrupt injector image", expected.getMessage());
+    }
+  }
+
+  public void testNotAnImage() {
+    try {
+      InjectorImage.readFrom(new ByteArrayInputStream(new byte[16]), "1");
+      fail();
+    } catch (IOException expected) {
+      assertEquals("Not an injector image", expected.getMessage());
+    }
+  }
+
+  private static InjectorImage readImage(String writtenFingerprint, String expectedFingerprint,
+      String typeName, String[] constructor, String[]... members) throws IOException {
+    byte[] bytes = writeImage(writtenFingerprint, typeName, constructor, members);
+    return InjectorImage.readFrom(new ByteArrayInputStream(bytes), expectedFingerprint);
+  }
+
+  /** Writes an image of a single type, by hand. */
+  private static byte[] writeImage(String fingerprint, String typeName, String[] constructor,
+      String[]... members) throws IOException {
+    ByteArrayOutputStream payload = new ByteArrayOutputStream();
+    DataOutputStream data = new DataOutputStream(payload);
+    data.writeUTF(fingerprint);
+    data.writeInt(1);
+    data.writeUTF(typeName);
+    data.writeBoolean(true);
+    writeStrings(data, constructor);
+    data.writeInt(members.length);
+    for (String[] member : members) {
+      writeStrings(data, member);
+    }
+    data.flush();
+
+    byte[] bytes = payload.toByteArray();
+    CRC32 crc = new CRC32();
+    crc.update(bytes);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    DataOutputStream header = new DataOutputStream(out);
+    header.writeInt(0x47494d47);
+    header.writeInt(1);
+    header.writeInt(bytes.length);
+    header.write(bytes);
+    header.writeLong(crc.getValue());
+    header.flush();
+    return out.toByteArray();
+  }
+
+  private static void writeStrings(DataOutputStream data, String[] strings) throws IOException {
+    data.writeInt(strings.length);
+    for (String string : strings) {
+      data.writeUTF(string);
+    }
+  }
+
+  static class Engine {}
+  static class Wheel {}
+  static class Paint {}
+
+  static class Vehicle {
+    @Inject Wheel wheel;
+  }
+
+  static class Car extends Vehicle {
+    final Engine engine;
+    Paint paint;
+
+    @Inject Car(Engine engine) {
+      this.engine = engine;
+    }
+
+    @Inject void paint(Paint paint) {
+      this.paint = paint;
+    }
+  }
+
+  static class Garage {
+    @Inject Car car;
+  }
+}
@@ -0,0 +1,167 @@
+/**
+ * Copyright (C) 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.google.inject.spi;
+
+import static com.google.inject.Asserts.assertContains;
+
+import com.google.common.base.Splitter;
+import com.google.common.collect.Lists;
+import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+import com.google.inject.Inject;
+import com.google.inject.Injector;
+import com.google.inject.Singleton;
+import com.google.inject.name.Named;
+import com.google.inject.name.Names;
+
+import junit.framework.TestCase;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Tests for {@link ProvisionTrace}.
+ */
+public class ProvisionTraceTest extends TestCase {
+
+  private static final String HANDLER = Handler.class.getName();
+  private static final String SERVICE = Service.class.getName();
+  private static final String REQUEST = Request.class.getName();
+  /** The annotation of the user's key is the one of the parameter, whose format is the JDK's. */
+  private static final String USER = "java.lang.String "
+      + Request.class.getDeclaredConstructors()[0].getParameterAnnotations()[0][0];
+
+  private final Injector injector = Guice.createInjector(new AbstractModule() {
+    @Override protected void configure() {
+      bindConstant().annotatedWith(Names.named("user")).to("jesse");
+    }
+  });
+
+  public void testCollapsedStacks() throws IOException {
+    ProvisionTrace trace = ProvisionTrace.start();
+    try {
+      injector.getInstance(Handler.class);
+    } finally {
+      trace.stop();
+    }
+
+    List<String> stacks = getStacks(trace);
+    assertTrue(stacks.toString(), stacks.contains(HANDLER));
+    assertTrue(stacks.toString(), stacks.contains(HANDLER + ";" + REQUEST));
+    assertTrue(stacks.toString(), stacks.contains(HANDLER + ";" + REQUEST + ";" + USER));
+    assertTrue(stacks.toString(),
+        stacks.contains(HANDLER + ";" + SERVICE + ";[Scopes.SINGLETON];" + REQUEST));
+  }
+
+  public void testScopesAreOnlyRecordedWhenTheyConstruct() throws IOException {
+    injector.getInstance(Service.class);
+    ProvisionTrace trace = ProvisionTrace.start();
+    try {
+      injector.getInstance(Handler.class);
+    } finally {
+      trace.stop();
+    }
+
+    List<String> stacks = getStacks(trace);
+    assertTrue(stacks.toString(), stacks.contains(HANDLER + ";" + SERVICE));
+    for (String stack : stacks) {
+      assertFalse(stack, stack.contains("[Scopes.SINGLETON]"));
+    }
+  }
+
+  public void testChromeTrace() throws IOException {
+    ProvisionTrace trace = ProvisionTrace.start();
+    try {
+      injector.getInstance(Handler.class);
+    } finally {
+      trace.stop();
+    }
+
+    StringBuilder json = new StringBuilder();
+    trace.writeChromeTrace(json);
+    assertTrue(json.toString(), json.toString().startsWith("{\"traceEvents\":["));
+    assertContains(json.toString(),
+        "\"name\":\"thread_name\",\"ph\":\"M\"",
+        "\"args\":{\"name\":\"" + Thread.currentThread().getName() + "\"}",
+        "{\"name\":\"" + HANDLER + "\",\"cat\":\"guice\",\"ph\":\"X\",\"ts\":");
+    assertTrue(json.toString(), json.toString().endsWith("]}\n"));
+  }
+
+  public void testNothingIsRecordedOnceStopped() throws IOException {
+    ProvisionTrace trace = ProvisionTrace.start();
+    trace.stop();
+    injector.getInstance(Handler.class);
+
+    StringBuilder stacks = new StringBuilder();
+    trace.writeCollapsedStacks(stacks);
+    assertEquals("", stacks.toString());
+  }
+
+  public void testOnlyTheLastEventsAreKept() throws IOException {
+    ProvisionTrace trace = ProvisionTrace.start(6);
+    try {
+      injector.getInstance(Handler.class);
+    } finally {
+      trace.stop();
+    }
+
+    // the other provisions started before the last events, and are skipped
+    List<String> stacks = getStacks(trace);
+    assertEquals(stacks.toString(), 1, stacks.size());
+    assertEquals(USER, stacks.get(0));
+  }
+
+  public void testOnlyOneTraceAtATime() {
+    ProvisionTrace trace = ProvisionTrace.start();
+    try {
+      ProvisionTrace.start();
+      fail();
+    } catch (IllegalStateException expected) {
+      assertContains(expected.getMessage(), "A provision trace is already started");
+    } finally {
+      trace.stop();
+    }
+    ProvisionTrace.start().stop();
+  }
+
+  /** Returns the stacks of the collapsed stacks of a trace, without their times. */
+  private static List<String> getStacks(ProvisionTrace trace) throws IOException {
+    StringBuilder collapsed = new StringBuilder();
+    trace.writeCollapsedStacks(collapsed);
+    List<String> stacks = Lists.newArrayList();
+    for (String line : Splitter.on('\n').omitEmptyStrings().split(collapsed)) {
+      int space = line.lastIndexOf(' ');
+      assertTrue(line, line.substring(space + 1).matches("\\d+"));
+      stacks.add(line.substring(0, space));
+    }
+    return stacks;
+  }
+
+  static class Request {
+    @Inject Request(@Named("user") String user) {}
+  }
+
+  @Singleton
+  static class Service {
+    @Inject Service(Request request) {}
+  }
+
+  static class Handler {
+    @Inject Handler(Request request, Service service) {}
+  }
+}
@@ -0,0 +1,245 @@
+/**
+ * Copyright (C) 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.google.inject.util;
+
+import static com.google.inject.Asserts.assertContains;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Binding;
+import com.google.inject.ConfigurationException;
+import com.google.inject.CreationException;
+import com.google.inject.Guice;
+import com.google.inject.Inject;
+import com.google.inject.Injector;
+import com.google.inject.Key;
+import com.google.inject.Provider;
+import com.google.inject.Scopes;
+import com.google.inject.TypeLiteral;
+import com.google.inject.matcher.Matchers;
+import com.google.inject.name.Names;
+import com.google.inject.spi.InjectionListener;
+import com.google.inject.spi.InstanceBinding;
+import com.google.inject.spi.ProviderInstanceBinding;
+import com.google.inject.spi.ProvisionListener;
+import com.google.inject.spi.TypeEncounter;
+import com.google.inject.spi.TypeListener;
+
+import junit.framework.TestCase;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests for {@link InstanceModule}, and the child injectors created from them.
+ */
+public class InstanceModuleTest extends TestCase {
+
+  public void testChildInjectorBindsInstancesAndProviders() {
+    Request request = new Request();
+    InstanceModule module = InstanceModule.builder()
+        .bind(Request.class, request)
+        .bind(Key.get(String.class, Names.named("user")), "jesse")
+        .bindProvider(Key.get(Integer.class), new CountingProvider())
+        .build();
+    Injector child = Guice.createInjector().createChildInjector(module);
+
+    assertSame(request, child.getInstance(Request.class));
+    assertEquals("jesse", child.getInstance(Key.get(String.class, Names.named("user"))));
+    assertEquals(1, (int) child.getInstance(Integer.class));
+    assertEquals(2, (int) child.getInstance(Integer.class));
+
+    InstanceBinding<Request> requestBinding =
+        (InstanceBinding<Request>) child.getBinding(Request.class);
+    assertSame(request, requestBinding.getInstance());
+    assertSame(module, requestBinding.getSource());
+    assertTrue(Scopes.isSingleton(requestBinding));
+    ProviderInstanceBinding<Integer> integerBinding =
+        (ProviderInstanceBinding<Integer>) child.getBinding(Integer.class);
+    assertTrue(integerBinding.getUserSuppliedProvider() instanceof CountingProvider);
+    assertFalse(Scopes.isSingleton(integerBinding));
+    assertSame(child, child.getInstance(Injector.class));
+  }
+
+  public void testChildInjectorHasTheBindingsOfAnEquivalentModule() {
+    Injector parent = Guice.createInjector();
+    final InstanceModule module = InstanceModule.builder()
+        .bind(Request.class, new Request())
+        .bindProvider(Key.get(Integer.class), new CountingProvider())
+        .build();
+    Injector fast = parent.createChildInjector(module);
+    Injector regular = parent.createChildInjector(new AbstractModule() {
+      @Override protected void configure() {
+        install(module);
+      }
+    });
+
+    assertEquals(regular.getBindings().keySet(), fast.getBindings().keySet());
+    for (Key<?> key : regular.getBindings().keySet()) {
+      Binding<?> expected = regular.getBinding(key);
+      Binding<?> actual = fast.getBinding(key);
+      assertEquals(expected.getClass(), actual.getClass());
+      assertEquals(Scopes.isSingleton(expected), Scopes.isSingleton(actual));
+    }
+    assertEquals(regular.findBindingsByType(TypeLiteral.get(Request.class)).size(),
+        fast.findBindingsByType(TypeLiteral.get(Request.class)).size());
+  }
+
+  public void testChildInjectorBlacklistsBoundKeysOnTheParent() {
+    Injector parent = Guice.createInjector();
+    parent.createChildInjector(InstanceModule.builder().bind(Request.class, new Request()).build());
+
+    try {
+      parent.getInstance(Request.class);
+      fail();
+    } catch (ConfigurationException expected) {
+      assertContains(expected.getMessage(),
+          "It was already configured on one or more child injectors or private modules");
+    }
+  }
+
+  public void testKeyBoundByTheParentFails() {
+    Injector parent = Guice.createInjector(new AbstractModule() {
+      @Override protected void configure() {
+        bind(String.class).toInstance("parent");
+      }
+    });
+
+    try {
+      parent.createChildInjector(InstanceModule.builder().bind(String.class, "child").build());
+      fail();
+    } catch (CreationException expected) {
+      assertContains(expected.getMessage(), "A binding to java.lang.String was already configured");
+    }
+  }
+
+  public void testKeyWithJitBindingInTheParentFails() {
+    Injector parent = Guice.createInjector();
+    parent.getInstance(Request.class);
+
+    InstanceModule module = InstanceModule.builder().bind(Request.class, new Request()).build();
+    try {
+      parent.createChildInjector(module);
+      fail();
+    } catch (CreationException expected) {
+      assertContains(expected.getMessage(), "A just-in-time binding to "
+          + Request.class.getName() + " was already configured on a parent injector");
+    }
+  }
+
+  public void testKeyBoundByTwoModulesFails() {
+    InstanceModule a = InstanceModule.builder().bind(String.class, "a").build();
+    InstanceModule b = InstanceModule.builder().bind(String.class, "b").build();
+
+    try {
+      Guice.createInjector().createChildInjector(a, b);
+      fail();
+    } catch (CreationException expected) {
+      assertContains(expected.getMessage(), "A binding to java.lang.String was already configured");
+    }
+  }
+
+  public void testKeyBoundTwiceByTheBuilderFails() {
+    InstanceModule.Builder builder = InstanceModule.builder().bind(String.class, "a");
+    try {
+      builder.bindProvider(Key.get(String.class), Providers.of("b"));
+      fail();
+    } catch (IllegalArgumentException expected) {
+      assertContains(expected.getMessage(), "is already bound");
+    }
+  }
+
+  public void testMembersOfInstancesAndProvidersAreInjected() {
+    Injector parent = Guice.createInjector(new AbstractModule() {
+      @Override protected void configure() {
+        bind(String.class).toInstance("injected");
+      }
+    });
+    InjectedRequest request = new InjectedRequest();
+    InjectedProvider provider = new InjectedProvider();
+    Injector child = parent.createChildInjector(InstanceModule.builder()
+        .bind(InjectedRequest.class, request)
+        .bindProvider(Key.get(Integer.class), provider)
+        .build());
+
+    assertSame(request, child.getInstance(InjectedRequest.class));
+    assertEquals("injected", request.value);
+    assertEquals(8, (int) child.getInstance(Integer.class));
+  }
+
+  public void testTypeListenersAreNotifiedOfInjections() {
+    final AtomicInteger injections = new AtomicInteger();
+    Injector parent = Guice.createInjector(new AbstractModule() {
+      @Override protected void configure() {
+        bindListener(Matchers.only(TypeLiteral.get(Request.class)), new TypeListener() {
+          public <I> void hear(TypeLiteral<I> type, TypeEncounter<I> encounter) {
+            encounter.register(new InjectionListener<I>() {
+              public void afterInjection(I injectee) {
+                injections.incrementAndGet();
+              }
+            });
+          }
+        });
+      }
+    });
+
+    parent.createChildInjector(InstanceModule.builder().bind(Request.class, new Request()).build());
+    parent.createChildInjector(InstanceModule.builder().bind(Request.class, new Request()).build());
+    assertEquals(2, injections.get());
+  }
+
+  public void testProvisionListenersAreNotified() {
+    final AtomicInteger provisions = new AtomicInteger();
+    Injector parent = Guice.createInjector(new AbstractModule() {
+      @Override protected void configure() {
+        bindListener(Matchers.any(), new ProvisionListener() {
+          public <T> void onProvision(ProvisionInvocation<T> provision) {
+            provisions.incrementAndGet();
+          }
+        });
+      }
+    });
+    Injector child = parent.createChildInjector(InstanceModule.builder()
+        .bindProvider(Key.get(Integer.class), new CountingProvider())
+        .build());
+
+    child.getInstance(Integer.class);
+    child.getInstance(Integer.class);
+    assertEquals(2, provisions.get());
+  }
+
+  static class Request {}
+
+  static class InjectedRequest {
+    @Inject String value;
+  }
+
+  static class CountingProvider implements Provider<Integer> {
+    private int count;
+
+    public Integer get() {
+      return ++count;
+    }
+  }
+
+  static class InjectedProvider implements Provider<Integer> {
+    @Inject String value;
+
+    public Integer get() {
+      return value.length();
+    }
+  }
+}
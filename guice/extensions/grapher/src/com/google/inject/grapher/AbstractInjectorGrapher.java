@@ -16,6 +16,8 @@
 
 package com.google.inject.grapher;
 
+import com.google.common.base.Predicate;
+import com.google.common.base.Predicates;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
@@ -38,6 +40,7 @@ public abstract class AbstractInjectorGrapher implements InjectorGrapher {
   private final AliasCreator aliasCreator;
   private final NodeCreator nodeCreator;
   private final EdgeCreator edgeCreator;
+  private final Predicate<Key<?>> keyFilter;
 
   /** Parameters used to override default settings of the grapher. */
   public static final class GrapherParameters {
@@ -45,6 +48,7 @@ public abstract class AbstractInjectorGrapher implements InjectorGrapher {
     private AliasCreator aliasCreator = new ProviderAliasCreator();
     private NodeCreator nodeCreator = new DefaultNodeCreator();
     private EdgeCreator edgeCreator = new DefaultEdgeCreator();
+    private Predicate<Key<?>> keyFilter = Predicates.alwaysTrue();
 
     public RootKeySetCreator getRootKeySetCreator() {
       return rootKeySetCreator;
@@ -81,6 +85,22 @@ public abstract class AbstractInjectorGrapher implements InjectorGrapher {
       this.edgeCreator = edgeCreator;
       return this;
     }
+
+    /** @since 4.0 */
+    public Predicate<Key<?>> getKeyFilter() {
+      return keyFilter;
+    }
+
+    /**
+     * Sets the keys whose nodes are rendered, see {@link KeyFilters}. The dependencies of the
+     * other keys are still followed, but their nodes and the edges to or from them are skipped.
+     *
+     * @since 4.0
+     */
+    public GrapherParameters setKeyFilter(Predicate<Key<?>> keyFilter) {
+      this.keyFilter = keyFilter;
+      return this;
+    }
   }
 
   public AbstractInjectorGrapher() {
@@ -92,6 +112,7 @@ public abstract class AbstractInjectorGrapher implements InjectorGrapher {
     this.aliasCreator = options.getAliasCreator();
     this.nodeCreator = options.getNodeCreator();
     this.edgeCreator = options.getEdgeCreator();
+    this.keyFilter = options.getKeyFilter();
   }
 
   @Override public final void graph(Injector injector) throws IOException {
@@ -136,7 +157,7 @@ public abstract class AbstractInjectorGrapher implements InjectorGrapher {
       node = node.copy(resolvedId);
 
       // Only render nodes that aren't aliased to some other node.
-      if (resolvedId.equals(originalId)) {
+      if (resolvedId.equals(originalId) && keyFilter.apply(resolvedId.getKey())) {
         if (node instanceof InterfaceNode) {
           newInterfaceNode((InterfaceNode) node);
         } else if (node instanceof ImplementationNode) {
@@ -152,7 +173,9 @@ public abstract class AbstractInjectorGrapher implements InjectorGrapher {
     for (Edge edge : edges) {
       edge = edge.copy(resolveAlias(aliases, edge.getFromId()),
           resolveAlias(aliases, edge.getToId()));
-      if (!edge.getFromId().equals(edge.getToId())) {
+      if (!edge.getFromId().equals(edge.getToId())
+          && keyFilter.apply(edge.getFromId().getKey())
+          && keyFilter.apply(edge.getToId().getKey())) {
         if (edge instanceof BindingEdge) {
           newBindingEdge((BindingEdge) edge);
         } else {
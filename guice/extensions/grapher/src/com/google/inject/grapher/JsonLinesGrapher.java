@@ -0,0 +1,181 @@
+/**
+ * Copyright (C) 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.inject.grapher;
+
+import com.google.inject.grapher.AbstractInjectorGrapher.GrapherParameters;
+import com.google.inject.internal.util.Classes;
+import com.google.inject.spi.InjectionPoint;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.reflect.Member;
+
+/**
+ * {@link InjectorGrapher} that writes the graph as it is walked, one JSON object per line. Each
+ * line is either a node:
+ *
+ * <pre>
+ * {"node":"implementation","id":"TYPE Key[...]","key":"Key[...]","source":"...","members":[...]}
+ * </pre>
+ *
+ * where {@code node} is {@code interface}, {@code implementation} or {@code instance}, or an edge:
+ *
+ * <pre>
+ * {"edge":"dependency","from":"TYPE Key[...]","to":"TYPE Key[...]","member":"..."}
+ * {"edge":"binding","from":"TYPE Key[...]","to":"INSTANCE Key[...]","type":"PROVIDER"}
+ * </pre>
+ *
+ * Edges can come before the nodes they point to. The output is buffered, and flushed once the
+ * graph is written.
+ *
+ * @since 4.0
+ */
+public class JsonLinesGrapher extends StreamingInjectorGrapher {
+  private final Writer out;
+
+  public JsonLinesGrapher(Writer out) {
+    this(out, new GrapherParameters());
+  }
+
+  public JsonLinesGrapher(Writer out, GrapherParameters options) {
+    super(options);
+    this.out = out instanceof BufferedWriter ? out : new BufferedWriter(out);
+  }
+
+  @Override protected void start() {}
+
+  @Override protected void newInterfaceNode(InterfaceNode node) throws IOException {
+    startNode("interface", node);
+    out.write('}');
+    out.write('\n');
+  }
+
+  @Override protected void newImplementationNode(ImplementationNode node) throws IOException {
+    startNode("implementation", node);
+    writeMembers(node.getMembers());
+    out.write('}');
+    out.write('\n');
+  }
+
+  @Override protected void newInstanceNode(InstanceNode node) throws IOException {
+    startNode("instance", node);
+    Object instance = node.getInstance();
+    writeField("instanceType", instance == null ? null : instance.getClass().getName());
+    writeMembers(node.getMembers());
+    out.write('}');
+    out.write('\n');
+  }
+
+  @Override protected void newDependencyEdge(DependencyEdge edge) throws IOException {
+    startEdge("dependency", edge);
+    InjectionPoint injectionPoint = edge.getInjectionPoint();
+    if (injectionPoint != null) {
+      writeField("member", Classes.toString(injectionPoint.getMember()));
+    }
+    out.write('}');
+    out.write('\n');
+  }
+
+  @Override protected void newBindingEdge(BindingEdge edge) throws IOException {
+    startEdge("binding", edge);
+    writeField("type", edge.getType().name());
+    out.write('}');
+    out.write('\n');
+  }
+
+  @Override protected void finish() throws IOException {
+    out.flush();
+  }
+
+  private void startNode(String type, Node node) throws IOException {
+    out.write("{\"node\":");
+    writeString(type);
+    writeField("id", getId(node.getId()));
+    writeField("key", node.getId().getKey().toString());
+    if (node.getSource() != null) {
+      writeField("source", node.getSource().toString());
+    }
+  }
+
+  private void startEdge(String type, Edge edge) throws IOException {
+    out.write("{\"edge\":");
+    writeString(type);
+    writeField("from", getId(edge.getFromId()));
+    writeField("to", getId(edge.getToId()));
+  }
+
+  private void writeMembers(Iterable<Member> members) throws IOException {
+    out.write(",\"members\":[");
+    boolean first = true;
+    for (Member member : members) {
+      if (!first) {
+        out.write(',');
+      }
+      writeString(Classes.toString(member));
+      first = false;
+    }
+    out.write(']');
+  }
+
+  private void writeField(String name, String value) throws IOException {
+    out.write(',');
+    writeString(name);
+    out.write(':');
+    if (value == null) {
+      out.write("null");
+    } else {
+      writeString(value);
+    }
+  }
+
+  /** Returns the identifier of the node in the output, which is unique and stable. */
+  private static String getId(NodeId nodeId) {
+    return nodeId.getType() + " " + nodeId.getKey();
+  }
+
+  private void writeString(String value) throws IOException {
+    out.write('"');
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      switch (c) {
+        case '"':
+          out.write("\\\"");
+          break;
+        case '\\':
+          out.write("\\\\");
+          break;
+        case '\n':
+          out.write("\\n");
+          break;
+        case '\r':
+          out.write("\\r");
+          break;
+        case '\t':
+          out.write("\\t");
+          break;
+        default:
+          if (c < 0x20) {
+            out.write(String.format("\\u%04x", (int) c));
+          } else {
+            out.write(c);
+          }
+      }
+    }
+    out.write('"');
+  }
+}
@@ -0,0 +1,64 @@
+/**
+ * Copyright (C) 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.inject.grapher;
+
+import com.google.common.base.Predicate;
+import com.google.common.collect.ImmutableList;
+import com.google.inject.Key;
+
+import java.util.List;
+
+/**
+ * Filters for the keys to graph, see {@link AbstractInjectorGrapher.GrapherParameters#setKeyFilter}.
+ *
+ * @since 4.0
+ */
+public final class KeyFilters {
+  private KeyFilters() {}
+
+  /**
+   * Returns a filter that accepts the keys of types in the given packages or their subpackages.
+   * The key of a generic type is accepted if its raw type is.
+   */
+  public static Predicate<Key<?>> inPackages(String... packageNames) {
+    return new InPackages(ImmutableList.copyOf(packageNames));
+  }
+
+  private static final class InPackages implements Predicate<Key<?>> {
+    private final List<String> packageNames;
+
+    InPackages(List<String> packageNames) {
+      this.packageNames = packageNames;
+    }
+
+    @Override public boolean apply(Key<?> key) {
+      String className = key.getTypeLiteral().getRawType().getName();
+      for (String packageName : packageNames) {
+        if (className.startsWith(packageName)
+            && className.length() > packageName.length()
+            && className.charAt(packageName.length()) == '.') {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    @Override public String toString() {
+      return "inPackages(" + packageNames + ")";
+    }
+  }
+}
@@ -59,6 +59,11 @@ public final class NodeId {
     return key;
   }
 
+  /** @since 4.0 */
+  public NodeType getType() {
+    return nodeType;
+  }
+
   @Override public int hashCode() {
     return Objects.hashCode(key, nodeType);
   }
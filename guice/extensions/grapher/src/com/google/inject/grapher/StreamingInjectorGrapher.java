@@ -0,0 +1,171 @@
+/**
+ * Copyright (C) 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.inject.grapher;
+
+import com.google.common.base.Predicate;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Sets;
+import com.google.inject.Binding;
+import com.google.inject.Injector;
+import com.google.inject.Key;
+import com.google.inject.grapher.AbstractInjectorGrapher.GrapherParameters;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Injector grapher that renders each node and edge as soon as it is found, instead of building the
+ * whole graph first like {@link AbstractInjectorGrapher}. Only the keys already visited are kept in
+ * memory, so that the graphs of large injectors can be written out as they are walked.
+ *
+ * <p>Nodes may be rendered after the edges that point to them, so the output format must allow
+ * this. Aliases are resolved when a node or edge is rendered, by passing the binding of its key to
+ * the {@link AliasCreator}.
+ *
+ * @since 4.0
+ */
+public abstract class StreamingInjectorGrapher implements InjectorGrapher {
+  /** Bounds the resolution of aliases to each other, in case they form a cycle. */
+  private static final int MAX_ALIAS_CHAIN = 16;
+
+  private final RootKeySetCreator rootKeySetCreator;
+  private final AliasCreator aliasCreator;
+  private final NodeCreator nodeCreator;
+  private final EdgeCreator edgeCreator;
+  private final Predicate<Key<?>> keyFilter;
+
+  public StreamingInjectorGrapher() {
+    this(new GrapherParameters());
+  }
+
+  public StreamingInjectorGrapher(GrapherParameters options) {
+    this.rootKeySetCreator = options.getRootKeySetCreator();
+    this.aliasCreator = options.getAliasCreator();
+    this.nodeCreator = options.getNodeCreator();
+    this.edgeCreator = options.getEdgeCreator();
+    this.keyFilter = options.getKeyFilter();
+  }
+
+  @Override public final void graph(Injector injector) throws IOException {
+    graph(injector, rootKeySetCreator.getRootKeys(injector));
+  }
+
+  @Override public final void graph(Injector injector, Set<Key<?>> root) throws IOException {
+    start();
+
+    Set<Key<?>> visitedKeys = Sets.newHashSet(root);
+    Deque<Key<?>> keys = new ArrayDeque<Key<?>>(root);
+    TransitiveDependencyVisitor keyVisitor = new TransitiveDependencyVisitor();
+
+    while (!keys.isEmpty()) {
+      Binding<?> binding = injector.getBinding(keys.removeFirst());
+      List<Binding<?>> bindings = ImmutableList.<Binding<?>>of(binding);
+      createNodes(injector, nodeCreator.getNodes(bindings));
+      createEdges(injector, edgeCreator.getEdges(bindings));
+
+      for (Key<?> dependency : binding.acceptTargetVisitor(keyVisitor)) {
+        if (visitedKeys.add(dependency)) {
+          keys.addLast(dependency);
+        }
+      }
+    }
+
+    finish();
+  }
+
+  /** Starts rendering a new graph. */
+  protected abstract void start() throws IOException;
+
+  /** Renders a new interface node. */
+  protected abstract void newInterfaceNode(InterfaceNode node) throws IOException;
+
+  /** Renders a new implementation node. */
+  protected abstract void newImplementationNode(ImplementationNode node) throws IOException;
+
+  /** Renders a new instance node. */
+  protected abstract void newInstanceNode(InstanceNode node) throws IOException;
+
+  /** Renders a new dependency edge. */
+  protected abstract void newDependencyEdge(DependencyEdge edge) throws IOException;
+
+  /** Renders a new binding edge. */
+  protected abstract void newBindingEdge(BindingEdge edge) throws IOException;
+
+  /** Finishes rendering the graph, once all nodes and edges have been rendered. */
+  protected abstract void finish() throws IOException;
+
+  private void createNodes(Injector injector, Iterable<Node> nodes) throws IOException {
+    for (Node node : nodes) {
+      NodeId id = node.getId();
+
+      // Only render nodes that aren't aliased to some other node.
+      if (resolveAlias(injector, id).equals(id) && keyFilter.apply(id.getKey())) {
+        if (node instanceof InterfaceNode) {
+          newInterfaceNode((InterfaceNode) node);
+        } else if (node instanceof ImplementationNode) {
+          newImplementationNode((ImplementationNode) node);
+        } else {
+          newInstanceNode((InstanceNode) node);
+        }
+      }
+    }
+  }
+
+  private void createEdges(Injector injector, Iterable<Edge> edges) throws IOException {
+    for (Edge edge : edges) {
+      edge = edge.copy(resolveAlias(injector, edge.getFromId()),
+          resolveAlias(injector, edge.getToId()));
+      if (!edge.getFromId().equals(edge.getToId())
+          && keyFilter.apply(edge.getFromId().getKey())
+          && keyFilter.apply(edge.getToId().getKey())) {
+        if (edge instanceof BindingEdge) {
+          newBindingEdge((BindingEdge) edge);
+        } else {
+          newDependencyEdge((DependencyEdge) edge);
+        }
+      }
+    }
+  }
+
+  /** Transitively resolves the aliases of the node, using the bindings of the keys on the way. */
+  private NodeId resolveAlias(Injector injector, NodeId nodeId) {
+    for (int i = 0; i < MAX_ALIAS_CHAIN; i++) {
+      NodeId aliasedId = getAlias(injector, nodeId);
+      if (aliasedId == null) {
+        break;
+      }
+      nodeId = aliasedId;
+    }
+    return nodeId;
+  }
+
+  private NodeId getAlias(Injector injector, NodeId nodeId) {
+    Binding<?> binding = injector.getExistingBinding(nodeId.getKey());
+    if (binding == null) {
+      return null;
+    }
+    for (Alias alias : aliasCreator.createAliases(ImmutableList.<Binding<?>>of(binding))) {
+      if (alias.getFromId().equals(nodeId)) {
+        return alias.getToId();
+      }
+    }
+    return null;
+  }
+}
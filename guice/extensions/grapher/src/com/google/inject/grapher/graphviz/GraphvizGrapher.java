@@ -17,11 +17,9 @@
 package com.google.inject.grapher.graphviz;
 
 import com.google.common.base.Joiner;
-import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.inject.Inject;
-import com.google.inject.Key;
 import com.google.inject.grapher.AbstractInjectorGrapher;
 import com.google.inject.grapher.BindingEdge;
 import com.google.inject.grapher.DependencyEdge;
@@ -30,9 +28,7 @@ import com.google.inject.grapher.InstanceNode;
 import com.google.inject.grapher.InterfaceNode;
 import com.google.inject.grapher.NameFactory;
 import com.google.inject.grapher.NodeId;
-import com.google.inject.spi.InjectionPoint;
 import java.io.PrintWriter;
-import java.lang.reflect.Member;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -48,16 +44,14 @@ import java.util.Map.Entry;
 public class GraphvizGrapher extends AbstractInjectorGrapher {
   private final Map<NodeId, GraphvizNode> nodes = Maps.newHashMap();
   private final List<GraphvizEdge> edges = Lists.newArrayList();
-  private final NameFactory nameFactory;
-  private final PortIdFactory portIdFactory;
+  private final GraphvizElementFactory elementFactory;
 
   private PrintWriter out;
   private String rankdir = "TB";
 
   @Inject GraphvizGrapher(@Graphviz NameFactory nameFactory,
       @Graphviz PortIdFactory portIdFactory) {
-    this.nameFactory = nameFactory;
-    this.portIdFactory = portIdFactory;
+    this.elementFactory = new GraphvizElementFactory(nameFactory, portIdFactory);
   }
 
   @Override protected void reset() {
@@ -234,88 +228,23 @@ public class GraphvizGrapher extends AbstractInjectorGrapher {
   }
 
   @Override protected void newInterfaceNode(InterfaceNode node) {
-    // TODO(phopkins): Show the Module on the graph, which comes from the
-    // class name when source is a StackTraceElement.
-
-    NodeId nodeId = node.getId();
-    GraphvizNode gnode = new GraphvizNode(nodeId);
-    gnode.setStyle(NodeStyle.DASHED);
-    Key<?> key = nodeId.getKey();
-    gnode.setTitle(nameFactory.getClassName(key));
-    gnode.addSubtitle(0, nameFactory.getAnnotationName(key));
-    addNode(gnode);
+    addNode(elementFactory.newInterfaceNode(node));
   }
 
   @Override protected void newImplementationNode(ImplementationNode node) {
-    NodeId nodeId = node.getId();
-    GraphvizNode gnode = new GraphvizNode(nodeId);
-    gnode.setStyle(NodeStyle.SOLID);
-
-    gnode.setHeaderBackgroundColor("#000000");
-    gnode.setHeaderTextColor("#ffffff");
-    gnode.setTitle(nameFactory.getClassName(nodeId.getKey()));
-
-    for (Member member : node.getMembers()) {
-      gnode.addField(portIdFactory.getPortId(member), nameFactory.getMemberName(member));
-    }
-
-    addNode(gnode);
+    addNode(elementFactory.newImplementationNode(node));
   }
 
   @Override protected void newInstanceNode(InstanceNode node) {
-    NodeId nodeId = node.getId();
-    GraphvizNode gnode = new GraphvizNode(nodeId);
-    gnode.setStyle(NodeStyle.SOLID);
-
-    gnode.setHeaderBackgroundColor("#000000");
-    gnode.setHeaderTextColor("#ffffff");
-    gnode.setTitle(nameFactory.getClassName(nodeId.getKey()));
-
-    gnode.addSubtitle(0, nameFactory.getSourceName(node.getSource()));
-
-    gnode.setHeaderBackgroundColor("#aaaaaa");
-    gnode.setHeaderTextColor("#ffffff");
-    gnode.setTitle(nameFactory.getInstanceName(node.getInstance()));
-
-    for (Member member : node.getMembers()) {
-      gnode.addField(portIdFactory.getPortId(member), nameFactory.getMemberName(member));
-    }
-
-    addNode(gnode);
+    addNode(elementFactory.newInstanceNode(node));
   }
 
   @Override protected void newDependencyEdge(DependencyEdge edge) {
-    GraphvizEdge gedge = new GraphvizEdge(edge.getFromId(), edge.getToId());
-    InjectionPoint fromPoint = edge.getInjectionPoint();
-    if (fromPoint == null) {
-      gedge.setTailPortId("header");
-    } else {
-      gedge.setTailPortId(portIdFactory.getPortId(fromPoint.getMember()));
-    }
-    gedge.setArrowHead(ImmutableList.of(ArrowType.NORMAL));
-    gedge.setTailCompassPoint(CompassPoint.EAST);
-
-    edges.add(gedge);
+    edges.add(elementFactory.newDependencyEdge(edge));
   }
 
   @Override protected void newBindingEdge(BindingEdge edge) {
-    GraphvizEdge gedge = new GraphvizEdge(edge.getFromId(), edge.getToId());
-    gedge.setStyle(EdgeStyle.DASHED);
-    switch (edge.getType()) {
-      case NORMAL:
-        gedge.setArrowHead(ImmutableList.of(ArrowType.NORMAL_OPEN));
-        break;
-
-      case PROVIDER:
-        gedge.setArrowHead(ImmutableList.of(ArrowType.NORMAL_OPEN, ArrowType.NORMAL_OPEN));
-        break;
-
-      case CONVERTED_CONSTANT:
-        gedge.setArrowHead(ImmutableList.of(ArrowType.NORMAL_OPEN, ArrowType.DOT_OPEN));
-        break;
-    }
-
-    edges.add(gedge);
+    edges.add(elementFactory.newBindingEdge(edge));
   }
 
   private void addNode(GraphvizNode node) {
@@ -0,0 +1,207 @@
+/**
+ * Copyright (C) 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.inject.grapher.graphviz;
+
+import com.google.common.base.Joiner;
+import com.google.inject.grapher.AbstractInjectorGrapher.GrapherParameters;
+import com.google.inject.grapher.BindingEdge;
+import com.google.inject.grapher.DependencyEdge;
+import com.google.inject.grapher.ImplementationNode;
+import com.google.inject.grapher.InstanceNode;
+import com.google.inject.grapher.InterfaceNode;
+import com.google.inject.grapher.NodeId;
+import com.google.inject.grapher.ShortNameFactory;
+import com.google.inject.grapher.StreamingInjectorGrapher;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link com.google.inject.grapher.InjectorGrapher} that writes a Graphviz DOT file as the graph is walked,
+ * rendering the same nodes and edges as {@link GraphvizGrapher} without keeping them in memory.
+ * Nodes are identified by their keys rather than by their position in the graph, so that edges
+ * can be written before the nodes they point to. The output is buffered, and flushed once the
+ * graph is written.
+ *
+ * @since 4.0
+ */
+public class StreamingGraphvizGrapher extends StreamingInjectorGrapher {
+  private final Writer out;
+  private final GraphvizElementFactory elementFactory;
+  private String rankdir = "TB";
+
+  public StreamingGraphvizGrapher(Writer out) {
+    this(out, new GrapherParameters());
+  }
+
+  public StreamingGraphvizGrapher(Writer out, GrapherParameters options) {
+    super(options);
+    this.out = out instanceof BufferedWriter ? out : new BufferedWriter(out);
+    this.elementFactory =
+        new GraphvizElementFactory(new ShortNameFactory(), new PortIdFactoryImpl());
+  }
+
+  public void setRankdir(String rankdir) {
+    this.rankdir = rankdir;
+  }
+
+  @Override protected void start() throws IOException {
+    out.write("digraph injector {\n");
+    out.write("graph [rankdir=");
+    out.write(rankdir);
+    out.write("];\n");
+  }
+
+  @Override protected void finish() throws IOException {
+    out.write("}\n");
+    out.flush();
+  }
+
+  @Override protected void newInterfaceNode(InterfaceNode node) throws IOException {
+    writeNode(elementFactory.newInterfaceNode(node));
+  }
+
+  @Override protected void newImplementationNode(ImplementationNode node) throws IOException {
+    writeNode(elementFactory.newImplementationNode(node));
+  }
+
+  @Override protected void newInstanceNode(InstanceNode node) throws IOException {
+    writeNode(elementFactory.newInstanceNode(node));
+  }
+
+  @Override protected void newDependencyEdge(DependencyEdge edge) throws IOException {
+    writeEdge(elementFactory.newDependencyEdge(edge));
+  }
+
+  @Override protected void newBindingEdge(BindingEdge edge) throws IOException {
+    writeEdge(elementFactory.newBindingEdge(edge));
+  }
+
+  private void writeNode(GraphvizNode node) throws IOException {
+    writeIdentifier(node.getNodeId());
+    out.write(" [margin=\"0.02,0\", shape=");
+    out.write(node.getShape().toString());
+    out.write(", style=");
+    out.write(node.getStyle().toString());
+    out.write(", label=");
+    writeLabel(node);
+    out.write("]\n");
+  }
+
+  /** Writes the same HTML label as {@link GraphvizGrapher#getNodeLabel}. */
+  private void writeLabel(GraphvizNode node) throws IOException {
+    String cellborder = node.getStyle() == NodeStyle.INVISIBLE ? "1" : "0";
+    out.write("<<table cellspacing=\"0\" cellpadding=\"5\" cellborder=\"");
+    out.write(cellborder);
+    out.write("\" border=\"0\"><tr><td align=\"left\" port=\"header\" bgcolor=\"");
+    out.write(node.getHeaderBackgroundColor());
+    out.write("\">");
+
+    String subtitle = Joiner.on("<br align=\"left\"/>").join(node.getSubtitles());
+    if (subtitle.length() != 0) {
+      out.write("<font color=\"");
+      out.write(node.getHeaderTextColor());
+      out.write("\" point-size=\"10\">");
+      out.write(subtitle);
+      out.write("<br align=\"left\"/></font>");
+    }
+
+    out.write("<font color=\"");
+    out.write(node.getHeaderTextColor());
+    out.write("\">");
+    writeHtmlEscaped(node.getTitle());
+    out.write("<br align=\"left\"/></font></td></tr>");
+
+    for (Map.Entry<String, String> field : node.getFields().entrySet()) {
+      out.write("<tr><td align=\"left\" port=\"");
+      writeHtmlEscaped(field.getKey());
+      out.write("\">");
+      writeHtmlEscaped(field.getValue());
+      out.write("</td></tr>");
+    }
+
+    out.write("</table>>");
+  }
+
+  private void writeEdge(GraphvizEdge edge) throws IOException {
+    writeEndPoint(edge.getTailNodeId(), edge.getTailPortId(), edge.getTailCompassPoint());
+    out.write(" -> ");
+    writeEndPoint(edge.getHeadNodeId(), edge.getHeadPortId(), edge.getHeadCompassPoint());
+    out.write(" [arrowhead=");
+    writeArrows(edge.getArrowHead());
+    out.write(", arrowtail=");
+    writeArrows(edge.getArrowTail());
+    out.write(", style=");
+    out.write(edge.getStyle().toString());
+    out.write("]\n");
+  }
+
+  private void writeEndPoint(NodeId nodeId, String portId, CompassPoint compassPoint)
+      throws IOException {
+    writeIdentifier(nodeId);
+    if (portId != null) {
+      out.write(':');
+      out.write(portId);
+    }
+    if (compassPoint != null) {
+      out.write(':');
+      out.write(compassPoint.toString());
+    }
+  }
+
+  private void writeArrows(List<ArrowType> arrows) throws IOException {
+    for (ArrowType arrow : arrows) {
+      out.write(arrow.toString());
+    }
+  }
+
+  /** Writes a quoted DOT identifier derived from the node's key and type. */
+  private void writeIdentifier(NodeId nodeId) throws IOException {
+    String identifier = nodeId.getType() + " " + nodeId.getKey();
+    out.write('"');
+    for (int i = 0; i < identifier.length(); i++) {
+      char c = identifier.charAt(i);
+      if (c == '"' || c == '\\') {
+        out.write('\\');
+      }
+      out.write(c);
+    }
+    out.write('"');
+  }
+
+  private void writeHtmlEscaped(String str) throws IOException {
+    for (int i = 0; i < str.length(); i++) {
+      char c = str.charAt(i);
+      switch (c) {
+        case '&':
+          out.write("&amp;");
+          break;
+        case '<':
+          out.write("&lt;");
+          break;
+        case '>':
+          out.write("&gt;");
+          break;
+        default:
+          out.write(c);
+      }
+    }
+  }
+}
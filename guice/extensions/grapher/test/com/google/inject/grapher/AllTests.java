@@ -28,6 +28,7 @@ public class AllTests {
     TestSuite suite = new TestSuite();
     suite.addTestSuite(AbstractInjectorGrapherTest.class);
     suite.addTestSuite(ShortNameFactoryTest.class);
+    suite.addTestSuite(StreamingInjectorGrapherTest.class);
     suite.addTestSuite(TransitiveDependencyVisitorTest.class);
     return suite;
   }
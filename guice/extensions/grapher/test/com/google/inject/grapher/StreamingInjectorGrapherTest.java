@@ -0,0 +1,197 @@
+/**
+ * Copyright (C) 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.inject.grapher;
+
+import static com.google.inject.Asserts.assertContains;
+
+import com.google.common.base.Predicates;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
+import com.google.inject.AbstractModule;
+import com.google.inject.BindingAnnotation;
+import com.google.inject.Guice;
+import com.google.inject.Inject;
+import com.google.inject.Injector;
+import com.google.inject.Key;
+import com.google.inject.Provider;
+import com.google.inject.grapher.AbstractInjectorGrapher.GrapherParameters;
+import com.google.inject.grapher.graphviz.StreamingGraphvizGrapher;
+import com.google.inject.spi.InjectionPoint;
+
+import junit.framework.TestCase;
+
+import java.io.StringWriter;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.reflect.Member;
+import java.util.Set;
+
+/**
+ * Test cases for {@link StreamingInjectorGrapher} and its implementations.
+ */
+public class StreamingInjectorGrapherTest extends TestCase {
+  private static final String TEST_STRING = "test";
+
+  private static class FakeGrapher extends StreamingInjectorGrapher {
+    final Set<Node> nodes = Sets.newHashSet();
+    final Set<Edge> edges = Sets.newHashSet();
+    boolean started;
+    boolean finished;
+
+    FakeGrapher(GrapherParameters options) {
+      super(options);
+    }
+
+    @Override protected void start() {
+      assertFalse(started);
+      started = true;
+    }
+
+    @Override protected void newInterfaceNode(InterfaceNode node) {
+      assertTrue(nodes.add(node));
+    }
+
+    @Override protected void newImplementationNode(ImplementationNode node) {
+      assertTrue(nodes.add(node));
+    }
+
+    @Override protected void newInstanceNode(InstanceNode node) {
+      assertTrue(nodes.add(node));
+    }
+
+    @Override protected void newDependencyEdge(DependencyEdge edge) {
+      assertTrue(edges.add(edge));
+    }
+
+    @Override protected void newBindingEdge(BindingEdge edge) {
+      assertTrue(edges.add(edge));
+    }
+
+    @Override protected void finish() {
+      assertTrue(started);
+      finished = true;
+    }
+  }
+
+  @BindingAnnotation
+  @Retention(RetentionPolicy.RUNTIME)
+  private static @interface Ann {}
+  private static interface IA {}
+  private static class A implements IA {
+    @Inject public A(String str) {}
+  }
+
+  private Node aNode;
+  private Node iaNode;
+  private Node iaAnnNode;
+  private Node stringNode;
+  private Node stringInstanceNode;
+
+  private Injector injector;
+
+  @Override protected void setUp() throws Exception {
+    super.setUp();
+    Node.ignoreSourceInComparisons = true;
+    aNode = new ImplementationNode(NodeId.newTypeId(Key.get(A.class)), null,
+        ImmutableList.<Member>of(A.class.getConstructor(String.class)));
+    iaNode = new InterfaceNode(NodeId.newTypeId(Key.get(IA.class)), null);
+    iaAnnNode = new InterfaceNode(NodeId.newTypeId(Key.get(IA.class, Ann.class)), null);
+    stringNode = new InterfaceNode(NodeId.newTypeId(Key.get(String.class)), null);
+    stringInstanceNode = new InstanceNode(NodeId.newInstanceId(Key.get(String.class)), null,
+        TEST_STRING, ImmutableList.<Member>of());
+    injector = Guice.createInjector(new AbstractModule() {
+      @Override protected void configure() {
+        bind(IA.class).to(A.class);
+        bind(IA.class).annotatedWith(Ann.class).to(A.class);
+        bind(String.class).toInstance(TEST_STRING);
+      }
+    });
+  }
+
+  public void testSameGraphAsAbstractInjectorGrapher() throws Exception {
+    FakeGrapher grapher = new FakeGrapher(new GrapherParameters());
+    grapher.graph(injector);
+
+    Set<Node> expectedNodes =
+        ImmutableSet.<Node>of(iaNode, iaAnnNode, aNode, stringNode, stringInstanceNode);
+    Set<Edge> expectedEdges = ImmutableSet.<Edge>of(
+        new BindingEdge(iaNode.getId(), aNode.getId(), BindingEdge.Type.NORMAL),
+        new BindingEdge(iaAnnNode.getId(), aNode.getId(), BindingEdge.Type.NORMAL),
+        new BindingEdge(stringNode.getId(), stringInstanceNode.getId(), BindingEdge.Type.NORMAL),
+        new DependencyEdge(aNode.getId(), stringNode.getId(),
+            InjectionPoint.forConstructor(A.class.getConstructor(String.class))));
+    assertEquals(expectedNodes, grapher.nodes);
+    assertEquals(expectedEdges, grapher.edges);
+    assertTrue(grapher.finished);
+  }
+
+  public void testGraphWithGivenRoot() throws Exception {
+    FakeGrapher grapher = new FakeGrapher(new GrapherParameters());
+    grapher.graph(injector, ImmutableSet.<Key<?>>of(Key.get(String.class)));
+
+    assertEquals(ImmutableSet.<Node>of(stringNode, stringInstanceNode), grapher.nodes);
+    assertEquals(ImmutableSet.<Edge>of(
+        new BindingEdge(stringNode.getId(), stringInstanceNode.getId(), BindingEdge.Type.NORMAL)),
+        grapher.edges);
+  }
+
+  public void testKeyFilter() throws Exception {
+    FakeGrapher grapher = new FakeGrapher(new GrapherParameters()
+        .setKeyFilter(Predicates.not(Predicates.<Key<?>>equalTo(Key.get(String.class)))));
+    grapher.graph(injector);
+
+    assertEquals(ImmutableSet.<Node>of(iaNode, iaAnnNode, aNode), grapher.nodes);
+    assertEquals(ImmutableSet.<Edge>of(
+        new BindingEdge(iaNode.getId(), aNode.getId(), BindingEdge.Type.NORMAL),
+        new BindingEdge(iaAnnNode.getId(), aNode.getId(), BindingEdge.Type.NORMAL)),
+        grapher.edges);
+  }
+
+  public void testInPackages() {
+    assertTrue(KeyFilters.inPackages("java.lang").apply(Key.get(String.class)));
+    assertFalse(KeyFilters.inPackages("java.la").apply(Key.get(String.class)));
+    assertFalse(KeyFilters.inPackages("com.google.inject")
+        .apply(Key.get(String.class)));
+    assertTrue(KeyFilters.inPackages("java.util", "com.google.inject")
+        .apply(Key.get(IA.class)));
+  }
+
+  public void testJsonLines() throws Exception {
+    StringWriter out = new StringWriter();
+    new JsonLinesGrapher(out).graph(injector, ImmutableSet.<Key<?>>of(Key.get(String.class)));
+
+    String[] lines = out.toString().split("\n");
+    assertEquals(3, lines.length);
+    assertContains(out.toString(),
+        "{\"node\":\"interface\",\"id\":\"TYPE " + Key.get(String.class) + "\"",
+        "{\"edge\":\"binding\",\"from\":\"TYPE " + Key.get(String.class)
+            + "\",\"to\":\"INSTANCE " + Key.get(String.class) + "\",\"type\":\"NORMAL\"}");
+  }
+
+  public void testGraphviz() throws Exception {
+    StringWriter out = new StringWriter();
+    new StreamingGraphvizGrapher(out).graph(injector);
+
+    String dot = out.toString();
+    assertTrue(dot, dot.startsWith("digraph injector {\n"));
+    assertTrue(dot, dot.endsWith("}\n"));
+    assertContains(dot, "\"TYPE " + Key.get(IA.class, Ann.class) + "\" [margin=");
+    assertContains(dot,
+        "\"TYPE " + Key.get(IA.class) + "\" -> \"TYPE " + Key.get(A.class) + "\" [arrowhead=");
+  }
+}
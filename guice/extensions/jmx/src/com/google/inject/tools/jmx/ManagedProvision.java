@@ -0,0 +1,106 @@
+/**
+ * Copyright (C) 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.inject.tools.jmx;
+
+import com.google.inject.Binding;
+import com.google.inject.Key;
+import com.google.inject.Scopes;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Provisioning metrics of a single binding.
+ */
+class ManagedProvision implements ManagedProvisionMBean {
+
+  final Key<?> key;
+  private final StripedCounter count = new StripedCounter();
+  private final StripedCounter totalNanos = new StripedCounter();
+  private final StripedCounter scopeLookups = new StripedCounter();
+  private final LatencyHistogram latencies = new LatencyHistogram();
+  private final AtomicLong singletonInitializationNanos = new AtomicLong(-1);
+  private volatile Boolean singleton;
+
+  ManagedProvision(Key<?> key) {
+    this.key = key;
+  }
+
+  void recordProvision(long nanos, Binding<?> binding) {
+    count.increment();
+    totalNanos.add(nanos);
+    latencies.record(nanos);
+    if (singleton == null) {
+      singleton = Scopes.isSingleton(binding);
+    }
+    if (singleton) {
+      singletonInitializationNanos.compareAndSet(-1, nanos);
+    }
+  }
+
+  void recordScopeLookup() {
+    scopeLookups.increment();
+  }
+
+  void reset() {
+    count.reset();
+    totalNanos.reset();
+    scopeLookups.reset();
+    latencies.reset();
+    singletonInitializationNanos.set(-1);
+  }
+
+  public String getKey() {
+    return key.toString();
+  }
+
+  public long getProvisionCount() {
+    return count.sum();
+  }
+
+  public long getTotalProvisionNanos() {
+    return totalNanos.sum();
+  }
+
+  public long getMeanProvisionNanos() {
+    long provisions = count.sum();
+    return provisions == 0 ? 0 : totalNanos.sum() / provisions;
+  }
+
+  public long getMedianProvisionNanos() {
+    return latencies.getPercentile(50);
+  }
+
+  public long getP90ProvisionNanos() {
+    return latencies.getPercentile(90);
+  }
+
+  public long getP99ProvisionNanos() {
+    return latencies.getPercentile(99);
+  }
+
+  public long getMaxProvisionNanos() {
+    return latencies.getMax();
+  }
+
+  public long getSingletonInitializationNanos() {
+    return singletonInitializationNanos.get();
+  }
+
+  public long getScopeLookupCount() {
+    return scopeLookups.sum();
+  }
+}
@@ -0,0 +1,76 @@
+/**
+ * Copyright (C) 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.inject.tools.jmx;
+
+/**
+ * JMX interface to the provisioning metrics of a binding. Latencies are in nanoseconds and
+ * include the provisioning of the binding's own dependencies.
+ */
+public interface ManagedProvisionMBean {
+
+  /**
+   * Gets the binding key.
+   */
+  String getKey();
+
+  /**
+   * Gets the number of objects provisioned for this binding.
+   */
+  long getProvisionCount();
+
+  /**
+   * Gets the time spent provisioning this binding.
+   */
+  long getTotalProvisionNanos();
+
+  /**
+   * Gets the mean provisioning latency.
+   */
+  long getMeanProvisionNanos();
+
+  /**
+   * Gets the median provisioning latency.
+   */
+  long getMedianProvisionNanos();
+
+  /**
+   * Gets the 90th percentile of the provisioning latency.
+   */
+  long getP90ProvisionNanos();
+
+  /**
+   * Gets the 99th percentile of the provisioning latency.
+   */
+  long getP99ProvisionNanos();
+
+  /**
+   * Gets the slowest provisioning latency.
+   */
+  long getMaxProvisionNanos();
+
+  /**
+   * Gets the time it took to initialize this singleton, or -1 if the binding is not a singleton
+   * or has not been provisioned yet.
+   */
+  long getSingletonInitializationNanos();
+
+  /**
+   * Gets the number of times an instance was looked up in the scope of this binding, if the
+   * scope was wrapped with {@link ProvisionMetrics#countLookups}.
+   */
+  long getScopeLookupCount();
+}
@@ -54,27 +54,10 @@ public class Manager {
       Injector injector) {
     // Register each binding independently.
     for (Binding<?> binding : injector.getBindings().values()) {
-      // Construct the name manually so we can ensure proper ordering of the
-      // key/value pairs.
-      StringBuilder name = new StringBuilder();
-      name.append(domain).append(":");
-      Key<?> key = binding.getKey();
-      name.append("type=").append(quote(key.getTypeLiteral().toString()));
-      Annotation annotation = key.getAnnotation();
-      if (annotation != null) {
-        name.append(",annotation=").append(quote(annotation.toString()));
-      }
-      else {
-        Class<? extends Annotation> annotationType = key.getAnnotationType();
-        if (annotationType != null) {
-          name.append(",annotation=")
-              .append(quote("@" + annotationType.getName()));
-        }
-      }
-
+      String name = objectName(domain, binding.getKey());
       try {
         server.registerMBean(new ManagedBinding(binding),
-            new ObjectName(name.toString()));
+            new ObjectName(name));
       }
       catch (MalformedObjectNameException e) {
         throw new RuntimeException("Bad object name: " + name, e);
@@ -83,6 +66,38 @@ public class Manager {
         throw new RuntimeException(e);
       }
     }
+
+    // Publish the provisioning metrics, if the injector collects them.
+    Binding<ProvisionMetrics> metrics =
+        injector.getExistingBinding(Key.get(ProvisionMetrics.class));
+    if (metrics != null) {
+      try {
+        metrics.getProvider().get().register(server, domain);
+      }
+      catch (Exception e) {
+        throw new RuntimeException(e);
+      }
+    }
+  }
+
+  static String objectName(String domain, Key<?> key) {
+    // Construct the name manually so we can ensure proper ordering of the
+    // key/value pairs.
+    StringBuilder name = new StringBuilder();
+    name.append(domain).append(":");
+    name.append("type=").append(quote(key.getTypeLiteral().toString()));
+    Annotation annotation = key.getAnnotation();
+    if (annotation != null) {
+      name.append(",annotation=").append(quote(annotation.toString()));
+    }
+    else {
+      Class<? extends Annotation> annotationType = key.getAnnotationType();
+      if (annotationType != null) {
+        name.append(",annotation=")
+            .append(quote("@" + annotationType.getName()));
+      }
+    }
+    return name.toString();
   }
 
   static String quote(String value) {
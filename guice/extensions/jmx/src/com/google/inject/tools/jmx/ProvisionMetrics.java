@@ -0,0 +1,159 @@
+/**
+ * Copyright (C) 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.inject.tools.jmx;
+
+import com.google.common.collect.Maps;
+import com.google.inject.Key;
+import com.google.inject.Provider;
+import com.google.inject.Scope;
+import com.google.inject.spi.ProvisionListener;
+
+import java.util.concurrent.ConcurrentMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Collects per-binding provisioning counts and latencies. Install it with
+ * {@link ProvisionMetricsModule} and publish it with {@link Manager#manage}, which registers a
+ * {@link ProvisionMetricsMBean} to toggle collection at runtime, and a
+ * {@link ManagedProvisionMBean} for each binding as soon as it is first provisioned.
+ *
+ * <p>Latencies are measured around {@link ProvisionInvocation#provision()}, so they include the
+ * provisioning of unscoped dependencies. When collection is disabled, the listener only costs a
+ * volatile read per provision.
+ *
+ * <p>Metrics are allocated on the first provision of a binding while collection is enabled, so
+ * bindings that are never provisioned cost nothing. Each provisioned binding then holds about
+ * 2.5KB, mostly its latency histogram, plus up to 1KB for each of its three counters once
+ * provisioning it is contended. {@link #reset} clears the metrics but keeps them allocated.
+ */
+public class ProvisionMetrics implements ProvisionListener, ProvisionMetricsMBean {
+
+  private static final Logger logger = Logger.getLogger(ProvisionMetrics.class.getName());
+
+  private final ConcurrentMap<Key<?>, ManagedProvision> metrics = Maps.newConcurrentMap();
+  private volatile boolean enabled = true;
+
+  /** Where per-binding MBeans are registered, or null if not published. */
+  private volatile MBeanServer server;
+  private volatile String domain;
+
+  public <T> void onProvision(ProvisionInvocation<T> provision) {
+    if (!enabled) {
+      return;
+    }
+
+    long start = System.nanoTime();
+    provision.provision();
+    long nanos = System.nanoTime() - start;
+    metricsFor(provision.getBinding().getKey()).recordProvision(nanos, provision.getBinding());
+  }
+
+  /**
+   * Returns a scope that behaves like {@code scope} and counts the lookups of each key in it.
+   * Bind it in place of a custom scope to see how often scoped instances are requested, compared
+   * to how often they are provisioned.
+   */
+  public Scope countLookups(final Scope scope) {
+    return new Scope() {
+      public <T> Provider<T> scope(final Key<T> key, Provider<T> unscoped) {
+        final Provider<T> scoped = scope.scope(key, unscoped);
+        return new Provider<T>() {
+          public T get() {
+            if (enabled) {
+              metricsFor(key).recordScopeLookup();
+            }
+            return scoped.get();
+          }
+
+          @Override public String toString() {
+            return scoped.toString();
+          }
+        };
+      }
+
+      @Override public String toString() {
+        return scope.toString();
+      }
+    };
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  public int getBindingCount() {
+    return metrics.size();
+  }
+
+  public void reset() {
+    for (ManagedProvision managedProvision : metrics.values()) {
+      managedProvision.reset();
+    }
+  }
+
+  /**
+   * Registers this with the given MBean server, along with the metrics of every binding
+   * provisioned so far. Bindings provisioned later are registered on their first provision.
+   */
+  void register(MBeanServer server, String domain) throws JMException {
+    this.domain = domain;
+    this.server = server;
+    server.registerMBean(this, new ObjectName(domain + ":name=ProvisionMetrics"));
+    for (ManagedProvision managedProvision : metrics.values()) {
+      register(managedProvision);
+    }
+  }
+
+  private ManagedProvision metricsFor(Key<?> key) {
+    ManagedProvision managedProvision = metrics.get(key);
+    if (managedProvision == null) {
+      ManagedProvision created = new ManagedProvision(key);
+      managedProvision = metrics.putIfAbsent(key, created);
+      if (managedProvision == null) {
+        managedProvision = created;
+        if (server != null) {
+          register(created);
+        }
+      }
+    }
+    return managedProvision;
+  }
+
+  private void register(ManagedProvision managedProvision) {
+    String name = Manager.objectName(domain, managedProvision.key) + ",metrics=provision";
+    try {
+      if (!server.isRegistered(new ObjectName(name))) {
+        server.registerMBean(managedProvision, new ObjectName(name));
+      }
+    } catch (InstanceAlreadyExistsException e) {
+      // Registered concurrently by register(MBeanServer, String).
+    } catch (JMException e) {
+      // Never fail a provision because of JMX, the metrics are still collected.
+      logger.log(Level.WARNING, "Could not register provisioning metrics " + name, e);
+    }
+  }
+}
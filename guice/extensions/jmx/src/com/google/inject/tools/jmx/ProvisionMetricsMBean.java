@@ -0,0 +1,43 @@
+/**
+ * Copyright (C) 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.inject.tools.jmx;
+
+/**
+ * JMX interface to control the collection of provisioning metrics.
+ */
+public interface ProvisionMetricsMBean {
+
+  /**
+   * Returns true if provisioning metrics are being collected.
+   */
+  boolean isEnabled();
+
+  /**
+   * Starts or stops collecting provisioning metrics.
+   */
+  void setEnabled(boolean enabled);
+
+  /**
+   * Gets the number of bindings with metrics.
+   */
+  int getBindingCount();
+
+  /**
+   * Clears the metrics collected so far.
+   */
+  void reset();
+}
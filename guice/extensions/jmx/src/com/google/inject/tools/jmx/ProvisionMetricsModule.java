@@ -0,0 +1,42 @@
+/**
+ * Copyright (C) 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.inject.tools.jmx;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.matcher.Matchers;
+
+/**
+ * Collects provisioning metrics for every binding of the injector, and binds the
+ * {@link ProvisionMetrics} so that {@link Manager#manage} publishes them.
+ */
+public class ProvisionMetricsModule extends AbstractModule {
+
+  private final ProvisionMetrics metrics;
+
+  public ProvisionMetricsModule() {
+    this(new ProvisionMetrics());
+  }
+
+  public ProvisionMetricsModule(ProvisionMetrics metrics) {
+    this.metrics = metrics;
+  }
+
+  @Override protected void configure() {
+    bind(ProvisionMetrics.class).toInstance(metrics);
+    bindListener(Matchers.any(), metrics);
+  }
+}
@@ -0,0 +1,111 @@
+/**
+ * Copyright (C) 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.inject.tools.jmx;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A counter that spreads concurrent updates over several cells, so that threads provisioning
+ * the same binding don't contend on a single atomic. Reads sum the cells and are not atomic
+ * with respect to concurrent updates.
+ *
+ * <p>Updates go to a single base value until two of them collide; only then are the padded cells
+ * allocated, about {@code 64 * min(processors, 16)} bytes. Counters that are never contended so
+ * stay as small as an {@link AtomicLong}.
+ */
+final class StripedCounter {
+
+  /** Number of longs between two cells, to keep each cell on its own cache line. */
+  private static final int PADDING = 8;
+
+  private static final int STRIPES = stripes(Runtime.getRuntime().availableProcessors());
+
+  private final AtomicLong base = new AtomicLong();
+
+  /** The padded cells, or null until an update was contended. */
+  private volatile AtomicLongArray cells;
+
+  void add(long delta) {
+    AtomicLongArray cells = this.cells;
+    if (cells == null) {
+      long current = base.get();
+      if (base.compareAndSet(current, current + delta)) {
+        return;
+      }
+      if (STRIPES == 1) {
+        base.addAndGet(delta);
+        return;
+      }
+      cells = inflate();
+    }
+    cells.addAndGet(index(), delta);
+  }
+
+  void increment() {
+    add(1);
+  }
+
+  long sum() {
+    long sum = base.get();
+    AtomicLongArray cells = this.cells;
+    if (cells != null) {
+      for (int i = 0; i < STRIPES; i++) {
+        sum += cells.get(i * PADDING);
+      }
+    }
+    return sum;
+  }
+
+  void reset() {
+    base.set(0);
+    AtomicLongArray cells = this.cells;
+    if (cells != null) {
+      for (int i = 0; i < STRIPES; i++) {
+        cells.set(i * PADDING, 0);
+      }
+    }
+  }
+
+  /** Allocates the cells, if no other thread did already. */
+  AtomicLongArray inflate() {
+    synchronized (this) {
+      if (cells == null) {
+        cells = new AtomicLongArray(STRIPES * PADDING);
+      }
+      return cells;
+    }
+  }
+
+  boolean isInflated() {
+    return cells != null;
+  }
+
+  private static int index() {
+    long id = Thread.currentThread().getId();
+    int hash = (int) (id ^ (id >>> 32)) * 0x9E3779B9;
+    return ((hash >>> 16) & (STRIPES - 1)) * PADDING;
+  }
+
+  private static int stripes(int processors) {
+    int stripes = 1;
+    while (stripes < processors && stripes < 16) {
+      stripes <<= 1;
+    }
+    return stripes;
+  }
+}
@@ -0,0 +1,115 @@
+/**
+ * Copyright (C) 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.inject.tools.jmx;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests the bucketing and percentile math of {@link LatencyHistogram}.
+ */
+public class LatencyHistogramTest extends TestCase {
+
+  public void testSmallValuesAreExact() {
+    for (int value = 0; value < 16; value++) {
+      assertEquals(value, LatencyHistogram.bucket(value));
+      assertEquals(value, LatencyHistogram.upperBound(value));
+    }
+  }
+
+  public void testBucketEdges() {
+    // From 16 on, each power of two is split into 8 sub-buckets.
+    assertEquals(16, LatencyHistogram.bucket(16));
+    assertEquals(16, LatencyHistogram.bucket(17));
+    assertEquals(17, LatencyHistogram.bucket(18));
+    assertEquals(17, LatencyHistogram.upperBound(16));
+    assertEquals(19, LatencyHistogram.upperBound(17));
+    assertEquals(23, LatencyHistogram.bucket(31));
+    assertEquals(24, LatencyHistogram.bucket(32));
+    assertEquals(31, LatencyHistogram.upperBound(23));
+    assertEquals(35, LatencyHistogram.upperBound(24));
+  }
+
+  public void testUpperBoundIsTheLastValueOfEachBucket() {
+    for (int bucket = 0; bucket < LatencyHistogram.bucket(LatencyHistogram.MAX_TRACKED); bucket++) {
+      long upperBound = LatencyHistogram.upperBound(bucket);
+      assertEquals(bucket, LatencyHistogram.bucket(upperBound));
+      assertEquals(bucket + 1, LatencyHistogram.bucket(upperBound + 1));
+    }
+  }
+
+  public void testMaxTrackedIsTheLastBucket() {
+    int last = LatencyHistogram.bucket(LatencyHistogram.MAX_TRACKED);
+    assertEquals(303, last);
+    assertEquals(LatencyHistogram.MAX_TRACKED, LatencyHistogram.upperBound(last));
+  }
+
+  public void testEmpty() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    assertEquals(0, histogram.getPercentile(50));
+    assertEquals(0, histogram.getPercentile(100));
+    assertEquals(0, histogram.getMax());
+  }
+
+  public void testZero() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    histogram.record(0);
+    histogram.record(-5);
+    assertEquals(0, histogram.getPercentile(0));
+    assertEquals(0, histogram.getPercentile(100));
+    assertEquals(0, histogram.getMax());
+  }
+
+  public void testLongMaxValue() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    histogram.record(Long.MAX_VALUE);
+    assertEquals(Long.MAX_VALUE, histogram.getMax());
+    // Counted in the last bucket, whose upper bound is the largest latency told apart.
+    assertEquals(LatencyHistogram.MAX_TRACKED, histogram.getPercentile(50));
+    assertEquals(LatencyHistogram.MAX_TRACKED, histogram.getPercentile(100));
+  }
+
+  public void testPercentiles() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (int value = 1; value <= 10; value++) {
+      histogram.record(value);
+    }
+    assertEquals(1, histogram.getPercentile(0));
+    assertEquals(1, histogram.getPercentile(10));
+    assertEquals(2, histogram.getPercentile(11));
+    assertEquals(5, histogram.getPercentile(50));
+    assertEquals(9, histogram.getPercentile(90));
+    assertEquals(10, histogram.getPercentile(99));
+    assertEquals(10, histogram.getPercentile(100));
+  }
+
+  public void testPercentileIsCappedByMax() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    histogram.record(32);
+    // 32 falls in the bucket 32 to 35.
+    assertEquals(32, histogram.getPercentile(50));
+    histogram.record(34);
+    assertEquals(34, histogram.getPercentile(100));
+  }
+
+  public void testReset() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    histogram.record(1000);
+    histogram.reset();
+    assertEquals(0, histogram.getPercentile(50));
+    assertEquals(0, histogram.getMax());
+  }
+}
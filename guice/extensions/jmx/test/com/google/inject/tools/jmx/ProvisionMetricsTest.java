@@ -0,0 +1,140 @@
+/**
+ * Copyright (C) 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.inject.tools.jmx;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.Key;
+import com.google.inject.Provider;
+import com.google.inject.Scopes;
+
+import junit.framework.TestCase;
+
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+
+/**
+ * Tests for {@link ProvisionMetrics} and {@link ProvisionMetricsModule}.
+ */
+public class ProvisionMetricsTest extends TestCase {
+
+  static class Foo {}
+
+  static class Bar {}
+
+  private final ProvisionMetrics metrics = new ProvisionMetrics();
+  private MBeanServer server;
+
+  @Override protected void setUp() {
+    server = MBeanServerFactory.newMBeanServer();
+  }
+
+  private Injector createInjector() {
+    return Guice.createInjector(new ProvisionMetricsModule(metrics), new AbstractModule() {
+      @Override protected void configure() {
+        bind(Foo.class);
+        bind(Bar.class);
+      }
+    });
+  }
+
+  private Object attribute(Key<?> key, String attribute) throws Exception {
+    return server.getAttribute(
+        new ObjectName(Manager.objectName("test", key) + ",metrics=provision"), attribute);
+  }
+
+  public void testCountsProvisions() throws Exception {
+    Injector injector = createInjector();
+    injector.getInstance(Foo.class);
+    injector.getInstance(Foo.class);
+    Manager.manage(server, "test", injector);
+
+    assertEquals(2L, attribute(Key.get(Foo.class), "ProvisionCount"));
+    assertTrue((Long) attribute(Key.get(Foo.class), "MaxProvisionNanos") > 0);
+  }
+
+  public void testDisable() throws Exception {
+    Injector injector = createInjector();
+    injector.getInstance(Foo.class);
+    Manager.manage(server, "test", injector);
+
+    ObjectName name = new ObjectName("test:name=ProvisionMetrics");
+    assertEquals(Boolean.TRUE, server.getAttribute(name, "Enabled"));
+    metrics.setEnabled(false);
+    assertEquals(Boolean.FALSE, server.getAttribute(name, "Enabled"));
+
+    injector.getInstance(Foo.class);
+    injector.getInstance(Bar.class);
+    assertEquals(1L, attribute(Key.get(Foo.class), "ProvisionCount"));
+    // Nothing is allocated for bindings first provisioned while disabled.
+    assertFalse(server.isRegistered(new ObjectName(Manager.objectName("test", Key.get(Bar.class))
+        + ",metrics=provision")));
+
+    metrics.setEnabled(true);
+    injector.getInstance(Foo.class);
+    assertEquals(2L, attribute(Key.get(Foo.class), "ProvisionCount"));
+  }
+
+  public void testReset() throws Exception {
+    Injector injector = createInjector();
+    injector.getInstance(Foo.class);
+    Manager.manage(server, "test", injector);
+
+    server.invoke(new ObjectName("test:name=ProvisionMetrics"), "reset", null, null);
+    assertEquals(0L, attribute(Key.get(Foo.class), "ProvisionCount"));
+    assertEquals(0L, attribute(Key.get(Foo.class), "MaxProvisionNanos"));
+
+    injector.getInstance(Foo.class);
+    assertEquals(1L, attribute(Key.get(Foo.class), "ProvisionCount"));
+  }
+
+  public void testRegistersBindingsProvisionedBeforeAndAfterManage() throws Exception {
+    Injector injector = createInjector();
+    injector.getInstance(Foo.class);
+    Manager.manage(server, "test", injector);
+
+    ObjectName foo = new ObjectName(Manager.objectName("test", Key.get(Foo.class))
+        + ",metrics=provision");
+    ObjectName bar = new ObjectName(Manager.objectName("test", Key.get(Bar.class))
+        + ",metrics=provision");
+    assertTrue(server.isRegistered(foo));
+    assertFalse(server.isRegistered(bar));
+    int bindingCount = metrics.getBindingCount();
+
+    injector.getInstance(Bar.class);
+    assertTrue(server.isRegistered(bar));
+    assertEquals(1L, attribute(Key.get(Bar.class), "ProvisionCount"));
+    assertEquals(bindingCount + 1, metrics.getBindingCount());
+  }
+
+  public void testCountsScopeLookups() throws Exception {
+    Key<Foo> key = Key.get(Foo.class);
+    Provider<Foo> provider = metrics.countLookups(Scopes.SINGLETON).scope(key,
+        new Provider<Foo>() {
+          public Foo get() {
+            return new Foo();
+          }
+        });
+    provider.get();
+    provider.get();
+    Manager.manage(server, "test", createInjector());
+
+    assertEquals(2L, attribute(key, "ScopeLookupCount"));
+  }
+}
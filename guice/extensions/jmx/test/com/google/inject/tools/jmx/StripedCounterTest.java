@@ -0,0 +1,77 @@
+/**
+ * Copyright (C) 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.inject.tools.jmx;
+
+import junit.framework.TestCase;
+
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Tests for {@link StripedCounter}.
+ */
+public class StripedCounterTest extends TestCase {
+
+  public void testSum() {
+    StripedCounter counter = new StripedCounter();
+    assertEquals(0, counter.sum());
+    counter.increment();
+    counter.add(41);
+    counter.add(-2);
+    assertEquals(40, counter.sum());
+    assertFalse(counter.isInflated());
+  }
+
+  public void testSumIncludesCells() {
+    StripedCounter counter = new StripedCounter();
+    counter.add(5);
+    counter.inflate();
+    counter.add(7);
+    counter.increment();
+    assertEquals(13, counter.sum());
+
+    counter.reset();
+    assertEquals(0, counter.sum());
+    counter.increment();
+    assertEquals(1, counter.sum());
+  }
+
+  public void testConcurrentSum() throws Exception {
+    final StripedCounter counter = new StripedCounter();
+    final CountDownLatch go = new CountDownLatch(1);
+    Thread[] threads = new Thread[8];
+    for (int i = 0; i < threads.length; i++) {
+      threads[i] = new Thread() {
+        @Override public void run() {
+          try {
+            go.await();
+          } catch (InterruptedException e) {
+            throw new AssertionError(e);
+          }
+          for (int j = 0; j < 100000; j++) {
+            counter.increment();
+          }
+        }
+      };
+      threads[i].start();
+    }
+    go.countDown();
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    assertEquals(threads.length * 100000L, counter.sum());
+  }
+}
@@ -0,0 +1,204 @@
+/**
+ * Copyright (C) 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.inject.jndi;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.base.Ticker;
+import com.google.common.collect.Maps;
+
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.naming.Context;
+import javax.naming.NamingException;
+
+/**
+ * Caches the objects looked up in JNDI by the providers returned from {@link
+ * JndiIntegration#fromJndi(Class, String, JndiCache)}, so that provisioning
+ * doesn't look them up from the naming context each time, which is a network
+ * round trip for remote contexts. A cache can be shared by many providers;
+ * providers for the same name share the cached object.
+ *
+ * <p>Cached objects expire after a time to live. An expired object is looked
+ * up again by the next provision, or, if the cache has a refresh executor,
+ * it keeps being provided while it is looked up again in the background.
+ * If the executor rejects the refresh, the object is looked up again by the
+ * provision instead. Providers look up their object once when the injector is
+ * created, so the first provisions are hits.
+ *
+ * @since 4.0
+ */
+public final class JndiCache {
+  private static final Logger logger = Logger.getLogger(JndiCache.class.getName());
+
+  private final long timeToLiveNanos;
+  private final Executor refreshExecutor;
+  private final Ticker ticker;
+  private final ConcurrentMap<String, Entry> entries = Maps.newConcurrentMap();
+  private final AtomicLong hitCount = new AtomicLong();
+  private final AtomicLong missCount = new AtomicLong();
+  /** Incremented by each invalidation, so that lookups started before it don't cache. */
+  private final AtomicLong invalidations = new AtomicLong();
+
+  /**
+   * Creates a cache that looks up expired objects again when they are
+   * provisioned.
+   */
+  public JndiCache(long timeToLive, TimeUnit unit) {
+    this(timeToLive, unit, null, Ticker.systemTicker());
+  }
+
+  /**
+   * Creates a cache that keeps providing expired objects while they are
+   * looked up again on {@code refreshExecutor}. If that lookup fails, the
+   * expired object is provided until a later one succeeds.
+   */
+  public JndiCache(long timeToLive, TimeUnit unit, Executor refreshExecutor) {
+    this(timeToLive, unit, checkNotNull(refreshExecutor, "refreshExecutor"),
+        Ticker.systemTicker());
+  }
+
+  JndiCache(long timeToLive, TimeUnit unit, Executor refreshExecutor, Ticker ticker) {
+    checkArgument(timeToLive >= 0, "timeToLive must not be negative: %s", timeToLive);
+    this.timeToLiveNanos = unit.toNanos(timeToLive);
+    this.refreshExecutor = refreshExecutor;
+    this.ticker = ticker;
+  }
+
+  /** Discards the object cached for {@code name}, if any. */
+  public void invalidate(String name) {
+    invalidations.incrementAndGet();
+    entries.remove(name);
+  }
+
+  /** Discards all cached objects. */
+  public void invalidateAll() {
+    invalidations.incrementAndGet();
+    entries.clear();
+  }
+
+  /**
+   * Returns the number of provisions that were served a cached object,
+   * including expired objects being refreshed in the background.
+   */
+  public long hitCount() {
+    return hitCount.get();
+  }
+
+  /** Returns the number of provisions that looked up their object in JNDI. */
+  public long missCount() {
+    return missCount.get();
+  }
+
+  Object get(Context context, String name) throws NamingException {
+    Entry entry = entries.get(name);
+    if (entry != null) {
+      if (ticker.read() - entry.expiresAtNanos < 0) {
+        hitCount.incrementAndGet();
+        return entry.value;
+      }
+      if (refreshExecutor != null && refreshInBackground(context, name, entry)) {
+        hitCount.incrementAndGet();
+        return entry.value;
+      }
+    }
+
+    missCount.incrementAndGet();
+    return load(context, name);
+  }
+
+  /** Looks up and caches the object for {@code name}. */
+  Object load(Context context, String name) throws NamingException {
+    long invalidationsBefore = invalidations.get();
+    Object value = context.lookup(name);
+    Entry loaded = new Entry(value, ticker.read() + timeToLiveNanos);
+    entries.put(name, loaded);
+    discardIfInvalidated(name, loaded, invalidationsBefore);
+    return value;
+  }
+
+  /**
+   * Replaces {@code stale} with a new lookup of {@code name}, unless it was
+   * invalidated or replaced in the meantime.
+   */
+  private void refresh(Context context, String name, Entry stale) throws NamingException {
+    long invalidationsBefore = invalidations.get();
+    Object value = context.lookup(name);
+    Entry loaded = new Entry(value, ticker.read() + timeToLiveNanos);
+    if (entries.replace(name, stale, loaded)) {
+      discardIfInvalidated(name, loaded, invalidationsBefore);
+    }
+  }
+
+  /**
+   * Removes an entry whose lookup started before an invalidation, as the
+   * invalidation may have run before the entry was stored.
+   */
+  private void discardIfInvalidated(String name, Entry loaded, long invalidationsBefore) {
+    if (invalidations.get() != invalidationsBefore) {
+      entries.remove(name, loaded);
+    }
+  }
+
+  /**
+   * Refreshes {@code entry} on the refresh executor, unless it is already
+   * being refreshed. Returns false if the executor rejected the refresh.
+   */
+  private boolean refreshInBackground(final Context context, final String name,
+      final Entry entry) {
+    if (!entry.refreshing.compareAndSet(false, true)) {
+      return true;
+    }
+
+    try {
+      refreshExecutor.execute(new Runnable() {
+        public void run() {
+          try {
+            refresh(context, name, entry);
+          } catch (NamingException e) {
+            logger.log(Level.WARNING, "Failed to refresh JNDI object " + name, e);
+          } finally {
+            entry.refreshing.set(false);
+          }
+        }
+      });
+      return true;
+    } catch (RejectedExecutionException e) {
+      entry.refreshing.set(false);
+      return false;
+    }
+  }
+
+  private static class Entry {
+    final Object value;
+    final long expiresAtNanos;
+    final AtomicBoolean refreshing = new AtomicBoolean();
+
+    Entry(Object value, long expiresAtNanos) {
+      this.value = value;
+      this.expiresAtNanos = expiresAtNanos;
+    }
+  }
+}
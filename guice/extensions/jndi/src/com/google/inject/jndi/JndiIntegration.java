@@ -19,6 +19,9 @@ package com.google.inject.jndi;
 import com.google.inject.Inject;
 import com.google.inject.Provider;
 
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
 import javax.naming.Context;
 import javax.naming.NamingException;
 
@@ -44,6 +47,24 @@ public class JndiIntegration {
     return new JndiProvider<T>(type, name);
   }
 
+  /**
+   * Creates a provider which looks up objects in JNDI using the given name,
+   * and caches them in {@code cache}. The provider looks up its object when
+   * the injector is created, and again when the cached object expires.
+   * Example usage:
+   *
+   * <pre>
+   * JndiCache cache = new JndiCache(5, TimeUnit.MINUTES);
+   * bind(DataSource.class)
+   *     .toProvider(fromJndi(DataSource.class, "java:...", cache));
+   * </pre>
+   *
+   * @since 4.0
+   */
+  public static <T> Provider<T> fromJndi(Class<T> type, String name, JndiCache cache) {
+    return new CachingJndiProvider<T>(type, name, cache);
+  }
+
   static class JndiProvider<T> implements Provider<T> {
 
     @Inject Context context;
@@ -64,4 +85,36 @@ public class JndiIntegration {
       }
     }
   }
+
+  static class CachingJndiProvider<T> extends JndiProvider<T> {
+    private static final Logger logger = Logger.getLogger(CachingJndiProvider.class.getName());
+
+    final JndiCache cache;
+
+    CachingJndiProvider(Class<T> type, String name, JndiCache cache) {
+      super(type, name);
+      this.cache = cache;
+    }
+
+    /**
+     * Looks up the object when the injector is created. Failures are left to
+     * the first provision, which looks it up again.
+     */
+    @Inject void prefetch() {
+      try {
+        cache.load(context, name);
+      } catch (NamingException e) {
+        logger.log(Level.FINE, "Failed to prefetch JNDI object " + name, e);
+      }
+    }
+
+    @Override public T get() {
+      try {
+        return type.cast(cache.get(context, name));
+      }
+      catch (NamingException e) {
+        throw new RuntimeException(e);
+      }
+    }
+  }
 }
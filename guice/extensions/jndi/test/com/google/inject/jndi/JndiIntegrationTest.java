@@ -0,0 +1,238 @@
+/**
+ * Copyright (C) 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.inject.jndi;
+
+import static com.google.inject.jndi.JndiIntegration.fromJndi;
+
+import com.google.common.base.Ticker;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.Provider;
+
+import junit.framework.TestCase;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import javax.naming.Context;
+import javax.naming.NameNotFoundException;
+
+/**
+ * Tests for {@link JndiIntegration}.
+ */
+public class JndiIntegrationTest extends TestCase {
+
+  private final Map<String, Object> objects = Maps.newHashMap();
+  private final List<String> lookups = Lists.newArrayList();
+  private final FakeTicker ticker = new FakeTicker();
+  private Context context;
+  private JndiCache invalidateDuringLookup;
+
+  @Override protected void setUp() {
+    objects.put("java:comp/env/name", "a");
+    context = (Context) Proxy.newProxyInstance(Context.class.getClassLoader(),
+        new Class<?>[] {Context.class}, new InvocationHandler() {
+          public Object invoke(Object proxy, Method method, Object[] args) throws Exception {
+            if (!method.getName().equals("lookup")) {
+              throw new UnsupportedOperationException(method.getName());
+            }
+            String name = (String) args[0];
+            lookups.add(name);
+            if (invalidateDuringLookup != null) {
+              invalidateDuringLookup.invalidateAll();
+            }
+            if (!objects.containsKey(name)) {
+              throw new NameNotFoundException(name);
+            }
+            return objects.get(name);
+          }
+        });
+  }
+
+  public void testFromJndi() {
+    Provider<String> provider = createInjector(fromJndi(String.class, "java:comp/env/name"))
+        .getProvider(String.class);
+
+    assertEquals("a", provider.get());
+    assertEquals("a", provider.get());
+    assertEquals(2, lookups.size());
+  }
+
+  public void testCachedUntilExpired() {
+    JndiCache cache = new JndiCache(1, TimeUnit.MINUTES, null, ticker);
+    Provider<String> provider =
+        createInjector(fromJndi(String.class, "java:comp/env/name", cache))
+            .getProvider(String.class);
+    assertEquals(1, lookups.size()); // prefetched
+
+    objects.put("java:comp/env/name", "b");
+    assertEquals("a", provider.get());
+    ticker.advance(59, TimeUnit.SECONDS);
+    assertEquals("a", provider.get());
+    assertEquals(1, lookups.size());
+
+    ticker.advance(1, TimeUnit.SECONDS);
+    assertEquals("b", provider.get());
+    assertEquals("b", provider.get());
+    assertEquals(2, lookups.size());
+    assertEquals(3, cache.hitCount());
+    assertEquals(1, cache.missCount());
+  }
+
+  public void testInvalidate() {
+    JndiCache cache = new JndiCache(1, TimeUnit.MINUTES, null, ticker);
+    Provider<String> provider =
+        createInjector(fromJndi(String.class, "java:comp/env/name", cache))
+            .getProvider(String.class);
+
+    objects.put("java:comp/env/name", "b");
+    cache.invalidate("java:comp/env/name");
+    assertEquals("b", provider.get());
+    objects.put("java:comp/env/name", "c");
+    cache.invalidateAll();
+    assertEquals("c", provider.get());
+    assertEquals(2, cache.missCount());
+  }
+
+  public void testRefreshInBackground() {
+    final List<Runnable> refreshes = Lists.newArrayList();
+    JndiCache cache = new JndiCache(1, TimeUnit.MINUTES, new Executor() {
+      public void execute(Runnable command) {
+        refreshes.add(command);
+      }
+    }, ticker);
+    Provider<String> provider =
+        createInjector(fromJndi(String.class, "java:comp/env/name", cache))
+            .getProvider(String.class);
+
+    objects.put("java:comp/env/name", "b");
+    ticker.advance(1, TimeUnit.MINUTES);
+    assertEquals("a", provider.get());
+    assertEquals("a", provider.get());
+    assertEquals(1, refreshes.size());
+
+    refreshes.get(0).run();
+    assertEquals("b", provider.get());
+    assertEquals(3, cache.hitCount());
+    assertEquals(0, cache.missCount());
+  }
+
+  public void testRejectedRefreshLooksUpSynchronously() {
+    JndiCache cache = new JndiCache(1, TimeUnit.MINUTES, new Executor() {
+      public void execute(Runnable command) {
+        throw new RejectedExecutionException();
+      }
+    }, ticker);
+    Provider<String> provider =
+        createInjector(fromJndi(String.class, "java:comp/env/name", cache))
+            .getProvider(String.class);
+
+    objects.put("java:comp/env/name", "b");
+    ticker.advance(1, TimeUnit.MINUTES);
+    assertEquals("b", provider.get());
+    assertEquals("b", provider.get());
+
+    objects.put("java:comp/env/name", "c");
+    ticker.advance(1, TimeUnit.MINUTES);
+    assertEquals("c", provider.get());
+    assertEquals(1, cache.hitCount());
+    assertEquals(2, cache.missCount());
+  }
+
+  public void testRefreshDoesNotUndoInvalidate() {
+    final List<Runnable> refreshes = Lists.newArrayList();
+    JndiCache cache = new JndiCache(1, TimeUnit.MINUTES, new Executor() {
+      public void execute(Runnable command) {
+        refreshes.add(command);
+      }
+    }, ticker);
+    Provider<String> provider =
+        createInjector(fromJndi(String.class, "java:comp/env/name", cache))
+            .getProvider(String.class);
+
+    ticker.advance(1, TimeUnit.MINUTES);
+    assertEquals("a", provider.get());
+    objects.put("java:comp/env/name", "b");
+    cache.invalidate("java:comp/env/name");
+    objects.put("java:comp/env/name", "c");
+    assertEquals("c", provider.get());
+
+    // Finishes with the object looked up before the invalidation.
+    objects.put("java:comp/env/name", "b");
+    refreshes.get(0).run();
+    assertEquals("c", provider.get());
+  }
+
+  public void testLookupDoesNotUndoInvalidate() {
+    JndiCache cache = new JndiCache(1, TimeUnit.MINUTES, null, ticker);
+    Provider<String> provider =
+        createInjector(fromJndi(String.class, "java:comp/env/name", cache))
+            .getProvider(String.class);
+    cache.invalidateAll();
+
+    // Invalidates while the next lookup is in progress.
+    objects.put("java:comp/env/name", "b");
+    invalidateDuringLookup = cache;
+    assertEquals("b", provider.get());
+    invalidateDuringLookup = null;
+
+    objects.put("java:comp/env/name", "c");
+    assertEquals("c", provider.get());
+  }
+
+  public void testFailedPrefetchIsRetried() {
+    objects.clear();
+    JndiCache cache = new JndiCache(1, TimeUnit.MINUTES, null, ticker);
+    Provider<String> provider =
+        createInjector(fromJndi(String.class, "java:comp/env/name", cache))
+            .getProvider(String.class);
+
+    objects.put("java:comp/env/name", "a");
+    assertEquals("a", provider.get());
+    assertEquals(2, lookups.size());
+  }
+
+  private Injector createInjector(final Provider<String> provider) {
+    return Guice.createInjector(new AbstractModule() {
+      @Override protected void configure() {
+        bind(Context.class).toInstance(context);
+        bind(String.class).toProvider(provider);
+      }
+    });
+  }
+
+  private static class FakeTicker extends Ticker {
+    private long nanos;
+
+    void advance(long time, TimeUnit unit) {
+      nanos += unit.toNanos(time);
+    }
+
+    @Override public long read() {
+      return nanos;
+    }
+  }
+}
@@ -329,6 +329,12 @@ public abstract class MapBinder<K, V> {
     private boolean permitDuplicates;
     private ImmutableList<Map.Entry<K, Binding<V>>> mapBindings;
 
+    /** whether every value is a singleton or an instance, so the map never changes */
+    private boolean allSingletons;
+
+    /* the map returned by RealMapProvider.get(), computed once if all values are singletons */
+    private volatile Map<K, V> snapshot;
+
     private RealMapBinder(Binder binder, TypeLiteral<K> keyType, TypeLiteral<V> valueType,
         Key<Map<K, V>> mapKey, Key<Map<K, Provider<V>>> providerMapKey,
         Key<Map<K, Set<V>>> multimapKey, Key<Map<K, Set<Provider<V>>>> providerMultimapKey,
@@ -462,6 +468,7 @@ public abstract class MapBinder<K, V> {
 
         Map<K, Provider<V>> providerMapMutable = new LinkedHashMap<K, Provider<V>>();
         List<Map.Entry<K, Binding<V>>> bindingsMutable = Lists.newArrayList();
+        List<Binding<V>> valueBindings = Lists.newArrayList();
         Indexer indexer = new Indexer(injector);
         Multimap<K, IndexedBinding> index = HashMultimap.create();
         Set<K> duplicateKeys = null;
@@ -479,6 +486,7 @@ public abstract class MapBinder<K, V> {
               duplicateKeys.add(entry.getKey());
             }
             bindingsMutable.add(Maps.immutableEntry(entry.getKey(), valueBinding));
+            valueBindings.add(valueBinding);
           }
         }
         if (duplicateKeys != null) {
@@ -515,6 +523,9 @@ public abstract class MapBinder<K, V> {
 
         providerMap = ImmutableMap.copyOf(providerMapMutable);
         mapBindings = ImmutableList.copyOf(bindingsMutable);
+        allSingletons = RealMultibinder.allSingletons(valueBindings);
+        // Computed from the values of the injector initialized before, if any.
+        snapshot = null;
       }
 
       @Override public Map<K, Provider<V>> get() {
@@ -539,6 +550,17 @@ public abstract class MapBinder<K, V> {
       }
 
       @Override public Map<K, V> get() {
+        Map<K, V> result = snapshot;
+        if (result == null) {
+          result = newMap();
+          if (allSingletons) {
+            snapshot = result;
+          }
+        }
+        return result;
+      }
+
+      private Map<K, V> newMap() {
         // We can initialize the internal table efficiently this way and then swap the values
         // one by one.
         Map<K, Object> map = new LinkedHashMap<K, Object>(mapProvider.get());
@@ -632,13 +654,14 @@ public abstract class MapBinder<K, V> {
             binder.getProvider(entrySetKey);
         // Binds a Map<K, Set<Provider<V>>> from a collection of Map<Entry<K, Provider<V>> if
         // permitDuplicates was called.
-        binder.bind(providerMultimapKey).toProvider(
-            new RealProviderMultimapProvider(dependencies, entrySetProvider));
+        RealProviderMultimapProvider providerMultimapProvider =
+            new RealProviderMultimapProvider(dependencies, entrySetProvider);
+        binder.bind(providerMultimapKey).toProvider(providerMultimapProvider);
 
         Provider<Map<K, Set<Provider<V>>>> multimapProvider =
             binder.getProvider(providerMultimapKey);
         binder.bind(multimapKey).toProvider(
-            new RealMultimapProvider(dependencies, multimapProvider));
+            new RealMultimapProvider(dependencies, multimapProvider, providerMultimapProvider));
       }
 
       @Override public int hashCode() {
@@ -655,6 +678,11 @@ public abstract class MapBinder<K, V> {
         private final ImmutableSet<Dependency<?>> dependencies;
         private final Provider<Set<Entry<K, Provider<V>>>> entrySetProvider;
         private Map<K, Set<Provider<V>>> providerMultimap;
+        private boolean allSingletons;
+
+        /* the multimap returned by RealMultimapProvider.get(), computed once if all values are
+         * singletons */
+        private volatile Map<K, Set<V>> snapshot;
 
         private RealProviderMultimapProvider(ImmutableSet<Dependency<?>> dependencies,
             Provider<Set<Entry<K, Provider<V>>>> entrySetProvider) {
@@ -667,7 +695,9 @@ public abstract class MapBinder<K, V> {
         @Inject void initialize(Injector injector) {
           Map<K, ImmutableSet.Builder<Provider<V>>> providerMultimapMutable =
               new LinkedHashMap<K, ImmutableSet.Builder<Provider<V>>>();
+          List<Binding<V>> valueBindings = Lists.newArrayList();
           for (Entry<K, Provider<V>> entry : entrySetProvider.get()) {
+            valueBindings.add(injector.getBinding(((ProviderMapEntry<K, V>) entry).getValueKey()));
             if (!providerMultimapMutable.containsKey(entry.getKey())) {
               providerMultimapMutable.put(
                   entry.getKey(), ImmutableSet.<Provider<V>>builder());
@@ -682,6 +712,9 @@ public abstract class MapBinder<K, V> {
             providerMultimapBuilder.put(entry.getKey(), entry.getValue().build());
           }
           providerMultimap = providerMultimapBuilder.build();
+          allSingletons = RealMultibinder.allSingletons(valueBindings);
+          // Computed from the values of the injector initialized before, if any.
+          snapshot = null;
         }
 
         @Override public Map<K, Set<Provider<V>>> get() {
@@ -697,16 +730,30 @@ public abstract class MapBinder<K, V> {
           extends RealMapBinderProviderWithDependencies<Map<K, Set<V>>> {
         private final ImmutableSet<Dependency<?>> dependencies;
         private final Provider<Map<K, Set<Provider<V>>>> multimapProvider;
+        private final RealProviderMultimapProvider providerMultimapProvider;
 
         RealMultimapProvider(
             ImmutableSet<Dependency<?>> dependencies,
-            Provider<Map<K, Set<Provider<V>>>> multimapProvider) {
+            Provider<Map<K, Set<Provider<V>>>> multimapProvider,
+            RealProviderMultimapProvider providerMultimapProvider) {
           super(multimapKey);
           this.dependencies = dependencies;
           this.multimapProvider = multimapProvider;
+          this.providerMultimapProvider = providerMultimapProvider;
         }
 
         @Override public Map<K, Set<V>> get() {
+          Map<K, Set<V>> result = providerMultimapProvider.snapshot;
+          if (result == null) {
+            result = newMultimap();
+            if (providerMultimapProvider.allSingletons) {
+              providerMultimapProvider.snapshot = result;
+            }
+          }
+          return result;
+        }
+
+        private Map<K, Set<V>> newMultimap() {
           ImmutableMap.Builder<K, Set<V>> multimapBuilder = ImmutableMap.builder();
           for (Entry<K, Set<Provider<V>>> entry : multimapProvider.get().entrySet()) {
             K key = entry.getKey();
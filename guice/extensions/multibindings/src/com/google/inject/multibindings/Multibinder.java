@@ -37,12 +37,14 @@ import com.google.inject.Injector;
 import com.google.inject.Key;
 import com.google.inject.Module;
 import com.google.inject.Provider;
+import com.google.inject.Scopes;
 import com.google.inject.TypeLiteral;
 import com.google.inject.binder.LinkedBindingBuilder;
 import com.google.inject.internal.Errors;
 import com.google.inject.spi.BindingTargetVisitor;
 import com.google.inject.spi.Dependency;
 import com.google.inject.spi.HasDependencies;
+import com.google.inject.spi.InstanceBinding;
 import com.google.inject.spi.Message;
 import com.google.inject.spi.ProviderInstanceBinding;
 import com.google.inject.spi.ProviderWithDependencies;
@@ -259,6 +261,15 @@ public abstract class Multibinder<T> {
     /** whether duplicates are allowed. Possibly configured by a different instance */
     private boolean permitDuplicates;
 
+    /** whether every element is a singleton or an instance, so the set never changes */
+    private boolean allSingletons;
+
+    /* the set returned by get(), computed once if all elements are singletons */
+    private volatile ImmutableSet<T> snapshot;
+
+    /* the providers of each element. null until first requested */
+    private volatile ImmutableList<Provider<T>> providers;
+
     private RealMultibinder(Binder binder, TypeLiteral<T> elementType, Key<Set<T>> setKey,
         Key<Collection<Provider<T>>> collectionOfProvidersKey) {
       this.binder = checkNotNull(binder, "binder");
@@ -313,7 +324,24 @@ public abstract class Multibinder<T> {
       this.bindings = ImmutableList.copyOf(bindings);
       this.dependencies = ImmutableSet.copyOf(dependencies);
       this.permitDuplicates = permitsDuplicates(injector);
+      this.allSingletons = allSingletons(this.bindings);
       this.binder = null;
+      // Computed from the bindings of the injector initialized before, if any.
+      this.snapshot = null;
+      this.providers = null;
+    }
+
+    /**
+     * Returns true if each binding always provides the same instance, in which case the
+     * aggregated collection can be computed once and shared by every injection.
+     */
+    static boolean allSingletons(Iterable<? extends Binding<?>> bindings) {
+      for (Binding<?> binding : bindings) {
+        if (!(binding instanceof InstanceBinding) && !Scopes.isSingleton(binding)) {
+          return false;
+        }
+      }
+      return true;
     }
 
     // This is forked from com.google.common.collect.Maps.capacity 
@@ -344,6 +372,18 @@ public abstract class Multibinder<T> {
     public Set<T> get() {
       checkConfiguration(isInitialized(), "Multibinder is not initialized");
 
+      ImmutableSet<T> result = snapshot;
+      if (result == null) {
+        result = newSet();
+        if (allSingletons) {
+          // Racing threads compute equal sets of the same singletons, either one may win.
+          snapshot = result;
+        }
+      }
+      return result;
+    }
+
+    private ImmutableSet<T> newSet() {
       Map<T, Binding<T>> result = new LinkedHashMap<T, Binding<T>>(mapCapacity(bindings.size()));
       for (Binding<T> binding : bindings) {
         final T newValue = binding.getProvider().get();
@@ -434,13 +474,18 @@ public abstract class Multibinder<T> {
         implements ProviderWithDependencies<Collection<Provider<T>>> {
       @Override public Collection<Provider<T>> get() {
         checkConfiguration(isInitialized(), "Multibinder is not initialized");
-        int size = bindings.size();
-        @SuppressWarnings("unchecked")  // safe because we only put Provider<T> into it.
-        Provider<T>[] providers = new Provider[size];
-        for (int i = 0; i < size; i++) {
-          providers[i] = bindings.get(i).getProvider();
+        ImmutableList<Provider<T>> result = providers;
+        if (result == null) {
+          int size = bindings.size();
+          @SuppressWarnings("unchecked")  // safe because we only put Provider<T> into it.
+          Provider<T>[] providerArray = new Provider[size];
+          for (int i = 0; i < size; i++) {
+            providerArray[i] = bindings.get(i).getProvider();
+          }
+          result = ImmutableList.copyOf(providerArray);
+          providers = result;
         }
-        return ImmutableList.copyOf(providers);
+        return result;
       }
 
       @Override public Set<Dependency<?>> getDependencies() {
@@ -44,6 +44,7 @@ import com.google.inject.Module;
 import com.google.inject.Provider;
 import com.google.inject.Provides;
 import com.google.inject.ProvisionException;
+import com.google.inject.Scopes;
 import com.google.inject.Stage;
 import com.google.inject.TypeLiteral;
 import com.google.inject.internal.WeakKeySetUtils;
@@ -577,6 +578,63 @@ public class MapBinderTest extends TestCase {
     assertEquals(1, (int) injector.getInstance(Key.get(mapOfInteger)).get("one"));
   }
 
+  public void testMapBinderMapOfSingletonsIsShared() {
+    Injector injector = Guice.createInjector(new AbstractModule() {
+      @Override protected void configure() {
+        MapBinder<String, String> mapBinder = MapBinder.newMapBinder(
+            binder(), String.class, String.class).permitDuplicates();
+        mapBinder.addBinding("a").toInstance("A");
+        mapBinder.addBinding("b").toProvider(Providers.of("B")).asEagerSingleton();
+      }
+    });
+
+    Map<String, String> first = injector.getInstance(Key.get(mapOfString));
+    assertEquals(mapOf("a", "A", "b", "B"), first);
+    assertSame(first, injector.getInstance(Key.get(mapOfString)));
+    assertSame(injector.getInstance(Key.get(mapOfSetOfString)),
+        injector.getInstance(Key.get(mapOfSetOfString)));
+  }
+
+  public void testMapBinderMapOfSingletonsIsNotSharedAcrossInjectors() {
+    // Map binders look up providers, so unlike a multibinder's, their elements can't be replayed
+    // into a second injector. The module is configured again instead.
+    Module module = new AbstractModule() {
+      @Override protected void configure() {
+        MapBinder.newMapBinder(binder(), String.class, Object.class).permitDuplicates()
+            .addBinding("a").to(Object.class).in(Scopes.SINGLETON);
+      }
+    };
+    Key<Map<String, Object>> mapKey = Key.get(new TypeLiteral<Map<String, Object>>() {});
+    Key<Map<String, Set<Object>>> multimapKey =
+        Key.get(new TypeLiteral<Map<String, Set<Object>>>() {});
+
+    Injector first = Guice.createInjector(module);
+    Object firstValue = first.getInstance(mapKey).get("a");
+    assertEquals(ImmutableSet.of(firstValue), first.getInstance(multimapKey).get("a"));
+
+    Injector second = Guice.createInjector(module);
+    Object secondValue = second.getInstance(mapKey).get("a");
+    assertNotSame(firstValue, secondValue);
+    assertEquals(ImmutableSet.of(secondValue), second.getInstance(multimapKey).get("a"));
+  }
+
+  public void testMapBinderMapWithUnscopedValueIsNotShared() {
+    Injector injector = Guice.createInjector(new AbstractModule() {
+      @Override protected void configure() {
+        MapBinder<String, String> mapBinder = MapBinder.newMapBinder(
+            binder(), String.class, String.class).permitDuplicates();
+        mapBinder.addBinding("a").toInstance("A");
+        mapBinder.addBinding("b").toProvider(Providers.of("B"));
+      }
+    });
+
+    Map<String, String> first = injector.getInstance(Key.get(mapOfString));
+    assertEquals(mapOf("a", "A", "b", "B"), first);
+    assertNotSame(first, injector.getInstance(Key.get(mapOfString)));
+    assertNotSame(injector.getInstance(Key.get(mapOfSetOfString)),
+        injector.getInstance(Key.get(mapOfSetOfString)));
+  }
+
   public void testSourceLinesInMapBindings() {
     try {
       Guice.createInjector(new AbstractModule() {
@@ -344,6 +344,60 @@ public class MultibinderTest extends TestCase {
         setOf(module), BOTH, false, 0, providerInstance(1));
   }
 
+  public void testMultibinderSetOfSingletonsIsShared() {
+    Injector injector = Guice.createInjector(new AbstractModule() {
+      protected void configure() {
+        Multibinder<String> multibinder = Multibinder.newSetBinder(binder(), String.class);
+        multibinder.addBinding().toInstance("A");
+        multibinder.addBinding().toProvider(Providers.of("B")).in(Scopes.SINGLETON);
+      }
+    });
+
+    Set<String> first = injector.getInstance(Key.get(setOfString));
+    assertEquals(setOf("A", "B"), first);
+    assertSame(first, injector.getInstance(Key.get(setOfString)));
+    assertSame(injector.getInstance(Key.get(collectionOfProvidersOfStrings)),
+        injector.getInstance(Key.get(collectionOfProvidersOfStrings)));
+  }
+
+  public void testMultibinderSetOfSingletonsIsNotSharedAcrossInjectors() {
+    // Both injectors initialize the same multibinder.
+    Module module = Elements.getModule(Elements.getElements(new AbstractModule() {
+      protected void configure() {
+        Multibinder.newSetBinder(binder(), Object.class)
+            .addBinding().to(Object.class).in(Scopes.SINGLETON);
+      }
+    }));
+    Key<Set<Object>> setKey = Key.get(new TypeLiteral<Set<Object>>() {});
+    Key<Collection<Provider<Object>>> providersKey =
+        Key.get(new TypeLiteral<Collection<Provider<Object>>>() {});
+
+    Injector first = Guice.createInjector(module);
+    Object firstElement = Iterables.getOnlyElement(first.getInstance(setKey));
+    assertSame(firstElement,
+        Iterables.getOnlyElement(first.getInstance(providersKey)).get());
+
+    Injector second = Guice.createInjector(module);
+    Object secondElement = Iterables.getOnlyElement(second.getInstance(setKey));
+    assertNotSame(firstElement, secondElement);
+    assertSame(secondElement,
+        Iterables.getOnlyElement(second.getInstance(providersKey)).get());
+  }
+
+  public void testMultibinderSetWithUnscopedElementIsNotShared() {
+    Injector injector = Guice.createInjector(new AbstractModule() {
+      protected void configure() {
+        Multibinder<String> multibinder = Multibinder.newSetBinder(binder(), String.class);
+        multibinder.addBinding().toInstance("A");
+        multibinder.addBinding().toProvider(Providers.of("B"));
+      }
+    });
+
+    Set<String> first = injector.getInstance(Key.get(setOfString));
+    assertEquals(setOf("A", "B"), first);
+    assertNotSame(first, injector.getInstance(Key.get(setOfString)));
+  }
+
   public void testMultibinderSetForbidsDuplicateElements() {
     Module module1 = new AbstractModule() {
       protected void configure() {
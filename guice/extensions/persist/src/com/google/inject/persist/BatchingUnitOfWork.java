@@ -0,0 +1,84 @@
+/**
+ * Copyright (C) 2014 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.inject.persist;
+
+/**
+ * A {@link UnitOfWork} that can group many short {@link Transactional} calls into fewer commits.
+ * This is mostly useful for bulk or ingest work, where thousands of small transactional calls
+ * would otherwise each open and commit their own transaction.
+ *
+ * <p>Inside a batch, outermost {@code @Transactional} invocations on the calling thread join a
+ * shared transaction. Once {@code batchSize} of them have completed, pending changes are flushed,
+ * the transaction is committed and the persistence context is cleared, so that memory use stays
+ * bounded. Nested invocations keep their usual joining semantics.
+ *
+ * <p>If an invocation triggers a rollback according to its {@link Transactional#rollbackOn()}
+ * and {@link Transactional#ignore()} clauses, all uncommitted work of the current batch is rolled
+ * back, not only the work of the failing invocation. Callers that cannot tolerate this should
+ * use smaller batches or plain units of work.
+ *
+ * <pre>
+ *   unitOfWork.beginBatch(500);
+ *   try {
+ *     for (Record record : records) {
+ *       importer.importRecord(record); // @Transactional
+ *     }
+ *   } finally {
+ *     unitOfWork.end(); // commits whatever is still pending
+ *   }
+ * </pre>
+ *
+ * <p>Batching of the JDBC statements themselves is a persistence provider setting (for instance
+ * {@code hibernate.jdbc.batch_size}) and should be configured to match the batch size.
+ *
+ * @since 4.0
+ */
+public interface BatchingUnitOfWork extends UnitOfWork {
+
+  /**
+   * Starts a batched Unit Of Work using the batch size configured on the persist module.
+   *
+   * @see #beginBatch(int)
+   */
+  void beginBatch();
+
+  /**
+   * Starts a batched Unit Of Work. Underneath, causes a session to the data layer to be opened,
+   * exactly like {@link #begin()}. Unlike {@link #begin()}, the transactions of outermost
+   * {@code @Transactional} invocations are only committed every {@code batchSize} invocations,
+   * and when the batch is flushed or ended.
+   *
+   * <p>If a Unit Of Work is already in progress on the calling thread, for instance because an
+   * {@code EntityManager} was injected, the batch joins it, and {@link #end()} ends both.
+   *
+   * @param batchSize the number of outermost transactional invocations per commit, must be
+   *     positive.
+   * @throws IllegalStateException if a batch is already in progress on the calling thread.
+   */
+  void beginBatch(int batchSize);
+
+  /**
+   * Flushes and commits all work pending in the current batch, then clears the persistence
+   * context. Does nothing if no batch is in progress on the calling thread.
+   */
+  void flushBatch();
+
+  /**
+   * Returns true if a batched Unit Of Work is in progress on the calling thread.
+   */
+  boolean isBatching();
+}
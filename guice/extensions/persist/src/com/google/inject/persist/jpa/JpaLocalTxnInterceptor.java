@@ -48,6 +48,12 @@ class JpaLocalTxnInterceptor implements MethodInterceptor {
 
   public Object invoke(MethodInvocation methodInvocation) throws Throwable {
 
+    // Outermost invocations inside a batched unit of work share the batch transaction.
+    JpaPersistService.Batch batch = emProvider.currentBatch();
+    if (null != batch && !batch.inInvocation) {
+      return invokeInBatch(methodInvocation, batch);
+    }
+
     // Should we start a unit of work?
     if (!emProvider.isWorking()) {
       emProvider.begin();
@@ -101,6 +107,51 @@ class JpaLocalTxnInterceptor implements MethodInterceptor {
     return result;
   }
 
+  /**
+   * Runs an outermost transactional invocation as part of {@code batch}, committing the batch
+   * transaction once enough invocations have completed.
+   */
+  private Object invokeInBatch(MethodInvocation methodInvocation, JpaPersistService.Batch batch)
+      throws Throwable {
+    Transactional transactional = readTransactionMetadata(methodInvocation);
+    EntityManager em = this.emProvider.get();
+
+    final EntityTransaction txn = em.getTransaction();
+    if (!txn.isActive()) {
+      txn.begin();
+    }
+
+    Object result;
+    batch.inInvocation = true;
+    try {
+      result = methodInvocation.proceed();
+
+    } catch (Exception e) {
+      if (rollbackIfNecessary(transactional, e, txn)) {
+        // An ignored exception keeps its work in the batch, like a normal return.
+        completeInBatch(em, batch);
+      } else {
+        // Everything pending in this batch was rolled back with it, so detach it as well.
+        batch.pending = 0;
+        em.clear();
+      }
+
+      //propagate whatever exception is thrown anyway
+      throw e;
+    } finally {
+      batch.inInvocation = false;
+    }
+
+    completeInBatch(em, batch);
+    return result;
+  }
+
+  private void completeInBatch(EntityManager em, JpaPersistService.Batch batch) {
+    if (++batch.pending >= batch.size) {
+      emProvider.commitBatch(em);
+    }
+  }
+
   // TODO(dhanji): Cache this method's results.
   private Transactional readTransactionMetadata(MethodInvocation methodInvocation) {
     Transactional transactional;
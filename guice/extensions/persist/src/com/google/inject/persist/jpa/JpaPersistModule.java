@@ -18,10 +18,12 @@ package com.google.inject.persist.jpa;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Lists;
+import com.google.inject.BindingAnnotation;
 import com.google.inject.Inject;
 import com.google.inject.Provides;
 import com.google.inject.Singleton;
 import com.google.inject.TypeLiteral;
+import com.google.inject.persist.BatchingUnitOfWork;
 import com.google.inject.persist.PersistModule;
 import com.google.inject.persist.PersistService;
 import com.google.inject.persist.UnitOfWork;
@@ -32,6 +34,8 @@ import com.google.inject.util.Providers;
 import org.aopalliance.intercept.MethodInterceptor;
 import org.aopalliance.intercept.MethodInvocation;
 
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
 import java.lang.reflect.AccessibleObject;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
@@ -57,6 +61,7 @@ public final class JpaPersistModule extends PersistModule {
   }
 
   private Map<?,?> properties;
+  private int batchSize = 50;
   private MethodInterceptor transactionInterceptor;
 
   @Override protected void configurePersistence() {
@@ -66,6 +71,7 @@ public final class JpaPersistModule extends PersistModule {
 
     bind(PersistService.class).to(JpaPersistService.class);
     bind(UnitOfWork.class).to(JpaPersistService.class);
+    bind(BatchingUnitOfWork.class).to(JpaPersistService.class);
     bind(EntityManager.class).toProvider(JpaPersistService.class);
     bind(EntityManagerFactory.class)
         .toProvider(JpaPersistService.EntityManagerFactoryProvider.class);
@@ -87,6 +93,10 @@ public final class JpaPersistModule extends PersistModule {
     return properties;
   }
 
+  @Provides @BatchSize int provideBatchSize() {
+    return batchSize;
+  }
+
   /**
    * Configures the JPA persistence provider with a set of properties.
    * 
@@ -98,6 +108,21 @@ public final class JpaPersistModule extends PersistModule {
     return this;
   }
 
+  /**
+   * Configures the number of outermost transactional invocations committed together by
+   * {@link BatchingUnitOfWork#beginBatch()}. Defaults to 50.
+   *
+   * <p>This does not configure JDBC statement batching, which is a property of the persistence
+   * provider (for instance {@code hibernate.jdbc.batch_size}), but the two usually go together.
+   *
+   * @param batchSize A positive number of transactional invocations per commit.
+   */
+  public JpaPersistModule batchSize(int batchSize) {
+    Preconditions.checkArgument(batchSize > 0, "Batch size must be positive, was %s", batchSize);
+    this.batchSize = batchSize;
+    return this;
+  }
+
   private final List<Class<?>> dynamicFinders = Lists.newArrayList();
 
   /**
@@ -178,4 +203,10 @@ public final class JpaPersistModule extends PersistModule {
     }
     return valid;
   }
+
+  /**
+   * A binding annotation for the default batch size of {@link BatchingUnitOfWork}.
+   */
+  @Retention(RetentionPolicy.RUNTIME)
+  @BindingAnnotation @interface BatchSize {}
 }
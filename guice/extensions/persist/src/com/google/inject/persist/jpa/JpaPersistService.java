@@ -21,8 +21,8 @@ import com.google.common.base.Preconditions;
 import com.google.inject.Inject;
 import com.google.inject.Provider;
 import com.google.inject.Singleton;
+import com.google.inject.persist.BatchingUnitOfWork;
 import com.google.inject.persist.PersistService;
-import com.google.inject.persist.UnitOfWork;
 
 import java.lang.annotation.Documented;
 import java.lang.annotation.ElementType;
@@ -33,23 +33,28 @@ import java.util.Map;
 
 import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
+import javax.persistence.EntityTransaction;
 import javax.persistence.Persistence;
 
 /**
  * @author Dhanji R. Prasanna (dhanji@gmail.com)
  */
 @Singleton
-class JpaPersistService implements Provider<EntityManager>, UnitOfWork, PersistService {
+class JpaPersistService implements Provider<EntityManager>, BatchingUnitOfWork, PersistService {
   private final ThreadLocal<EntityManager> entityManager = new ThreadLocal<EntityManager>();
+  private final ThreadLocal<Batch> batch = new ThreadLocal<Batch>();
 
   private final String persistenceUnitName;
   private final Map<?,?> persistenceProperties;
+  private final int defaultBatchSize;
 
   @Inject
   public JpaPersistService(@Jpa String persistenceUnitName,
-      @Nullable @Jpa Map<?,?> persistenceProperties) {
+      @Nullable @Jpa Map<?,?> persistenceProperties,
+      @JpaPersistModule.BatchSize int defaultBatchSize) {
     this.persistenceUnitName = persistenceUnitName;
     this.persistenceProperties = persistenceProperties;
+    this.defaultBatchSize = defaultBatchSize;
   }
 
   public EntityManager get() {
@@ -82,14 +87,87 @@ class JpaPersistService implements Provider<EntityManager>, UnitOfWork, PersistS
 
     // Let's not penalize users for calling end() multiple times.
     if (null == em) {
+      batch.remove();
       return;
     }
 
     try {
-      em.close();
+      if (null != batch.get()) {
+        commitBatch(em);
+      }
+    } finally {
+      batch.remove();
+      try {
+        em.close();
+      }
+      finally {
+        entityManager.remove();
+      }
     }
-    finally {
-      entityManager.remove();
+  }
+
+  public void beginBatch() {
+    beginBatch(defaultBatchSize);
+  }
+
+  public void beginBatch(int batchSize) {
+    Preconditions.checkArgument(batchSize > 0, "Batch size must be positive, was %s", batchSize);
+    Preconditions.checkState(null == batch.get(),
+        "Batch already begun on this thread. Looks like you have called"
+        + " BatchingUnitOfWork.beginBatch() twice without a balancing call to end() in between.");
+
+    // Injecting an EntityManager begins work implicitly, so join the work in progress if any.
+    if (!isWorking()) {
+      begin();
+    }
+    batch.set(new Batch(batchSize));
+  }
+
+  public void flushBatch() {
+    EntityManager em = entityManager.get();
+    if (null != em && null != batch.get()) {
+      commitBatch(em);
+    }
+  }
+
+  public boolean isBatching() {
+    return batch.get() != null;
+  }
+
+  /** Returns the batch in progress on this thread, or null if there is none. */
+  Batch currentBatch() {
+    return batch.get();
+  }
+
+  /** Flushes, commits and clears the batch transaction of {@code em}, if one is active. */
+  void commitBatch(EntityManager em) {
+    Batch current = batch.get();
+    if (null != current) {
+      current.pending = 0;
+    }
+
+    EntityTransaction txn = em.getTransaction();
+    if (txn.isActive()) {
+      em.flush();
+      txn.commit();
+      em.clear();
+    }
+  }
+
+  /**
+   * Per-thread state of a batched unit of work.
+   */
+  static final class Batch {
+    final int size;
+
+    /** Outermost transactional invocations completed since the last commit. */
+    int pending;
+
+    /** True while an outermost transactional invocation of this batch is running. */
+    boolean inInvocation;
+
+    Batch(int size) {
+      this.size = size;
     }
   }
 
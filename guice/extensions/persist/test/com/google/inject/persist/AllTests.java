@@ -16,6 +16,7 @@
 
 package com.google.inject.persist;
 
+import com.google.inject.persist.jpa.BatchingUnitOfWorkTest;
 import com.google.inject.persist.jpa.ClassLevelManagedLocalTransactionsTest;
 import com.google.inject.persist.jpa.CustomPropsEntityManagerFactoryProvisionTest;
 import com.google.inject.persist.jpa.EntityManagerFactoryProvisionTest;
@@ -40,6 +41,7 @@ public class AllTests {
     TestSuite suite = new TestSuite();
 
     suite.addTestSuite(EdslTest.class);
+    suite.addTestSuite(BatchingUnitOfWorkTest.class);
     suite.addTestSuite(ClassLevelManagedLocalTransactionsTest.class);
     suite.addTestSuite(CustomPropsEntityManagerFactoryProvisionTest.class);
     suite.addTestSuite(EntityManagerFactoryProvisionTest.class);
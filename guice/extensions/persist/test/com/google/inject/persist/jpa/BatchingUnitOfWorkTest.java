@@ -0,0 +1,202 @@
+/**
+ * Copyright (C) 2014 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.inject.persist.jpa;
+
+import com.google.inject.Guice;
+import com.google.inject.Inject;
+import com.google.inject.Injector;
+import com.google.inject.persist.BatchingUnitOfWork;
+import com.google.inject.persist.PersistService;
+import com.google.inject.persist.Transactional;
+import com.google.inject.persist.UnitOfWork;
+
+import junit.framework.TestCase;
+
+import java.util.Date;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * Tests grouping of outermost transactional invocations with {@link BatchingUnitOfWork}.
+ */
+public class BatchingUnitOfWorkTest extends TestCase {
+  private Injector injector;
+  private static final String UNIQUE_TEXT = BatchingUnitOfWorkTest.class.getSimpleName()
+      + " batched text " + new Date();
+
+  @Override
+  public void setUp() {
+    injector = Guice.createInjector(new JpaPersistModule("testUnit").batchSize(3));
+
+    //startup persistence
+    injector.getInstance(PersistService.class).start();
+  }
+
+  @Override
+  public void tearDown() {
+    injector.getInstance(EntityManagerFactory.class).close();
+  }
+
+  public void testSameInstanceAsUnitOfWork() {
+    assertSame(injector.getInstance(UnitOfWork.class),
+        injector.getInstance(BatchingUnitOfWork.class));
+  }
+
+  public void testCommitsEveryBatchSizeInvocations() {
+    BatchingUnitOfWork unitOfWork = injector.getInstance(BatchingUnitOfWork.class);
+    TransactionalObject txnal = injector.getInstance(TransactionalObject.class);
+
+    unitOfWork.beginBatch();
+    try {
+      assertTrue(unitOfWork.isBatching());
+      EntityManager em = injector.getInstance(EntityManager.class);
+
+      JpaTestEntity first = txnal.persist(UNIQUE_TEXT + 1);
+      txnal.persist(UNIQUE_TEXT + 2);
+      assertTrue("batch transaction was committed too early", em.getTransaction().isActive());
+      assertEquals(2, em.createQuery("from JpaTestEntity where text like :text")
+          .setParameter("text", UNIQUE_TEXT + "%").getResultList().size());
+
+      txnal.persist(UNIQUE_TEXT + 3);
+      assertFalse("batch transaction was not committed", em.getTransaction().isActive());
+      assertFalse("persistence context was not cleared after commit", em.contains(first));
+
+      txnal.persist(UNIQUE_TEXT + 4);
+      assertTrue(em.getTransaction().isActive());
+    } finally {
+      unitOfWork.end();
+    }
+    assertFalse(unitOfWork.isBatching());
+
+    assertEquals(4, countPersisted(UNIQUE_TEXT + "%"));
+  }
+
+  public void testNestedInvocationsCountOnce() {
+    BatchingUnitOfWork unitOfWork = injector.getInstance(BatchingUnitOfWork.class);
+    TransactionalObject txnal = injector.getInstance(TransactionalObject.class);
+    String text = UNIQUE_TEXT + " nested";
+
+    unitOfWork.beginBatch();
+    try {
+      EntityManager em = injector.getInstance(EntityManager.class);
+      txnal.persistTwice(text);
+      txnal.persistTwice(text);
+      assertTrue(em.getTransaction().isActive());
+      unitOfWork.flushBatch();
+      assertFalse(em.getTransaction().isActive());
+    } finally {
+      unitOfWork.end();
+    }
+
+    assertEquals(4, countPersisted(text + "%"));
+  }
+
+  public void testRollbackDiscardsPendingBatch() {
+    BatchingUnitOfWork unitOfWork = injector.getInstance(BatchingUnitOfWork.class);
+    TransactionalObject txnal = injector.getInstance(TransactionalObject.class);
+    String text = UNIQUE_TEXT + " rolled back";
+
+    unitOfWork.beginBatch(10);
+    try {
+      txnal.persist(text + 1);
+      try {
+        txnal.persistAndFail(text + 2);
+        fail();
+      } catch (IllegalStateException expected) {
+      }
+      txnal.persist(text + 3);
+    } finally {
+      unitOfWork.end();
+    }
+
+    assertEquals(1, countPersisted(text + "%"));
+  }
+
+  public void testJoinsUnitOfWorkInProgress() {
+    BatchingUnitOfWork unitOfWork = injector.getInstance(BatchingUnitOfWork.class);
+    unitOfWork.begin();
+    EntityManager em = injector.getInstance(EntityManager.class);
+
+    unitOfWork.beginBatch();
+    try {
+      assertTrue(unitOfWork.isBatching());
+      assertSame(em, injector.getInstance(EntityManager.class));
+    } finally {
+      unitOfWork.end();
+    }
+    assertFalse(unitOfWork.isBatching());
+    assertFalse(em.isOpen());
+  }
+
+  public void testBatchAlreadyBegun() {
+    BatchingUnitOfWork unitOfWork = injector.getInstance(BatchingUnitOfWork.class);
+    unitOfWork.beginBatch();
+    try {
+      unitOfWork.beginBatch(5);
+      fail();
+    } catch (IllegalStateException expected) {
+    } finally {
+      unitOfWork.end();
+    }
+  }
+
+  public void testInvalidBatchSize() {
+    try {
+      injector.getInstance(BatchingUnitOfWork.class).beginBatch(0);
+      fail();
+    } catch (IllegalArgumentException expected) {
+    }
+    assertFalse(injector.getInstance(BatchingUnitOfWork.class).isBatching());
+  }
+
+  private int countPersisted(String pattern) {
+    UnitOfWork unitOfWork = injector.getInstance(UnitOfWork.class);
+    unitOfWork.begin();
+    try {
+      return injector.getInstance(EntityManager.class)
+          .createQuery("from JpaTestEntity where text like :text")
+          .setParameter("text", pattern).getResultList().size();
+    } finally {
+      unitOfWork.end();
+    }
+  }
+
+  public static class TransactionalObject {
+    @Inject EntityManager em;
+
+    @Transactional
+    public JpaTestEntity persist(String text) {
+      JpaTestEntity entity = new JpaTestEntity();
+      entity.setText(text);
+      em.persist(entity);
+      return entity;
+    }
+
+    @Transactional
+    public void persistTwice(String text) {
+      persist(text + hashCode() + "a" + System.nanoTime());
+      persist(text + hashCode() + "b" + System.nanoTime());
+    }
+
+    @Transactional
+    public void persistAndFail(String text) {
+      persist(text);
+      throw new IllegalStateException();
+    }
+  }
+}
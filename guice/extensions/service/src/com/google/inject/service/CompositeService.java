@@ -17,28 +17,52 @@ package com.google.inject.service;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.LinkedHashMultimap;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.SetMultimap;
 import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
 import com.google.inject.Inject;
 import com.google.inject.Injector;
 import com.google.inject.Key;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 import java.util.concurrent.Future;
 import java.util.concurrent.FutureTask;
 
 /**
  * A service that composes other services together in a fixed order.
  *
+ * <p>If an executor is given with {@link #executor(Executor)}, services are instead started and
+ * stopped concurrently on that executor, honoring the dependencies declared with
+ * {@link #dependsOn(Key, Key)}: a service starts once all of its dependencies have started, and
+ * stops once all services depending on it have stopped. Independent services transition in
+ * parallel, bounded by the executor, and the first failure cancels the transitions still in
+ * progress. The executor's threads wait on the component services, so it should not be the
+ * executor those services run their own start and stop work on.
+ *
  * @author dhanji@gmail.com (Dhanji R. Prasanna)
  */
 public class CompositeService {
   private final Injector injector;
 
   private final Set<Key<? extends Service>> services = Sets.newLinkedHashSet();
+  private final SetMultimap<Key<? extends Service>, Key<? extends Service>> dependencies =
+      LinkedHashMultimap.create();
+  private Executor executor;
+
+  private final ConcurrentMap<Key<? extends Service>, Long> startNanos = Maps.newConcurrentMap();
+  private final ConcurrentMap<Key<? extends Service>, Long> stopNanos = Maps.newConcurrentMap();
 
   /**
    * Represents the state of this composite service. Will equal FAILED
@@ -68,6 +92,61 @@ public class CompositeService {
     return this;
   }
 
+  /**
+   * Declares that {@code service} depends on {@code dependency}. Equivalent to
+   * {@link #dependsOn(Key, Key)} with the keys of both classes.
+   */
+  public CompositeService dependsOn(Class<? extends Service> service,
+      Class<? extends Service> dependency) {
+    return dependsOn(Key.get(service), Key.get(dependency));
+  }
+
+  /**
+   * Declares that {@code service} may only start once {@code dependency} has started, and that
+   * {@code dependency} may only stop once {@code service} has stopped. Both services must already
+   * have been added. Dependencies are only honored when an {@link #executor(Executor) executor}
+   * is set.
+   */
+  public CompositeService dependsOn(Key<? extends Service> service,
+      Key<? extends Service> dependency) {
+    Preconditions.checkState(!composed,
+        "Cannot reuse a CompositeService after it has been compose()d. Please create a new one.");
+    Preconditions.checkArgument(services.contains(service), "%s was not added", service);
+    Preconditions.checkArgument(services.contains(dependency), "%s was not added", dependency);
+    Preconditions.checkArgument(!service.equals(dependency), "%s cannot depend on itself",
+        service);
+
+    dependencies.put(service, dependency);
+    return this;
+  }
+
+  /**
+   * Starts and stops the composed services concurrently on {@code executor}, honoring declared
+   * dependencies. A bounded pool limits how many services transition at once.
+   */
+  public CompositeService executor(Executor executor) {
+    Preconditions.checkState(!composed,
+        "Cannot reuse a CompositeService after it has been compose()d. Please create a new one.");
+    this.executor = Preconditions.checkNotNull(executor, "executor");
+    return this;
+  }
+
+  /**
+   * Returns the time each service took to start, in nanoseconds, for the services that have
+   * finished starting. Only recorded when an {@link #executor(Executor) executor} is set.
+   */
+  public Map<Key<? extends Service>, Long> getStartNanos() {
+    return ImmutableMap.copyOf(startNanos);
+  }
+
+  /**
+   * Returns the time each service took to stop, in nanoseconds, for the services that have
+   * finished stopping. Only recorded when an {@link #executor(Executor) executor} is set.
+   */
+  public Map<Key<? extends Service>, Long> getStopNanos() {
+    return ImmutableMap.copyOf(stopNanos);
+  }
+
   public Service compose() {
     Preconditions.checkState(!composed,
         "Cannot reuse a CompositeService after it has been compose()d. Please create a new one.");
@@ -75,6 +154,9 @@ public class CompositeService {
 
     // Defensive copy.
     final List<Key<? extends Service>> services = ImmutableList.copyOf(this.services);
+    if (executor != null) {
+      return composeGraph(new ServiceGraph(injector, services, dependencies), executor);
+    }
 
     return new Service() {
       public Future<State> start() {
@@ -101,6 +183,50 @@ public class CompositeService {
     };
   }
 
+  private Service composeGraph(final ServiceGraph graph, final Executor executor) {
+    return new Service() {
+      private volatile ListenableFuture<State> transition;
+
+      public Future<State> start() {
+        return track(graph.start(executor, startNanos));
+      }
+
+      public Future<State> stop() {
+        return track(graph.stop(executor, stopNanos));
+      }
+
+      public State state() {
+        ListenableFuture<State> current = transition;
+        if (current != null && current.isDone()) {
+          return outcome(current);
+        }
+        return compositeState;
+      }
+
+      private Future<State> track(final ListenableFuture<State> result) {
+        transition = result;
+        result.addListener(new Runnable() {
+          public void run() {
+            compositeState = outcome(result);
+          }
+        }, MoreExecutors.sameThreadExecutor());
+        return result;
+      }
+    };
+  }
+
+  /**
+   * Returns the state a finished graph transition ended in. A transition cancelled through the
+   * future returned by {@code start()} or {@code stop()} never reached its target, so it is
+   * reported as {@link Service.State#FAILED}.
+   */
+  private static Service.State outcome(ListenableFuture<Service.State> transition) {
+    if (transition.isCancelled()) {
+      return Service.State.FAILED;
+    }
+    return Futures.getUnchecked(transition);
+  }
+
   private FutureTask<Service.State> futureGet(final List<Future<Service.State>> tasks,
       final Service.State state) {
     return new FutureTask<Service.State>(new Callable<Service.State>() {
@@ -0,0 +1,219 @@
+/**
+ * Copyright (C) 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.inject.service;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSetMultimap;
+import com.google.common.collect.Maps;
+import com.google.common.collect.SetMultimap;
+import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.inject.Injector;
+import com.google.inject.Key;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Starts or stops a dependency graph of services on an executor, launching each service as soon
+ * as everything it depends on has finished its own transition. Services without a path between
+ * them transition in parallel, so the overall time is that of the critical path of the graph.
+ *
+ * <p>The first failure completes the returned future with {@link Service.State#FAILED}, stops
+ * launching further services and cancels the transitions still in flight.
+ */
+final class ServiceGraph {
+  private final Injector injector;
+  private final List<Key<? extends Service>> services;
+
+  /** Maps each service to the services it depends on. */
+  private final ImmutableSetMultimap<Key<? extends Service>, Key<? extends Service>> dependencies;
+
+  ServiceGraph(Injector injector, List<Key<? extends Service>> services,
+      SetMultimap<Key<? extends Service>, Key<? extends Service>> dependencies) {
+    this.injector = injector;
+    this.services = ImmutableList.copyOf(services);
+    this.dependencies = ImmutableSetMultimap.copyOf(dependencies);
+    checkAcyclic();
+  }
+
+  /**
+   * Starts every service once all of its dependencies have started.
+   *
+   * @param latencies receives the start latency of each service, in nanoseconds.
+   */
+  ListenableFuture<Service.State> start(Executor executor,
+      ConcurrentMap<Key<? extends Service>, Long> latencies) {
+    return new Run(true, executor, latencies).launch(dependencies);
+  }
+
+  /**
+   * Stops every service once all services depending on it have stopped. Services that were never
+   * started are skipped.
+   *
+   * @param latencies receives the stop latency of each service that was stopped, in nanoseconds;
+   *     skipped services are not recorded.
+   */
+  ListenableFuture<Service.State> stop(Executor executor,
+      ConcurrentMap<Key<? extends Service>, Long> latencies) {
+    return new Run(false, executor, latencies).launch(dependencies.inverse());
+  }
+
+  private void checkAcyclic() {
+    Set<Key<? extends Service>> visited = Sets.newHashSet();
+    Set<Key<? extends Service>> visiting = Sets.newLinkedHashSet();
+    for (Key<? extends Service> service : services) {
+      visit(service, visited, visiting);
+    }
+  }
+
+  private void visit(Key<? extends Service> service, Set<Key<? extends Service>> visited,
+      Set<Key<? extends Service>> visiting) {
+    if (visited.contains(service)) {
+      return;
+    }
+    if (!visiting.add(service)) {
+      throw new IllegalStateException("Service dependencies contain a cycle: " + visiting
+          + " -> " + service);
+    }
+    for (Key<? extends Service> dependency : dependencies.get(service)) {
+      visit(dependency, visited, visiting);
+    }
+    visiting.remove(service);
+    visited.add(service);
+  }
+
+  /**
+   * One start or stop pass over the graph.
+   */
+  private final class Run {
+    private final boolean starting;
+    private final Service.State target;
+    private final Executor executor;
+    private final ConcurrentMap<Key<? extends Service>, Long> latencies;
+
+    private final SettableFuture<Service.State> result = SettableFuture.create();
+    private final Set<Future<Service.State>> inFlight =
+        Sets.newSetFromMap(Maps.<Future<Service.State>, Boolean>newConcurrentMap());
+    private final Map<Key<? extends Service>, AtomicInteger> pending = Maps.newHashMap();
+    private final AtomicInteger remaining = new AtomicInteger();
+    private SetMultimap<Key<? extends Service>, Key<? extends Service>> successors;
+
+    Run(boolean starting, Executor executor,
+        ConcurrentMap<Key<? extends Service>, Long> latencies) {
+      this.starting = starting;
+      this.target = starting ? Service.State.STARTED : Service.State.STOPPED;
+      this.executor = executor;
+      this.latencies = latencies;
+    }
+
+    /**
+     * @param prerequisites maps each service to the services that must transition before it.
+     */
+    ListenableFuture<Service.State> launch(
+        SetMultimap<Key<? extends Service>, Key<? extends Service>> prerequisites) {
+      this.successors = ImmutableSetMultimap.copyOf(prerequisites).inverse();
+      for (Key<? extends Service> service : services) {
+        pending.put(service, new AtomicInteger(prerequisites.get(service).size()));
+      }
+      remaining.set(services.size());
+
+      if (services.isEmpty()) {
+        result.set(target);
+      }
+      for (Key<? extends Service> service : services) {
+        if (pending.get(service).get() == 0) {
+          submit(service);
+        }
+      }
+      return result;
+    }
+
+    private void submit(final Key<? extends Service> service) {
+      try {
+        executor.execute(new Runnable() {
+          public void run() {
+            transition(service);
+          }
+        });
+      } catch (RejectedExecutionException e) {
+        fail();
+      }
+    }
+
+    private void transition(Key<? extends Service> key) {
+      if (result.isDone()) {
+        return;
+      }
+
+      long start = System.nanoTime();
+      try {
+        Service service = injector.getInstance(key);
+        if (starting || service.state() != null) {
+          Future<Service.State> future = starting ? service.start() : service.stop();
+          inFlight.add(future);
+          if (result.isDone()) {
+            future.cancel(true);
+          }
+          try {
+            if (future.get() != target) {
+              fail();
+              return;
+            }
+          } finally {
+            inFlight.remove(future);
+          }
+          latencies.put(key, System.nanoTime() - start);
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        fail();
+        return;
+      } catch (ExecutionException e) {
+        fail();
+        return;
+      } catch (RuntimeException e) {
+        fail();
+        return;
+      }
+
+      for (Key<? extends Service> successor : successors.get(key)) {
+        if (pending.get(successor).decrementAndGet() == 0) {
+          submit(successor);
+        }
+      }
+      if (remaining.decrementAndGet() == 0) {
+        result.set(target);
+      }
+    }
+
+    private void fail() {
+      if (result.set(Service.State.FAILED)) {
+        for (Future<Service.State> future : inFlight) {
+          future.cancel(true);
+        }
+      }
+    }
+  }
+}
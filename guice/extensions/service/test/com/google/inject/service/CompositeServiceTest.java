@@ -0,0 +1,255 @@
+/**
+ * Copyright (C) 2014 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.inject.service;
+
+import com.google.common.collect.Lists;
+import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.Key;
+import com.google.inject.name.Names;
+
+import junit.framework.TestCase;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests for dependency-ordered, concurrent {@link CompositeService} transitions.
+ */
+public class CompositeServiceTest extends TestCase {
+  private static final Key<Service> A = Key.get(Service.class, Names.named("a"));
+  private static final Key<Service> B = Key.get(Service.class, Names.named("b"));
+  private static final Key<Service> C = Key.get(Service.class, Names.named("c"));
+
+  private ExecutorService serviceExecutor;
+  private ExecutorService compositeExecutor;
+  private final List<String> events = Collections.synchronizedList(Lists.<String>newArrayList());
+
+  @Override protected void setUp() {
+    serviceExecutor = Executors.newCachedThreadPool();
+    compositeExecutor = Executors.newFixedThreadPool(2);
+  }
+
+  @Override protected void tearDown() {
+    serviceExecutor.shutdownNow();
+    compositeExecutor.shutdownNow();
+  }
+
+  public void testDependenciesStartFirstAndStopLast() throws Exception {
+    final Service a = new RecordingService("a");
+    final Service b = new RecordingService("b");
+    Injector injector = Guice.createInjector(new AbstractModule() {
+      @Override protected void configure() {
+        bind(A).toInstance(a);
+        bind(B).toInstance(b);
+      }
+    });
+
+    CompositeService composite = injector.getInstance(CompositeService.class)
+        .add(B)
+        .add(A)
+        .dependsOn(B, A)
+        .executor(compositeExecutor);
+    Service service = composite.compose();
+
+    assertEquals(Service.State.STARTED, service.start().get(2, TimeUnit.SECONDS));
+    assertEquals(Service.State.STARTED, service.state());
+    assertEquals(Service.State.STOPPED, service.stop().get(2, TimeUnit.SECONDS));
+    assertEquals(Service.State.STOPPED, service.state());
+
+    assertEquals(Lists.newArrayList("start a", "start b", "stop b", "stop a"), events);
+    assertEquals(2, composite.getStartNanos().size());
+    assertEquals(2, composite.getStopNanos().size());
+  }
+
+  public void testIndependentServicesStartInParallel() throws Exception {
+    // Each service waits for the other to begin starting, so this only completes in parallel.
+    final CountDownLatch bothStarting = new CountDownLatch(2);
+    final Service a = new RendezvousService(bothStarting);
+    final Service b = new RendezvousService(bothStarting);
+    Injector injector = Guice.createInjector(new AbstractModule() {
+      @Override protected void configure() {
+        bind(A).toInstance(a);
+        bind(B).toInstance(b);
+      }
+    });
+
+    Service service = injector.getInstance(CompositeService.class)
+        .add(A)
+        .add(B)
+        .executor(compositeExecutor)
+        .compose();
+
+    assertEquals(Service.State.STARTED, service.start().get(2, TimeUnit.SECONDS));
+  }
+
+  public void testFailureSkipsDependents() throws Exception {
+    final Service a = new AsyncService(serviceExecutor) {
+      @Override protected void onStart() {
+        throw new IllegalStateException("boom");
+      }
+
+      @Override protected void onStop() {}
+    };
+    final Service b = new RecordingService("b");
+    final Service c = new RecordingService("c");
+    Injector injector = Guice.createInjector(new AbstractModule() {
+      @Override protected void configure() {
+        bind(A).toInstance(a);
+        bind(B).toInstance(b);
+        bind(C).toInstance(c);
+      }
+    });
+
+    Service service = injector.getInstance(CompositeService.class)
+        .add(A)
+        .add(B)
+        .add(C)
+        .dependsOn(B, A)
+        .dependsOn(C, B)
+        .executor(compositeExecutor)
+        .compose();
+
+    assertEquals(Service.State.FAILED, service.start().get(2, TimeUnit.SECONDS));
+    assertEquals(Service.State.FAILED, service.state());
+    assertNull(b.state());
+    assertNull(c.state());
+    assertTrue(events.isEmpty());
+  }
+
+  public void testCancelledTransitionIsFailed() throws Exception {
+    // Never released, so the start stays in progress until it is cancelled.
+    final Service a = new RendezvousService(new CountDownLatch(2));
+    Injector injector = Guice.createInjector(new AbstractModule() {
+      @Override protected void configure() {
+        bind(A).toInstance(a);
+      }
+    });
+
+    Service service = injector.getInstance(CompositeService.class)
+        .add(A)
+        .executor(compositeExecutor)
+        .compose();
+
+    assertTrue(service.start().cancel(true));
+    assertEquals(Service.State.FAILED, service.state());
+  }
+
+  public void testSkippedServicesAreNotTimed() throws Exception {
+    final Service a = new RecordingService("a");
+    final Service b = new RecordingService("b");
+    Injector injector = Guice.createInjector(new AbstractModule() {
+      @Override protected void configure() {
+        bind(A).toInstance(a);
+        bind(B).toInstance(b);
+      }
+    });
+
+    CompositeService composite = injector.getInstance(CompositeService.class)
+        .add(A)
+        .add(B)
+        .dependsOn(B, A)
+        .executor(compositeExecutor);
+    Service service = composite.compose();
+
+    // Neither service was started, so both are skipped.
+    assertEquals(Service.State.STOPPED, service.stop().get(2, TimeUnit.SECONDS));
+    assertTrue(events.isEmpty());
+    assertTrue(composite.getStopNanos().isEmpty());
+  }
+
+  public void testCycleIsRejected() {
+    final Service a = new RecordingService("a");
+    final Service b = new RecordingService("b");
+    Injector injector = Guice.createInjector(new AbstractModule() {
+      @Override protected void configure() {
+        bind(A).toInstance(a);
+        bind(B).toInstance(b);
+      }
+    });
+
+    CompositeService composite = injector.getInstance(CompositeService.class)
+        .add(A)
+        .add(B)
+        .dependsOn(A, B)
+        .dependsOn(B, A)
+        .executor(compositeExecutor);
+    try {
+      composite.compose();
+      fail();
+    } catch (IllegalStateException expected) {
+    }
+  }
+
+  public void testDependencyMustBeAdded() {
+    Injector injector = Guice.createInjector(new AbstractModule() {
+      @Override protected void configure() {
+        bind(A).toInstance(new RecordingService("a"));
+        bind(B).toInstance(new RecordingService("b"));
+      }
+    });
+
+    try {
+      injector.getInstance(CompositeService.class).add(A).dependsOn(A, B);
+      fail();
+    } catch (IllegalArgumentException expected) {
+    }
+  }
+
+  private class RecordingService extends AsyncService {
+    private final String name;
+
+    RecordingService(String name) {
+      super(serviceExecutor);
+      this.name = name;
+    }
+
+    @Override protected void onStart() {
+      events.add("start " + name);
+    }
+
+    @Override protected void onStop() {
+      events.add("stop " + name);
+    }
+  }
+
+  private class RendezvousService extends AsyncService {
+    private final CountDownLatch latch;
+
+    RendezvousService(CountDownLatch latch) {
+      super(serviceExecutor);
+      this.latch = latch;
+    }
+
+    @Override protected void onStart() {
+      latch.countDown();
+      try {
+        if (!latch.await(1, TimeUnit.SECONDS)) {
+          throw new IllegalStateException("services did not start in parallel");
+        }
+      } catch (InterruptedException e) {
+        throw new IllegalStateException(e);
+      }
+    }
+
+    @Override protected void onStop() {}
+  }
+}
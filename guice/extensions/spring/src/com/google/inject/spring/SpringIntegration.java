@@ -18,6 +18,9 @@ package com.google.inject.spring;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import com.google.common.collect.HashMultiset;
+import com.google.common.collect.Multiset;
+import com.google.common.collect.Sets;
 import com.google.inject.Binder;
 import com.google.inject.Inject;
 import com.google.inject.Provider;
@@ -26,6 +29,8 @@ import com.google.inject.name.Names;
 import org.springframework.beans.factory.BeanFactory;
 import org.springframework.beans.factory.ListableBeanFactory;
 
+import java.util.Set;
+
 /**
  * Integrates Guice with Spring.
  *
@@ -65,8 +70,49 @@ public class SpringIntegration {
     }
   }
 
-  static <T> void bindBean(Binder binder, ListableBeanFactory beanFactory,
-      String name, Class<T> type) {
+  /**
+   * Binds all Spring beans from the given factory by name like {@link
+   * #bindAll}, and also by type: the class of a bean and each interface it
+   * implements are bound without an annotation when no other bean in the
+   * factory has that type, so that the bean can be injected without
+   * {@code @Named}. All the bindings of a bean share a provider, so a
+   * singleton bean is looked up from Spring only once.
+   *
+   * @since 4.0
+   */
+  public static void bindAllByType(Binder binder,
+      ListableBeanFactory beanFactory) {
+    binder = binder.skipSources(SpringIntegration.class);
+
+    String[] names = beanFactory.getBeanDefinitionNames();
+    Class<?>[] types = new Class<?>[names.length];
+    Multiset<Class<?>> typeCounts = HashMultiset.create();
+    for (int i = 0; i < names.length; i++) {
+      types[i] = beanFactory.getType(names[i]);
+      if (types[i] != null) {
+        typeCounts.addAll(getTypes(types[i]));
+      }
+    }
+
+    for (int i = 0; i < names.length; i++) {
+      SpringProvider<?> provider
+          = bindBean(binder, beanFactory, names[i], types[i]);
+      if (provider != null) {
+        for (Class<?> type : getTypes(types[i])) {
+          if (typeCounts.count(type) == 1) {
+            bindType(binder, type, provider);
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Binds a bean by name, and returns its provider, or null if the bean
+   * can't be bound.
+   */
+  static <T> SpringProvider<T> bindBean(Binder binder,
+      ListableBeanFactory beanFactory, String name, Class<T> type) {
     SpringProvider<T> provider
         = SpringProvider.newInstance(type, name);
     try {
@@ -74,14 +120,58 @@ public class SpringIntegration {
     }
     catch (Exception e) {
       binder.addError(e);
-      return;
+      return null;
     }
 
     binder.bind(type)
         .annotatedWith(Names.named(name))
         .toProvider(provider);
+    return provider;
+  }
+
+  /**
+   * Binds a type without an annotation to a provider of beans of that type
+   * or one of its subtypes.
+   */
+  @SuppressWarnings("unchecked")
+  private static void bindType(Binder binder, Class<?> type,
+      SpringProvider<?> provider) {
+    binder.bind((Class<Object>) type).toProvider(provider);
   }
 
+  /**
+   * Returns the given class and all the interfaces it implements, directly
+   * or through its superclasses and superinterfaces.
+   */
+  static Set<Class<?>> getTypes(Class<?> type) {
+    Set<Class<?>> types = Sets.newLinkedHashSet();
+    types.add(type);
+    for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+      addInterfaces(c, types);
+    }
+    return types;
+  }
+
+  private static void addInterfaces(Class<?> type, Set<Class<?>> types) {
+    for (Class<?> i : type.getInterfaces()) {
+      if (types.add(i)) {
+        addInterfaces(i, types);
+      }
+    }
+  }
+
+  /**
+   * Looks up a bean by name. The bean's type and scope are checked once,
+   * when the provider is initialized, and a singleton bean is then kept by
+   * the provider.
+   *
+   * <p>Prototype and custom-scoped beans are created by {@link
+   * BeanFactory#getBean(String)} on every call. Spring has no public handle
+   * to the creation of a given bean: {@code createBean} with a merged
+   * definition is protected, and only {@code getBean} applies the scope,
+   * detects prototypes that depend on themselves and unwraps factory beans.
+   * Spring's {@code ObjectFactory} would only wrap the same lookup.
+   */
   static class SpringProvider<T> implements Provider<T> {
 
     BeanFactory beanFactory;
@@ -108,17 +198,19 @@ public class SpringIntegration {
     }
 
     public T get() {
-      return singleton ? getSingleton() : type.cast(beanFactory.getBean(name));
-    }
-
-    volatile T instance;
+      if (!singleton) {
+        return type.cast(beanFactory.getBean(name));
+      }
 
-    private T getSingleton() {
-      if (instance == null) {
-        instance = type.cast(beanFactory.getBean(name));
+      // Spring returns the same instance if two threads race to look it up.
+      T result = instance;
+      if (result == null) {
+        result = instance = type.cast(beanFactory.getBean(name));
       }
-      return instance;
+      return result;
     }
+
+    volatile T instance;
   }
 
   static class InjectableSpringProvider<T> extends SpringProvider<T> {
@@ -99,6 +99,44 @@ public class SpringIntegrationTest extends TestCase {
         injector.getInstance(prototypeKey));
   }
 
-  static class Singleton {}
-  static class Prototype {}
+  public void testBindAllByType() throws CreationException {
+    final DefaultListableBeanFactory beanFactory
+        = new DefaultListableBeanFactory();
+
+    RootBeanDefinition singleton
+        = new RootBeanDefinition(Singleton.class);
+    beanFactory.registerBeanDefinition("singleton", singleton);
+
+    RootBeanDefinition prototype
+        = new RootBeanDefinition(Prototype.class, false);
+    beanFactory.registerBeanDefinition("prototype", prototype);
+    beanFactory.registerBeanDefinition("otherPrototype", prototype);
+
+    Injector injector = Guice.createInjector(new AbstractModule() {
+      protected void configure() {
+        SpringIntegration.bindAllByType(binder(), beanFactory);
+      }
+    });
+
+    Key<Singleton> singletonKey
+        = Key.get(Singleton.class, Names.named("singleton"));
+    assertNotNull(injector.getInstance(Singleton.class));
+    assertSame(injector.getInstance(singletonKey),
+        injector.getInstance(Singleton.class));
+    assertSame(injector.getInstance(singletonKey),
+        injector.getInstance(SingletonService.class));
+
+    // Beans that share their type are only bound by name
+    assertNull(injector.getExistingBinding(Key.get(Prototype.class)));
+    assertNull(injector.getExistingBinding(Key.get(PrototypeService.class)));
+    Key<Prototype> prototypeKey
+        = Key.get(Prototype.class, Names.named("otherPrototype"));
+    assertNotSame(injector.getInstance(prototypeKey),
+        injector.getInstance(prototypeKey));
+  }
+
+  interface SingletonService {}
+  interface PrototypeService {}
+  static class Singleton implements SingletonService {}
+  static class Prototype implements PrototypeService {}
 }
@@ -16,9 +16,11 @@
 
 package com.google.inject.struts2;
 
+import com.google.common.collect.Maps;
 import com.google.inject.AbstractModule;
 import com.google.inject.Binder;
 import com.google.inject.Injector;
+import com.google.inject.Provider;
 import com.google.inject.internal.Annotations;
 import com.opensymphony.xwork2.ActionInvocation;
 import com.opensymphony.xwork2.ObjectFactory;
@@ -33,6 +35,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
 import java.util.logging.Logger;
 
 /**
@@ -55,6 +58,12 @@ public class Struts2Factory extends ObjectFactory {
   private final List<ProvidedInterceptor> interceptors = new ArrayList<ProvidedInterceptor>();
   private volatile Injector strutsInjector;
 
+  /**
+   * Providers of the beans built so far, so that building a bean for each request doesn't look up
+   * its binding again.
+   */
+  private final ConcurrentMap<Class<?>, Provider<?>> providers = Maps.newConcurrentMap();
+
   @Override
   public boolean isNoArgConstructorRequired() {
     return false;
@@ -105,7 +114,19 @@ public class Struts2Factory extends ObjectFactory {
         }
       }
     }
-    return strutsInjector.getInstance(clazz);
+    return getProvider(clazz).get();
+  }
+
+  private Provider<?> getProvider(Class<?> clazz) {
+    Provider<?> provider = providers.get(clazz);
+    if (provider == null) {
+      provider = strutsInjector.getProvider(clazz);
+      Provider<?> existing = providers.putIfAbsent(clazz, provider);
+      if (existing != null) {
+        provider = existing;
+      }
+    }
+    return provider;
   }
 
   private void createInjector() {
@@ -118,7 +139,7 @@ public class Struts2Factory extends ObjectFactory {
       throw new RuntimeException(ERROR_NO_INJECTOR);
     }
 
-    this.strutsInjector = injector.createChildInjector(new AbstractModule() {
+    Injector childInjector = injector.createChildInjector(new AbstractModule() {
       protected void configure() {
 
         // Tell the injector about all the action classes, etc., so it
@@ -135,6 +156,12 @@ public class Struts2Factory extends ObjectFactory {
       }
     });
 
+    for (Class<?> boundClass : boundClasses) {
+      providers.put(boundClass, childInjector.getProvider(boundClass));
+    }
+    // Publish the injector once the providers of the bound classes are cached.
+    this.strutsInjector = childInjector;
+
     // Inject interceptors.
     for (ProvidedInterceptor interceptor : interceptors) {
       interceptor.inject();
@@ -82,4 +82,27 @@ public class Struts2FactoryTest extends TestCase {
     assertEquals(TODAY, s2Factory.buildBean(Date.class, null));
   }
 
+  public void testBuildBeanRespectsScopes() {
+    Struts2Factory s2Factory = new Struts2Factory();
+    new TestListener(new AbstractModule() {
+      @Override
+      protected void configure() {
+        bind(Date.class).toInstance(TODAY);
+      }
+    }).getInjector();
+
+    Object first = s2Factory.buildBean(Action.class, null);
+    Object second = s2Factory.buildBean(Action.class, null);
+    assertNotSame(first, second);
+    assertSame(TODAY, ((Action) second).date);
+    assertSame(s2Factory.buildBean(SingletonAction.class, null),
+        s2Factory.buildBean(SingletonAction.class, null));
+  }
+
+  public static class Action {
+    @com.google.inject.Inject Date date;
+  }
+
+  @Singleton
+  public static class SingletonAction {}
 }
@@ -19,19 +19,26 @@ package com.google.inject.throwingproviders;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import com.google.common.base.Predicate;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
 import com.google.common.collect.FluentIterable;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
 import com.google.inject.Binder;
+import com.google.inject.Inject;
+import com.google.inject.Injector;
 import com.google.inject.Key;
 import com.google.inject.Module;
 import com.google.inject.Provider;
 import com.google.inject.ProvisionException;
+import com.google.inject.Scope;
 import com.google.inject.Scopes;
 import com.google.inject.TypeLiteral;
 import com.google.inject.binder.ScopedBindingBuilder;
 import com.google.inject.internal.UniqueAnnotations;
+import com.google.inject.spi.DefaultBindingScopingVisitor;
 import com.google.inject.spi.Dependency;
 import com.google.inject.spi.ProviderWithDependencies;
 import com.google.inject.util.Types;
@@ -129,6 +136,8 @@ public class ThrowingProviderBinder {
     private final Class<P> interfaceType;
     private final Type valueType;
     private final List<Class<? extends Throwable>> exceptionTypes;
+    /** Whether an exception class is one of the exception types, or a subclass of one. */
+    private final LoadingCache<Class<? extends Exception>, Boolean> declaredExceptions;
     private final boolean valid;
 
     private Class<? extends Annotation> annotationType;
@@ -145,6 +154,18 @@ public class ThrowingProviderBinder {
         valid = false;
         this.exceptionTypes = ImmutableList.of();
       }      
+      this.declaredExceptions = CacheBuilder.newBuilder().weakKeys().build(
+          new CacheLoader<Class<? extends Exception>, Boolean>() {
+            @Override
+            public Boolean load(Class<? extends Exception> exceptionClass) {
+              for (Class<? extends Throwable> exceptionType : exceptionTypes) {
+                if (exceptionType.isAssignableFrom(exceptionClass)) {
+                  return true;
+                }
+              }
+              return false;
+            }
+          });
     }
     
     List<Class<? extends Throwable>> getExceptionTypes() {
@@ -258,11 +279,21 @@ public class ThrowingProviderBinder {
       final Key<Result> resultKey = Key.get(Result.class, UniqueAnnotations.create());
       final Provider<Result> resultProvider = binder.getProvider(resultKey);
       final Provider<? extends CheckedProvider> targetProvider = binder.getProvider(targetKey);
+      // Set by the proxy for the result binding to report, see below.
+      final ThreadLocal<Exception> directCallException = new ThreadLocal<Exception>();
       interfaceKey = createKey();
 
       // don't bother binding the proxy type if this is in an invalid state.
       if(valid) {
         binder.bind(interfaceKey).toProvider(new ProviderWithDependencies<P>() {
+          /**
+           * Whether the result binding is unscoped, in which case the proxy calls the target
+           * directly instead of wrapping each value in a Result. Exceptions that aren't declared
+           * by the interface are still thrown by the result binding, so that Guice reports them
+           * as before. Set once the injector is created and read by provisioning threads.
+           */
+          private volatile boolean direct;
+
           private final P instance = interfaceType.cast(Proxy.newProxyInstance(
               interfaceType.getClassLoader(), new Class<?>[] { interfaceType },
               new InvocationHandler() {
@@ -272,29 +303,51 @@ public class ThrowingProviderBinder {
                   if (method.getDeclaringClass() == Object.class) {
                     return method.invoke(this, args);
                   }
-                  return resultProvider.get().getOrThrow();
+                  if (!direct) {
+                    return resultProvider.get().getOrThrow();
+                  }
+
+                  try {
+                    return targetProvider.get().get();
+                  } catch (Exception e) {
+                    if (isDeclared(e)) {
+                      throw e;
+                    }
+                    directCallException.set(e);
+                    try {
+                      return resultProvider.get().getOrThrow();
+                    } finally {
+                      directCallException.remove();
+                    }
+                  }
                 }
               }));
-            
-            public P get() {
-              return instance;
-            }
-            
-            public Set<Dependency<?>> getDependencies() {
-              return ImmutableSet.<Dependency<?>>of(Dependency.get(resultKey));
-            }
-          });
+
+          @Inject void initialize(Injector injector) {
+            direct = injector.getBinding(resultKey).acceptScopingVisitor(IsUnscoped.INSTANCE);
+          }
+
+          public P get() {
+            return instance;
+          }
+
+          public Set<Dependency<?>> getDependencies() {
+            return ImmutableSet.<Dependency<?>>of(Dependency.get(resultKey));
+          }
+        });
       }
 
       return binder.bind(resultKey).toProvider(new ProviderWithDependencies<Result>() {
         public Result get() {
           try {
+            Exception exception = directCallException.get();
+            if (exception != null) {
+              throw exception;
+            }
             return Result.forValue(targetProvider.get().get());
           } catch (Exception e) {
-            for(Class<? extends Throwable> exceptionType : exceptionTypes) {
-              if (exceptionType.isInstance(e)) {
-                return Result.forException(e);
-              }
+            if (isDeclared(e)) {
+              return Result.forException(e);
             }
             
             if (e instanceof RuntimeException) {
@@ -312,6 +365,11 @@ public class ThrowingProviderBinder {
       });
     }
 
+    /** Returns true if {@code e} is declared by the get method of the interface. */
+    private boolean isDeclared(Exception e) {
+      return declaredExceptions.getUnchecked(e.getClass());
+    }
+
     /**
      * Returns the exception type declared to be thrown by the get method of
      * {@code interfaceType}.
@@ -486,6 +544,22 @@ public class ThrowingProviderBinder {
     private static final long serialVersionUID = 0L;
   }
   
+  private static class IsUnscoped extends DefaultBindingScopingVisitor<Boolean> {
+    static final IsUnscoped INSTANCE = new IsUnscoped();
+
+    @Override protected Boolean visitOther() {
+      return false;
+    }
+
+    @Override public Boolean visitNoScoping() {
+      return true;
+    }
+
+    @Override public Boolean visitScope(Scope scope) {
+      return scope == Scopes.NO_SCOPE;
+    }
+  }
+
   private static class NotSyntheticOrBridgePredicate implements Predicate<Method> {
     static NotSyntheticOrBridgePredicate INSTANCE = new NotSyntheticOrBridgePredicate();
     @Override public boolean apply(Method input) {
@@ -23,6 +23,7 @@ import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 import com.google.inject.AbstractModule;
 import com.google.inject.Asserts;
+import com.google.inject.Binding;
 import com.google.inject.CreationException;
 import com.google.inject.Guice;
 import com.google.inject.Inject;
@@ -34,12 +35,15 @@ import com.google.inject.ProvisionException;
 import com.google.inject.Scope;
 import com.google.inject.ScopeAnnotation;
 import com.google.inject.TypeLiteral;
+import com.google.inject.binder.ScopedBindingBuilder;
 import com.google.inject.internal.util.Classes;
+import com.google.inject.matcher.AbstractMatcher;
 import com.google.inject.name.Named;
 import com.google.inject.name.Names;
 import com.google.inject.spi.Dependency;
 import com.google.inject.spi.HasDependencies;
 import com.google.inject.spi.Message;
+import com.google.inject.spi.ProvisionListener;
 import com.google.inject.throwingproviders.ThrowingProviderBinder.Result;
 
 import junit.framework.TestCase;
@@ -331,6 +335,69 @@ public class CheckedProviderTest extends TestCase {
     }
   }
 
+  public void testUnscopedBindingCallsTargetDirectly() throws Exception {
+    List<Key<?>> results = Lists.newArrayList();
+    Injector injector = createInjectorRecordingResults(results, false);
+    mockRemoteProvider.setNextToReturn(new SimpleFoo("A"));
+
+    assertEquals("A", injector.getInstance(Key.get(remoteProviderOfFoo)).get().s());
+    assertEquals(ImmutableList.of(), results);
+  }
+
+  public void testScopedBindingWrapsValuesInResults() throws Exception {
+    List<Key<?>> results = Lists.newArrayList();
+    Injector injector = createInjectorRecordingResults(results, true);
+    mockRemoteProvider.setNextToReturn(new SimpleFoo("A"));
+
+    assertEquals("A", injector.getInstance(Key.get(remoteProviderOfFoo)).get().s());
+    assertEquals(1, results.size());
+  }
+
+  public void testUnscopedBindingReportsUndeclaredExceptionsThroughResult() throws Exception {
+    List<Key<?>> results = Lists.newArrayList();
+    Injector injector = createInjectorRecordingResults(results, false);
+    RemoteProvider<Foo> remoteProvider = injector.getInstance(Key.get(remoteProviderOfFoo));
+
+    mockRemoteProvider.throwOnNextGet(new IndexOutOfBoundsException("A"));
+    try {
+      remoteProvider.get();
+      fail();
+    } catch (ProvisionException e) {
+      assertEquals("A", e.getCause().getMessage());
+    }
+    Key<?> resultKey = Iterables.getOnlyElement(results);
+
+    // The exception forwarded to the result binding isn't left behind for the next provision.
+    mockRemoteProvider.throwOnNextGet(null);
+    mockRemoteProvider.setNextToReturn(new SimpleFoo("B"));
+    assertEquals("B", ((Foo) ((Result) injector.getInstance(resultKey)).getOrThrow()).s());
+    assertEquals("B", remoteProvider.get().s());
+  }
+
+  private Injector createInjectorRecordingResults(
+      final List<Key<?>> results, final boolean scoped) {
+    return Guice.createInjector(new AbstractModule() {
+      @Override
+      protected void configure() {
+        ScopedBindingBuilder builder = ThrowingProviderBinder.create(binder())
+            .bind(RemoteProvider.class, Foo.class)
+            .to(mockRemoteProvider);
+        if (scoped) {
+          builder.in(testScope);
+        }
+        bindListener(new AbstractMatcher<Binding<?>>() {
+          @Override public boolean matches(Binding<?> binding) {
+            return binding.getKey().getTypeLiteral().getRawType() == Result.class;
+          }
+        }, new ProvisionListener() {
+          public <T> void onProvision(ProvisionInvocation<T> provision) {
+            results.add(provision.getBinding().getKey());
+          }
+        });
+      }
+    });
+  }
+
   public void testThrowingProviderSubclassing() throws Exception {
     final SubMockRemoteProvider aProvider = new SubMockRemoteProvider();
     aProvider.setNextToReturn(new SimpleFoo("A"));
@@ -21,7 +21,7 @@ import com.google.inject.blender.GuiceAnnotationProcessor;
  * @author SNI
  */
 @SupportedAnnotationTypes({"com.google.inject.Inject", "com.google.inject.Provides", "javax.inject.Inject", "roboguice.inject.InjectView", "roboguice.inject.InjectResource", "roboguice.inject.InjectPreference", "roboguice.inject.InjectExtra", "roboguice.inject.InjectFragment", "roboguice.event.Observes", "roboguice.inject.ContentView"})
-@SupportedOptions({"guiceAnnotationDatabasePackageName", "guiceUsesFragmentUtil"})
+@SupportedOptions({"guiceAnnotationDatabasePackageName", "guiceUsesFragmentUtil", "guiceStaticMode"})
 public class RoboGuiceAnnotationProcessor extends GuiceAnnotationProcessor {
 
     public static final String TEMPLATE_ANNOTATION_DATABASE_PATH = "templates/RGAnnotationDatabaseImpl.vm";
@@ -1,10 +1,21 @@
 package roboguice;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.WeakReference;
 import java.util.ArrayList;
+import java.util.Enumeration;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
 import java.util.WeakHashMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 
 import roboguice.config.DefaultRoboModule;
 import roboguice.config.RoboGuiceHierarchyTraversalFilter;
@@ -14,22 +25,31 @@ import roboguice.inject.ContextScopedRoboInjector;
 import roboguice.inject.ResourceListener;
 import roboguice.inject.RoboInjector;
 import roboguice.inject.ViewListener;
+import roboguice.util.RoboContext;
 import roboguice.util.Strings;
 
+import com.google.inject.Binder;
 import com.google.inject.Guice;
 import com.google.inject.Injector;
+import com.google.inject.Key;
 import com.google.inject.Stage;
 import com.google.inject.HierarchyTraversalFilter;
 import com.google.inject.HierarchyTraversalFilterFactory;
 import com.google.inject.Module;
 import com.google.inject.internal.util.Stopwatch;
+import com.google.inject.name.Names;
+import com.google.inject.spi.InjectorImage;
 import com.google.inject.util.Modules;
 
 import android.app.Application;
 import android.content.Context;
+import android.content.SharedPreferences;
 import android.content.pm.ApplicationInfo;
+import android.content.pm.PackageInfo;
 import android.content.pm.PackageManager;
 import android.content.pm.PackageManager.NameNotFoundException;
+import android.os.Build;
+import android.os.Build.VERSION;
 import android.os.Bundle;
 import android.os.SystemClock;
 import android.util.Log;
@@ -52,6 +72,25 @@ public final class RoboGuice {
     @SuppressWarnings({"checkstyle:visibilitymodifier","checkstyle:staticvariablename"})
     public static Stage DEFAULT_STAGE = Stage.PRODUCTION;
 
+    /** Asset holding the {@link InjectorImage} captured from the application at build time, if any. See {@link #getInjectorImageFingerprint(File)}. */
+    public static final String INJECTOR_IMAGE_ASSET = "roboguice/injector.image";
+
+    /** Preferences keeping the fingerprint of the installed APK across cold starts, with the version of the APK it was computed for. */
+    static final String INJECTOR_IMAGE_PREFERENCES = "roboguice.injectorImage";
+    private static final String PREFERENCE_APK_VERSION = "apkVersion";
+    private static final String PREFERENCE_FINGERPRINT = "fingerprint";
+
+    /**
+     * Installed when the <code>roboguice.deferValidation</code> manifest meta-data is true, to validate bindings
+     * on their first use rather than when the application injector is created. Meant for {@link Stage#DEVELOPMENT}.
+     */
+    private static final Module DEFER_VALIDATION_MODULE = new Module() {
+        @Override
+        public void configure(Binder binder) {
+            binder.deferValidation();
+        }
+    };
+
     @edu.umd.cs.findbugs.annotations.SuppressWarnings(value="MS_SHOULD_BE_FINAL")
     protected static WeakHashMap<Application,Injector> injectors = new WeakHashMap<Application,Injector>();
     @edu.umd.cs.findbugs.annotations.SuppressWarnings(value="MS_SHOULD_BE_FINAL")
@@ -59,6 +98,19 @@ public final class RoboGuice {
     @edu.umd.cs.findbugs.annotations.SuppressWarnings(value="MS_SHOULD_BE_FINAL")
     protected static WeakHashMap<Application,ViewListener> viewListeners = new WeakHashMap<Application, ViewListener>();
 
+    /** Key of the cached injector in the scoped object map of a {@link RoboContext}, which lives as long as the context. */
+    private static final Key<CachedInjector> CACHED_INJECTOR_KEY = Key.get(CachedInjector.class, Names.named("roboguice.contextScopedRoboInjector"));
+    /**
+     * Cached injectors of applications, which can't hold them in a scoped object map. Guarded by ContextScope.class.
+     * Held strongly: a cached injector references its application, so a weak map would keep it just the same.
+     * Entries are removed by {@link #destroyInjector(android.content.Context)} and {@link Util#reset()}.
+     */
+    private static final Map<Application,CachedInjector> applicationContextInjectors = new IdentityHashMap<Application, CachedInjector>();
+    /** The ContextScope of each application injector. Guarded by ContextScope.class. */
+    private static final WeakHashMap<Injector,ContextScope> contextScopes = new WeakHashMap<Injector, ContextScope>();
+    /** The injector returned last, read without locking. Views and fragments usually ask for the injector of the same context in a row. */
+    private static volatile WeakReference<CachedInjector> lastInjector = new WeakReference<CachedInjector>(null);
+
 
     /** Enables or disables using annotation databases to optimize roboguice. Used for testing. Enabled by default.*/
     private static boolean useAnnotationDatabases = true;
@@ -111,6 +163,7 @@ public final class RoboGuice {
         final Stopwatch stopwatch = new Stopwatch();
         synchronized (RoboGuice.class) {
             initializeAnnotationDatabaseFinderAndHierarchyTraversalFilterFactory(application);
+            installInjectorImage(application);
             return createGuiceInjector(application, stage, stopwatch, modules);
         }
     }
@@ -147,6 +200,7 @@ public final class RoboGuice {
 
         synchronized (RoboGuice.class) {
             initializeAnnotationDatabaseFinderAndHierarchyTraversalFilterFactory(application);
+            installInjectorImage(application);
             final List<Module> modules = extractModulesFromManifest(application);
             return createGuiceInjector(application, stage, stopwatch, modules.toArray(new Module[modules.size()]));
         }
@@ -163,6 +217,9 @@ public final class RoboGuice {
             final String[] moduleNames = roboguiceModules!=null ? roboguiceModules.split("[\\s,]") : new String[]{};
 
             modules.add(defaultRoboModule);
+            if( bundle!=null && bundle.getBoolean("roboguice.deferValidation") ) {
+                modules.add(DEFER_VALIDATION_MODULE);
+            }
 
             for (String name : moduleNames) {
                 if( Strings.notEmpty(name)) {
@@ -192,9 +249,65 @@ public final class RoboGuice {
         }
     }
 
+    /**
+     * Return the injector of a context. Injectors of RoboContexts and Applications are cached until
+     * {@link #destroyInjector(android.content.Context)} is called, or the application injector is replaced.
+     */
     public static RoboInjector getInjector(Context context) {
         final Application application = (Application)context.getApplicationContext();
-        return new ContextScopedRoboInjector(context, getOrCreateBaseApplicationInjector(application));
+        final Injector applicationInjector = getOrCreateBaseApplicationInjector(application);
+
+        final CachedInjector last = lastInjector.get();
+        if( last!=null && last.context==context && last.applicationInjector==applicationInjector )
+            return last.injector;
+
+        synchronized (ContextScope.class) {
+            CachedInjector cached = getCachedInjector(context);
+            if( cached==null || cached.applicationInjector!=applicationInjector ) {
+                cached = new CachedInjector(context, applicationInjector, new ContextScopedRoboInjector(context, applicationInjector, getContextScope(applicationInjector)));
+                putCachedInjector(context, cached);
+            }
+            lastInjector = new WeakReference<CachedInjector>(cached);
+            return cached.injector;
+        }
+    }
+
+    private static ContextScope getContextScope(Injector applicationInjector) {
+        ContextScope scope = contextScopes.get(applicationInjector);
+        if( scope==null ) {
+            scope = applicationInjector.getInstance(ContextScope.class);
+            contextScopes.put(applicationInjector, scope);
+        }
+        return scope;
+    }
+
+    private static CachedInjector getCachedInjector(Context context) {
+        if( context instanceof RoboContext )
+            return (CachedInjector) ((RoboContext)context).getScopedObjectMap().get(CACHED_INJECTOR_KEY);
+        if( context instanceof Application )
+            return applicationContextInjectors.get(context);
+        return null;
+    }
+
+    private static void putCachedInjector(Context context, CachedInjector cached) {
+        // Other contexts, such as wrappers created for views, get a new injector each time.
+        if( context instanceof RoboContext )
+            ((RoboContext)context).getScopedObjectMap().put(CACHED_INJECTOR_KEY, cached);
+        else if( context instanceof Application )
+            applicationContextInjectors.put((Application)context, cached);
+    }
+
+    private static void removeCachedInjector(Context context) {
+        synchronized (ContextScope.class) {
+            if( context instanceof RoboContext )
+                ((RoboContext)context).getScopedObjectMap().remove(CACHED_INJECTOR_KEY);
+            else if( context instanceof Application )
+                applicationContextInjectors.remove(context);
+
+            final CachedInjector last = lastInjector.get();
+            if( last!=null && last.context==context )
+                lastInjector = new WeakReference<CachedInjector>(null);
+        }
     }
 
     /**
@@ -246,6 +359,7 @@ public final class RoboGuice {
     public static void destroyInjector(Context context) {
         final RoboInjector injector = getInjector(context);
         injector.getInstance(EventManager.class).destroy();
+        removeCachedInjector(context);
         //noinspection SuspiciousMethodCalls
         injectors.remove(context); // it's okay, Context is an Application
     }
@@ -302,6 +416,124 @@ public final class RoboGuice {
         }
     }
 
+    /**
+     * Installs the injector image shipped as the {@value #INJECTOR_IMAGE_ASSET} asset, if any, so that
+     * injection points don't have to be discovered through reflection. The image is only used if it
+     * was captured with the {@link #getInjectorImageFingerprint(File) fingerprint} of the installed APK.
+     */
+    private static void installInjectorImage(Application application) {
+        InputStream in = null;
+        try {
+            in = application.getAssets().open(INJECTOR_IMAGE_ASSET);
+        } catch( IOException e ) {
+            // no image shipped with the application
+            InjectorImage.install(null);
+            return;
+        }
+
+        long start = SystemClock.currentThreadTimeMillis();
+        try {
+            final String fingerprint = getInstalledInjectorImageFingerprint(application);
+            final InjectorImage image = InjectorImage.readFrom(in, fingerprint);
+            InjectorImage.install(image);
+            long end = SystemClock.currentThreadTimeMillis();
+            Log.d(RoboGuice.class.getName(), "Time spent loading injector image of " + image.getTypeCount() + " classes : " + (end-start));
+        } catch( IOException e ) {
+            Log.w(RoboGuice.class.getName(), "Ignoring injector image: " + e.getMessage());
+            InjectorImage.install(null);
+        } finally {
+            try {
+                in.close();
+            } catch( IOException ignored ) {
+                // nothing to do
+            }
+        }
+    }
+
+    /**
+     * Returns the {@link #getInjectorImageFingerprint(File) fingerprint} of the installed APK. Computing it opens
+     * the APK, so it is kept in preferences until the APK is updated.
+     */
+    static String getInstalledInjectorImageFingerprint(Application application) throws IOException {
+        final SharedPreferences preferences = application.getSharedPreferences(INJECTOR_IMAGE_PREFERENCES, Context.MODE_PRIVATE);
+        final String apkVersion = getApkVersion(application);
+        if( apkVersion!=null && apkVersion.equals(preferences.getString(PREFERENCE_APK_VERSION, null)) ) {
+            final String fingerprint = preferences.getString(PREFERENCE_FINGERPRINT, null);
+            if( fingerprint!=null ) {
+                return fingerprint;
+            }
+        }
+
+        final String fingerprint = getInjectorImageFingerprint(new File(application.getApplicationInfo().sourceDir));
+        if( apkVersion!=null ) {
+            preferences.edit().putString(PREFERENCE_APK_VERSION, apkVersion).putString(PREFERENCE_FINGERPRINT, fingerprint).apply();
+        }
+        return fingerprint;
+    }
+
+    /**
+     * Returns a key that changes whenever the installed APK is updated, or null if there is none: the version code
+     * alone stays the same across development builds, and the update time is only known since Gingerbread.
+     */
+    static String getApkVersion(Application application) {
+        if( VERSION.SDK_INT<Build.VERSION_CODES.GINGERBREAD ) {
+            return null;
+        }
+        try {
+            final PackageInfo info = application.getPackageManager().getPackageInfo(application.getPackageName(), 0);
+            return info.versionCode + ":" + info.lastUpdateTime;
+        } catch( NameNotFoundException e ) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns the fingerprint an {@link InjectorImage} of the given APK must be captured with: the
+     * CRC32 of each of its dex files. Unlike the version code, it changes whenever any class is
+     * rebuilt, so an image captured from a previous build, which would miss injection points added
+     * since, is rejected. Build tools capturing the image pass the fingerprint of the APK it is
+     * packaged into; adding the asset doesn't change the dex files.
+     */
+    public static String getInjectorImageFingerprint(File apk) throws IOException {
+        final SortedMap<String,Long> dexCrcs = new TreeMap<String, Long>();
+        final ZipFile zip = new ZipFile(apk);
+        try {
+            for( Enumeration<? extends ZipEntry> entries = zip.entries(); entries.hasMoreElements(); ) {
+                final ZipEntry entry = entries.nextElement();
+                if( entry.getName().matches("classes\\d*\\.dex") ) {
+                    dexCrcs.put(entry.getName(), entry.getCrc());
+                }
+            }
+        } finally {
+            zip.close();
+        }
+        if( dexCrcs.isEmpty() ) {
+            throw new IOException("No dex file in " + apk);
+        }
+
+        final StringBuilder fingerprint = new StringBuilder();
+        for( Map.Entry<String,Long> dexCrc : dexCrcs.entrySet() ) {
+            fingerprint.append(dexCrc.getKey()).append(':').append(Long.toHexString(dexCrc.getValue())).append(';');
+        }
+        return fingerprint.toString();
+    }
+
+    /**
+     * A context injector along with the application injector it was created from, so that it is
+     * recreated when the application injector is replaced.
+     */
+    private static final class CachedInjector {
+        private final Context context;
+        private final Injector applicationInjector;
+        private final ContextScopedRoboInjector injector;
+
+        CachedInjector(Context context, Injector applicationInjector, ContextScopedRoboInjector injector) {
+            this.context = context;
+            this.applicationInjector = applicationInjector;
+            this.injector = injector;
+        }
+    }
+
     public static final class Util {
         private Util() {}
 
@@ -313,10 +545,16 @@ public final class RoboGuice {
             injectors.clear();
             resourceListeners.clear();
             viewListeners.clear();
+            synchronized (ContextScope.class) {
+                applicationContextInjectors.clear();
+                contextScopes.clear();
+                lastInjector = new WeakReference<CachedInjector>(null);
+            }
             //clear annotation database finder
             //restore hierarchy filter
             Guice.setAnnotationDatabasePackageNames(null);
             Guice.setHierarchyTraversalFilterFactory(new HierarchyTraversalFilterFactory());
+            InjectorImage.install(null);
         }
     }
 
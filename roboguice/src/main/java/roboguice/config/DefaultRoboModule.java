@@ -28,9 +28,11 @@ import roboguice.inject.SharedPreferencesProvider;
 import roboguice.inject.SystemServiceProvider;
 import roboguice.inject.ViewListener;
 import roboguice.service.RoboService;
+import roboguice.util.AsyncLnImpl;
 import roboguice.util.Ln;
 import roboguice.util.LnImpl;
 import roboguice.util.LnInterface;
+import roboguice.util.TaskExecutor;
 
 import com.google.inject.Provider;
 import com.google.inject.Provides;
@@ -52,6 +54,7 @@ import android.app.Service;
 import android.content.ContentResolver;
 import android.content.Context;
 import android.content.SharedPreferences;
+import android.content.pm.ApplicationInfo;
 import android.content.pm.PackageInfo;
 import android.content.pm.PackageManager;
 import android.content.res.AssetManager;
@@ -98,6 +101,7 @@ public class DefaultRoboModule extends AbstractModule {
      * or {@code getInjector.getInstance(key(EventManager.cass, Names.named())}.
      */
     public static final String GLOBAL_EVENT_MANAGER_NAME = "GlobalEventManager";
+    public static final String ASYNC_LOGGING_META_DATA = "roboguice.ln.async";
 
     @SuppressWarnings("rawtypes")
     private static Map<Class, String> mapSystemSericeClassToName = new HashMap<Class, String>();
@@ -147,6 +151,7 @@ public class DefaultRoboModule extends AbstractModule {
 
         // Singletons
         bind(ViewListener.class).toInstance(viewListener);
+        bind(TaskExecutor.class).toInstance(TaskExecutor.getDefault());
 
         // ContextSingleton bindings
         bindScope(ContextSingleton.class, contextScope);
@@ -201,7 +206,7 @@ public class DefaultRoboModule extends AbstractModule {
         requestInjection(observerThreadingDecorator);
 
         if( isInjectable(Ln.class)) {
-            bind(LnInterface.class).to(LnImpl.class);
+            bind(LnInterface.class).to(isAsyncLoggingEnabled() ? AsyncLnImpl.class : LnImpl.class);
             //should this be placed in if statement ?
             requestStaticInjection(Ln.class);
         }
@@ -209,6 +214,18 @@ public class DefaultRoboModule extends AbstractModule {
         bindDynamicBindings();
     }
 
+    /**
+     * Whether Ln should log through {@link AsyncLnImpl}, as requested by the roboguice.ln.async meta-data of the manifest.
+     */
+    protected boolean isAsyncLoggingEnabled() {
+        try {
+            final ApplicationInfo ai = application.getPackageManager().getApplicationInfo(application.getPackageName(), PackageManager.GET_META_DATA);
+            return ai.metaData!=null && ai.metaData.getBoolean(ASYNC_LOGGING_META_DATA, false);
+        } catch( PackageManager.NameNotFoundException e ) {
+            return false;
+        }
+    }
+
     private <T> void bindSystemService(Class<T> c, String androidServiceName) {
         bind(c).toProvider(new SystemServiceProvider<T>(application, androidServiceName ));
     }
@@ -26,9 +26,16 @@ public class ContextScopedRoboInjector implements RoboInjector {
     protected ContextScope scope;
 
     public ContextScopedRoboInjector(Context context, Injector applicationInjector) {
+        this(context, applicationInjector, applicationInjector.getInstance(ContextScope.class));
+    }
+
+    /**
+     * Creates an injector for a context, reusing the ContextScope already obtained from the application injector.
+     */
+    public ContextScopedRoboInjector(Context context, Injector applicationInjector, ContextScope scope) {
         this.delegate = applicationInjector;
         this.context = context;
-        this.scope = delegate.getInstance(ContextScope.class);
+        this.scope = scope;
     }
 
     @Override
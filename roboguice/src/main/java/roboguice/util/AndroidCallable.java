@@ -1,5 +1,7 @@
 package roboguice.util;
 
+import java.util.concurrent.Executor;
+
 /**
  * An abstract instance of {@link AndroidCallableI} with empty default implementations for {@link #onPreCall()}
  * and {@link #onFinally()}.
@@ -20,6 +22,15 @@ public abstract class AndroidCallable<ResultT> implements AndroidCallableI<Resul
         new AndroidCallableWrapper<ResultT>(null,this, creationLocation).run();
     }
 
+    /**
+     * Runs {@link #onPreCall()} in the UI thread and then {@link #doInBackground()} in the executor.
+     * Unlike passing this AndroidCallable to the executor, no background thread waits for the UI thread
+     * to get to {@link #onPreCall()}.
+     */
+    public void execute(Executor executor) {
+        new AndroidCallableWrapper<ResultT>(null,this, creationLocation).execute(executor);
+    }
+
     /**
      * {@inheritDoc}
      */
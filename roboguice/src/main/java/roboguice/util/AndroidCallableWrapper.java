@@ -1,8 +1,10 @@
 package roboguice.util;
 
-import java.util.HashMap;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
 
 import edu.umd.cs.findbugs.annotations.SuppressWarnings;
 
@@ -17,11 +19,23 @@ import android.os.Looper;
 // - add retry support
 
 
+/**
+ * Runs an {@link AndroidCallableI}: onPreCall on the handler's thread, doInBackground on the current
+ * thread, then onSuccess or onException and onFinally on the handler's thread.
+ *
+ * When run directly, the background thread waits for onPreCall to complete on the handler's thread.
+ * {@link #execute(Executor)} chains the two stages instead, so that no thread of the executor is
+ * parked behind a busy UI message queue.
+ */
 public class AndroidCallableWrapper<ResultT> implements Runnable {
     protected Handler handler;
     protected AndroidCallableI<ResultT> delegate;
     protected StackTraceElement[] launchLocation;
 
+    /** Whether onPreCall already ran for the next run(), in which case preCallException is what it threw. */
+    private volatile boolean preCalled;
+    private volatile Exception preCallException;
+
     @SuppressWarnings("MALICIOUS_CODE")
     public AndroidCallableWrapper(Handler handler, AndroidCallableI<ResultT> delegate, StackTraceElement[] launchLocation ) {
         this.delegate = delegate;
@@ -35,8 +49,15 @@ public class AndroidCallableWrapper<ResultT> implements Runnable {
         ResultT result = null;
         Exception exception = null;
         try {
-            if (isPreCallOverriden((Class<? extends AndroidCallableI<?>>) delegate.getClass()))
+            if (preCalled) {
+                final Exception e = preCallException;
+                preCalled = false;
+                preCallException = null;
+                if (e != null)
+                    throw e;
+            } else if (isPreCallOverriden((Class<? extends AndroidCallableI<?>>) delegate.getClass())) {
                 beforeCall();
+            }
 
             result = doDoInBackgroundThread();
         } catch (Exception e) {
@@ -47,6 +68,46 @@ public class AndroidCallableWrapper<ResultT> implements Runnable {
     }
 
 
+    /**
+     * Runs onPreCall on the handler's thread, right away if that is the current thread, and then
+     * submits the rest of the call to the executor.
+     */
+    @java.lang.SuppressWarnings("unchecked")
+    public void execute(final Executor executor) {
+        if (!isPreCallOverriden((Class<? extends AndroidCallableI<?>>) delegate.getClass())) {
+            preCalled(null);
+            executor.execute(this);
+            return;
+        }
+
+        final Runnable preCall = new Runnable() {
+            @Override
+            public void run() {
+                Exception exception = null;
+                try {
+                    doOnPreCall();
+                } catch (Exception e) {
+                    exception = e;
+                }
+                preCalled(exception);
+                executor.execute(AndroidCallableWrapper.this);
+            }
+        };
+        if (handler.getLooper() == Looper.myLooper())
+            preCall.run();
+        else
+            handler.post(preCall);
+    }
+
+    /**
+     * Records that onPreCall already ran, so that the next run() goes straight to doInBackground,
+     * or reports the exception onPreCall threw.
+     */
+    public void preCalled(Exception exception) {
+        preCallException = exception;
+        preCalled = true;
+    }
+
     void beforeCall() throws Exception {
         final CountDownLatch latch = new CountDownLatch(1);
         final Exception[] exceptions = new Exception[1];
@@ -126,21 +187,34 @@ public class AndroidCallableWrapper<ResultT> implements Runnable {
     }
 
 
-    static HashMap<Class<? extends AndroidCallableI<?>>, Boolean> isPreCallOverriddenMap = new HashMap<Class<? extends AndroidCallableI<?>>, Boolean>();
+    static final ConcurrentMap<Class<?>, Boolean> isPreCallOverriddenMap = new ConcurrentHashMap<Class<?>, Boolean>();
 
     static boolean isPreCallOverriden(Class<? extends AndroidCallableI<?>> subClass) {
-        try {
-            Boolean tmp = isPreCallOverriddenMap.get(subClass);
-            if (tmp != null)
-                return tmp;
-
-            tmp = subClass.getMethod("onPreCall").getDeclaringClass() != AndroidCallableWrapper.class;
-            isPreCallOverriddenMap.put(subClass, tmp);
-            return tmp;
+        return isOverridden(subClass, AndroidCallable.class, "onPreCall", isPreCallOverriddenMap);
+    }
 
-        } catch (NoSuchMethodException e) {
-            throw new RuntimeException(e);
+    /**
+     * Returns true if a class between subClass and baseClass declares the given method without
+     * parameters, so that calling the base's empty implementation can be skipped.
+     * Results are cached in the given map, which may be read and written from any thread.
+     */
+    static boolean isOverridden(Class<?> subClass, Class<?> baseClass, String methodName, ConcurrentMap<Class<?>, Boolean> cache) {
+        Boolean overridden = cache.get(subClass);
+        if (overridden != null)
+            return overridden;
+
+        overridden = false;
+        for (Class<?> c = subClass; c != null && c != baseClass; c = c.getSuperclass()) {
+            try {
+                c.getDeclaredMethod(methodName);
+                overridden = true;
+                break;
+            } catch (NoSuchMethodException ignored) {
+                // keep looking in the superclass
+            }
         }
+        cache.putIfAbsent(subClass, overridden);
+        return overridden;
     }
 
 }
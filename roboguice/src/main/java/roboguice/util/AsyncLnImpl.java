@@ -0,0 +1,358 @@
+package roboguice.util;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.inject.Inject;
+
+import android.app.Application;
+import android.util.Log;
+
+/**
+ * An {@link LnInterface} that takes logging off the calling thread.
+ *
+ * Log calls only copy their arguments into a preallocated ring buffer. Formatting the message,
+ * rendering stack traces and writing to {@link android.util.Log} and the optional
+ * {@link LogFileSink} happen later, on a background thread. When the buffer is full, records are
+ * dropped rather than blocking the caller, see {@link #getDroppedCount()}.
+ *
+ * Because formatting is deferred, arguments must not be modified after being logged, and log
+ * methods return 0 instead of the number of bytes written.
+ *
+ * To use it, set the {@code roboguice.ln.async} meta-data to {@code true} in your AndroidManifest.xml.
+ */
+public class AsyncLnImpl extends LnImpl {
+    public static final int DEFAULT_CAPACITY = 1024;
+    protected static final int BATCH_SIZE = 64;
+
+    private final Object lock = new Object();
+    private final Record[] ring;
+    private final int mask;
+    private final Record[] batch = newRecords(BATCH_SIZE);
+    /** Guarded by lock. */
+    private int head;
+    private int size;
+    private long accepted;
+    private long emitted;
+    private boolean drainerWaiting;
+    private int flushWaiters;
+    private Thread drainer;
+
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile LogFileSink fileSink;
+
+    public AsyncLnImpl() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity number of records buffered, rounded up to a power of two
+     */
+    public AsyncLnImpl(int capacity) {
+        this.ring = newRecords(capacityFor(capacity));
+        this.mask = ring.length - 1;
+    }
+
+    @Inject
+    public AsyncLnImpl(Application context) {
+        super(context);
+        this.ring = newRecords(DEFAULT_CAPACITY);
+        this.mask = ring.length - 1;
+    }
+
+    /**
+     * Also writes records to a file, or stops doing so if null.
+     */
+    public void setFileSink(LogFileSink fileSink) {
+        this.fileSink = fileSink;
+    }
+
+    /** The number of records dropped because the buffer was full. */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /** The number of records waiting to be written. */
+    public int getPendingCount() {
+        synchronized (lock) {
+            return size;
+        }
+    }
+
+    /**
+     * Waits until the records logged so far are written, for instance before the process dies.
+     */
+    public void flush() throws InterruptedException {
+        synchronized (lock) {
+            final long target = accepted;
+            ++flushWaiters;
+            try {
+                while( emitted < target ) {
+                    lock.wait();
+                }
+            } finally {
+                --flushWaiters;
+            }
+        }
+    }
+
+    @Override
+    public int v(Throwable t) {
+        return getLoggingLevel() <= Log.VERBOSE ? enqueue(Log.VERBOSE, t, false, null, null) : 0;
+    }
+
+    @Override
+    public int v(Object s1, Object... args) {
+        return getLoggingLevel() <= Log.VERBOSE ? enqueue(Log.VERBOSE, null, true, s1, args) : 0;
+    }
+
+    @Override
+    public int v(Throwable throwable, Object s1, Object[] args) {
+        return getLoggingLevel() <= Log.VERBOSE ? enqueue(Log.VERBOSE, throwable, true, s1, args) : 0;
+    }
+
+    @Override
+    public int d(Throwable t) {
+        return getLoggingLevel() <= Log.DEBUG ? enqueue(Log.DEBUG, t, false, null, null) : 0;
+    }
+
+    @Override
+    public int d(Object s1, Object... args) {
+        return getLoggingLevel() <= Log.DEBUG ? enqueue(Log.DEBUG, null, true, s1, args) : 0;
+    }
+
+    @Override
+    public int d(Throwable throwable, Object s1, Object... args) {
+        return getLoggingLevel() <= Log.DEBUG ? enqueue(Log.DEBUG, throwable, true, s1, args) : 0;
+    }
+
+    @Override
+    public int i(Throwable t) {
+        return getLoggingLevel() <= Log.INFO ? enqueue(Log.INFO, t, false, null, null) : 0;
+    }
+
+    @Override
+    public int i(Throwable throwable, Object s1, Object... args) {
+        return getLoggingLevel() <= Log.INFO ? enqueue(Log.INFO, throwable, true, s1, args) : 0;
+    }
+
+    @Override
+    public int i(Object s1, Object... args) {
+        return getLoggingLevel() <= Log.INFO ? enqueue(Log.INFO, null, true, s1, args) : 0;
+    }
+
+    @Override
+    public int w(Throwable t) {
+        return getLoggingLevel() <= Log.WARN ? enqueue(Log.WARN, t, false, null, null) : 0;
+    }
+
+    @Override
+    public int w(Throwable throwable, Object s1, Object... args) {
+        return getLoggingLevel() <= Log.WARN ? enqueue(Log.WARN, throwable, true, s1, args) : 0;
+    }
+
+    @Override
+    public int w(Object s1, Object... args) {
+        return getLoggingLevel() <= Log.WARN ? enqueue(Log.WARN, null, true, s1, args) : 0;
+    }
+
+    @Override
+    public int e(Throwable t) {
+        return getLoggingLevel() <= Log.ERROR ? enqueue(Log.ERROR, t, false, null, null) : 0;
+    }
+
+    @Override
+    public int e(Throwable throwable, Object s1, Object... args) {
+        return getLoggingLevel() <= Log.ERROR ? enqueue(Log.ERROR, throwable, true, s1, args) : 0;
+    }
+
+    @Override
+    public int e(Object s1, Object... args) {
+        return getLoggingLevel() <= Log.ERROR ? enqueue(Log.ERROR, null, true, s1, args) : 0;
+    }
+
+    /**
+     * Copies a log call into the ring buffer. The tag is resolved here, since it depends on the
+     * calling thread and on the caller's stack frame.
+     */
+    protected int enqueue(int priority, Throwable throwable, boolean hasMessage, Object message, Object[] args) {
+        final boolean debug = getLoggingLevel() <= Log.DEBUG;
+        final String recordTag = getTag();
+        final String threadName = debug ? Thread.currentThread().getName() : null;
+        final long timeMillis = System.currentTimeMillis();
+
+        synchronized (lock) {
+            if( size == ring.length ) {
+                dropped.incrementAndGet();
+                return 0;
+            }
+
+            ring[(head + size) & mask].set(timeMillis, priority, recordTag, threadName, throwable, hasMessage, message, args);
+            ++size;
+            ++accepted;
+
+            if( drainer == null ) {
+                drainer = new Thread(new Drainer(), "roboguice-ln");
+                drainer.setDaemon(true);
+                drainer.start();
+            } else if( drainerWaiting ) {
+                lock.notifyAll();
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Formats a record, the way {@link LnImpl} does on the calling thread.
+     */
+    protected String format(Record record) {
+        final StringBuilder message = new StringBuilder();
+        if( record.threadName != null ) {
+            message.append(record.threadName).append(' ');
+        }
+        if( record.hasMessage ) {
+            message.append(formatArgs(Strings.toString(record.message), record.args));
+            if( record.throwable != null ) {
+                message.append('\n');
+            }
+        }
+        if( record.throwable != null ) {
+            message.append(Log.getStackTraceString(record.throwable));
+        }
+        return message.toString();
+    }
+
+    protected void emit(Record record) {
+        final String message = format(record);
+        Log.println(record.priority, record.tag, message);
+
+        final LogFileSink sink = fileSink;
+        if( sink != null ) {
+            try {
+                sink.write(record.timeMillis, record.priority, record.tag, message);
+            } catch( IOException e ) {
+                fileSink = null;
+                Log.e(tag, "Unable to write log file, disabling it", e);
+            }
+        }
+    }
+
+    private static int capacityFor(int capacity) {
+        int powerOfTwo = 1;
+        while( powerOfTwo < capacity ) {
+            powerOfTwo <<= 1;
+        }
+        return powerOfTwo;
+    }
+
+    private static Record[] newRecords(int capacity) {
+        final Record[] records = new Record[capacity];
+        for( int i = 0; i < capacity; ++i ) {
+            records[i] = new Record();
+        }
+        return records;
+    }
+
+    /**
+     * A reusable slot of the ring buffer.
+     */
+    protected static final class Record {
+        protected long timeMillis;
+        protected int priority;
+        protected String tag;
+        protected String threadName;
+        protected Throwable throwable;
+        protected boolean hasMessage;
+        protected Object message;
+        protected Object[] args;
+
+        void set(long timeMillis, int priority, String tag, String threadName, Throwable throwable, boolean hasMessage, Object message, Object[] args) {
+            this.timeMillis = timeMillis;
+            this.priority = priority;
+            this.tag = tag;
+            this.threadName = threadName;
+            this.throwable = throwable;
+            this.hasMessage = hasMessage;
+            this.message = message;
+            this.args = args;
+        }
+
+        void moveTo(Record other) {
+            other.set(timeMillis, priority, tag, threadName, throwable, hasMessage, message, args);
+            set(0, 0, null, null, null, false, null, null);
+        }
+    }
+
+    /**
+     * Writes records until interrupted while the buffer is empty. On the way out it clears
+     * {@link #drainer} so that the next record starts a new one.
+     */
+    private class Drainer implements Runnable {
+        @Override
+        public void run() {
+            try {
+                drain();
+            } finally {
+                synchronized (lock) {
+                    if( drainer == Thread.currentThread() ) {
+                        drainer = null;
+                    }
+                }
+            }
+        }
+
+        private void drain() {
+            while( true ) {
+                final int count;
+                synchronized (lock) {
+                    while( size == 0 ) {
+                        drainerWaiting = true;
+                        try {
+                            lock.wait();
+                        } catch( InterruptedException e ) {
+                            return;
+                        } finally {
+                            drainerWaiting = false;
+                        }
+                    }
+
+                    count = Math.min(size, batch.length);
+                    for( int i = 0; i < count; ++i ) {
+                        ring[(head + i) & mask].moveTo(batch[i]);
+                    }
+                    head = (head + count) & mask;
+                    size -= count;
+                }
+
+                for( int i = 0; i < count; ++i ) {
+                    try {
+                        emit(batch[i]);
+                    } catch( RuntimeException e ) { // NOPMD - keep draining
+                        // a broken toString() must not stop logging
+                    }
+                    batch[i].set(0, 0, null, null, null, false, null, null);
+                }
+                flushFileSink();
+
+                synchronized (lock) {
+                    emitted += count;
+                    if( flushWaiters > 0 ) {
+                        lock.notifyAll();
+                    }
+                }
+            }
+        }
+
+        private void flushFileSink() {
+            final LogFileSink sink = fileSink;
+            if( sink != null ) {
+                try {
+                    sink.flush();
+                } catch( IOException e ) {
+                    fileSink = null;
+                    Log.e(tag, "Unable to write log file, disabling it", e);
+                }
+            }
+        }
+    }
+}
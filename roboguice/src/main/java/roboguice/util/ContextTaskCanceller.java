@@ -0,0 +1,27 @@
+package roboguice.util;
+
+import roboguice.context.event.OnDestroyEvent;
+import roboguice.event.Observes;
+import roboguice.inject.ContextSingleton;
+
+import com.google.inject.Inject;
+
+import android.content.Context;
+
+/**
+ * Cancels the background tasks a context launched through the {@link TaskExecutor} when the
+ * context is destroyed. {@link RoboAsyncTask} injects it, so its tasks don't outlive their context.
+ */
+@ContextSingleton
+public class ContextTaskCanceller {
+    @Inject protected Context context;
+    @Inject protected TaskExecutor executor;
+
+    public TaskExecutor getExecutor() {
+        return executor;
+    }
+
+    public void cancelTasks( @Observes OnDestroyEvent<?> ignored ) {
+        executor.cancel(context);
+    }
+}
@@ -0,0 +1,130 @@
+package roboguice.util;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+
+/**
+ * Appends log records to a file, in the same layout as {@code logcat -v time}.
+ * Records are buffered and written with a single channel write per buffer. Once the file grows
+ * past its maximum size it is rotated: {@code app.log} becomes {@code app.log.1},
+ * {@code app.log.1} becomes {@code app.log.2} and so on, up to the maximum number of backups.
+ *
+ * Not thread safe, it is meant to be used by the single thread draining {@link AsyncLnImpl}.
+ */
+public class LogFileSink {
+    protected static final int BUFFER_SIZE = 8 * 1024;
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final char[] LEVELS = {'?', '?', 'V', 'D', 'I', 'W', 'E', 'A'};
+
+    protected final File file;
+    protected final long maxFileBytes;
+    protected final int maxBackups;
+
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private final SimpleDateFormat timeFormat = new SimpleDateFormat("MM-dd HH:mm:ss.SSS", Locale.US);
+    private final Date date = new Date();
+    private final StringBuilder line = new StringBuilder();
+    private FileOutputStream out;
+    private FileChannel channel;
+    private long fileBytes;
+
+    /**
+     * @param file the file to append to
+     * @param maxFileBytes size after which the file is rotated
+     * @param maxBackups number of rotated files to keep, 0 to truncate the file instead
+     */
+    public LogFileSink(File file, long maxFileBytes, int maxBackups) {
+        this.file = file;
+        this.maxFileBytes = maxFileBytes;
+        this.maxBackups = maxBackups;
+    }
+
+    public void write(long timeMillis, int priority, String tag, String message) throws IOException {
+        date.setTime(timeMillis);
+        line.setLength(0);
+        line.append(timeFormat.format(date)).append(' ')
+            .append(priority >= 0 && priority < LEVELS.length ? LEVELS[priority] : '?').append('/')
+            .append(tag).append(": ").append(message).append('\n');
+        final byte[] bytes = line.toString().getBytes(UTF_8);
+
+        open();
+        if( fileBytes + buffer.position() + bytes.length > maxFileBytes && fileBytes + buffer.position() > 0 ) {
+            rotate();
+        }
+
+        if( bytes.length > buffer.remaining() ) {
+            writeBuffer();
+        }
+        if( bytes.length > buffer.capacity() ) {
+            fileBytes += channel.write(ByteBuffer.wrap(bytes));
+        } else {
+            buffer.put(bytes);
+        }
+    }
+
+    /**
+     * Writes buffered records to the file.
+     */
+    public void flush() throws IOException {
+        if( channel != null ) {
+            writeBuffer();
+        }
+    }
+
+    public void close() throws IOException {
+        if( channel != null ) {
+            try {
+                writeBuffer();
+            } finally {
+                out.close();
+                out = null;
+                channel = null;
+            }
+        }
+    }
+
+    private void open() throws IOException {
+        if( channel == null ) {
+            out = new FileOutputStream(file, true);
+            channel = out.getChannel();
+            fileBytes = channel.size();
+        }
+    }
+
+    private void writeBuffer() throws IOException {
+        buffer.flip();
+        while( buffer.hasRemaining() ) {
+            fileBytes += channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private void rotate() throws IOException {
+        close();
+        for( int i = maxBackups - 1; i >= 1; --i ) {
+            final File from = new File(file.getPath() + "." + i);
+            if( from.exists() ) {
+                renameTo(from, new File(file.getPath() + "." + (i + 1)));
+            }
+        }
+        if( maxBackups > 0 ) {
+            renameTo(file, new File(file.getPath() + ".1"));
+        } else if( file.exists() && !file.delete() ) {
+            throw new IOException("Unable to truncate " + file);
+        }
+        open();
+    }
+
+    private static void renameTo(File from, File to) throws IOException {
+        if( to.exists() && !to.delete() || !from.renameTo(to) ) {
+            throw new IOException("Unable to rotate " + from + " to " + to);
+        }
+    }
+}
@@ -4,22 +4,31 @@ import java.util.concurrent.Executor;
 
 import roboguice.RoboGuice;
 
+import com.google.inject.Inject;
+
 import android.content.Context;
 import android.os.Handler;
 
+/**
+ * A {@link SafeAsyncTask} bound to a context. Unless given another executor, it runs on the injected
+ * {@link TaskExecutor} and is cancelled when its context is destroyed.
+ */
 @SuppressWarnings("deprecation")
 public abstract class RoboAsyncTask<ResultT> extends SafeAsyncTask<ResultT> {
     protected Context context;
+    @Inject protected ContextTaskCanceller taskCanceller;
 
     protected RoboAsyncTask(Context context) {
         this.context = context;
         RoboGuice.getInjector(context).injectMembers(this);
+        this.executor = taskCanceller.getExecutor();
     }
 
     protected RoboAsyncTask(Context context, Handler handler) {
         super(handler);
         this.context = context;
         RoboGuice.getInjector(context).injectMembers(this);
+        this.executor = taskCanceller.getExecutor();
     }
 
     protected RoboAsyncTask(Context context, Handler handler, Executor executor) {
@@ -37,4 +46,9 @@ public abstract class RoboAsyncTask<ResultT> extends SafeAsyncTask<ResultT> {
     public Context getContext() {
         return context;
     }
+
+    @Override
+    protected Object owner() {
+        return context;
+    }
 }
@@ -1,11 +1,13 @@
 package roboguice.util;
 
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
 import java.util.concurrent.FutureTask;
 
 import android.os.Handler;
+import android.os.Looper;
 import android.util.Log;
 
 /**
@@ -20,21 +22,32 @@ import android.util.Log;
  * hard to add.
  *
  * If using your own executor, you must call future() to get a runnable you can execute.
+ *
+ * Tasks run on the shared {@link TaskExecutor} by default, in the lane given by {@link #priority(TaskPriority)}.
  * 
  * @param <ResultT>
  */
 @Deprecated
 public abstract class SafeAsyncTask<ResultT> implements Callable<ResultT> {
     public static final int DEFAULT_POOL_SIZE = 25;
-    protected static final Executor DEFAULT_EXECUTOR = Executors.newFixedThreadPool(DEFAULT_POOL_SIZE);
+    protected static final Executor DEFAULT_EXECUTOR = TaskExecutor.getDefault();
 
     protected Handler handler;
     protected Executor executor;
     protected FutureTask<Void> future;
+    protected TaskPriority priority = TaskPriority.UI_VISIBLE;
+    /** Where {@link #execute()} was called from, only captured when debug logging is enabled. */
+    protected LaunchSite launchSite;
+
+    /** Whether {@link #execute()} already ran onPreExecute() for the submitted future, and what it threw. */
+    private volatile boolean preExecuted;
+    private volatile Exception preExecuteException;
+
+    static final ConcurrentMap<Class<?>, Boolean> isPreExecuteOverriddenMap = new ConcurrentHashMap<Class<?>, Boolean>();
 
 
     /**
-     * Sets executor to Executors.newFixedThreadPool(DEFAULT_POOL_SIZE) and
+     * Sets executor to TaskExecutor.getDefault() and
      * Handler to new Handler()
      */
     public SafeAsyncTask() {
@@ -42,7 +55,7 @@ public abstract class SafeAsyncTask<ResultT> implements Callable<ResultT> {
     }
 
     /**
-     * Sets executor to Executors.newFixedThreadPool(DEFAULT_POOL_SIZE)
+     * Sets executor to TaskExecutor.getDefault()
      */
     public SafeAsyncTask( Handler handler ) {
         this.handler = handler;
@@ -85,13 +98,81 @@ public abstract class SafeAsyncTask<ResultT> implements Callable<ResultT> {
         return handler;
     }
 
+    /**
+     * Sets the lane this task is queued in, when running on a {@link TaskExecutor}.
+     */
+    public SafeAsyncTask<ResultT> priority( TaskPriority priority ) {
+        this.priority = priority;
+        return this;
+    }
+
+    public TaskPriority priority() {
+        return priority;
+    }
+
+    /**
+     * Runs {@link #onPreExecute()} in the handler's thread, then submits the task to the executor.
+     * No thread of the executor waits for the handler's thread.
+     *
+     * When debug logging is enabled, the launch location is kept unresolved in {@link #launchSite}.
+     */
     public void execute() {
-        final StackTraceElement[] launchLocation = Ln.isDebugEnabled() ? Thread.currentThread().getStackTrace() : null;
-        execute(launchLocation);
+        launchSite = Ln.isDebugEnabled() ? new LaunchSite() : null;
+        final FutureTask<Void> task = future();
+        if( !isPreExecuteOverridden() ) {
+            submit(task);
+            return;
+        }
+
+        final Runnable preExecute = new Runnable() {
+            public void run() {
+                if( task.isCancelled() )
+                    return;
+
+                Exception exception = null;
+                try {
+                    onPreExecute();
+                } catch( Exception e ) {
+                    exception = e;
+                }
+                preExecuteException = exception;
+                preExecuted = true;
+                submit(task);
+            }
+        };
+        final Handler preExecuteHandler = handler!=null ? handler : new Handler(Looper.getMainLooper());
+        if( preExecuteHandler.getLooper()==Looper.myLooper() )
+            preExecute.run();
+        else
+            preExecuteHandler.post(preExecute);
     }
 
+    /**
+     * @param launchLocation ignored, the launch location is kept unresolved in {@link #launchSite}
+     * @deprecated use {@link #execute()}
+     */
+    @Deprecated
     protected void execute( StackTraceElement[] launchLocation ) {
-        executor.execute( future() );
+        execute();
+    }
+
+    protected void submit( FutureTask<Void> task ) {
+        if( executor instanceof TaskExecutor )
+            ((TaskExecutor)executor).execute( task, priority, owner() );
+        else
+            executor.execute( task );
+    }
+
+    protected boolean isPreExecuteOverridden() {
+        return AndroidCallableWrapper.isOverridden(getClass(), SafeAsyncTask.class, "onPreExecute", isPreExecuteOverriddenMap);
+    }
+
+    /**
+     * The object this task works for, whose tasks can be cancelled together with {@link TaskExecutor#cancel(Object)}.
+     * None by default.
+     */
+    protected Object owner() {
+        return null;
     }
 
     public boolean cancel( boolean mayInterruptIfRunning ) {
@@ -143,7 +224,10 @@ public abstract class SafeAsyncTask<ResultT> implements Callable<ResultT> {
     }
 
     protected void onThrowable( Throwable t ) throws RuntimeException {
-        Log.e("roboguice", "Throwable caught during background processing", t);
+        if( launchSite!=null )
+            Log.e("roboguice", "Throwable caught during background processing of task launched from " + launchSite.getCaller(), t);
+        else
+            Log.e("roboguice", "Throwable caught during background processing", t);
     }
 
     /**
@@ -157,7 +241,43 @@ public abstract class SafeAsyncTask<ResultT> implements Callable<ResultT> {
     }
 
 
+    /**
+     * Records where a task was launched from. Only the raw stack is captured when the task is
+     * launched, it is resolved into stack trace elements if the task fails.
+     */
+    protected static class LaunchSite extends Throwable {
+        private static final long serialVersionUID = 1L;
+
+        public LaunchSite() {
+            super("Task launched from here");
+        }
+
+        /**
+         * Returns the class and method that launched the task.
+         */
+        public String getCaller() {
+            for( StackTraceElement element : getStackTrace() ) {
+                if( !element.getClassName().startsWith(SafeAsyncTask.class.getName()) )
+                    return element.getClassName() + "." + element.getMethodName();
+            }
+            return "unknown";
+        }
+    }
+
     public class SafeAsyncTaskAndroidCallable extends AndroidCallable<ResultT> {
+        @Override
+        public void run() {
+            final AndroidCallableWrapper<ResultT> wrapper = new AndroidCallableWrapper<ResultT>(handler, this, creationLocation);
+            if( preExecuted ) {
+                wrapper.preCalled(preExecuteException);
+                preExecuted = false;
+                preExecuteException = null;
+            } else if( !isPreExecuteOverridden() ) {
+                wrapper.preCalled(null);
+            }
+            wrapper.run();
+        }
+
         @Override
         public ResultT doInBackground() throws Exception {
             return call();
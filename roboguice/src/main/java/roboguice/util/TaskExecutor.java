@@ -0,0 +1,240 @@
+package roboguice.util;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.google.inject.ProvidedBy;
+import com.google.inject.Provider;
+
+/**
+ * Runs background tasks on a fixed pool of threads. Queued tasks start by {@link TaskPriority},
+ * then in the order they were submitted.
+ *
+ * Tasks may be submitted on behalf of an owner, usually the context that launched them, so that
+ * they can all be cancelled with {@link #cancel(Object)} once the owner goes away.
+ * {@link ContextTaskCanceller} does so for the tasks of a context when it is destroyed.
+ *
+ * Queue lengths and queueing latencies are kept for each priority, to help tune the pool size
+ * and the priorities of tasks.
+ *
+ * Injecting a TaskExecutor yields the shared {@link #getDefault() default} executor unless another
+ * one is bound, so that injectors without a binding don't each start a pool nothing shuts down.
+ *
+ * @see SafeAsyncTask
+ */
+@ProvidedBy(TaskExecutor.DefaultProvider.class)
+public class TaskExecutor implements Executor {
+    public static final int DEFAULT_POOL_SIZE = 25;
+
+    private static final int PRIORITIES = TaskPriority.values().length;
+
+    protected ThreadPoolExecutor pool;
+
+    private final AtomicLong sequence = new AtomicLong();
+    /** Tasks not finished yet, by owner. Guarded by itself. */
+    private final Map<Object,Set<QueuedTask>> tasksByOwner = new WeakHashMap<Object, Set<QueuedTask>>();
+
+    private final AtomicLongArray queued = new AtomicLongArray(PRIORITIES);
+    private final AtomicLongArray started = new AtomicLongArray(PRIORITIES);
+    private final AtomicLongArray cancelled = new AtomicLongArray(PRIORITIES);
+    private final AtomicLongArray totalQueueNanos = new AtomicLongArray(PRIORITIES);
+    private final AtomicLongArray maxQueueNanos = new AtomicLongArray(PRIORITIES);
+
+    public TaskExecutor() {
+        this(DEFAULT_POOL_SIZE);
+    }
+
+    public TaskExecutor( int poolSize ) {
+        this.pool = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS, new PriorityBlockingQueue<Runnable>());
+    }
+
+    /**
+     * The executor shared by tasks that don't specify one.
+     */
+    public static TaskExecutor getDefault() {
+        return DefaultHolder.INSTANCE;
+    }
+
+    /**
+     * Runs the command with {@link TaskPriority#UI_VISIBLE} priority.
+     */
+    @Override
+    public void execute( Runnable command ) {
+        execute(command, TaskPriority.UI_VISIBLE, null);
+    }
+
+    /**
+     * Runs the command once no task of a higher priority is waiting.
+     *
+     * If the command is a {@link Future}, it is cancelled along with the other tasks of its owner.
+     *
+     * @param owner the object this task works for, or null
+     */
+    public void execute( Runnable command, TaskPriority priority, Object owner ) {
+        final QueuedTask task = new QueuedTask(command, priority, owner, sequence.getAndIncrement());
+        if( owner!=null ) {
+            synchronized (tasksByOwner) {
+                Set<QueuedTask> tasks = tasksByOwner.get(owner);
+                if( tasks==null ) {
+                    tasks = new HashSet<QueuedTask>();
+                    tasksByOwner.put(owner, tasks);
+                }
+                tasks.add(task);
+            }
+        }
+
+        queued.incrementAndGet(priority.ordinal());
+        try {
+            pool.execute(task);
+        } catch( RejectedExecutionException e ) {
+            queued.decrementAndGet(priority.ordinal());
+            unregister(task);
+            throw e;
+        }
+    }
+
+    /**
+     * Cancels the tasks of an owner. Queued tasks are dropped, and running tasks are interrupted
+     * if they are {@link Future}s.
+     */
+    public void cancel( Object owner ) {
+        final Set<QueuedTask> tasks;
+        synchronized (tasksByOwner) {
+            tasks = tasksByOwner.remove(owner);
+        }
+        if( tasks==null )
+            return;
+
+        for( QueuedTask task : tasks ) {
+            if( pool.remove(task) ) {
+                queued.decrementAndGet(task.priority.ordinal());
+                cancelled.incrementAndGet(task.priority.ordinal());
+            }
+            if( task.command instanceof Future )
+                ((Future<?>)task.command).cancel(true);
+        }
+    }
+
+    /**
+     * Stops accepting tasks and interrupts the running ones.
+     */
+    public void shutdownNow() {
+        pool.shutdownNow();
+    }
+
+    /** The number of tasks of this priority waiting for a thread. */
+    public long getQueuedCount( TaskPriority priority ) {
+        return queued.get(priority.ordinal());
+    }
+
+    /** The number of tasks of this priority that were started. */
+    public long getStartedCount( TaskPriority priority ) {
+        return started.get(priority.ordinal());
+    }
+
+    /** The number of tasks of this priority that were cancelled before they started. */
+    public long getCancelledCount( TaskPriority priority ) {
+        return cancelled.get(priority.ordinal());
+    }
+
+    /** The mean time tasks of this priority waited for a thread, in nanoseconds. */
+    public long getAverageQueueNanos( TaskPriority priority ) {
+        final long count = started.get(priority.ordinal());
+        return count==0 ? 0 : totalQueueNanos.get(priority.ordinal()) / count;
+    }
+
+    /** The longest time a task of this priority waited for a thread, in nanoseconds. */
+    public long getMaxQueueNanos( TaskPriority priority ) {
+        return maxQueueNanos.get(priority.ordinal());
+    }
+
+    protected void beforeRun( QueuedTask task ) {
+        final int lane = task.priority.ordinal();
+        final long waited = System.nanoTime() - task.queuedNanos;
+        queued.decrementAndGet(lane);
+        started.incrementAndGet(lane);
+        totalQueueNanos.addAndGet(lane, waited);
+
+        long max;
+        while( waited > (max = maxQueueNanos.get(lane)) ) {
+            if( maxQueueNanos.compareAndSet(lane, max, waited) )
+                break;
+        }
+    }
+
+    private void unregister( QueuedTask task ) {
+        if( task.owner==null )
+            return;
+
+        synchronized (tasksByOwner) {
+            final Set<QueuedTask> tasks = tasksByOwner.get(task.owner);
+            if( tasks!=null ) {
+                tasks.remove(task);
+                if( tasks.isEmpty() )
+                    tasksByOwner.remove(task.owner);
+            }
+        }
+    }
+
+    /**
+     * A command waiting in the pool's priority queue.
+     */
+    protected class QueuedTask implements Runnable, Comparable<QueuedTask> {
+        protected final Runnable command;
+        protected final TaskPriority priority;
+        protected final Object owner;
+        protected final long sequence;
+        protected final long queuedNanos = System.nanoTime();
+
+        QueuedTask( Runnable command, TaskPriority priority, Object owner, long sequence ) {
+            this.command = command;
+            this.priority = priority;
+            this.owner = owner;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public void run() {
+            beforeRun(this);
+            try {
+                command.run();
+            } finally {
+                unregister(this);
+            }
+        }
+
+        @Override
+        public int compareTo( QueuedTask other ) {
+            final int byPriority = priority.compareTo(other.priority);
+            if( byPriority!=0 )
+                return byPriority;
+            return sequence < other.sequence ? -1 : sequence==other.sequence ? 0 : 1;
+        }
+    }
+
+    /**
+     * Provides the {@link #getDefault() default} executor to injectors that don't bind one.
+     */
+    public static class DefaultProvider implements Provider<TaskExecutor> {
+        @Override
+        public TaskExecutor get() {
+            return getDefault();
+        }
+    }
+
+    private static final class DefaultHolder {
+        static final TaskExecutor INSTANCE = new TaskExecutor();
+
+        private DefaultHolder() {}
+    }
+}
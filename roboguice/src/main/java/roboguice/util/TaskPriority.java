@@ -0,0 +1,14 @@
+package roboguice.util;
+
+/**
+ * Lanes of the {@link TaskExecutor}. Queued tasks of a lane only start once no task of a
+ * more important lane is waiting.
+ */
+public enum TaskPriority {
+    /** Work the user is waiting for, such as the content of the current screen. The default. */
+    UI_VISIBLE,
+    /** Work the user will probably need soon, such as the next page of a list. */
+    PREFETCH,
+    /** Work nobody is waiting for, such as cache cleanup or uploads. */
+    MAINTENANCE
+}
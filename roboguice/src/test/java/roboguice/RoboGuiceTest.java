@@ -1,8 +1,16 @@
 package roboguice;
 
 import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.junit.Assert.assertThat;
 
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -10,11 +18,14 @@ import org.robolectric.Robolectric;
 import org.robolectric.RobolectricTestRunner;
 
 import roboguice.activity.RoboActivity;
+import roboguice.inject.RoboInjector;
 
 import com.google.inject.Stage;
 import com.google.inject.AbstractModule;
 
 import android.app.Activity;
+import android.app.Application;
+import android.content.Context;
 
 @RunWith(RobolectricTestRunner.class)
 public class RoboGuiceTest {
@@ -49,6 +60,28 @@ public class RoboGuiceTest {
         assertThat(RoboGuice.injectors.size(), equalTo(0));
     }
 
+    @Test
+    public void getInjectorShouldBeCachedPerContext() {
+        final Activity activity = Robolectric.buildActivity(RoboActivity.class).get();
+        final Activity otherActivity = Robolectric.buildActivity(RoboActivity.class).get();
+        final RoboInjector injector = RoboGuice.getInjector(activity);
+
+        assertThat(RoboGuice.getInjector(otherActivity), not(sameInstance(injector)));
+        assertThat(RoboGuice.getInjector(activity), sameInstance(injector));
+
+        RoboGuice.destroyInjector(activity);
+        assertThat(RoboGuice.getInjector(activity), not(sameInstance(injector)));
+    }
+
+    @Test
+    public void getInjectorShouldFollowApplicationInjector() {
+        final Activity activity = Robolectric.buildActivity(RoboActivity.class).get();
+        final RoboInjector injector = RoboGuice.getInjector(activity);
+
+        RoboGuice.overrideApplicationInjector(Robolectric.application);
+        assertThat(RoboGuice.getInjector(activity), not(sameInstance(injector)));
+    }
+
     // https://github.com/roboguice/roboguice/issues/87
     @Test
     public void shouldOnlyCallConfigureOnce() {
@@ -61,4 +94,42 @@ public class RoboGuiceTest {
         });
         assertThat(i[0],equalTo(1));
     }
+
+    @Test
+    public void injectorImageFingerprintShouldOnlyDependOnDexFiles() throws IOException {
+        final String fingerprint = RoboGuice.getInjectorImageFingerprint(apk("dex", "asset"));
+
+        assertThat(RoboGuice.getInjectorImageFingerprint(apk("dex", "other asset")), equalTo(fingerprint));
+        assertThat(RoboGuice.getInjectorImageFingerprint(apk("rebuilt dex", "asset")), not(equalTo(fingerprint)));
+    }
+
+    @Test
+    public void installedInjectorImageFingerprintShouldBeCachedPerApkVersion() throws IOException {
+        final Application application = Robolectric.application;
+        application.getApplicationInfo().sourceDir = apk("dex", "asset").getPath();
+        final String fingerprint = RoboGuice.getInstalledInjectorImageFingerprint(application);
+        assertThat(fingerprint, equalTo(RoboGuice.getInjectorImageFingerprint(new File(application.getApplicationInfo().sourceDir))));
+
+        // the APK isn't read again until it is updated
+        application.getApplicationInfo().sourceDir = apk("rebuilt dex", "asset").getPath();
+        assertThat(RoboGuice.getInstalledInjectorImageFingerprint(application), equalTo(fingerprint));
+
+        application.getSharedPreferences(RoboGuice.INJECTOR_IMAGE_PREFERENCES, Context.MODE_PRIVATE).edit().putString("apkVersion", "updated").commit();
+        assertThat(RoboGuice.getInstalledInjectorImageFingerprint(application), not(equalTo(fingerprint)));
+    }
+
+    private static File apk(String dex, String asset) throws IOException {
+        final File apk = File.createTempFile("roboguice", ".apk");
+        apk.deleteOnExit();
+        final ZipOutputStream zip = new ZipOutputStream(new FileOutputStream(apk));
+        try {
+            zip.putNextEntry(new ZipEntry("classes.dex"));
+            zip.write(dex.getBytes("UTF-8"));
+            zip.putNextEntry(new ZipEntry("assets/" + RoboGuice.INJECTOR_IMAGE_ASSET));
+            zip.write(asset.getBytes("UTF-8"));
+        } finally {
+            zip.close();
+        }
+        return apk;
+    }
 }
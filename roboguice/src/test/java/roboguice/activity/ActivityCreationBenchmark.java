@@ -0,0 +1,94 @@
+package roboguice.activity;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+
+import roboguice.RoboGuice;
+import roboguice.inject.ContextScopedRoboInjector;
+import roboguice.inject.RoboInjector;
+
+import com.google.inject.Injector;
+import com.sun.management.ThreadMXBean;
+
+import android.app.Activity;
+
+/**
+ * Measures the allocations of creating a {@link RoboActivity} under Robolectric, and compares
+ * {@link RoboGuice#getInjector(android.content.Context)}, which caches the injector of a context, with
+ * allocating a new {@link ContextScopedRoboInjector} per call as it used to.
+ *
+ * Not part of the regular test run, use {@code mvn test -Dtest=ActivityCreationBenchmark}.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class ActivityCreationBenchmark {
+    private static final int WARMUP_ITERATIONS = 200;
+    private static final int ITERATIONS = 1000;
+    private static final int CALLS = 10000;
+
+    private final ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private RoboInjector sink;
+
+    @Before
+    public void setup() {
+        assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+        RoboGuice.getOrCreateBaseApplicationInjector(Robolectric.application);
+    }
+
+    @Test
+    public void activityCreation() {
+        for( int i=0; i<WARMUP_ITERATIONS; ++i )
+            createAndDestroyActivity();
+
+        final long before = allocatedBytes();
+        for( int i=0; i<ITERATIONS; ++i )
+            createAndDestroyActivity();
+
+        report("Activity creation and destruction", (allocatedBytes() - before) / ITERATIONS);
+    }
+
+    @Test
+    public void getInjectorShouldAllocateLessThanNewInjectors() {
+        final Activity activity = Robolectric.buildActivity(RoboActivity.class).create().get();
+        final Injector applicationInjector = RoboGuice.getOrCreateBaseApplicationInjector(Robolectric.application);
+
+        for( int i=0; i<CALLS; ++i ) {
+            sink = RoboGuice.getInjector(activity);
+            sink = new ContextScopedRoboInjector(activity, applicationInjector);
+        }
+
+        long before = allocatedBytes();
+        for( int i=0; i<CALLS; ++i )
+            sink = RoboGuice.getInjector(activity);
+        final long cached = (allocatedBytes() - before) / CALLS;
+
+        before = allocatedBytes();
+        for( int i=0; i<CALLS; ++i )
+            sink = new ContextScopedRoboInjector(activity, applicationInjector);
+        final long uncached = (allocatedBytes() - before) / CALLS;
+
+        report("RoboGuice.getInjector() call", cached);
+        report("new ContextScopedRoboInjector() call", uncached);
+        assertTrue(cached + " bytes per cached call, " + uncached + " bytes per new injector", cached < uncached);
+    }
+
+    private void createAndDestroyActivity() {
+        Robolectric.buildActivity(RoboActivity.class).create().start().resume().pause().stop().destroy();
+    }
+
+    private long allocatedBytes() {
+        return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static void report(String operation, long bytes) {
+        System.out.println(String.format("%s: %d bytes allocated", operation, bytes));
+    }
+}
@@ -3,9 +3,13 @@ package roboguice.util;
 
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -287,6 +291,61 @@ public class AndroidCallableTest {
     }
 
 
+    @Test
+    public void executeShouldNotBlockPoolThreadsOnBusyLooper() throws Exception {
+        final Thread fgThread = Thread.currentThread();
+        final Thread[] bgThread = {null};
+        final Thread[] answers = new Thread[5];
+        final ShadowLooper looper = Robolectric.shadowOf(Looper.getMainLooper());
+        final ExecutorService executor = Executors.newSingleThreadExecutor(new MyThreadFactory(bgThread));
+        final CountDownLatch otherTaskRan = new CountDownLatch(1);
+
+        // Launch from the pool thread, so that onPreCall waits in the ui thread's queue
+        executor.submit(new Runnable() {
+            @Override
+            public void run() {
+                new StringAndroidCallable(answers, false).execute(executor);
+            }
+        });
+        executor.submit(new Runnable() {
+            @Override
+            public void run() {
+                otherTaskRan.countDown();
+            }
+        });
+
+        // The only pool thread is free while the ui thread hasn't run onPreCall yet
+        assertTrue(otherTaskRan.await(2, TimeUnit.SECONDS));
+        assertThat(answers[0], equalTo(null));
+
+        while(answers[answers.length-1]==null)
+            looper.runToEndOfTasks();
+
+        final Thread[] correctAnswer = new Thread[]{fgThread, bgThread[0], null, fgThread, fgThread };
+        assertThat(answers, equalTo(correctAnswer));
+    }
+
+    @Test
+    public void shouldDetectOverriddenOnPreCall() {
+        assertTrue(AndroidCallableWrapper.isPreCallOverriden(StringAndroidCallable.class));
+        assertThat(AndroidCallableWrapper.isPreCallOverriden(NoPreCallAndroidCallable.class), equalTo(false));
+    }
+
+    private static class NoPreCallAndroidCallable extends AndroidCallable<String> {
+        @Override
+        public String doInBackground() throws Exception {
+            return "";
+        }
+
+        @Override
+        public void onException(Exception e) {
+        }
+
+        @Override
+        public void onSuccess(String result) {
+        }
+    }
+
     private static class StringAndroidCallable extends AndroidCallable<String> {
         Thread[] answers;
         boolean shouldThrowException;
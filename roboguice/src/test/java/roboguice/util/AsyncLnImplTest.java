@@ -0,0 +1,108 @@
+package roboguice.util;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import android.util.Log;
+
+@RunWith(RobolectricTestRunner.class)
+public class AsyncLnImplTest {
+
+    @Test
+    public void shouldFormatOnlyEmittedRecords() throws Exception {
+        final AsyncLnImpl ln = new AsyncLnImpl();
+        ln.setLoggingLevel(Log.INFO);
+        final CountingArg arg = new CountingArg();
+
+        ln.d("%s", arg);
+        ln.i("%s", arg);
+        ln.flush();
+
+        assertThat(arg.formatted, equalTo(1));
+    }
+
+    @Test
+    public void shouldFormatOffTheCallingThread() throws Exception {
+        final AsyncLnImpl ln = new AsyncLnImpl();
+        final CountingArg arg = new CountingArg();
+
+        ln.e("%s", arg);
+        ln.flush();
+
+        assertThat(arg.formatted, equalTo(1));
+        assertThat(arg.thread == Thread.currentThread(), equalTo(false));
+    }
+
+    @Test
+    public void shouldDropRecordsWhenFull() throws Exception {
+        final AsyncLnImpl ln = new AsyncLnImpl(2);
+        final BlockingArg blocking = new BlockingArg();
+
+        ln.e("%s", blocking);
+        blocking.formatting.await();
+
+        // the background thread is stuck formatting the first record, so only two more fit
+        for( int i = 0; i < 5; ++i ) {
+            ln.e("record %d", i);
+        }
+        assertThat(ln.getDroppedCount(), equalTo(3L));
+        assertThat(ln.getPendingCount(), equalTo(2));
+
+        blocking.release.countDown();
+        ln.flush();
+        assertThat(ln.getPendingCount(), equalTo(0));
+    }
+
+    @Test
+    public void shouldRestartDrainerAfterInterrupt() throws Exception {
+        final AsyncLnImpl ln = new AsyncLnImpl();
+        final CountingArg first = new CountingArg();
+        ln.e("%s", first);
+        ln.flush();
+
+        first.thread.interrupt();
+        first.thread.join(5000);
+        assertThat(first.thread.isAlive(), equalTo(false));
+
+        final CountingArg second = new CountingArg();
+        ln.e("%s", second);
+        ln.flush();
+
+        assertThat(second.formatted, equalTo(1));
+        assertThat(second.thread == first.thread, equalTo(false));
+    }
+
+    private static class CountingArg {
+        int formatted;
+        Thread thread;
+
+        @Override
+        public String toString() {
+            ++formatted;
+            thread = Thread.currentThread();
+            return "counted";
+        }
+    }
+
+    private static class BlockingArg {
+        final CountDownLatch formatting = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        public String toString() {
+            formatting.countDown();
+            try {
+                release.await();
+            } catch( InterruptedException e ) {
+                Thread.currentThread().interrupt();
+            }
+            return "blocking";
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package roboguice.util;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import android.util.Log;
+
+public class LogFileSinkTest {
+    private File dir;
+    private File file;
+
+    @Before
+    public void setup() throws IOException {
+        dir = File.createTempFile("lnsink", "");
+        assertTrue(dir.delete() && dir.mkdir());
+        file = new File(dir, "app.log");
+    }
+
+    @After
+    public void tearDown() {
+        for( File f : dir.listFiles() ) {
+            f.delete();
+        }
+        dir.delete();
+    }
+
+    @Test
+    public void shouldAppendRecords() throws IOException {
+        final LogFileSink sink = new LogFileSink(file, 1024, 2);
+        sink.write(0, Log.WARN, "TAG", "first");
+        sink.write(0, Log.ERROR, "TAG", "second");
+        sink.close();
+
+        final String[] lines = readLines(file);
+        assertThat(lines.length, equalTo(2));
+        assertTrue(lines[0].endsWith(" W/TAG: first"));
+        assertTrue(lines[1].endsWith(" E/TAG: second"));
+    }
+
+    @Test
+    public void shouldRotateFiles() throws IOException {
+        final LogFileSink sink = new LogFileSink(file, 100, 2);
+        for( int i = 0; i < 10; ++i ) {
+            sink.write(0, Log.INFO, "TAG", "message number " + i);
+        }
+        sink.close();
+
+        assertTrue(new File(dir, "app.log.1").exists());
+        assertTrue(new File(dir, "app.log.2").exists());
+        assertThat(new File(dir, "app.log.3").exists(), equalTo(false));
+        assertTrue(file.length() <= 100);
+
+        final String[] lines = readLines(file);
+        assertTrue(lines[lines.length - 1].endsWith("message number 9"));
+    }
+
+    private static String[] readLines(File file) throws IOException {
+        final StringBuilder content = new StringBuilder();
+        final BufferedReader reader = new BufferedReader(new FileReader(file));
+        try {
+            for( String line = reader.readLine(); line != null; line = reader.readLine() ) {
+                content.append(line).append('\n');
+            }
+        } finally {
+            reader.close();
+        }
+        return content.toString().split("\n");
+    }
+}
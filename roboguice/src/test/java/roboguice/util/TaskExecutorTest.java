@@ -0,0 +1,102 @@
+package roboguice.util;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class TaskExecutorTest {
+    private final TaskExecutor executor = new TaskExecutor(1);
+    private final List<String> ran = Collections.synchronizedList(new ArrayList<String>());
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void shouldRunQueuedTasksByPriority() throws Exception {
+        final CountDownLatch release = blockPool();
+        final CountDownLatch done = new CountDownLatch(4);
+
+        executor.execute(new Recorder("maintenance", done), TaskPriority.MAINTENANCE, null);
+        executor.execute(new Recorder("prefetch", done), TaskPriority.PREFETCH, null);
+        executor.execute(new Recorder("visible 1", done), TaskPriority.UI_VISIBLE, null);
+        executor.execute(new Recorder("visible 2", done));
+        assertThat(executor.getQueuedCount(TaskPriority.UI_VISIBLE), equalTo(2L));
+
+        release.countDown();
+        assertTrue(done.await(2, TimeUnit.SECONDS));
+        assertThat(ran, equalTo((List<String>) newList("visible 1", "visible 2", "prefetch", "maintenance")));
+        assertThat(executor.getQueuedCount(TaskPriority.UI_VISIBLE), equalTo(0L));
+        assertThat(executor.getStartedCount(TaskPriority.MAINTENANCE), equalTo(1L));
+    }
+
+    @Test
+    public void shouldCancelTasksOfOwner() throws Exception {
+        final Object owner = new Object();
+        final CountDownLatch release = blockPool();
+        final CountDownLatch done = new CountDownLatch(1);
+
+        final FutureTask<Void> owned = new FutureTask<Void>(new Recorder("owned", null), null);
+        executor.execute(owned, TaskPriority.UI_VISIBLE, owner);
+        executor.execute(new Recorder("other", done), TaskPriority.MAINTENANCE, new Object());
+        executor.cancel(owner);
+
+        release.countDown();
+        assertTrue(done.await(2, TimeUnit.SECONDS));
+        assertTrue(owned.isCancelled());
+        assertThat(ran, equalTo((List<String>) newList("other")));
+        assertThat(executor.getCancelledCount(TaskPriority.UI_VISIBLE), equalTo(1L));
+    }
+
+    private CountDownLatch blockPool() throws InterruptedException {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                started.countDown();
+                try {
+                    release.await();
+                } catch( InterruptedException e ) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        assertTrue(started.await(2, TimeUnit.SECONDS));
+        return release;
+    }
+
+    private static List<String> newList( String... values ) {
+        final List<String> list = new ArrayList<String>();
+        Collections.addAll(list, values);
+        return list;
+    }
+
+    private class Recorder implements Runnable {
+        private final String name;
+        private final CountDownLatch done;
+
+        Recorder( String name, CountDownLatch done ) {
+            this.name = name;
+            this.done = done;
+        }
+
+        @Override
+        public void run() {
+            ran.add(name);
+            if( done!=null )
+                done.countDown();
+        }
+    }
+}